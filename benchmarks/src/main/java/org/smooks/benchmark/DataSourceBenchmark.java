@@ -0,0 +1,172 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Benchmarks
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.benchmark;
+
+import org.hsqldb.jdbcDriver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.smooks.Smooks;
+import org.smooks.SmooksException;
+import org.smooks.container.ExecutionContext;
+import org.smooks.db.AbstractDataSource;
+import org.smooks.delivery.ordering.Consumer;
+import org.smooks.delivery.sax.SAXElement;
+import org.smooks.delivery.sax.SAXVisitAfter;
+import org.smooks.payload.StringSource;
+import org.smooks.util.HsqlServer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link org.smooks.db.DirectDataSource} benchmark.
+ * <p/>
+ * Filters small messages, each running a query through a <code>ds:direct</code> datasource, with and without the
+ * embedded connection pool, against an in-process (<code>mem</code>) or a local server (<code>hsql</code>) HSQLDB
+ * database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class DataSourceBenchmark {
+
+    private static final String DATASOURCE = "benchmarkDS";
+    private static final String MESSAGE = "<orders><order id='1'/><order id='2'/><order id='3'/></orders>";
+
+    @Param({"mem", "hsql"})
+    public String database;
+
+    @Param({"false", "true"})
+    public boolean pooled;
+
+    private HsqlServer hsqlServer;
+    private Smooks smooks;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        final String url;
+
+        if (database.equals("hsql")) {
+            hsqlServer = new HsqlServer(9995);
+            url = hsqlServer.getUrl();
+        } else {
+            DriverManager.registerDriver(new jdbcDriver());
+            url = "jdbc:hsqldb:mem:DataSourceBenchmark";
+        }
+
+        try (Connection connection = DriverManager.getConnection(url, "sa", ""); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE ORDERS IF EXISTS");
+            statement.execute("CREATE TABLE ORDERS (ID INTEGER, CUSTOMER VARCHAR(20))");
+            statement.execute("INSERT INTO ORDERS VALUES (1, 'Joe')");
+            statement.execute("INSERT INTO ORDERS VALUES (2, 'Jane')");
+            statement.execute("INSERT INTO ORDERS VALUES (3, 'Jim')");
+        }
+
+        final String config = "<smooks-resource-list xmlns=\"https://www.smooks.org/xsd/smooks-1.2.xsd\" xmlns:ds=\"https://www.smooks.org/xsd/smooks/datasource-1.4.xsd\">" +
+                "<ds:direct bindOnElement=\"#document\" datasource=\"" + DATASOURCE + "\" driver=\"org.hsqldb.jdbcDriver\" url=\"" + url + "\" username=\"sa\" password=\"\" autoCommit=\"false\"" +
+                " pooled=\"" + pooled + "\" maxPoolSize=\"4\" statementCacheSize=\"10\"/>" +
+                "<resource-config selector=\"order\"><resource>" + OrderQueryVisitor.class.getName() + "</resource></resource-config>" +
+                "</smooks-resource-list>";
+        smooks = new Smooks(new ByteArrayInputStream(config.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        smooks.close();
+        if (hsqlServer != null) {
+            hsqlServer.stop();
+        }
+    }
+
+    @Benchmark
+    public void filterSource() {
+        smooks.filterSource(new StringSource(MESSAGE));
+    }
+
+    /**
+     * Looks up the order customer.
+     */
+    public static class OrderQueryVisitor implements SAXVisitAfter, Consumer {
+
+        public void visitAfter(SAXElement element, ExecutionContext executionContext) throws SmooksException, IOException {
+            final Connection connection = AbstractDataSource.getConnection(DATASOURCE, executionContext);
+
+            try (PreparedStatement statement = connection.prepareStatement("SELECT CUSTOMER FROM ORDERS WHERE ID = ?")) {
+                statement.setInt(1, Integer.parseInt(element.getAttribute("id")));
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (!resultSet.next()) {
+                        throw new SmooksException("Unknown order " + element.getAttribute("id"));
+                    }
+                }
+            } catch (SQLException e) {
+                throw new SmooksException("Order query failed.", e);
+            }
+        }
+
+        public boolean consumes(Object object) {
+            return object.equals(DATASOURCE);
+        }
+    }
+}
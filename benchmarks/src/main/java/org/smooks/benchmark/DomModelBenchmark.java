@@ -0,0 +1,142 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Benchmarks
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.smooks.FilterSettings;
+import org.smooks.Smooks;
+import org.smooks.SmooksException;
+import org.smooks.container.ExecutionContext;
+import org.smooks.delivery.DOMModel;
+import org.smooks.delivery.DomModelCreator;
+import org.smooks.delivery.sax.SAXElement;
+import org.smooks.delivery.sax.SAXVisitAfter;
+import org.w3c.dom.Element;
+import org.xml.sax.SAXException;
+
+import javax.xml.transform.stream.StreamSource;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DomModelCreator} fragment creation benchmark.
+ * <p/>
+ * SAX filters a generated order message, creating a DOM model for every order item and reading the
+ * item price from the model.  Compares the default read-only fragment model with the W3C DOM model
+ * (<code>mutableModel=true</code>).  The score divided by the number of order items in the message gives
+ * the fragment creation throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class DomModelBenchmark {
+
+    @Param({"false", "true"})
+    public boolean mutableModel;
+
+    @Param({"64KB", "1MB"})
+    public String inputSize;
+
+    private Smooks smooks;
+    private byte[] message;
+    private ModelReader modelReader;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SAXException {
+        String config = "<smooks-resource-list xmlns=\"https://www.smooks.org/xsd/smooks-1.2.xsd\">\n" +
+                "    <resource-config selector=\"order-item\">\n" +
+                "        <resource>" + DomModelCreator.class.getName() + "</resource>\n" +
+                "        <param name=\"mutableModel\">" + mutableModel + "</param>\n" +
+                "    </resource-config>\n" +
+                "</smooks-resource-list>";
+
+        message = OrderMessageInputStream.generate((int) InputSize.parse(inputSize));
+        modelReader = new ModelReader();
+
+        smooks = new Smooks();
+        smooks.setFilterSettings(FilterSettings.DEFAULT_SAX);
+        smooks.addConfigurations(new ByteArrayInputStream(config.getBytes(StandardCharsets.UTF_8)));
+        smooks.addVisitor(modelReader, "order-item");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        smooks.close();
+    }
+
+    @Benchmark
+    public long createModels() {
+        smooks.filterSource(new StreamSource(new ByteArrayInputStream(message)));
+        return modelReader.priceLength;
+    }
+
+    /**
+     * Reads the price from the order item model.
+     */
+    public static class ModelReader implements SAXVisitAfter {
+
+        private long priceLength;
+
+        public void visitAfter(SAXElement element, ExecutionContext executionContext) throws SmooksException {
+            Element orderItem = DOMModel.getModel(executionContext).getModels().get("order-item");
+            priceLength += orderItem.getLastChild().getTextContent().length();
+        }
+    }
+}
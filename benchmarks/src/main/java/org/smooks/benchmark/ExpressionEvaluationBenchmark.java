@@ -0,0 +1,134 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Benchmarks
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.smooks.Smooks;
+import org.smooks.container.ExecutionContext;
+import org.smooks.javabean.context.BeanContext;
+import org.smooks.javabean.expression.BeanMapExpressionEvaluator;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BeanMapExpressionEvaluator} benchmark.
+ * <p/>
+ * Compares evaluating an expression against the bean context through the {@link ExecutionContext} (reusing the
+ * context's MVEL resolver factories) with evaluating it directly against the bean map (creating new resolver
+ * factories for every evaluation).  Compare the "gc.alloc.rate.norm" of the two.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class ExpressionEvaluationBenchmark {
+
+    @Param({"order.quantity > 5 && order.price < 100.0", "VARS.isdef('customer') && order.quantity > 5"})
+    public String expression;
+
+    private Smooks smooks;
+    private ExecutionContext executionContext;
+    private BeanContext beanContext;
+    private BeanMapExpressionEvaluator evaluator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        smooks = new Smooks();
+        executionContext = smooks.createExecutionContext();
+        beanContext = executionContext.getBeanContext();
+        beanContext.addBean("order", new Order(10, 45.5));
+        beanContext.addBean("customer", "Joe");
+        evaluator = new BeanMapExpressionEvaluator(expression);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        smooks.close();
+    }
+
+    @Benchmark
+    public Object executionContext() {
+        return evaluator.getValue(executionContext);
+    }
+
+    @Benchmark
+    public Object beanMap() {
+        return evaluator.exec(beanContext.getBeanMap());
+    }
+
+    /**
+     * Order bean.
+     */
+    public static class Order {
+
+        private final int quantity;
+        private final double price;
+
+        public Order(int quantity, double price) {
+            this.quantity = quantity;
+            this.price = price;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Benchmarks
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.smooks.FilterSettings;
+import org.smooks.Smooks;
+import org.smooks.StreamFilterType;
+import org.xml.sax.SAXException;
+
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Smooks#filterSource(javax.xml.transform.Source, javax.xml.transform.Result...)} benchmark.
+ * <p/>
+ * Drives the SAX and DOM filters with the {@link BenchmarkConfig representative configurations}
+ * over generated order messages, serializing the result to a {@link CountingOutputStream}.
+ * Reports throughput and the sampled latency distribution (incl. p99).  Run through the
+ * {@link BenchmarkRunner} to also get the allocation rate from the GC profiler.
+ * <p/>
+ * Larger inputs can be selected on the command line e.g. <code>-p inputSize=500MB -p filterType=SAX</code>.
+ * Inputs larger than {@link InputSize#MAX_IN_MEMORY_SIZE} are streamed, and are only supported on the
+ * SAX filter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class FilterSourceBenchmark {
+
+    @Param({"SAX", "DOM"})
+    public StreamFilterType filterType;
+
+    @Param({"DEFAULT_SERIALIZATION", "STAR_VISITOR", "CONTEXTUAL_SELECTORS", "DOM_MODEL_CREATOR"})
+    public BenchmarkConfig config;
+
+    @Param({"1KB", "64KB", "1MB"})
+    public String inputSize;
+
+    private Smooks smooks;
+    private long messageSize;
+    private byte[] message;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SAXException {
+        messageSize = InputSize.parse(inputSize);
+        if (messageSize > InputSize.MAX_IN_MEMORY_SIZE) {
+            if (filterType == StreamFilterType.DOM) {
+                throw new IllegalArgumentException("Input size '" + inputSize + "' is not supported on the DOM filter.");
+            }
+        } else {
+            message = OrderMessageInputStream.generate((int) messageSize);
+        }
+
+        smooks = new Smooks();
+        smooks.setFilterSettings(new FilterSettings(filterType));
+        try (InputStream configStream = config.openStream()) {
+            smooks.addConfigurations(configStream);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        smooks.close();
+    }
+
+    @Benchmark
+    public long filterSource() {
+        CountingOutputStream outputStream = new CountingOutputStream();
+
+        smooks.filterSource(new StreamSource(openMessage()), new StreamResult(outputStream));
+
+        return outputStream.getCount();
+    }
+
+    private InputStream openMessage() {
+        if (message != null) {
+            return new ByteArrayInputStream(message);
+        }
+        return new OrderMessageInputStream(messageSize);
+    }
+}
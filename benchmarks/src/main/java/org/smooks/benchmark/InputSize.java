@@ -0,0 +1,91 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Benchmarks
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.benchmark;
+
+/**
+ * Benchmark input size parameter parsing.
+ * <p/>
+ * Sizes are expressed as a number followed by an optional "B", "KB", "MB" or "GB" unit
+ * e.g. "1KB", "500MB".
+ */
+public final class InputSize {
+
+    /**
+     * Inputs larger than this are streamed from an {@link OrderMessageInputStream}
+     * instead of being pre-generated into memory.
+     */
+    public static final long MAX_IN_MEMORY_SIZE = 64L * 1024 * 1024;
+
+    private InputSize() {
+    }
+
+    /**
+     * Parse the supplied size string.
+     *
+     * @param size The size string.
+     * @return The size in bytes.
+     */
+    public static long parse(String size) {
+        String normalized = size.trim().toUpperCase();
+        long multiplier = 1;
+
+        if (normalized.endsWith("GB")) {
+            multiplier = 1024L * 1024 * 1024;
+            normalized = normalized.substring(0, normalized.length() - 2);
+        } else if (normalized.endsWith("MB")) {
+            multiplier = 1024L * 1024;
+            normalized = normalized.substring(0, normalized.length() - 2);
+        } else if (normalized.endsWith("KB")) {
+            multiplier = 1024L;
+            normalized = normalized.substring(0, normalized.length() - 2);
+        } else if (normalized.endsWith("B")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+
+        try {
+            return Long.parseLong(normalized.trim()) * multiplier;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid input size '" + size + "'.  Expected a size such as '1KB', '64KB' or '500MB'.", e);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Benchmarks
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.smooks.FilterSettings;
+import org.smooks.Smooks;
+import org.smooks.StreamFilterType;
+import org.smooks.payload.JavaResult;
+import org.smooks.payload.JavaSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JavaSource} to {@link JavaResult} benchmark.
+ * <p/>
+ * Streams an order bean, holding a list of order item beans, through the filter as a Java event stream.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class JavaSourceBenchmark {
+
+    @Param({"SAX", "DOM"})
+    public StreamFilterType filterType;
+
+    @Param({"10", "1000"})
+    public int itemCount;
+
+    private Smooks smooks;
+    private Order order;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<OrderItem> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            items.add(new OrderItem(i, 100000 + i, i % 10 + 1, (i % 100) + 0.9));
+        }
+        order = new Order(1, items);
+
+        smooks = new Smooks();
+        smooks.setFilterSettings(new FilterSettings(filterType));
+        smooks.addVisitor(new BenchmarkVisitor(), "product");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        smooks.close();
+    }
+
+    @Benchmark
+    public JavaResult filterSource() {
+        JavaResult result = new JavaResult();
+
+        smooks.filterSource(new JavaSource(order), result);
+
+        return result;
+    }
+
+    /**
+     * Order bean.
+     */
+    public static class Order {
+
+        private final int id;
+        private final List<OrderItem> items;
+
+        public Order(int id, List<OrderItem> items) {
+            this.id = id;
+            this.items = items;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public List<OrderItem> getItems() {
+            return items;
+        }
+    }
+
+    /**
+     * Order item bean.
+     */
+    public static class OrderItem {
+
+        private final int id;
+        private final long product;
+        private final int quantity;
+        private final double price;
+
+        public OrderItem(int id, long product, int quantity, double price) {
+            this.id = id;
+            this.product = product;
+            this.quantity = quantity;
+            this.price = price;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public long getProduct() {
+            return product;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Benchmarks
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.smooks.config.Configurable;
+import org.smooks.converter.TypeConverter;
+import org.smooks.converter.factory.system.NumberTypeConverter;
+import org.smooks.converter.factory.system.StringToDoubleConverterFactory;
+
+import java.text.NumberFormat;
+import java.text.ParseException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Locale/format configured String to Double conversion benchmark.
+ * <p/>
+ * Compares the converter (parsing through its compiled number format) with parsing through a clone of the
+ * converter's {@link NumberFormat}, as needed for thread-safe use of the {@link NumberFormat}.  The converter is
+ * shared by all benchmark threads, so run with e.g. "-t 4" to check scaling.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class NumberConversionBenchmark {
+
+    @Param({"de-DE", "en-IE"})
+    public String locale;
+
+    private TypeConverter<String, Double> typeConverter;
+    private NumberFormat numberFormat;
+    private String value;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Properties config = new Properties();
+
+        config.setProperty(NumberTypeConverter.LOCALE, locale);
+        config.setProperty(NumberTypeConverter.FORMAT, "#,##0.00");
+        typeConverter = new StringToDoubleConverterFactory().createTypeConverter();
+        ((Configurable) typeConverter).setConfiguration(config);
+
+        numberFormat = ((NumberTypeConverter<?, ?>) typeConverter).getNumberFormat();
+        value = numberFormat.format(1234567.89);
+    }
+
+    @Benchmark
+    public Double converter() {
+        return typeConverter.convert(value);
+    }
+
+    @Benchmark
+    public Number clonedNumberFormat() throws ParseException {
+        return ((NumberFormat) numberFormat.clone()).parse(value);
+    }
+}
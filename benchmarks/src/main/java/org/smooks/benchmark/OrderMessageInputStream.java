@@ -0,0 +1,168 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Benchmarks
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Synthetic order message {@link InputStream}.
+ * <p/>
+ * Generates an order message of (approximately) the requested size on the fly, so
+ * very large inputs can be streamed through Smooks without holding them in memory.
+ * Message shape:
+ * <pre>
+ * &lt;order id="1"&gt;
+ *     &lt;header&gt;&lt;customer number="123"&gt;Joe&lt;/customer&gt;&lt;date&gt;...&lt;/date&gt;&lt;/header&gt;
+ *     &lt;order-items&gt;
+ *         &lt;order-item id="0"&gt;&lt;product&gt;..&lt;/product&gt;&lt;quantity&gt;..&lt;/quantity&gt;&lt;price&gt;..&lt;/price&gt;&lt;/order-item&gt;
+ *         ...
+ *     &lt;/order-items&gt;
+ * &lt;/order&gt;
+ * </pre>
+ */
+public class OrderMessageInputStream extends InputStream {
+
+    private static final byte[] HEADER = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+            "<order id=\"1\">\n" +
+            "    <header>\n" +
+            "        <customer number=\"123\">Joe &amp; Sons</customer>\n" +
+            "        <date>2020-07-01T10:15:30</date>\n" +
+            "    </header>\n" +
+            "    <order-items>\n").getBytes(StandardCharsets.UTF_8);
+    private static final byte[] FOOTER = ("    </order-items>\n" +
+            "</order>\n").getBytes(StandardCharsets.UTF_8);
+
+    private final long targetSize;
+    private long generated;
+    private int itemIndex;
+    private byte[] chunk = HEADER;
+    private int chunkPos;
+    private boolean footerGenerated;
+
+    /**
+     * Public constructor.
+     *
+     * @param targetSize The (approximate) message size in bytes.  The message is always
+     *                   well formed, so it may slightly exceed this size.
+     */
+    public OrderMessageInputStream(long targetSize) {
+        this.targetSize = targetSize;
+    }
+
+    /**
+     * Generate a complete order message into a byte array.
+     *
+     * @param targetSize The (approximate) message size in bytes.
+     * @return The message bytes.
+     */
+    public static byte[] generate(int targetSize) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(targetSize + 256);
+        byte[] buffer = new byte[8192];
+        int readCount;
+
+        try (InputStream messageStream = new OrderMessageInputStream(targetSize)) {
+            while ((readCount = messageStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, readCount);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Unexpected IOException generating order message.", e);
+        }
+
+        return outputStream.toByteArray();
+    }
+
+    @Override
+    public int read() {
+        if (!nextChunk()) {
+            return -1;
+        }
+        return chunk[chunkPos++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) {
+        if (length == 0) {
+            return 0;
+        }
+        if (!nextChunk()) {
+            return -1;
+        }
+
+        int readCount = Math.min(length, chunk.length - chunkPos);
+        System.arraycopy(chunk, chunkPos, buffer, offset, readCount);
+        chunkPos += readCount;
+
+        return readCount;
+    }
+
+    private boolean nextChunk() {
+        if (chunkPos < chunk.length) {
+            return true;
+        }
+        if (footerGenerated) {
+            return false;
+        }
+
+        generated += chunk.length;
+        if (generated + FOOTER.length >= targetSize && itemIndex > 0) {
+            chunk = FOOTER;
+            footerGenerated = true;
+        } else {
+            chunk = createItem(itemIndex++);
+        }
+        chunkPos = 0;
+
+        return true;
+    }
+
+    private static byte[] createItem(int index) {
+        return ("        <order-item id=\"" + index + "\">\n" +
+                "            <product>" + (100000 + index) + "</product>\n" +
+                "            <quantity>" + (index % 10 + 1) + "</quantity>\n" +
+                "            <price>" + (index % 100) + ".90</price>\n" +
+                "        </order-item>\n").getBytes(StandardCharsets.UTF_8);
+    }
+}
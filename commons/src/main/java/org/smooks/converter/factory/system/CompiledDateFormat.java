@@ -0,0 +1,373 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Commons
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.converter.factory.system;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Precompiled fixed width date/time pattern parser.
+ * <p/>
+ * Numeric, fixed width {@link java.time.format.DateTimeFormatter} patterns, such as "yyyyMMdd", "yyyy-MM-dd" and
+ * "yyyy-MM-dd'T'HH:mm:ss.SSS", are analyzed once and parsed character by character, straight to epoch milliseconds.
+ * The zone offset is cached for the period between the zone's transitions (DST changes etc) in which the last
+ * value fell.
+ * <p/>
+ * Values are only parsed by the compiled parser if they're unambiguous and valid e.g. a day of month beyond the end
+ * of the month (which the formatter may resolve to the last day of the month), or a local time falling into a zone
+ * transition gap or overlap, is handed back to the caller for parsing through the {@link java.time.format.DateTimeFormatter}.
+ */
+public final class CompiledDateFormat {
+
+    /**
+     * Returned by {@link #parse(CharSequence)} for values that need to be parsed by the
+     * {@link java.time.format.DateTimeFormatter}.
+     */
+    public static final long FALLBACK = Long.MIN_VALUE;
+
+    private static final int[] DAYS_IN_MONTH = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+    private static final int[] NANOS_SCALE = {0, 100000000, 10000000, 1000000, 100000, 10000, 1000, 100, 10, 1};
+
+    private final Field[] fields;
+    private final String text;
+    private final boolean hasDate;
+    private final boolean hasTime;
+    private final ZoneRules zoneRules;
+    private final ZoneId zoneId;
+    private final long epochLocalDay;
+    private volatile OffsetWindow offsetWindow;
+
+    private CompiledDateFormat(final Field[] fields, final String text, final boolean hasDate, final boolean hasTime, final ZoneId zoneId) {
+        this.fields = fields;
+        this.text = text;
+        this.hasDate = hasDate;
+        this.hasTime = hasTime;
+        this.zoneId = zoneId;
+        this.zoneRules = zoneId.getRules();
+        // Time only values are on the local date of the epoch...
+        this.epochLocalDay = Instant.ofEpochMilli(0L).atZone(zoneId).toLocalDate().toEpochDay();
+        if (zoneRules.isFixedOffset()) {
+            offsetWindow = new OffsetWindow(Long.MIN_VALUE, Long.MAX_VALUE, zoneRules.getOffset(Instant.EPOCH).getTotalSeconds());
+        }
+    }
+
+    /**
+     * Compile the supplied pattern.
+     * @param pattern The {@link java.time.format.DateTimeFormatter} pattern.
+     * @param zoneId The zone of the local date/time values.
+     * @return The {@link CompiledDateFormat}, or null if the pattern can't be compiled.
+     */
+    public static CompiledDateFormat compile(final String pattern, final ZoneId zoneId) {
+        final List<Field> fields = new ArrayList<>();
+        final StringBuilder text = new StringBuilder();
+        final int length = pattern.length();
+        int fieldMask = 0;
+
+        for (int i = 0; i < length; ) {
+            final char ch = pattern.charAt(i);
+
+            if ((ch >= 'A' && ch <= 'Z') || (ch >= 'a' && ch <= 'z')) {
+                int count = 1;
+                while (i + count < length && pattern.charAt(i + count) == ch) {
+                    count++;
+                }
+
+                final FieldType fieldType = FieldType.of(ch, count);
+                if (fieldType == null || (fieldMask & fieldType.mask) != 0) {
+                    return null;
+                }
+                if (fieldType == FieldType.FRACTION && !fields.isEmpty() && fields.get(fields.size() - 1).type != null) {
+                    // Fractions don't take part in the formatter's adjacent value parsing...
+                    return null;
+                }
+                fieldMask |= fieldType.mask;
+                fields.add(new Field(fieldType, text.length(), count));
+                for (int j = 0; j < count; j++) {
+                    text.append('0');
+                }
+                i += count;
+            } else if (ch == '\'') {
+                final int end = pattern.indexOf('\'', i + 1);
+                if (end == -1) {
+                    return null;
+                } else if (end == i + 1) {
+                    text.append('\'');
+                } else {
+                    final String literal = pattern.substring(i + 1, end);
+                    if (literal.indexOf('\'') != -1) {
+                        return null;
+                    }
+                    for (int j = 0; j < literal.length(); j++) {
+                        fields.add(new Field(null, text.length(), 1));
+                        text.append(literal.charAt(j));
+                    }
+                }
+                i = end + 1;
+            } else if (ch == '[' || ch == ']' || ch == '{' || ch == '}' || ch == '#') {
+                return null;
+            } else {
+                fields.add(new Field(null, text.length(), 1));
+                text.append(ch);
+                i++;
+            }
+        }
+
+        final int dateMask = FieldType.YEAR.mask | FieldType.MONTH.mask | FieldType.DAY.mask;
+        final int timeMask = fieldMask & ~dateMask;
+        final boolean hasDate = (fieldMask & dateMask) != 0;
+        final boolean hasTime = timeMask != 0;
+
+        if (hasDate && (fieldMask & dateMask) != dateMask) {
+            return null;
+        }
+        if (hasTime && timeMask != (FieldType.HOUR.mask | FieldType.MINUTE.mask)
+                && timeMask != (FieldType.HOUR.mask | FieldType.MINUTE.mask | FieldType.SECOND.mask)
+                && timeMask != (FieldType.HOUR.mask | FieldType.MINUTE.mask | FieldType.SECOND.mask | FieldType.FRACTION.mask)) {
+            return null;
+        }
+        if (!hasDate && !hasTime) {
+            return null;
+        }
+
+        return new CompiledDateFormat(fields.toArray(new Field[0]), text.toString(), hasDate, hasTime, zoneId);
+    }
+
+    /**
+     * Parse the supplied value.
+     * @param value The value.
+     * @return The epoch milliseconds, or {@link #FALLBACK} if the value needs to be parsed by the
+     * {@link java.time.format.DateTimeFormatter}.
+     */
+    public long parse(final CharSequence value) {
+        int start = 0;
+        int end = value.length();
+        while (start < end && value.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (end - start != text.length()) {
+            return FALLBACK;
+        }
+
+        int year = 0, month = 0, day = 0, hour = 0, minute = 0, second = 0, nanos = 0;
+        for (final Field field : fields) {
+            final int offset = start + field.offset;
+
+            if (field.type == null) {
+                if (value.charAt(offset) != text.charAt(field.offset)) {
+                    return FALLBACK;
+                }
+                continue;
+            }
+
+            int number = 0;
+            for (int i = 0; i < field.width; i++) {
+                final int digit = value.charAt(offset + i) - '0';
+                if (digit < 0 || digit > 9) {
+                    return FALLBACK;
+                }
+                number = number * 10 + digit;
+            }
+
+            switch (field.type) {
+                case YEAR:
+                    year = number;
+                    break;
+                case MONTH:
+                    month = number;
+                    break;
+                case DAY:
+                    day = number;
+                    break;
+                case HOUR:
+                    hour = number;
+                    break;
+                case MINUTE:
+                    minute = number;
+                    break;
+                case SECOND:
+                    second = number;
+                    break;
+                default:
+                    nanos = number * NANOS_SCALE[field.width];
+                    break;
+            }
+        }
+
+        final long epochDay;
+        if (hasDate) {
+            if (year < 1 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+                return FALLBACK;
+            }
+            epochDay = toEpochDay(year, month, day);
+        } else {
+            epochDay = epochLocalDay;
+        }
+        if (hasTime && (hour > 23 || minute > 59 || second > 59)) {
+            return FALLBACK;
+        }
+
+        final long localSeconds = epochDay * 86400 + hour * 3600 + minute * 60 + second;
+        final long offsetSeconds = getOffsetSeconds(localSeconds);
+
+        return (localSeconds - offsetSeconds) * 1000 + nanos / 1000000;
+    }
+
+    private long getOffsetSeconds(final long localSeconds) {
+        final OffsetWindow offsetWindow = this.offsetWindow;
+
+        if (offsetWindow != null && localSeconds >= offsetWindow.start && localSeconds < offsetWindow.end) {
+            return offsetWindow.offsetSeconds;
+        }
+
+        // Resolve the offset as ZonedDateTime would, and cache it for the local times between the
+        // neighbouring transitions (excluding their gaps and overlaps)...
+        final ZonedDateTime zonedDateTime = LocalDateTime.ofEpochSecond(localSeconds, 0, ZoneOffset.UTC).atZone(zoneId);
+        final long epochSecond = zonedDateTime.toEpochSecond();
+        final int offsetSeconds = zonedDateTime.getOffset().getTotalSeconds();
+        final ZoneOffsetTransition previousTransition = zoneRules.previousTransition(Instant.ofEpochSecond(epochSecond + 1));
+        final ZoneOffsetTransition nextTransition = zoneRules.nextTransition(Instant.ofEpochSecond(epochSecond));
+        final long start = (previousTransition == null ? Long.MIN_VALUE : previousTransition.toEpochSecond()
+                + Math.max(previousTransition.getOffsetBefore().getTotalSeconds(), previousTransition.getOffsetAfter().getTotalSeconds()));
+        final long end = (nextTransition == null ? Long.MAX_VALUE : nextTransition.toEpochSecond()
+                + Math.min(nextTransition.getOffsetBefore().getTotalSeconds(), nextTransition.getOffsetAfter().getTotalSeconds()));
+
+        if (localSeconds >= start && localSeconds < end) {
+            this.offsetWindow = new OffsetWindow(start, end, offsetSeconds);
+        }
+
+        // Local times in a gap are shifted forward by the length of the gap...
+        return localSeconds - epochSecond;
+    }
+
+    private static int lengthOfMonth(final int year, final int month) {
+        if (month == 2 && (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0)) {
+            return 29;
+        }
+        return DAYS_IN_MONTH[month - 1];
+    }
+
+    private static long toEpochDay(final int year, final int month, final int day) {
+        // Proleptic Gregorian days since 1970-01-01 (as LocalDate.toEpochDay)...
+        final long y = (month <= 2 ? year - 1 : year);
+        final long era = (y >= 0 ? y : y - 399) / 400;
+        final long yearOfEra = y - era * 400;
+        final long dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        final long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    private enum FieldType {
+        YEAR(1),
+        MONTH(2),
+        DAY(4),
+        HOUR(8),
+        MINUTE(16),
+        SECOND(32),
+        FRACTION(64);
+
+        private final int mask;
+
+        FieldType(final int mask) {
+            this.mask = mask;
+        }
+
+        private static FieldType of(final char letter, final int count) {
+            switch (letter) {
+                case 'y':
+                case 'u':
+                    return (count == 4 ? YEAR : null);
+                case 'M':
+                    return (count == 2 ? MONTH : null);
+                case 'd':
+                    return (count == 2 ? DAY : null);
+                case 'H':
+                    return (count == 2 ? HOUR : null);
+                case 'm':
+                    return (count == 2 ? MINUTE : null);
+                case 's':
+                    return (count == 2 ? SECOND : null);
+                case 'S':
+                    return (count <= 9 ? FRACTION : null);
+                default:
+                    return null;
+            }
+        }
+    }
+
+    private static final class Field {
+
+        private final FieldType type;
+        private final int offset;
+        private final int width;
+
+        private Field(final FieldType type, final int offset, final int width) {
+            this.type = type;
+            this.offset = offset;
+            this.width = width;
+        }
+    }
+
+    private static final class OffsetWindow {
+
+        private final long start;
+        private final long end;
+        private final long offsetSeconds;
+
+        private OffsetWindow(final long start, final long end, final long offsetSeconds) {
+            this.start = start;
+            this.end = end;
+            this.offsetSeconds = offsetSeconds;
+        }
+    }
+}
@@ -0,0 +1,356 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Commons
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.converter.factory.system;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.text.ParseException;
+
+/**
+ * Thread-safe {@link NumberFormat} based number parser.
+ * <p/>
+ * The prefixes, suffixes, separators and multiplier of a configured {@link DecimalFormat} are compiled into
+ * immutable state, so {@link CharSequence} values can be parsed straight to primitives, without parsing through
+ * (and having to clone or synchronize) the {@link NumberFormat} instance.  The results match those of
+ * {@link NumberFormat#parse(String)} (on the trimmed value), followed by the corresponding {@link Number} primitive
+ * accessor.
+ * <p/>
+ * Values the compiled parser doesn't handle (exponents, NaN, infinity, more than 15 or so significant digits, or a
+ * {@link NumberFormat} that isn't a {@link DecimalFormat}) are parsed through a per-thread clone of the
+ * {@link NumberFormat} instance.  Formatting always goes through the per-thread clone.
+ */
+public final class CompiledNumberFormat {
+
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final double FALLBACK = Double.NaN;
+
+    private final NumberFormat numberFormat;
+    private final ThreadLocal<NumberFormat> threadNumberFormat;
+    private final boolean compiled;
+    private final String positivePrefix;
+    private final String positiveSuffix;
+    private final String negativePrefix;
+    private final String negativeSuffix;
+    private final char zeroDigit;
+    private final char decimalSeparator;
+    private final char groupingSeparator;
+    private final boolean groupingUsed;
+    private final boolean parseIntegerOnly;
+    private final int multiplier;
+    private final String exponentSeparator;
+    private final String nan;
+    private final String infinity;
+
+    /**
+     * Compile the supplied {@link NumberFormat}.
+     * <p/>
+     * The {@link NumberFormat} instance must not be modified after it's compiled.
+     * @param numberFormat The {@link NumberFormat} instance.
+     */
+    public CompiledNumberFormat(final NumberFormat numberFormat) {
+        this.numberFormat = numberFormat;
+        this.threadNumberFormat = ThreadLocal.withInitial(() -> (NumberFormat) numberFormat.clone());
+
+        if (numberFormat instanceof DecimalFormat && !((DecimalFormat) numberFormat).isParseBigDecimal()) {
+            final DecimalFormat decimalFormat = (DecimalFormat) numberFormat;
+            final DecimalFormatSymbols symbols = decimalFormat.getDecimalFormatSymbols();
+
+            compiled = true;
+            positivePrefix = decimalFormat.getPositivePrefix();
+            positiveSuffix = decimalFormat.getPositiveSuffix();
+            negativePrefix = decimalFormat.getNegativePrefix();
+            negativeSuffix = decimalFormat.getNegativeSuffix();
+            zeroDigit = symbols.getZeroDigit();
+            // DecimalFormat parses currency formats using the monetary decimal separator...
+            decimalSeparator = (decimalFormat.toPattern().indexOf('\u00A4') != -1 ? symbols.getMonetaryDecimalSeparator() : symbols.getDecimalSeparator());
+            groupingSeparator = symbols.getGroupingSeparator();
+            groupingUsed = decimalFormat.isGroupingUsed();
+            parseIntegerOnly = decimalFormat.isParseIntegerOnly();
+            multiplier = decimalFormat.getMultiplier();
+            exponentSeparator = symbols.getExponentSeparator();
+            nan = symbols.getNaN();
+            infinity = symbols.getInfinity();
+        } else {
+            compiled = false;
+            positivePrefix = positiveSuffix = negativePrefix = negativeSuffix = null;
+            zeroDigit = decimalSeparator = groupingSeparator = 0;
+            groupingUsed = parseIntegerOnly = false;
+            multiplier = 1;
+            exponentSeparator = nan = infinity = null;
+        }
+    }
+
+    /**
+     * Get the compiled {@link NumberFormat} instance.
+     * <p/>
+     * The instance is not thread-safe and must not be used to parse or format values.
+     * @return The compiled {@link NumberFormat} instance.
+     */
+    public NumberFormat getNumberFormat() {
+        return numberFormat;
+    }
+
+    public double parseDouble(final CharSequence value) throws ParseException {
+        final double number = scan(value);
+        if (number != number) {
+            return parseNumber(value).doubleValue();
+        }
+        return number;
+    }
+
+    public float parseFloat(final CharSequence value) throws ParseException {
+        final double number = scan(value);
+        if (number != number) {
+            return parseNumber(value).floatValue();
+        }
+        return (float) number;
+    }
+
+    public long parseLong(final CharSequence value) throws ParseException {
+        final double number = scan(value);
+        if (number != number) {
+            return parseNumber(value).longValue();
+        }
+        return (long) number;
+    }
+
+    public int parseInt(final CharSequence value) throws ParseException {
+        final double number = scan(value);
+        if (number != number) {
+            return parseNumber(value).intValue();
+        }
+        // Integral values are Long instances when parsed by DecimalFormat...
+        return (number == (long) number ? (int) (long) number : (int) number);
+    }
+
+    public short parseShort(final CharSequence value) throws ParseException {
+        final double number = scan(value);
+        if (number != number) {
+            return parseNumber(value).shortValue();
+        }
+        return (number == (long) number ? (short) (long) number : (short) (int) number);
+    }
+
+    /**
+     * Parse the supplied value to a {@link Number}, as returned by {@link NumberFormat#parse(String)}.
+     * @param value The value.
+     * @return The {@link Number}.
+     * @throws ParseException Unable to parse the value.
+     */
+    public Number parse(final CharSequence value) throws ParseException {
+        final double number = scan(value);
+        if (number != number) {
+            return parseNumber(value);
+        }
+        if (number == (long) number && (number != 0 || 1 / number > 0)) {
+            return (long) number;
+        }
+        return number;
+    }
+
+    public String format(final Object value) {
+        return threadNumberFormat.get().format(value);
+    }
+
+    private Number parseNumber(final CharSequence value) throws ParseException {
+        return threadNumberFormat.get().parse(value.toString().trim());
+    }
+
+    /**
+     * Scan the supplied value.
+     * @param value The value.
+     * @return The number, or {@link #FALLBACK} if the value needs to be parsed by the {@link NumberFormat} instance.
+     * @throws ParseException Unable to parse the value.
+     */
+    private double scan(final CharSequence value) throws ParseException {
+        if (!compiled) {
+            return FALLBACK;
+        }
+
+        int start = 0;
+        int end = value.length();
+        while (start < end && value.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        if (regionMatches(value, start, end, nan)) {
+            return FALLBACK;
+        }
+
+        boolean gotPositive = regionMatches(value, start, end, positivePrefix);
+        boolean gotNegative = regionMatches(value, start, end, negativePrefix);
+        if (gotPositive && gotNegative) {
+            // The longest prefix wins...
+            if (positivePrefix.length() > negativePrefix.length()) {
+                gotNegative = false;
+            } else if (positivePrefix.length() < negativePrefix.length()) {
+                gotPositive = false;
+            }
+        }
+
+        int position;
+        if (gotPositive) {
+            position = start + positivePrefix.length();
+        } else if (gotNegative) {
+            position = start + negativePrefix.length();
+        } else {
+            throw unparseable(value, start, end);
+        }
+
+        if (regionMatches(value, position, end, infinity)) {
+            return FALLBACK;
+        }
+
+        long mantissa = 0;
+        int scale = 0;
+        boolean sawDigit = false;
+        boolean sawDecimal = false;
+        int backup = -1;
+
+        for (; position < end; position++) {
+            final char ch = value.charAt(position);
+            int digit = ch - zeroDigit;
+
+            if (digit < 0 || digit > 9) {
+                digit = Character.digit(ch, 10);
+            }
+            if (digit >= 0) {
+                if (mantissa > (MAX_EXACT_MANTISSA - digit) / 10) {
+                    return FALLBACK;
+                }
+                mantissa = mantissa * 10 + digit;
+                if (sawDecimal) {
+                    scale++;
+                }
+                sawDigit = true;
+                backup = -1;
+            } else if (ch == decimalSeparator) {
+                if (parseIntegerOnly || sawDecimal) {
+                    break;
+                }
+                sawDecimal = true;
+            } else if (ch == groupingSeparator && groupingUsed) {
+                if (sawDecimal) {
+                    break;
+                }
+                // Back up to the separator if it's not followed by a digit...
+                backup = position;
+            } else if (regionMatches(value, position, end, exponentSeparator)) {
+                return FALLBACK;
+            } else {
+                break;
+            }
+        }
+        if (backup != -1) {
+            position = backup;
+        }
+        if (!sawDigit) {
+            throw unparseable(value, start, end);
+        }
+
+        if (gotPositive) {
+            gotPositive = regionMatches(value, position, end, positiveSuffix);
+        }
+        if (gotNegative) {
+            gotNegative = regionMatches(value, position, end, negativeSuffix);
+        }
+        if (gotPositive && gotNegative) {
+            // The longest suffix wins...
+            if (positiveSuffix.length() > negativeSuffix.length()) {
+                gotNegative = false;
+            } else if (positiveSuffix.length() < negativeSuffix.length()) {
+                gotPositive = false;
+            }
+        }
+        if (gotPositive == gotNegative) {
+            throw unparseable(value, start, end);
+        }
+
+        while (scale > 0 && mantissa % 10 == 0) {
+            mantissa /= 10;
+            scale--;
+        }
+        if (scale >= POWERS_OF_TEN.length) {
+            return FALLBACK;
+        }
+
+        // Exact operands, so the division is correctly rounded, as is DecimalFormat's Double.parseDouble...
+        double number = (scale == 0 ? (double) mantissa : mantissa / POWERS_OF_TEN[scale]);
+        if (gotNegative && (mantissa != 0 || !parseIntegerOnly)) {
+            // Negative zero is only parsed as a Double by DecimalFormat when parsing fractions...
+            number = -number;
+        }
+        if (multiplier != 1) {
+            number /= multiplier;
+        }
+
+        return number;
+    }
+
+    private static boolean regionMatches(final CharSequence value, final int offset, final int end, final String region) {
+        final int length = region.length();
+
+        if (offset + length > end) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(offset + i) != region.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static ParseException unparseable(final CharSequence value, final int start, final int end) {
+        return new ParseException("Unparseable number: \"" + value.subSequence(start, end) + "\"", 0);
+    }
+}
@@ -90,6 +90,11 @@ public abstract class DateLocaleAwareTypeConverter<S, T> extends LocaleAwareType
      */
     protected DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern(DEFAULT_DATE_FORMAT);
 
+    /*
+     * Fixed width fast path for the format, or null if the format can't be compiled.
+     */
+    protected CompiledDateFormat compiledDateFormat = CompiledDateFormat.compile(DEFAULT_DATE_FORMAT, zoneId);
+
     public void setConfiguration(Properties properties) throws SmooksConfigurationException {
         super.setConfiguration(properties);
 
@@ -114,6 +119,7 @@ public abstract class DateLocaleAwareTypeConverter<S, T> extends LocaleAwareType
             }
 
             this.dateTimeFormatter = dateTimeFormatter;
+            this.compiledDateFormat = CompiledDateFormat.compile(format.trim(), zoneId);
         }
     }
 }
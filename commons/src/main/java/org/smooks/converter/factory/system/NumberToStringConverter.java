@@ -45,8 +45,8 @@ package org.smooks.converter.factory.system;
 public class NumberToStringConverter<S extends Number> extends NumberTypeConverter<S, String> {
     @Override
     protected String doConvert(S value) {
-        if (getNumberFormat() != null) {
-            return getNumberFormat().format(value);
+        if (compiledNumberFormat != null) {
+            return compiledNumberFormat.format(value);
         } else {
             return value.toString();
         }
@@ -60,6 +60,7 @@ public abstract class NumberTypeConverter<S, T> extends LocaleAwareTypeConverter
     public static final String TYPE = "type";
 
     protected NumberFormat numberFormat;
+    protected CompiledNumberFormat compiledNumberFormat;
 
     private NumberType type;
     
@@ -116,9 +117,18 @@ public abstract class NumberTypeConverter<S, T> extends LocaleAwareTypeConverter
                     ((DecimalFormat) numberFormat).applyPattern(pattern);
                 }
             }
+            compiledNumberFormat = new CompiledNumberFormat(numberFormat);
         }
     }
 
+    /**
+     * Get the thread-safe {@link CompiledNumberFormat} instance, if one exists.
+     * @return The {@link CompiledNumberFormat} instance, otherwise null.
+     */
+    public CompiledNumberFormat getCompiledNumberFormat() {
+        return compiledNumberFormat;
+    }
+
     /**
      * Get the {@link NumberFormat} instance, if one exists.
      * @return A clone of the {@link NumberFormat} instance, otherwise null.
@@ -74,6 +74,11 @@ public class SqlDateConverterFactory implements TypeConverterFactory<String, jav
 		protected java.sql.Date doConvert(final Date date) {
 			return new java.sql.Date(date.getTime());
 		}
+
+		@Override
+		protected java.sql.Date doConvert(final long time) {
+			return new java.sql.Date(time);
+		}
 	}
 }
 
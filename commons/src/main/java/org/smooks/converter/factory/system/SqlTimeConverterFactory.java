@@ -77,5 +77,10 @@ public class SqlTimeConverterFactory implements TypeConverterFactory<String, Tim
         protected Time doConvert(final Date date) {
             return new Time(date.getTime());
         }
+
+        @Override
+        protected Time doConvert(final long time) {
+            return new Time(time);
+        }
     }
 }
@@ -66,6 +66,11 @@ public class SqlTimestampConverterFactory implements TypeConverterFactory<String
 			protected Timestamp doConvert(Date date) {
 				return new Timestamp(date.getTime());
 			}
+
+			@Override
+			protected Timestamp doConvert(long time) {
+				return new Timestamp(time);
+			}
 		};
 	}
 
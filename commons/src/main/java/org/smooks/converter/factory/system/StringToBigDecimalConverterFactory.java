@@ -49,7 +49,6 @@ import org.smooks.converter.factory.TypeConverterFactory;
 
 import javax.annotation.Resource;
 import java.math.BigDecimal;
-import java.math.BigInteger;
 import java.text.ParseException;
 
 /**
@@ -65,17 +64,9 @@ public class StringToBigDecimalConverterFactory implements TypeConverterFactory<
         return new NumberTypeConverter<String, BigDecimal>() {
             @Override
             protected BigDecimal doConvert(String value) {
-                if (numberFormat != null) {
+                if (compiledNumberFormat != null) {
                     try {
-                        Number number = numberFormat.parse(value.trim());
-
-                        if(number instanceof BigDecimal) {
-                            return (BigDecimal) number;
-                        } else if(number instanceof BigInteger) {
-                            return new BigDecimal((BigInteger) number);
-                        }
-
-                        return BigDecimal.valueOf(number.doubleValue());
+                        return BigDecimal.valueOf(compiledNumberFormat.parseDouble(value));
                     } catch (ParseException e) {
                         throw new TypeConverterException("Failed to decode BigDecimal value '" + value + "' using NumberFormat instance " + numberFormat + ".", e);
                     }
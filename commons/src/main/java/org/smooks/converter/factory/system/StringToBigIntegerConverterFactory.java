@@ -47,7 +47,6 @@ import org.smooks.converter.TypeConverterDescriptor;
 import org.smooks.converter.TypeConverterException;
 import org.smooks.converter.factory.TypeConverterFactory;
 
-import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.text.ParseException;
 
@@ -63,17 +62,9 @@ public class StringToBigIntegerConverterFactory implements TypeConverterFactory<
         return new NumberTypeConverter<String, BigInteger>() {
             @Override
             protected BigInteger doConvert(String value) {
-                if (numberFormat != null) {
+                if (compiledNumberFormat != null) {
                     try {
-                        final Number number = numberFormat.parse(value.trim());
-
-                        if (number instanceof BigInteger) {
-                            return (BigInteger) number;
-                        } else if (number instanceof BigDecimal) {
-                            return ((BigDecimal) number).toBigInteger();
-                        }
-
-                        return new BigInteger(String.valueOf(number.intValue()));
+                        return BigInteger.valueOf(compiledNumberFormat.parseInt(value));
                     } catch (ParseException e) {
                         throw new TypeConverterException("Failed to decode BigInteger value '" + value + "' using NumberFormat instance " + numberFormat + ".", e);
                     }
@@ -54,6 +54,13 @@ public abstract class StringToDateLocaleAwareConverter<T> extends DateLocaleAwar
     
     @Override
     public T convert(final String value) {
+        if (compiledDateFormat != null) {
+            final long time = compiledDateFormat.parse(value);
+            if (time != CompiledDateFormat.FALLBACK) {
+                return doConvert(time);
+            }
+        }
+
         final TemporalAccessor temporalAccessor = dateTimeFormatter.parse(value.trim());
         final Date date;
         if (temporalAccessor.query(TemporalQueries.localDate()) != null && temporalAccessor.query(TemporalQueries.localTime()) != null && temporalAccessor.query(TemporalQueries.zoneId()) != null) {
@@ -74,4 +81,15 @@ public abstract class StringToDateLocaleAwareConverter<T> extends DateLocaleAwar
     }
 
     protected abstract T doConvert(Date date);
+
+    /**
+     * Convert the parsed epoch milliseconds.
+     * <p/>
+     * Override to avoid creating an intermediate {@link Date} instance.
+     * @param time The epoch milliseconds.
+     * @return The converted value.
+     */
+    protected T doConvert(long time) {
+        return doConvert(new Date(time));
+    }
 }
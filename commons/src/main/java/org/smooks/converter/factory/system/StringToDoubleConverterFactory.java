@@ -72,10 +72,9 @@ public class StringToDoubleConverterFactory implements TypeConverterFactory<Stri
 
         @Override
         protected Double doConvert(final String value) {
-            if (numberFormat != null) {
+            if (compiledNumberFormat != null) {
                 try {
-                    final Number number = numberFormat.parse(value.trim());
-                    return number.doubleValue();
+                    return compiledNumberFormat.parseDouble(value);
                 } catch (ParseException e) {
                     throw new TypeConverterException("Failed to decode Double value '" + value + "' using NumberFormat instance " + numberFormat + ".", e);
                 }
@@ -61,10 +61,9 @@ public class StringToFloatConverterFactory implements TypeConverterFactory<Strin
         return new NumberTypeConverter<String, Float>() {
             @Override
             protected Float doConvert(String value) {
-                if (numberFormat != null) {
+                if (compiledNumberFormat != null) {
                     try {
-                        final Number number = numberFormat.parse(value.trim());
-                        return number.floatValue();
+                        return compiledNumberFormat.parseFloat(value);
                     } catch (ParseException e) {
                         throw new TypeConverterException("Failed to decode Float value '" + value + "' using NumberFormat instance " + numberFormat + ".", e);
                     }
@@ -63,13 +63,12 @@ public class StringToIntegerConverterFactory implements TypeConverterFactory<Str
         return new NumberTypeConverter<String, Integer>() {
             @Override
             protected Integer doConvert(String value) {
-                if (numberFormat != null) {
+                if (compiledNumberFormat != null) {
                     try {
-                        final Number number = numberFormat.parse(value.trim());
                         if (isPercentage()) {
-                            return (int) (number.doubleValue() * 100);
+                            return (int) (compiledNumberFormat.parseDouble(value) * 100);
                         } else {
-                            return number.intValue();
+                            return compiledNumberFormat.parseInt(value);
                         }
                     } catch (ParseException e) {
                         throw new TypeConverterException("Failed to decode Integer value '" + value + "' using NumberFormat instance " + numberFormat + ".", e);
@@ -63,14 +63,12 @@ public class StringToLongConverterFactory implements TypeConverterFactory<String
         return new NumberTypeConverter<String, Long>() {
             @Override
             protected Long doConvert(String value) {
-                if (numberFormat != null) {
+                if (compiledNumberFormat != null) {
                     try {
-                        final Number number = numberFormat.parse(value.trim());
-
                         if (isPercentage()) {
-                            return (long) (number.doubleValue() * 100);
+                            return (long) (compiledNumberFormat.parseDouble(value) * 100);
                         } else {
-                            return number.longValue();
+                            return compiledNumberFormat.parseLong(value);
                         }
                     } catch (ParseException e) {
                         throw new TypeConverterException("Failed to decode Long value '" + value + "' using NumberFormat instance " + numberFormat + ".", e);
@@ -62,14 +62,12 @@ public class StringToShortConverterFactory implements TypeConverterFactory<Strin
         return new NumberTypeConverter<String, Short>() {
             @Override
             protected Short doConvert(String value) {
-                if(numberFormat != null) {
+                if(compiledNumberFormat != null) {
                     try {
-                        final Number number = numberFormat.parse(value.trim());
-
                         if(isPercentage()) {
-                            return (short) (number.doubleValue() * 100);
+                            return (short) (compiledNumberFormat.parseDouble(value) * 100);
                         } else {
-                            return number.shortValue();
+                            return compiledNumberFormat.parseShort(value);
                         }
                     } catch (ParseException e) {
                         throw new TypeConverterException("Failed to decode Short value '" + value + "' using NumberFormat instance " + numberFormat + ".", e);
@@ -83,6 +83,9 @@ public class StringToXmlGregorianCalendarConverterFactory implements TypeConvert
 
     public static class StringToXmlGregorianCalendarConverter extends StringToDateLocaleAwareConverter<XMLGregorianCalendar> {
 
+        // Looked up once, as DatatypeFactory.newInstance() goes through the service lookup on every call...
+        private volatile DatatypeFactory datatypeFactory;
+
         public StringToXmlGregorianCalendarConverter() {
             
         }
@@ -92,10 +95,19 @@ public class StringToXmlGregorianCalendarConverterFactory implements TypeConvert
             try {
                 final GregorianCalendar gregCal = new GregorianCalendar();
                 gregCal.setTime(date);
-                return DatatypeFactory.newInstance().newXMLGregorianCalendar(gregCal);
+                return getDatatypeFactory().newXMLGregorianCalendar(gregCal);
             } catch (DatatypeConfigurationException e) {
                 throw new TypeConverterException("Error decoding XMLGregorianCalendar data value '" + date + "' with decode format '" + format + "'.", e);
             }
         }
+
+        private DatatypeFactory getDatatypeFactory() throws DatatypeConfigurationException {
+            DatatypeFactory datatypeFactory = this.datatypeFactory;
+            if (datatypeFactory == null) {
+                datatypeFactory = DatatypeFactory.newInstance();
+                this.datatypeFactory = datatypeFactory;
+            }
+            return datatypeFactory;
+        }
     }
 }
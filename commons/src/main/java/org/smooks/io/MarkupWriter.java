@@ -0,0 +1,483 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Commons
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Buffered markup output writer.
+ * <p/>
+ * An unsynchronized alternative to wrapping an {@link OutputStream} in a {@link java.io.OutputStreamWriter}
+ * for markup serialization, where output is produced in lots of very small writes (a '&lt;', a prefix,
+ * a ':' ...).  Characters are collected in a large char buffer and encoded in bulk into a reusable byte
+ * buffer, with hand coded encoders for UTF-8, ISO-8859-1 and US-ASCII.  Unmappable and malformed characters
+ * are replaced (with '?'), as they are by {@link java.io.OutputStreamWriter}.
+ * <p/>
+ * {@link #writeEscapedText(char[], int, int)} and {@link #writeEscapedAttribute(char[], int, int)} escape
+ * special XML characters straight into the buffer, and are used by {@link org.smooks.xml.XmlUtil#encodeTextValue(char[], int, int, Writer)}
+ * and {@link org.smooks.xml.XmlUtil#encodeAttributeValue(char[], int, int, Writer)} when writing to a
+ * MarkupWriter.
+ * <p/>
+ * Instances are not thread safe.
+ */
+public class MarkupWriter extends Writer {
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private static final int UTF_8 = 0;
+    private static final int ISO_8859_1 = 1;
+    private static final int US_ASCII = 2;
+    private static final int OTHER = 3;
+
+    private static final char[] LT = "&lt;".toCharArray();
+    private static final char[] GT = "&gt;".toCharArray();
+    private static final char[] AMP = "&amp;".toCharArray();
+    private static final char[] APOS = "&apos;".toCharArray();
+    private static final char[] QUOT = "&quot;".toCharArray();
+
+    private final OutputStream outputStream;
+    private final Charset charset;
+    private final int encoding;
+    private final CharsetEncoder encoder;
+    private final char[] chars;
+    private final byte[] bytes;
+    private int charCount;
+    private boolean closed;
+
+    public MarkupWriter(OutputStream outputStream, Charset charset) {
+        this(outputStream, charset, DEFAULT_BUFFER_SIZE);
+    }
+
+    public MarkupWriter(OutputStream outputStream, Charset charset, int bufferSize) {
+        if(outputStream == null) {
+            throw new IllegalArgumentException("null 'outputStream' arg in method call.");
+        }
+        if(charset == null) {
+            throw new IllegalArgumentException("null 'charset' arg in method call.");
+        }
+        if(bufferSize < 16) {
+            throw new IllegalArgumentException("Invalid 'bufferSize' arg '" + bufferSize + "'.  Must be at least 16.");
+        }
+
+        this.outputStream = outputStream;
+        this.charset = charset;
+        this.chars = new char[bufferSize];
+        if(charset.equals(StandardCharsets.UTF_8)) {
+            encoding = UTF_8;
+            encoder = null;
+            bytes = new byte[bufferSize * 3];
+        } else if(charset.equals(StandardCharsets.ISO_8859_1)) {
+            encoding = ISO_8859_1;
+            encoder = null;
+            bytes = new byte[bufferSize];
+        } else if(charset.equals(StandardCharsets.US_ASCII)) {
+            encoding = US_ASCII;
+            encoder = null;
+            bytes = new byte[bufferSize];
+        } else {
+            encoding = OTHER;
+            encoder = charset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+            bytes = new byte[(int) Math.ceil(bufferSize * (double) encoder.maxBytesPerChar())];
+        }
+    }
+
+    public Charset getCharset() {
+        return charset;
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        if(charCount == chars.length) {
+            flushBuffer();
+        }
+        chars[charCount++] = (char) c;
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        if(len > chars.length - charCount) {
+            flushBuffer();
+        }
+        while(len > 0) {
+            int chunk = Math.min(len, chars.length - charCount);
+
+            System.arraycopy(cbuf, off, chars, charCount, chunk);
+            charCount += chunk;
+            off += chunk;
+            len -= chunk;
+            if(len > 0) {
+                flushBuffer();
+            }
+        }
+    }
+
+    @Override
+    public void write(String str) throws IOException {
+        write(str, 0, str.length());
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        if(len > chars.length - charCount) {
+            flushBuffer();
+        }
+        while(len > 0) {
+            int chunk = Math.min(len, chars.length - charCount);
+
+            str.getChars(off, off + chunk, chars, charCount);
+            charCount += chunk;
+            off += chunk;
+            len -= chunk;
+            if(len > 0) {
+                flushBuffer();
+            }
+        }
+    }
+
+    @Override
+    public Writer append(CharSequence csq) throws IOException {
+        String str = String.valueOf(csq);
+        write(str, 0, str.length());
+        return this;
+    }
+
+    @Override
+    public Writer append(CharSequence csq, int start, int end) throws IOException {
+        String str = String.valueOf(csq != null ? csq : "null");
+        write(str, start, end - start);
+        return this;
+    }
+
+    @Override
+    public Writer append(char c) throws IOException {
+        write(c);
+        return this;
+    }
+
+    /**
+     * Write text content, escaping '&lt;', '&gt;' and '&amp;'.
+     * @param cbuf The characters.
+     * @param off The offset of the first character to write.
+     * @param len The number of characters to write.
+     * @throws IOException Write failure.
+     */
+    public void writeEscapedText(char[] cbuf, int off, int len) throws IOException {
+        int end = off + len;
+
+        for(int i = off; i < end; i++) {
+            char c = cbuf[i];
+
+            if(charCount + 5 > chars.length) {
+                flushBuffer();
+            }
+            switch(c) {
+                case '<':
+                    append(LT);
+                    break;
+                case '>':
+                    append(GT);
+                    break;
+                case '&':
+                    append(AMP);
+                    break;
+                default:
+                    chars[charCount++] = c;
+            }
+        }
+    }
+
+    /**
+     * Write an attribute value, escaping '&lt;', '&gt;', '&amp;', '\'' and '"'.
+     * @param cbuf The characters.
+     * @param off The offset of the first character to write.
+     * @param len The number of characters to write.
+     * @throws IOException Write failure.
+     */
+    public void writeEscapedAttribute(char[] cbuf, int off, int len) throws IOException {
+        int end = off + len;
+
+        for(int i = off; i < end; i++) {
+            char c = cbuf[i];
+
+            if(charCount + 6 > chars.length) {
+                flushBuffer();
+            }
+            switch(c) {
+                case '<':
+                    append(LT);
+                    break;
+                case '>':
+                    append(GT);
+                    break;
+                case '&':
+                    append(AMP);
+                    break;
+                case '\'':
+                    append(APOS);
+                    break;
+                case '"':
+                    append(QUOT);
+                    break;
+                default:
+                    chars[charCount++] = c;
+            }
+        }
+    }
+
+    /**
+     * Write an attribute value, escaping '&lt;', '&gt;', '&amp;', '\'' and '"'.
+     * @param value The attribute value.
+     * @throws IOException Write failure.
+     */
+    public void writeEscapedAttribute(String value) throws IOException {
+        int length = value.length();
+
+        for(int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+
+            if(charCount + 6 > chars.length) {
+                flushBuffer();
+            }
+            switch(c) {
+                case '<':
+                    append(LT);
+                    break;
+                case '>':
+                    append(GT);
+                    break;
+                case '&':
+                    append(AMP);
+                    break;
+                case '\'':
+                    append(APOS);
+                    break;
+                case '"':
+                    append(QUOT);
+                    break;
+                default:
+                    chars[charCount++] = c;
+            }
+        }
+    }
+
+    /**
+     * Flush the buffered characters to the underlying stream, and flush the stream.
+     */
+    @Override
+    public void flush() throws IOException {
+        assertOpen();
+        flushBuffer();
+        outputStream.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if(!closed) {
+            try {
+                flushBuffer();
+                if(encoder != null) {
+                    encode(charCount, true);
+                } else if(charCount > 0) {
+                    // A dangling high surrogate...
+                    outputStream.write('?');
+                }
+                charCount = 0;
+                outputStream.flush();
+            } finally {
+                closed = true;
+                outputStream.close();
+            }
+        }
+    }
+
+    private void append(char[] entity) {
+        System.arraycopy(entity, 0, chars, charCount, entity.length);
+        charCount += entity.length;
+    }
+
+    /**
+     * Encode the buffered characters and write the bytes to the underlying stream (without flushing it).
+     * <p/>
+     * A trailing high surrogate is kept in the buffer, so that it's encoded along with its low surrogate.
+     */
+    private void flushBuffer() throws IOException {
+        int length = charCount;
+
+        if(length == 0) {
+            return;
+        }
+        assertOpen();
+        if(Character.isHighSurrogate(chars[length - 1])) {
+            length--;
+        }
+
+        switch(encoding) {
+            case UTF_8:
+                outputStream.write(bytes, 0, encodeUTF8(length));
+                break;
+            case ISO_8859_1:
+                outputStream.write(bytes, 0, encodeSingleByte(length, 0xFF));
+                break;
+            case US_ASCII:
+                outputStream.write(bytes, 0, encodeSingleByte(length, 0x7F));
+                break;
+            default:
+                // The encoder may leave characters (e.g. a trailing high surrogate) for the next flush...
+                length = encode(length, false);
+        }
+
+        if(length < charCount) {
+            System.arraycopy(chars, length, chars, 0, charCount - length);
+            charCount -= length;
+        } else {
+            charCount = 0;
+        }
+    }
+
+    private int encodeUTF8(int length) {
+        int byteCount = 0;
+
+        for(int i = 0; i < length; i++) {
+            char c = chars[i];
+
+            if(c < 0x80) {
+                bytes[byteCount++] = (byte) c;
+            } else if(c < 0x800) {
+                bytes[byteCount++] = (byte) (0xC0 | (c >> 6));
+                bytes[byteCount++] = (byte) (0x80 | (c & 0x3F));
+            } else if(Character.isSurrogate(c)) {
+                if(Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(chars[i + 1])) {
+                    int codePoint = Character.toCodePoint(c, chars[++i]);
+
+                    bytes[byteCount++] = (byte) (0xF0 | (codePoint >> 18));
+                    bytes[byteCount++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    bytes[byteCount++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    bytes[byteCount++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else {
+                    bytes[byteCount++] = '?';
+                }
+            } else {
+                bytes[byteCount++] = (byte) (0xE0 | (c >> 12));
+                bytes[byteCount++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[byteCount++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+
+        return byteCount;
+    }
+
+    private int encodeSingleByte(int length, int maxChar) {
+        for(int i = 0; i < length; i++) {
+            char c = chars[i];
+
+            if(c <= maxChar) {
+                bytes[i] = (byte) c;
+            } else if(Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(chars[i + 1])) {
+                // A surrogate pair is replaced by a single '?'...
+                return encodeSingleByteReplacingPairs(length, maxChar, i);
+            } else {
+                bytes[i] = '?';
+            }
+        }
+
+        return length;
+    }
+
+    private int encodeSingleByteReplacingPairs(int length, int maxChar, int start) {
+        int byteCount = start;
+
+        for(int i = start; i < length; i++) {
+            char c = chars[i];
+
+            if(c <= maxChar) {
+                bytes[byteCount++] = (byte) c;
+            } else {
+                if(Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(chars[i + 1])) {
+                    i++;
+                }
+                bytes[byteCount++] = '?';
+            }
+        }
+
+        return byteCount;
+    }
+
+    /**
+     * Encode using the charset's encoder, which is only reset on {@link #close()}, so that stateful
+     * encodings (byte order marks, shift sequences) are applied once for the whole output.
+     * @return The number of characters encoded.
+     */
+    private int encode(int length, boolean endOfInput) throws IOException {
+        CharBuffer charBuffer = CharBuffer.wrap(chars, 0, length);
+
+        while(true) {
+            ByteBuffer byteBuffer = ByteBuffer.wrap(bytes);
+            CoderResult result = encoder.encode(charBuffer, byteBuffer, endOfInput);
+
+            if(endOfInput && result.isUnderflow()) {
+                result = encoder.flush(byteBuffer);
+            }
+            outputStream.write(bytes, 0, byteBuffer.position());
+            if(result.isUnderflow()) {
+                return charBuffer.position();
+            } else if(!result.isOverflow()) {
+                result.throwException();
+            }
+        }
+    }
+
+    private void assertOpen() throws IOException {
+        if(closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+}
@@ -52,13 +52,39 @@ import java.util.*;
 
 /**
  * This class is responsible for managing namespace declarations.
+ * <p/>
+ * Declarations are held in flat, parallel prefix/URI arrays, with a mark per element depth
+ * recording where the element's declarations start (in the style of SAX
+ * {@link org.xml.sax.helpers.NamespaceSupport}).  Two small open addressed hash indexes map
+ * each prefix and each URI to its innermost active declaration, so prefix and URI resolution
+ * do not walk the stack.  Pushing and popping elements that declare no new namespaces does
+ * not allocate.
  *
  * @author zubairov
  */
 public class NamespaceDeclarationStack {
-    private final Stack<Map<String, String>> namespaceStack = new Stack<Map<String, String>>();
+
+    private static final int NONE = -1;
+
     private final Stack<XMLReader> readerStack = new Stack<XMLReader>();
 
+    // Declarations...
+    private String[] prefixes = new String[16];
+    private String[] uris = new String[16];
+    // Per declaration, the declaration (of the same prefix/URI) it shadows...
+    private int[] shadowedPrefixDeclarations = new int[16];
+    private int[] shadowedUriDeclarations = new int[16];
+    private int declarationCount;
+
+    // Per element depth, the index of the element's first declaration...
+    private int[] depthMarks = new int[32];
+    private int depth;
+
+    private final DeclarationIndex prefixIndex = new DeclarationIndex();
+    private final DeclarationIndex uriIndex = new DeclarationIndex();
+
+    private Map<String, String> activeNamespaces;
+
     public NamespaceDeclarationStack() {
     }
 
@@ -77,17 +103,21 @@ public class NamespaceDeclarationStack {
 	 * @throws SAXException if an error is encountered when attempting to push
    * the element to the stack.
 	 */
-	@SuppressWarnings({ "unchecked", "UnusedReturnValue" })
+	@SuppressWarnings("UnusedReturnValue")
   public Attributes pushNamespaces(String qName, String namespace, Attributes attributes) throws SAXException {
+        int elementMark = declarationCount;
+
+        if(depth == depthMarks.length) {
+            depthMarks = Arrays.copyOf(depthMarks, depth * 2);
+        }
+        depthMarks[depth++] = elementMark;
+
         if(attributes == null || attributes.getLength() == 0) {
             if(namespace == null || XMLConstants.NULL_NS_URI.equals(namespace)) {
-                namespaceStack.push(Collections.EMPTY_MAP);
                 return attributes;
             }
         }
 
-        Map<String, String> nsToURI = Collections.EMPTY_MAP;
-
         // Gather namespace declarations from the attributes
         if(attributes != null) {
             for(int i = 0; i < attributes.getLength() ; i++) {
@@ -95,52 +125,36 @@ public class NamespaceDeclarationStack {
 
                 if (attrNS != null && attrNS.equals(XMLConstants.XMLNS_ATTRIBUTE_NS_URI)) {
                     // Add prefix to the list of declared namespaces
-                    if(nsToURI == Collections.EMPTY_MAP) {
-                        nsToURI = new LinkedHashMap<String, String>();
-                    }
-
                     String localName = attributes.getLocalName(i);
                     if (localName.equals(XMLConstants.XMLNS_ATTRIBUTE)) {
-                        nsToURI.put(XMLConstants.DEFAULT_NS_PREFIX, attributes.getValue(i));
+                        declare(XMLConstants.DEFAULT_NS_PREFIX, attributes.getValue(i), elementMark);
                     } else {
-                        nsToURI.put(localName, attributes.getValue(i));
+                        declare(localName, attributes.getValue(i), elementMark);
                     }
                 }
             }
         }
 
         if(!XMLConstants.NULL_NS_URI.equals(namespace)) {
-            String[] qNameTokens = qName.split(":");
-            String prefix;
+            int colonIndex = qName.indexOf(':');
+            int prefixLength = (colonIndex != -1 ? colonIndex : 0);
 
-            if(qNameTokens.length == 1) {
-                prefix = XMLConstants.DEFAULT_NS_PREFIX;
-            } else {
-                prefix = qNameTokens[0];
-            }
-
-            if (!prefixAlreadyDeclared(prefix) && !nsToURI.containsKey(prefix)) {
-                if(nsToURI == Collections.EMPTY_MAP) {
-                    nsToURI = new LinkedHashMap<String, String>();
-                }
-                nsToURI.put(prefix, namespace);
+            // Any declaration of the prefix, at this or an outer level, is enough...
+            if (prefixIndex.get(qName, prefixLength) == NONE) {
+                declare(qName.substring(0, prefixLength), namespace, elementMark);
             }
         }
 
-        if(!nsToURI.isEmpty() && !readerStack.isEmpty()) {
-            Set<Map.Entry<String,String>> namespaces = nsToURI.entrySet();
-
+        if(declarationCount > elementMark && !readerStack.isEmpty()) {
             // Now call start prefixes if namespaces are not empty
             ContentHandler contentHandler = readerStack.peek().getContentHandler();
             if (contentHandler != null) {
-                for (Map.Entry<String,String> ns : namespaces) {
-                    contentHandler.startPrefixMapping(ns.getKey(), ns.getValue());
+                for (int i = elementMark; i < declarationCount; i++) {
+                    contentHandler.startPrefixMapping(prefixes[i], uris[i]);
                 }
             }
         }
 
-        namespaceStack.push(nsToURI);
-
         return attributes;
 	}
 
@@ -152,17 +166,31 @@ public class NamespaceDeclarationStack {
      * element out of the stack.
      */
     public void popNamespaces() throws SAXException {
-        Map<String, String> namespaces = namespaceStack.pop();
+        if(depth == 0) {
+            throw new EmptyStackException();
+        }
 
-        if (!namespaces.isEmpty() && !readerStack.isEmpty()) {
-            Set<String> nsPrefixes = namespaces.keySet();
+        int elementMark = depthMarks[--depth];
 
-            ContentHandler contentHandler = readerStack.peek().getContentHandler();
-            if (contentHandler != null) {
-                for (String prefix : nsPrefixes) {
-                        contentHandler.endPrefixMapping(prefix);
+        if (declarationCount > elementMark) {
+            if(!readerStack.isEmpty()) {
+                ContentHandler contentHandler = readerStack.peek().getContentHandler();
+                if (contentHandler != null) {
+                    for (int i = elementMark; i < declarationCount; i++) {
+                        contentHandler.endPrefixMapping(prefixes[i]);
+                    }
                 }
             }
+
+            // Undo the declarations, innermost first, so the indexes unwind to the outer declarations...
+            for (int i = declarationCount - 1; i >= elementMark; i--) {
+                prefixIndex.put(prefixes[i], shadowedPrefixDeclarations[i]);
+                unindexUri(i);
+                prefixes[i] = null;
+                uris[i] = null;
+            }
+            declarationCount = elementMark;
+            activeNamespaces = null;
         }
     }
 
@@ -183,54 +211,187 @@ public class NamespaceDeclarationStack {
         return readerStack.pop();
     }
 
+    /**
+     * Get the prefix of the innermost active declaration of the supplied namespace URI.
+     * @param uri The namespace URI.
+     * @return The prefix, or null if the namespace is not declared.
+     */
     public String getPrefix(String uri) {
-        int stackDepth = namespaceStack.size();
+        if(uri == null) {
+            return null;
+        }
 
-        for (int i = stackDepth - 1; i >= 0; i--) {
-            Map<String, String> nsMap = namespaceStack.get(i);
+        int declaration = uriIndex.get(uri, uri.length());
+        return (declaration != NONE ? prefixes[declaration] : null);
+    }
 
-            if(!nsMap.isEmpty()) {
-                Set<Map.Entry<String,String>> nsEntries = nsMap.entrySet();
-                for (Map.Entry<String,String> nsEntry : nsEntries) {
-                    if(nsEntry.getValue().equals(uri)) {
-                        return nsEntry.getKey();
-                    }
-                }
-            }
+    /**
+     * Get the namespace URI bound to the supplied prefix by its innermost active declaration.
+     * @param prefix The prefix ({@link XMLConstants#DEFAULT_NS_PREFIX} for the default namespace).
+     * @return The namespace URI, or null if the prefix is not declared.
+     */
+    public String getNamespaceURI(String prefix) {
+        if(prefix == null) {
+            return null;
         }
 
-        return null;
+        int declaration = prefixIndex.get(prefix, prefix.length());
+        return (declaration != NONE ? uris[declaration] : null);
     }
 
+    /**
+     * Get the active namespace declarations, keyed by prefix.
+     * <p/>
+     * Where a prefix is redeclared by an inner element, the map holds the innermost declaration, i.e. the
+     * same binding as {@link #getNamespaceURI(String)}.
+     * <p/>
+     * The returned map is an immutable snapshot.  It is shared between calls until the active
+     * declarations change, so repeated calls are cheap.
+     * <p/>
+     * <b>Note</b> this differs from earlier versions, which returned a new mutable map on each call, in
+     * which the <i>outermost</i> declaration of a redeclared prefix won.
+     *
+     * @return The active prefix to namespace URI mappings.
+     */
     public Map<String, String> getActiveNamespaces() {
-        Map<String, String> activeNamespaces = new HashMap<String, String>();
-        int stackDepth = namespaceStack.size();
-
-        for (int i = stackDepth - 1; i >= 0; i--) {
-            Map<String, String> nsMap = namespaceStack.get(i);
+        if(activeNamespaces == null) {
+            Map<String, String> snapshot = new HashMap<String, String>();
 
-            if(!nsMap.isEmpty()) {
-                activeNamespaces.putAll(nsMap);
+            for (int i = 0; i < declarationCount; i++) {
+                // Inner declarations come later, so they override outer ones...
+                snapshot.put(prefixes[i], uris[i]);
             }
+            activeNamespaces = Collections.unmodifiableMap(snapshot);
         }
 
         return activeNamespaces;
     }
 
+    private void declare(String prefix, String uri, int elementMark) {
+        int shadowedPrefixDeclaration = prefixIndex.get(prefix, prefix.length());
+
+        if(shadowedPrefixDeclaration >= elementMark) {
+            // Declared twice on the same element.  The last declaration wins...
+            unindexUri(shadowedPrefixDeclaration);
+            uris[shadowedPrefixDeclaration] = uri;
+            indexUri(shadowedPrefixDeclaration, elementMark);
+            activeNamespaces = null;
+            return;
+        }
+
+        int declaration = declarationCount++;
+        if(declaration == prefixes.length) {
+            int capacity = declaration * 2;
+            prefixes = Arrays.copyOf(prefixes, capacity);
+            uris = Arrays.copyOf(uris, capacity);
+            shadowedPrefixDeclarations = Arrays.copyOf(shadowedPrefixDeclarations, capacity);
+            shadowedUriDeclarations = Arrays.copyOf(shadowedUriDeclarations, capacity);
+        }
+
+        prefixes[declaration] = prefix;
+        uris[declaration] = uri;
+        shadowedPrefixDeclarations[declaration] = shadowedPrefixDeclaration;
+        prefixIndex.put(prefix, declaration);
+        indexUri(declaration, elementMark);
+
+        activeNamespaces = null;
+    }
+
+    private void indexUri(int declaration, int elementMark) {
+        String uri = uris[declaration];
+
+        if(uri != null) {
+            int shadowedUriDeclaration = uriIndex.get(uri, uri.length());
+            if(shadowedUriDeclaration < elementMark) {
+                shadowedUriDeclarations[declaration] = shadowedUriDeclaration;
+                uriIndex.put(uri, declaration);
+                return;
+            }
+            // Otherwise the URI is already declared (under another prefix) on this element,
+            // and the first declaration wins...
+        }
+
+        // Mark the declaration as not indexed...
+        shadowedUriDeclarations[declaration] = declaration;
+    }
+
+    private void unindexUri(int declaration) {
+        if(shadowedUriDeclarations[declaration] != declaration) {
+            uriIndex.put(uris[declaration], shadowedUriDeclarations[declaration]);
+        }
+    }
+
     /**
-     * Checks if a namespace with a given prefix is already declared higher in
-     * the stack.
-     *
-     * @param prefix The prefix to check.
-     * @return {@literal true} if a namespace with the specified prefix is
-     * already declared within the stack.
+     * Open addressed String to declaration index map.  Keys are never removed (an undeclared key
+     * maps to {@link #NONE}), which keeps the probing simple.  Documents use few distinct prefixes
+     * and URIs, so the key set stays small.
      */
-    private boolean prefixAlreadyDeclared(String prefix) {
-        for (Map<String, String> set : namespaceStack) {
-            if (set.containsKey(prefix)) {
-                return true;
+    private static final class DeclarationIndex {
+
+        private String[] keys = new String[16];
+        private int[] declarations = new int[16];
+        private int keyCount;
+
+        /**
+         * Get the declaration for the key held in the first {@code length} characters of {@code key}.
+         */
+        private int get(String key, int length) {
+            int mask = keys.length - 1;
+
+            for(int slot = hash(key, length) & mask; ; slot = (slot + 1) & mask) {
+                String slotKey = keys[slot];
+                if(slotKey == null) {
+                    return NONE;
+                } else if(slotKey.length() == length && slotKey.regionMatches(0, key, 0, length)) {
+                    return declarations[slot];
+                }
+            }
+        }
+
+        private void put(String key, int declaration) {
+            int mask = keys.length - 1;
+
+            for(int slot = hash(key, key.length()) & mask; ; slot = (slot + 1) & mask) {
+                String slotKey = keys[slot];
+                if(slotKey == null) {
+                    keys[slot] = key;
+                    declarations[slot] = declaration;
+                    if(++keyCount > keys.length / 2) {
+                        rehash();
+                    }
+                    return;
+                } else if(slotKey.equals(key)) {
+                    declarations[slot] = declaration;
+                    return;
+                }
+            }
+        }
+
+        private void rehash() {
+            String[] oldKeys = keys;
+            int[] oldDeclarations = declarations;
+
+            keys = new String[oldKeys.length * 2];
+            declarations = new int[oldKeys.length * 2];
+            keyCount = 0;
+            for(int i = 0; i < oldKeys.length; i++) {
+                if(oldKeys[i] != null) {
+                    put(oldKeys[i], oldDeclarations[i]);
+                }
             }
         }
-        return false;
+
+        private static int hash(String key, int length) {
+            // Same function as String.hashCode(), which is cached on the String...
+            int hash = (length == key.length() ? key.hashCode() : 0);
+
+            if(length != key.length()) {
+                for(int i = 0; i < length; i++) {
+                    hash = 31 * hash + key.charAt(i);
+                }
+            }
+
+            return hash ^ (hash >>> 16);
+        }
     }
 }
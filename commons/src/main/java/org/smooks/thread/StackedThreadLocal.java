@@ -42,66 +42,59 @@
  */
 package org.smooks.thread;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import java.util.EmptyStackException;
-import java.util.Stack;
-
 /**
  * Stacked ThreadLocal.
+ * <p/>
+ * Each stack entry links to the entry below it, so a miss is a simple null check.  The thread's
+ * {@link ThreadLocal} entry is removed when the last value is popped off the stack, so short lived
+ * threads (e.g. virtual threads) don't retain an empty stack after a filter operation has completed.
+ *
  * @author <a href="mailto:tom.fennelly@gmail.com">tom.fennelly@gmail.com</a>
  */
 public class StackedThreadLocal<T> {
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(StackedThreadLocal.class);
-
     private final String resourceName;
-    private final ThreadLocal<Stack<T>> stackTL = new ThreadLocal<Stack<T>>();
+    private final ThreadLocal<Entry<T>> stackTL = new ThreadLocal<Entry<T>>();
 
     public StackedThreadLocal(String resourceName) {
         this.resourceName = resourceName;
     }
 
     public T get() {
-        Stack<T> execContextStack = getExecutionContextStack();
-        try {
-            return execContextStack.peek();
-        } catch (EmptyStackException e) {
-            if(LOGGER.isDebugEnabled()) {
-                LOGGER.debug("No currently stacked '" + resourceName + "' instance on active Thread.", e);
-            }
+        Entry<T> top = stackTL.get();
+        if(top == null) {
             return null;
         }
+        return top.value;
     }
 
     public void set(T value) {
-        Stack<T> execContextStack = getExecutionContextStack();
-        execContextStack.push(value);
+        stackTL.set(new Entry<T>(value, stackTL.get()));
     }
 
     public void remove() {
-        Stack<T> execContextStack = getExecutionContextStack();
-        try {
-            execContextStack.pop();
-        } catch (EmptyStackException e) {
-            if(LOGGER.isDebugEnabled()) {
-                LOGGER.debug("No currently stacked '" + resourceName + "' instance on active Thread.", e);
-            }
+        Entry<T> top = stackTL.get();
+        if(top == null) {
+            return;
+        }
+        if(top.below == null) {
+            stackTL.remove();
+        } else {
+            stackTL.set(top.below);
         }
     }
 
-    private Stack<T> getExecutionContextStack() {
-        Stack<T> stack = stackTL.get();
-        if(stack == null) {
-            synchronized (this) {
-                stack = stackTL.get();
-                if(stack == null) {
-                    stack = new Stack<T>();
-                    stackTL.set(stack);
-                }
-            }
+    public String getResourceName() {
+        return resourceName;
+    }
+
+    private static class Entry<T> {
+        private final T value;
+        private final Entry<T> below;
+
+        private Entry(T value, Entry<T> below) {
+            this.value = value;
+            this.below = below;
         }
-        return stack;
     }
 }
@@ -42,6 +42,7 @@
  */
 package org.smooks.xml;
 
+import org.smooks.io.MarkupWriter;
 import org.smooks.io.StreamUtils;
 import org.w3c.dom.*;
 import org.xml.sax.*;
@@ -751,6 +752,10 @@ public class XmlUtil {
     }
 
     public static void encodeTextValue(char[] characters, int offset, int length, Writer writer) throws IOException {
+        if(writer instanceof MarkupWriter) {
+            ((MarkupWriter) writer).writeEscapedText(characters, offset, length);
+            return;
+        }
         for(int i = offset; i < offset + length; i++) {
             char c = characters[i];
             switch(c) {
@@ -770,6 +775,10 @@ public class XmlUtil {
     }
 
     public static void encodeAttributeValue(char[] characters, int offset, int length, Writer writer) throws IOException {
+        if(writer instanceof MarkupWriter) {
+            ((MarkupWriter) writer).writeEscapedAttribute(characters, offset, length);
+            return;
+        }
         for(int i = offset; i < offset + length; i++) {
             char c = characters[i];
             switch(c) {
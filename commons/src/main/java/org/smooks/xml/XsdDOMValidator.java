@@ -43,16 +43,12 @@
 package org.smooks.xml;
 
 import org.smooks.assertion.AssertArgument;
-import org.smooks.util.ClassUtil;
 import org.w3c.dom.*;
 import org.xml.sax.SAXException;
 
 import javax.xml.XMLConstants;
-import javax.xml.transform.Source;
 import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamSource;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
@@ -92,16 +88,9 @@ public class XsdDOMValidator extends XsdValidator {
         // Get the full namespace list...
         gatherNamespaces(document.getDocumentElement(), namespaces);
 
-        // Using the namespace URI list, create the XSD Source array used to
-        // create the merged Schema instance...
-    	List<Source> sources = new ArrayList<Source>();
-        for (int i = 0; i < namespaces.size(); i++) {
-            URI namespace = namespaces.get(i);
-            if(!XmlUtil.isXMLReservedNamespace(namespace.toString())) {
-            	sources.add(getNamespaceSource(namespace));
-            }
-        }
-        setXSDSources(sources);
+        // Using the namespace URI list, get the merged Schema instance.  Schemas are compiled
+        // once per namespace set...
+        setSchema(XsdSchemaCache.getInstance().getSchema(namespaces));
     }
 
     public URI getDefaultNamespace() {
@@ -168,16 +157,4 @@ public class XsdDOMValidator extends XsdValidator {
             }
         }
     }
-
-    private Source getNamespaceSource(URI namespace) throws SAXException {
-        String resourcePath = "/META-INF" + namespace.getPath();
-        InputStream xsdStream = ClassUtil.getResourceAsStream(resourcePath, getClass());
-
-        if(xsdStream == null) {
-            throw new SAXException("Failed to locate XSD resource '" + resourcePath + "' on classpath. Namespace: '" + namespace + "'.");
-        }
-
-        return new StreamSource(xsdStream);
-    }
-
 }
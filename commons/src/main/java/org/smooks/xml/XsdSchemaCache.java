@@ -0,0 +1,199 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Commons
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.xml;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.smooks.assertion.AssertArgument;
+import org.smooks.util.ClassUtil;
+import org.xml.sax.SAXException;
+
+import javax.xml.transform.Source;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Process wide cache of compiled XSD {@link Schema Schemas}.
+ * <p/>
+ * Schemas are compiled from the namespace XSDs on the classpath, as described in {@link XsdDOMValidator},
+ * and cached against the ordered set of namespaces and the {@link Thread#getContextClassLoader() context ClassLoader}
+ * through which the XSDs were located.  {@link Schema} instances are immutable and thread safe, so a cached
+ * Schema can be shared by all validators.
+ * <p/>
+ * ClassLoaders are weakly referenced, so the cache does not stop them being garbage collected.
+ */
+public class XsdSchemaCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(XsdSchemaCache.class);
+    private static final XsdSchemaCache INSTANCE = new XsdSchemaCache();
+
+    private final Map<ClassLoader, ConcurrentMap<String, Schema>> schemas = Collections.synchronizedMap(new WeakHashMap<ClassLoader, ConcurrentMap<String, Schema>>());
+
+    /**
+     * Get the process wide cache instance.
+     * @return The cache instance.
+     */
+    public static XsdSchemaCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Get the compiled Schema for the supplied set of namespaces, compiling and caching it if needed.
+     * <p/>
+     * XML reserved namespaces are ignored.
+     *
+     * @param namespaces The namespaces.
+     * @return The Schema.
+     * @throws SAXException Failed to locate or compile one of the namespace XSDs.
+     */
+    public Schema getSchema(Collection<URI> namespaces) throws SAXException {
+        AssertArgument.isNotNull(namespaces, "namespaces");
+
+        // Namespace order is significant: an extension XSD can only be compiled after the XSDs it extends...
+        Set<String> namespaceSet = new LinkedHashSet<String>();
+        for(URI namespace : namespaces) {
+            if(!XmlUtil.isXMLReservedNamespace(namespace.toString())) {
+                namespaceSet.add(namespace.toString());
+            }
+        }
+
+        ConcurrentMap<String, Schema> classLoaderSchemas = getClassLoaderSchemas();
+        String key = namespaceSet.toString();
+        Schema schema = classLoaderSchemas.get(key);
+
+        if(schema == null) {
+            long start = System.nanoTime();
+
+            schema = compile(namespaceSet);
+            if(LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Compiled XSD Schema for namespaces " + key + " in " + ((System.nanoTime() - start) / 1000000) + "ms.");
+            }
+
+            Schema existing = classLoaderSchemas.putIfAbsent(key, schema);
+            if(existing != null) {
+                schema = existing;
+            }
+        }
+
+        return schema;
+    }
+
+    /**
+     * Compile and cache the Schema for the supplied set of namespaces ahead of time (e.g. on startup).
+     *
+     * @param namespaces The namespaces.
+     * @throws SAXException Failed to locate or compile one of the namespace XSDs.
+     */
+    public void warmUp(String... namespaces) throws SAXException {
+        List<URI> namespaceURIs = new ArrayList<URI>();
+
+        for(String namespace : namespaces) {
+            try {
+                namespaceURIs.add(new URI(namespace));
+            } catch (URISyntaxException e) {
+                throw new SAXException("Namespaces must be valid URIs.  Found Namespace: '" + namespace + "'.", e);
+            }
+        }
+        getSchema(namespaceURIs);
+    }
+
+    /**
+     * Get the number of Schemas cached for the current context ClassLoader.
+     * @return The number of cached Schemas.
+     */
+    public int size() {
+        return getClassLoaderSchemas().size();
+    }
+
+    /**
+     * Clear the cache.
+     */
+    public void clear() {
+        schemas.clear();
+    }
+
+    private ConcurrentMap<String, Schema> getClassLoaderSchemas() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+
+        if(classLoader == null) {
+            classLoader = XsdSchemaCache.class.getClassLoader();
+        }
+
+        synchronized (schemas) {
+            ConcurrentMap<String, Schema> classLoaderSchemas = schemas.get(classLoader);
+            if(classLoaderSchemas == null) {
+                classLoaderSchemas = new ConcurrentHashMap<String, Schema>();
+                schemas.put(classLoader, classLoaderSchemas);
+            }
+            return classLoaderSchemas;
+        }
+    }
+
+    private Schema compile(Set<String> namespaces) throws SAXException {
+        List<Source> sources = new ArrayList<Source>();
+
+        for(String namespace : namespaces) {
+            sources.add(getNamespaceSource(URI.create(namespace)));
+        }
+        AssertArgument.isNotNullAndNotEmpty(sources, "namespaces");
+
+        return XsdValidator.newDefaultSchemaFactory(getClass()).newSchema(sources.toArray(new Source[0]));
+    }
+
+    private Source getNamespaceSource(URI namespace) throws SAXException {
+        String resourcePath = "/META-INF" + namespace.getPath();
+        InputStream xsdStream = ClassUtil.getResourceAsStream(resourcePath, getClass());
+
+        if(xsdStream == null) {
+            throw new SAXException("Failed to locate XSD resource '" + resourcePath + "' on classpath. Namespace: '" + namespace + "'.");
+        }
+
+        return new StreamSource(xsdStream);
+    }
+}
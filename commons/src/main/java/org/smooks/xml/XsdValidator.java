@@ -98,6 +98,18 @@ public class XsdValidator {
         this.schema = schemaFactory.newSchema(xsdSourcesArray);
     }
 
+    /**
+     * Set a precompiled Schema.
+     * @param schema The schema.
+     * @see XsdSchemaCache
+     */
+    public void setSchema(Schema schema) {
+        assertSchemaNotInitialized();
+
+        AssertArgument.isNotNull(schema, "schema");
+        this.schema = schema;
+    }
+
     /**
      * Set the validation error handler.
      * @param errorHandler The validation error handler.
@@ -142,23 +154,27 @@ public class XsdValidator {
         if (installedSchemaFactory != null) {
             return installedSchemaFactory;
         } else {
-            String schemaFactoryClass = System.getProperty(SCHEMA_FACTORY);
-
-            if (schemaFactoryClass != null) {
-                try {
-                    return (SchemaFactory) ClassUtil.forName(schemaFactoryClass, getClass()).newInstance();
-                } catch (Exception e) {
-                    throw new IllegalStateException("Failed to create an instance of SchemaFactory '" + schemaFactoryClass + "'.", e);
-                }
-            } else {
-                SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-                try {
-                    schemaFactory.setProperty("http://apache.org/xml/properties/security-manager", null);   // Need to turn this thing off, otherwise it throws stupid errors.
-                } catch (SAXException e) {
-                    // Ignore...
-                }
-                return schemaFactory;
+            return newDefaultSchemaFactory(getClass());
+        }
+    }
+
+    static SchemaFactory newDefaultSchemaFactory(Class<?> caller) {
+        String schemaFactoryClass = System.getProperty(SCHEMA_FACTORY);
+
+        if (schemaFactoryClass != null) {
+            try {
+                return (SchemaFactory) ClassUtil.forName(schemaFactoryClass, caller).newInstance();
+            } catch (Exception e) {
+                throw new IllegalStateException("Failed to create an instance of SchemaFactory '" + schemaFactoryClass + "'.", e);
+            }
+        } else {
+            SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+            try {
+                schemaFactory.setProperty("http://apache.org/xml/properties/security-manager", null);   // Need to turn this thing off, otherwise it throws stupid errors.
+            } catch (SAXException e) {
+                // Ignore...
             }
+            return schemaFactory;
         }
     }
 }
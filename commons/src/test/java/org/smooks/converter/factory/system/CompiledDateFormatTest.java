@@ -0,0 +1,123 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Commons
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.converter.factory.system;
+
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class CompiledDateFormatTest {
+
+    private static final String[] ZONE_IDS = {"UTC", "Europe/Dublin", "America/New_York", "Asia/Kolkata", "Australia/Lord_Howe", "+05:30"};
+
+    @Test
+    public void test_compile() {
+        assertNotNull(CompiledDateFormat.compile("yyyyMMdd", java.time.ZoneId.of("UTC")));
+        assertNotNull(CompiledDateFormat.compile("yyyy-MM-dd'T'HH:mm:ss.SSS", java.time.ZoneId.of("UTC")));
+        assertNotNull(CompiledDateFormat.compile("HH:mm", java.time.ZoneId.of("UTC")));
+        assertNull(CompiledDateFormat.compile("EEE MMM dd HH:mm:ss z yyyy", java.time.ZoneId.of("UTC")));
+        assertNull(CompiledDateFormat.compile("yyyy-M-d", java.time.ZoneId.of("UTC")));
+        assertNull(CompiledDateFormat.compile("yyyy-MM", java.time.ZoneId.of("UTC")));
+        assertNull(CompiledDateFormat.compile("yyyyMMddHHmmssSSS", java.time.ZoneId.of("UTC")));
+        assertNull(CompiledDateFormat.compile("yyyy-MM-dd[ HH:mm]", java.time.ZoneId.of("UTC")));
+    }
+
+    @Test
+    public void test_matches_DateTimeFormatter() {
+        assertMatches("yyyyMMdd", "20210328", "20211031", "20200229", "20210229", "20210431", "20211301", "00010101", "99991231", "2021032", "202103281", "2021-03-28", " 20210328 ");
+        assertMatches("yyyy-MM-dd", "2021-03-28", "1969-12-31", "2021-02-30", "2021/03/28", "2021-03-2x");
+        assertMatches("yyyy-MM-dd'T'HH:mm:ss", "2021-03-28T01:30:00", "2021-10-31T01:30:00", "2021-03-14T02:30:00", "2021-11-07T01:30:00",
+                "2021-04-03T02:15:00", "2021-10-03T02:15:00", "2021-06-15T23:59:59", "2021-06-15T24:00:00", "2021-06-15T12:60:00", "2021-06-15t12:00:00");
+        assertMatches("dd/MM/yyyy HH:mm", "28/03/2021 01:30", "31/12/1999 23:59");
+        assertMatches("yyyy-MM-dd HH:mm:ss.SSS", "2021-06-15 12:34:56.789", "1969-12-31 23:59:59.999", "2021-06-15 12:34:56.78");
+        assertMatches("HH:mm:ss", "12:34:56", "00:00:00", "23:59:60");
+    }
+
+    @Test
+    public void test_offset_window() {
+        CompiledDateFormat compiledDateFormat = CompiledDateFormat.compile("yyyy-MM-dd'T'HH:mm:ss", java.time.ZoneId.of("Europe/Dublin"));
+
+        // Alternate between summer and winter time, so the cached offset is replaced...
+        for (int i = 0; i < 3; i++) {
+            assertEquals(1623760496000L, compiledDateFormat.parse("2021-06-15T13:34:56"));
+            assertEquals(1610714096000L, compiledDateFormat.parse("2021-01-15T12:34:56"));
+        }
+    }
+
+    private void assertMatches(String format, String... values) {
+        for (String zoneId : ZONE_IDS) {
+            StringToDateConverterFactory.StringToDateConverter converter = new StringToDateConverterFactory.StringToDateConverter();
+            StringToDateConverterFactory.StringToDateConverter formatterConverter = new StringToDateConverterFactory.StringToDateConverter();
+            Properties config = new Properties();
+
+            config.setProperty(DateLocaleAwareTypeConverter.FORMAT, format);
+            config.setProperty(DateLocaleAwareTypeConverter.ZONE_ID, zoneId);
+            converter.setConfiguration(config);
+            formatterConverter.setConfiguration(config);
+            formatterConverter.compiledDateFormat = null;
+            assertNotNull(converter.compiledDateFormat);
+
+            for (String value : values) {
+                Date expected;
+                try {
+                    expected = formatterConverter.convert(value);
+                } catch (RuntimeException e) {
+                    try {
+                        converter.convert(value);
+                        fail("Expected " + e.getClass().getName() + " for '" + value + "' in " + zoneId);
+                    } catch (RuntimeException expectedException) {
+                        assertEquals(e.getClass(), expectedException.getClass());
+                    }
+                    continue;
+                }
+                assertEquals("'" + value + "' in " + zoneId, expected, converter.convert(value));
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Commons
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.converter.factory.system;
+
+import org.junit.Test;
+
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class CompiledNumberFormatTest {
+
+    private static final String[] VALUES = {
+        "0", "-0", "1", "-1", " 42 ", "1234", "1,234", "1.234", "1 234", "1 234", "1,234.5", "1.234,5", "1234,45",
+        "0.1", "-0.25", ".5", ",5", "12.", "1,2,3", "1,", "12abc", "abc", "", "-", "%", "30%", "-30%", "150%", "0.5%",
+        "1E3", "1,5E-3", "∞", "NaN", "9007199254740993", "123456789012345678901234", "0.00000000000000000000000001",
+        "$1,234.56", "($1,234.56)", "-$1.00", "1.234,56 €", "-1.234,56 €", "£1,234.56", "2147483648", "2147483648.5",
+        "32768", "-32769.5"
+    };
+
+    @Test
+    public void test_matches_NumberFormat() throws ParseException {
+        List<NumberFormat> numberFormats = new ArrayList<NumberFormat>();
+
+        for (Locale locale : new Locale[]{Locale.US, new Locale("en", "IE"), Locale.GERMANY, Locale.FRANCE, Locale.UK, new Locale("de", "CH")}) {
+            NumberFormat numberFormat = NumberFormat.getInstance(locale);
+            numberFormat.setGroupingUsed(false);
+            numberFormats.add(numberFormat);
+            numberFormats.add(NumberFormat.getPercentInstance(locale));
+            numberFormats.add(NumberFormat.getCurrencyInstance(locale));
+
+            numberFormat = NumberFormat.getInstance(locale);
+            numberFormat.setGroupingUsed(false);
+            ((DecimalFormat) numberFormat).applyPattern("#,###.##");
+            numberFormats.add(numberFormat);
+
+            numberFormat = NumberFormat.getIntegerInstance(locale);
+            numberFormats.add(numberFormat);
+        }
+
+        for (NumberFormat numberFormat : numberFormats) {
+            CompiledNumberFormat compiledNumberFormat = new CompiledNumberFormat(numberFormat);
+
+            for (String value : VALUES) {
+                Number expected;
+                try {
+                    expected = ((NumberFormat) numberFormat.clone()).parse(value.trim());
+                } catch (ParseException e) {
+                    try {
+                        compiledNumberFormat.parseDouble(value);
+                        fail("Expected ParseException for '" + value + "' using " + ((DecimalFormat) numberFormat).toPattern());
+                    } catch (ParseException expectedException) {
+                        // Expected...
+                    }
+                    continue;
+                }
+
+                String message = "'" + value + "' using " + ((DecimalFormat) numberFormat).toPattern() + ": ";
+                assertEquals(message, expected, compiledNumberFormat.parse(value));
+                assertEquals(message, expected.doubleValue(), compiledNumberFormat.parseDouble(value), 0);
+                assertEquals(message, expected.floatValue(), compiledNumberFormat.parseFloat(value), 0);
+                assertEquals(message, expected.longValue(), compiledNumberFormat.parseLong(value));
+                assertEquals(message, expected.intValue(), compiledNumberFormat.parseInt(value));
+                assertEquals(message, expected.shortValue(), compiledNumberFormat.parseShort(value));
+            }
+        }
+    }
+
+    @Test
+    public void test_concurrent() throws Exception {
+        NumberFormat numberFormat = NumberFormat.getInstance(Locale.GERMANY);
+        ((DecimalFormat) numberFormat).applyPattern("#,###.##");
+        final CompiledNumberFormat compiledNumberFormat = new CompiledNumberFormat(numberFormat);
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+
+        try {
+            List<Future<?>> futures = new ArrayList<Future<?>>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executorService.submit(new Callable<Object>() {
+                    public Object call() throws Exception {
+                        for (int j = 0; j < 1000; j++) {
+                            assertEquals(j + 0.25, compiledNumberFormat.parseDouble(j + ",25"), 0);
+                            assertEquals(j + 0.25, compiledNumberFormat.parseDouble(j + ",25E0"), 0);
+                            assertEquals(j + ",25", compiledNumberFormat.format(j + 0.25));
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+}
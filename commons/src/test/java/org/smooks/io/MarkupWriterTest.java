@@ -0,0 +1,126 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Commons
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.io;
+
+import org.junit.Test;
+import org.smooks.xml.XmlUtil;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class MarkupWriterTest {
+
+    private static final String TEXT = "a<b>&c 'd' \"e\" éß € 😀 \ud800x";
+
+    @Test
+    public void test_encoding_matches_OutputStreamWriter() throws IOException {
+        for(String charset : new String[] {"UTF-8", "ISO-8859-1", "US-ASCII", "UTF-16", "windows-1252"}) {
+            // Small buffers, so as to force lots of flushes (including between surrogate pairs)...
+            for(int bufferSize : new int[] {16, 17, 8192}) {
+                ByteArrayOutputStream expected = new ByteArrayOutputStream();
+                ByteArrayOutputStream actual = new ByteArrayOutputStream();
+
+                write(new OutputStreamWriter(expected, charset));
+                write(new MarkupWriter(actual, Charset.forName(charset), bufferSize));
+                assertArrayEquals(charset + "/" + bufferSize, expected.toByteArray(), actual.toByteArray());
+            }
+        }
+    }
+
+    @Test
+    public void test_escaping() throws IOException {
+        ByteArrayOutputStream expectedStream = new ByteArrayOutputStream();
+        ByteArrayOutputStream actualStream = new ByteArrayOutputStream();
+        Writer expected = new OutputStreamWriter(expectedStream, StandardCharsets.UTF_8);
+        MarkupWriter actual = new MarkupWriter(actualStream, StandardCharsets.UTF_8, 16);
+
+        for(Writer writer : new Writer[] {expected, actual}) {
+            for(int i = 0; i < 10; i++) {
+                XmlUtil.encodeTextValue(TEXT.toCharArray(), 0, TEXT.length(), writer);
+                XmlUtil.encodeAttributeValue(TEXT.toCharArray(), 2, TEXT.length() - 2, writer);
+            }
+            writer.flush();
+        }
+        // The OutputStreamWriter output is escaped by XmlUtil, character by character...
+        assertEquals(new String(expectedStream.toByteArray(), StandardCharsets.UTF_8), new String(actualStream.toByteArray(), StandardCharsets.UTF_8));
+
+        actualStream.reset();
+        actual.writeEscapedAttribute("x'<\"");
+        actual.flush();
+        assertEquals("x&apos;&lt;&quot;", new String(actualStream.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void test_flush() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        MarkupWriter writer = new MarkupWriter(outputStream, StandardCharsets.UTF_8);
+
+        writer.write("<a>");
+        assertEquals(0, outputStream.size());
+        writer.flush();
+        assertEquals("<a>", outputStream.toString("UTF-8"));
+        writer.close();
+        try {
+            writer.flush();
+            fail("Expected IOException.");
+        } catch(IOException e) {
+            assertEquals("Stream closed", e.getMessage());
+        }
+    }
+
+    private void write(Writer writer) throws IOException {
+        for(int i = 0; i < 10; i++) {
+            writer.write(TEXT);
+            writer.write('<');
+            writer.write(TEXT.toCharArray(), 3, TEXT.length() - 3);
+            writer.append(TEXT, 1, 6);
+        }
+        writer.close();
+    }
+}
@@ -51,8 +51,9 @@ import javax.xml.XMLConstants;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
 
 public class NamespaceDeclarationStackTest {
@@ -123,6 +124,92 @@ public class NamespaceDeclarationStackTest {
 		assertEquals("[start:b:nsb, start:a:nsa, end:b, end:a]", handler.history.toString());
 	}
 
+	@Test
+	public void testPrefixResolution() throws Exception {
+		AttributesImpl outerAttrs = new AttributesImpl();
+		outerAttrs.addAttribute(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, "b", "xmlns:b", "CDATA", "nsb");
+		outerAttrs.addAttribute(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, "xmlns", "xmlns", "CDATA", "nsdefault");
+		AttributesImpl innerAttrs = new AttributesImpl();
+		innerAttrs.addAttribute(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, "b", "xmlns:b", "CDATA", "nsb2");
+		NamespaceDeclarationStack nds = new NamespaceDeclarationStack();
+
+		nds.pushNamespaces("a:element", "nsa", outerAttrs);
+		assertEquals("nsa", nds.getNamespaceURI("a"));
+		assertEquals("nsb", nds.getNamespaceURI("b"));
+		assertEquals("nsdefault", nds.getNamespaceURI(XMLConstants.DEFAULT_NS_PREFIX));
+		assertEquals("b", nds.getPrefix("nsb"));
+		Map<String, String> outerNamespaces = nds.getActiveNamespaces();
+		assertEquals(3, outerNamespaces.size());
+		assertSame(outerNamespaces, nds.getActiveNamespaces());
+
+		// Redeclare "b" and push an element without declarations...
+		nds.pushNamespaces("b:element", "nsb2", innerAttrs);
+		nds.pushNamespaces("element", "", null);
+		assertEquals("nsb2", nds.getNamespaceURI("b"));
+		assertEquals("b", nds.getPrefix("nsb2"));
+		assertEquals("nsb2", nds.getActiveNamespaces().get("b"));
+		assertEquals("nsb", outerNamespaces.get("b"));
+
+		nds.popNamespaces();
+		nds.popNamespaces();
+		assertEquals("nsb", nds.getNamespaceURI("b"));
+		assertEquals("b", nds.getPrefix("nsb"));
+		assertNull(nds.getPrefix("nsb2"));
+		assertEquals(outerNamespaces, nds.getActiveNamespaces());
+
+		nds.popNamespaces();
+		assertNull(nds.getNamespaceURI("a"));
+		assertNull(nds.getPrefix("nsa"));
+		assertTrue(nds.getActiveNamespaces().isEmpty());
+	}
+
+	@Test
+	public void testActiveNamespacesInnerDeclarationWins() throws Exception {
+		AttributesImpl outerAttrs = new AttributesImpl();
+		outerAttrs.addAttribute(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, "b", "xmlns:b", "CDATA", "outer-b");
+		outerAttrs.addAttribute(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, "xmlns", "xmlns", "CDATA", "outer-default");
+		AttributesImpl innerAttrs = new AttributesImpl();
+		innerAttrs.addAttribute(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, "b", "xmlns:b", "CDATA", "inner-b");
+		innerAttrs.addAttribute(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, "xmlns", "xmlns", "CDATA", "inner-default");
+		NamespaceDeclarationStack nds = new NamespaceDeclarationStack();
+
+		nds.pushNamespaces("outer", "outer-default", outerAttrs);
+		nds.pushNamespaces("inner", "inner-default", innerAttrs);
+
+		Map<String, String> activeNamespaces = nds.getActiveNamespaces();
+		assertEquals(2, activeNamespaces.size());
+		assertEquals("inner-b", activeNamespaces.get("b"));
+		assertEquals("inner-default", activeNamespaces.get(XMLConstants.DEFAULT_NS_PREFIX));
+
+		nds.popNamespaces();
+		activeNamespaces = nds.getActiveNamespaces();
+		assertEquals("outer-b", activeNamespaces.get("b"));
+		assertEquals("outer-default", activeNamespaces.get(XMLConstants.DEFAULT_NS_PREFIX));
+	}
+
+	@Test
+	public void testManyDeclarations() throws Exception {
+		MockContentHandler handler = new MockContentHandler();
+		NamespaceDeclarationStack nds = new NamespaceDeclarationStack();
+		nds.pushReader(new MockXMLReader(handler));
+
+		for (int i = 0; i < 50; i++) {
+			AttributesImpl attrs = new AttributesImpl();
+			attrs.addAttribute(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, "p" + i, "xmlns:p" + i, "CDATA", "ns" + i);
+			nds.pushNamespaces("element", "", attrs);
+		}
+		assertEquals(50, nds.getActiveNamespaces().size());
+		assertEquals("ns49", nds.getNamespaceURI("p49"));
+		assertEquals("p0", nds.getPrefix("ns0"));
+
+		for (int i = 0; i < 50; i++) {
+			nds.popNamespaces();
+		}
+		assertEquals(100, handler.history.size());
+		assertEquals("end:p0", handler.history.get(99));
+		assertNull(nds.getNamespaceURI("p0"));
+	}
+
     private class MockXMLReader implements XMLReader {
 
         private ContentHandler contentHandler;
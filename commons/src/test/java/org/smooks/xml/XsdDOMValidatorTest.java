@@ -48,8 +48,12 @@ import org.w3c.dom.Document;
 import org.xml.sax.SAXException;
 import org.xml.sax.SAXParseException;
 
+import javax.xml.XMLConstants;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.validation.Schema;
 import java.io.IOException;
+import java.net.URI;
+import java.util.Arrays;
 
 /**
  * @author <a href="mailto:tom.fennelly@gmail.com">tom.fennelly@gmail.com</a>
@@ -85,4 +89,20 @@ public class XsdDOMValidatorTest {
             assertEquals("cvc-complex-type.4: Attribute 'myName' must appear on element 'a:myNVP'.", e.getMessage());
         }
     }
+
+	@Test
+    public void test_schema_cache() throws SAXException {
+        XsdSchemaCache cache = XsdSchemaCache.getInstance();
+
+        cache.clear();
+        cache.warmUp("http://www.milyn.org/xsd/test-xsd-01.xsd", "http://www.milyn.org/xsd/test-xsd-02.xsd", XMLConstants.XML_NS_URI);
+        assertEquals(1, cache.size());
+
+        // Same namespace sequence, reserved namespaces ignored...
+        Schema schema = cache.getSchema(Arrays.asList(URI.create("http://www.milyn.org/xsd/test-xsd-01.xsd"), URI.create("http://www.milyn.org/xsd/test-xsd-02.xsd")));
+        assertSame(schema, cache.getSchema(Arrays.asList(URI.create("http://www.milyn.org/xsd/test-xsd-01.xsd"), URI.create(XMLConstants.XML_NS_URI), URI.create("http://www.milyn.org/xsd/test-xsd-02.xsd"))));
+        assertEquals(1, cache.size());
+        cache.getSchema(Arrays.asList(URI.create("http://www.milyn.org/xsd/test-xsd-01.xsd")));
+        assertEquals(2, cache.size());
+    }
 }
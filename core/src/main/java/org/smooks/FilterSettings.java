@@ -62,7 +62,9 @@ public class FilterSettings {
     private boolean maintainElementStack = true;
     private boolean closeSource = true;
     private boolean closeResult = true;
-    private int readerPoolSize = 0;
+    private int readerPoolSize = -1;
+    private boolean recycleElements = false;
+    private boolean passThroughUntargeted = true;
 
     public FilterSettings() {
     }
@@ -122,12 +124,33 @@ public class FilterSettings {
         return this;
     }
     
+    /**
+     * Set the {@link org.xml.sax.XMLReader} pool size.
+     * <p/>
+     * Defaults to {@link org.smooks.delivery.AbstractContentDeliveryConfig#DEFAULT_READER_POOL_SIZE}.
+     * A pool size of 0 turns off reader pooling.
+     *
+     * @param readerPoolSize The reader pool size.
+     * @return This FilterSettings instance.
+     */
     public FilterSettings setReaderPoolSize(int readerPoolSize) {
     	assertNonStaticDecl();
         this.readerPoolSize = readerPoolSize;
         return this;
     }
 
+    public FilterSettings setRecycleElements(boolean recycleElements) {
+    	assertNonStaticDecl();
+        this.recycleElements = recycleElements;
+        return this;
+    }
+
+    public FilterSettings setPassThroughUntargeted(boolean passThroughUntargeted) {
+    	assertNonStaticDecl();
+        this.passThroughUntargeted = passThroughUntargeted;
+        return this;
+    }
+
     protected void applySettings(Smooks smooks) {
     	// Remove the old params...
         ParameterAccessor.removeParameter(Filter.STREAM_FILTER_TYPE, smooks);        
@@ -138,6 +161,8 @@ public class FilterSettings {
         ParameterAccessor.removeParameter(Filter.CLOSE_SOURCE, smooks);
         ParameterAccessor.removeParameter(Filter.CLOSE_RESULT, smooks);
         ParameterAccessor.removeParameter(Filter.READER_POOL_SIZE, smooks);
+        ParameterAccessor.removeParameter(Filter.RECYCLE_ELEMENTS, smooks);
+        ParameterAccessor.removeParameter(Filter.PASS_THROUGH_UNTARGETED, smooks);
     	
     	// Set the params...
         ParameterAccessor.setParameter(Filter.STREAM_FILTER_TYPE, filterType.toString(), smooks);        
@@ -147,7 +172,11 @@ public class FilterSettings {
         ParameterAccessor.setParameter(Filter.MAINTAIN_ELEMENT_STACK, Boolean.toString(maintainElementStack), smooks);
         ParameterAccessor.setParameter(Filter.CLOSE_SOURCE, Boolean.toString(closeSource), smooks);
         ParameterAccessor.setParameter(Filter.CLOSE_RESULT, Boolean.toString(closeResult), smooks);
-        ParameterAccessor.setParameter(Filter.READER_POOL_SIZE, Integer.toString(readerPoolSize), smooks);
+        if(readerPoolSize >= 0) {
+            ParameterAccessor.setParameter(Filter.READER_POOL_SIZE, Integer.toString(readerPoolSize), smooks);
+        }
+        ParameterAccessor.setParameter(Filter.RECYCLE_ELEMENTS, Boolean.toString(recycleElements), smooks);
+        ParameterAccessor.setParameter(Filter.PASS_THROUGH_UNTARGETED, Boolean.toString(passThroughUntargeted), smooks);
     }
 
 	private void assertNonStaticDecl() {
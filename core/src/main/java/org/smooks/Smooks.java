@@ -45,6 +45,8 @@ package org.smooks;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.smooks.assertion.AssertArgument;
+import org.smooks.batch.BatchReport;
+import org.smooks.batch.SmooksBatchProcessor;
 import org.smooks.cdr.SmooksResourceConfiguration;
 import org.smooks.classpath.CascadingClassLoaderSet;
 import org.smooks.container.ApplicationContext;
@@ -81,6 +83,7 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Properties;
+import java.util.function.Function;
 
 /**
  * Smooks executor class.
@@ -130,6 +133,11 @@ public class Smooks {
      * after the first execution context has been created.
      */
     private volatile boolean isConfigurable = true;
+    /**
+     * Batch processor used by {@link #filterBatch(Iterable, Function, int)}.  Created on first use, shared
+     * by all batches and closed when this instance is closed.
+     */
+    private SmooksBatchProcessor batchProcessor;
 
     /**
      * Public Default Constructor.
@@ -500,6 +508,33 @@ public class Smooks {
         }
     }
 
+    /**
+     * Filter a batch of messages on a pool of worker threads.
+     * <p/>
+     * A failure to filter one of the messages does not stop the batch.  Failures are
+     * reported in the returned {@link BatchReport}, and logged at warn level.  See {@link SmooksBatchProcessor}.
+     * <p/>
+     * The worker threads are owned by this Smooks instance.  All calls (including concurrent calls) share one pool
+     * of worker threads, sized to the largest parallelism requested so far.  Each call filters its messages on
+     * at most <code>parallelism</code> of the threads.  The threads are stopped when this instance is {@link #close() closed}.
+     *
+     * @param sources          The message sources.
+     * @param resultsFactory   Function creating the filter Results for a message source.
+     * @param parallelism      The maximum number of worker threads filtering the batch.
+     * @return The batch report.
+     * @throws SmooksException Interrupted while filtering the batch.
+     */
+    public BatchReport filterBatch(Iterable<? extends Source> sources, Function<Source, Result[]> resultsFactory, int parallelism) throws SmooksException {
+        return getBatchProcessor(parallelism).process(sources, resultsFactory, parallelism);
+    }
+
+    private synchronized SmooksBatchProcessor getBatchProcessor(int parallelism) {
+        if(batchProcessor == null) {
+            batchProcessor = new SmooksBatchProcessor(this, parallelism);
+        }
+        return batchProcessor;
+    }
+
     private void _filter(ExecutionContext executionContext, Source source, Result... results) {
         ExecutionEventListener eventListener = executionContext.getEventListener();
 
@@ -524,7 +559,7 @@ public class Smooks {
                 }
                 
                 Filter messageFilter = deliveryConfig.newFilter(executionContext);
-                Filter.setFilter(messageFilter);
+                Filter.setFilter(executionContext, messageFilter);
                 try {
                     // Attach the source and results to the context...
                     FilterSource.setSource(executionContext, source);
@@ -565,7 +600,7 @@ public class Smooks {
                     throw new SmooksException("Smooks Filtering operation failed.", t);
                 } finally {
                     messageFilter.cleanup();
-                    Filter.removeCurrentFilter();
+                    Filter.removeFilter(executionContext);
                 }
             } finally {
                 Filter.removeCurrentExecutionContext();
@@ -594,6 +629,14 @@ public class Smooks {
      * of all allocated {@link org.smooks.delivery.ContentHandler} instances.
      */
     public void close() {
+        SmooksBatchProcessor batchProcessor;
+        synchronized (this) {
+            batchProcessor = this.batchProcessor;
+            this.batchProcessor = null;
+        }
+        if(batchProcessor != null) {
+            batchProcessor.close();
+        }
         applicationContext.getRegistry().close();
     }
 
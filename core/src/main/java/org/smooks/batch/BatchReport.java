@@ -0,0 +1,108 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.batch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Batch filtering report.
+ * <p/>
+ * Returned by {@link SmooksBatchProcessor#process(Iterable, java.util.function.Function)} once all
+ * the messages in the batch have been filtered.
+ */
+public class BatchReport {
+
+    private final long messageCount;
+    private final List<BatchError> errors;
+
+    BatchReport(long messageCount, List<BatchError> errors) {
+        List<BatchError> sortedErrors = new ArrayList<BatchError>(errors);
+
+        Collections.sort(sortedErrors, new Comparator<BatchError>() {
+            public int compare(BatchError error1, BatchError error2) {
+                return Long.compare(error1.getIndex(), error2.getIndex());
+            }
+        });
+        this.messageCount = messageCount;
+        this.errors = Collections.unmodifiableList(sortedErrors);
+    }
+
+    /**
+     * Get the number of messages in the batch.
+     * @return The number of messages.
+     */
+    public long getMessageCount() {
+        return messageCount;
+    }
+
+    /**
+     * Get the number of messages that were successfully filtered.
+     * @return The number of successfully filtered messages.
+     */
+    public long getSuccessCount() {
+        return messageCount - errors.size();
+    }
+
+    /**
+     * Get the errors for the messages that failed to filter, in message order.
+     * @return The errors, or an empty list if all messages were successfully filtered.
+     */
+    public List<BatchError> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Did all messages filter successfully.
+     * @return True if there were no errors, otherwise false.
+     */
+    public boolean isSuccess() {
+        return errors.isEmpty();
+    }
+
+    public String toString() {
+        return "BatchReport[messages=" + messageCount + ", errors=" + errors.size() + "]";
+    }
+}
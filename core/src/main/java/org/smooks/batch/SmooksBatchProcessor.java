@@ -0,0 +1,374 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.batch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.smooks.Smooks;
+import org.smooks.SmooksException;
+import org.smooks.assertion.AssertArgument;
+import org.smooks.container.ExecutionContext;
+import org.smooks.container.standalone.StandaloneExecutionContext;
+import org.smooks.delivery.AbstractContentDeliveryConfig;
+import org.smooks.delivery.ContentDeliveryConfig;
+import org.smooks.profile.Profile;
+
+import javax.xml.transform.Result;
+import javax.xml.transform.Source;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Multi-threaded batch message filter.
+ * <p/>
+ * Filters a batch of messages on a fixed size pool of worker threads:
+ * <ul>
+ *  <li>The batch {@link Iterable} is consumed lazily.  No more than a bounded number of messages are
+ *      in flight at any time, so the caller thread blocks when the workers fall behind (backpressure).</li>
+ *  <li>{@link ExecutionContext} instances are reset and reused across messages instead of being
+ *      created for every message, and the {@link org.xml.sax.XMLReader} pool is sized so each worker
+ *      can reuse a reader.</li>
+ *  <li>A failure to filter one message does not stop the batch.  The failures are logged at warn level
+ *      and reported in the returned {@link BatchReport}.</li>
+ * </ul>
+ * <pre>
+ * SmooksBatchProcessor batchProcessor = new SmooksBatchProcessor(smooks, 8);
+ * try {
+ *     BatchReport report = batchProcessor.process(sources, source -&gt; new Result[] {new JavaResult()});
+ * } finally {
+ *     batchProcessor.close();
+ * }
+ * </pre>
+ * A processor can process any number of batches, including concurrently (the batches then share the
+ * worker threads).  A batch can be limited to fewer worker threads than the processor has (see
+ * {@link #process(Iterable, Function, int)}), or grow the pool.  It must be {@link #close() closed}
+ * when no longer needed, so as to stop its worker threads.
+ */
+public class SmooksBatchProcessor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SmooksBatchProcessor.class);
+    private static final AtomicInteger PROCESSOR_COUNT = new AtomicInteger();
+
+    private final Smooks smooks;
+    private final String targetProfile;
+    private volatile int parallelism;
+    private final int initialParallelism;
+    private final int maxInFlight;
+    private final ThreadPoolExecutor executor;
+    private final BlockingQueue<ExecutionContext> executionContexts = new LinkedBlockingQueue<ExecutionContext>();
+
+    /**
+     * Public constructor.
+     * @param smooks The Smooks instance used to filter the messages.
+     * @param parallelism The number of worker threads.
+     */
+    public SmooksBatchProcessor(Smooks smooks, int parallelism) {
+        this(smooks, parallelism, parallelism * 2, Profile.DEFAULT_PROFILE);
+    }
+
+    /**
+     * Public constructor.
+     * @param smooks The Smooks instance used to filter the messages.
+     * @param parallelism The number of worker threads.
+     * @param maxInFlight The maximum number of messages taken from the batch that are queued or being filtered.
+     * @param targetProfile The target profile used to create the {@link ExecutionContext} instances.
+     */
+    public SmooksBatchProcessor(Smooks smooks, int parallelism, int maxInFlight, String targetProfile) {
+        AssertArgument.isNotNull(smooks, "smooks");
+        AssertArgument.isNotNull(targetProfile, "targetProfile");
+        if(parallelism < 1) {
+            throw new IllegalArgumentException("Invalid 'parallelism' arg value '" + parallelism + "'.  Must be greater than zero.");
+        }
+        if(maxInFlight < parallelism) {
+            throw new IllegalArgumentException("Invalid 'maxInFlight' arg value '" + maxInFlight + "'.  Must be greater than or equal to 'parallelism'.");
+        }
+
+        this.smooks = smooks;
+        this.targetProfile = targetProfile;
+        this.parallelism = parallelism;
+        this.initialParallelism = parallelism;
+        this.maxInFlight = maxInFlight;
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(), new WorkerThreadFactory(PROCESSOR_COUNT.incrementAndGet()));
+    }
+
+    /**
+     * Get the number of worker threads.
+     * @return The number of worker threads.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Filter a batch of messages.
+     * <p/>
+     * Blocks until all the messages in the batch have been filtered.
+     *
+     * @param sources The message sources.
+     * @param resultsFactory Function creating the filter {@link Result Results} for a message source.  Called
+     *                       on the worker thread that filters the message.  May return null.
+     * @return The batch report.
+     * @throws SmooksException The calling thread was interrupted, or the processor is closed.
+     */
+    public BatchReport process(Iterable<? extends Source> sources, Function<Source, Result[]> resultsFactory) throws SmooksException {
+        return process(sources, resultsFactory, parallelism);
+    }
+
+    /**
+     * Filter a batch of messages on at most <code>parallelism</code> worker threads.
+     * <p/>
+     * If <code>parallelism</code> is greater than the number of worker threads, the pool is grown (it's never
+     * shrunk).  The number of messages taken from the batch and in flight is the processor's <code>maxInFlight</code>,
+     * scaled in proportion to <code>parallelism</code>.
+     *
+     * @param sources The message sources.
+     * @param resultsFactory Function creating the filter {@link Result Results} for a message source.  Called
+     *                       on the worker thread that filters the message.  May return null.
+     * @param parallelism The maximum number of worker threads filtering messages of this batch at any time.
+     * @return The batch report.
+     * @throws SmooksException The calling thread was interrupted, or the processor is closed.
+     */
+    public BatchReport process(Iterable<? extends Source> sources, Function<Source, Result[]> resultsFactory, int parallelism) throws SmooksException {
+        if(parallelism < 1) {
+            throw new IllegalArgumentException("Invalid 'parallelism' arg value '" + parallelism + "'.  Must be greater than zero.");
+        }
+        ensureParallelism(parallelism);
+
+        return process(sources, resultsFactory, parallelism, (int) Math.max(parallelism, (long) maxInFlight * parallelism / initialParallelism));
+    }
+
+    private BatchReport process(Iterable<? extends Source> sources, Function<Source, Result[]> resultsFactory, int parallelism, int maxInFlight) throws SmooksException {
+        AssertArgument.isNotNull(sources, "sources");
+        AssertArgument.isNotNull(resultsFactory, "resultsFactory");
+
+        final Semaphore inFlight = new Semaphore(maxInFlight);
+        final List<BatchError> errors = Collections.synchronizedList(new ArrayList<BatchError>());
+        final Batch batch = new Batch(parallelism);
+        long messageCount = 0;
+
+        // Create the first ExecutionContext on the calling thread, so the delivery config is
+        // built before the workers start...
+        returnExecutionContext(takeExecutionContext());
+
+        try {
+            for(Source source : sources) {
+                inFlight.acquire();
+                try {
+                    batch.submit(new FilterTask(messageCount, source, resultsFactory, errors, inFlight));
+                } catch(RejectedExecutionException e) {
+                    inFlight.release();
+                    throw new SmooksException("Failed to submit message " + messageCount + ".  SmooksBatchProcessor closed.", e);
+                }
+                messageCount++;
+            }
+
+            // Wait for the in flight messages to complete...
+            inFlight.acquire(maxInFlight);
+            inFlight.release(maxInFlight);
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SmooksException("Interrupted while filtering batch.  " + messageCount + " messages were submitted.", e);
+        }
+
+        return new BatchReport(messageCount, errors);
+    }
+
+    /**
+     * Close the processor, stopping its worker threads.
+     * <p/>
+     * Does not close the associated {@link Smooks} instance.
+     */
+    public void close() {
+        executor.shutdown();
+        try {
+            if(!executor.awaitTermination(60, TimeUnit.SECONDS)) {
+                LOGGER.warn("Timed out waiting on SmooksBatchProcessor worker threads to terminate.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executionContexts.clear();
+    }
+
+    private synchronized void ensureParallelism(int parallelism) {
+        if(parallelism > this.parallelism) {
+            // Max first, as the core size can't exceed it...
+            executor.setMaximumPoolSize(parallelism);
+            executor.setCorePoolSize(parallelism);
+            this.parallelism = parallelism;
+        }
+    }
+
+    private ExecutionContext takeExecutionContext() {
+        ExecutionContext executionContext = executionContexts.poll();
+
+        if(executionContext == null) {
+            executionContext = smooks.createExecutionContext(targetProfile);
+
+            // Make sure each of the workers can reuse an XMLReader...
+            ContentDeliveryConfig deliveryConfig = executionContext.getDeliveryConfig();
+            if(deliveryConfig instanceof AbstractContentDeliveryConfig) {
+                ((AbstractContentDeliveryConfig) deliveryConfig).ensureXMLReaderPoolSize(parallelism);
+            }
+        }
+
+        return executionContext;
+    }
+
+    private void returnExecutionContext(ExecutionContext executionContext) {
+        if(executionContext instanceof StandaloneExecutionContext) {
+            ((StandaloneExecutionContext) executionContext).reset();
+            executionContexts.offer(executionContext);
+        }
+    }
+
+    /**
+     * The messages of one batch.  The messages are queued here and filtered by at most <code>parallelism</code>
+     * batch workers submitted to the shared executor, so a batch never uses more worker threads than requested.
+     */
+    private class Batch implements Runnable {
+
+        private final int parallelism;
+        private final Queue<FilterTask> tasks = new ConcurrentLinkedQueue<FilterTask>();
+        private final AtomicInteger workers = new AtomicInteger();
+
+        private Batch(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        private void submit(FilterTask task) {
+            tasks.add(task);
+            if(addWorker()) {
+                try {
+                    executor.execute(this);
+                } catch(RejectedExecutionException e) {
+                    workers.decrementAndGet();
+                    tasks.remove(task);
+                    throw e;
+                }
+            }
+        }
+
+        private boolean addWorker() {
+            int count;
+            while((count = workers.get()) < parallelism) {
+                if(workers.compareAndSet(count, count + 1)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public void run() {
+            do {
+                FilterTask task;
+                while((task = tasks.poll()) != null) {
+                    task.run();
+                }
+                workers.decrementAndGet();
+                // A task may have been queued after the poll, while all the workers were busy...
+            } while(!tasks.isEmpty() && addWorker());
+        }
+    }
+
+    private class FilterTask implements Runnable {
+
+        private final long index;
+        private final Source source;
+        private final Function<Source, Result[]> resultsFactory;
+        private final List<BatchError> errors;
+        private final Semaphore inFlight;
+
+        private FilterTask(long index, Source source, Function<Source, Result[]> resultsFactory, List<BatchError> errors, Semaphore inFlight) {
+            this.index = index;
+            this.source = source;
+            this.resultsFactory = resultsFactory;
+            this.errors = errors;
+            this.inFlight = inFlight;
+        }
+
+        public void run() {
+            try {
+                ExecutionContext executionContext = takeExecutionContext();
+                try {
+                    smooks.filterSource(executionContext, source, resultsFactory.apply(source));
+                } finally {
+                    returnExecutionContext(executionContext);
+                }
+            } catch(Throwable t) {
+                LOGGER.warn("Failed to filter batch message " + index + ".", t);
+                errors.add(new BatchError(index, source, t));
+            } finally {
+                inFlight.release();
+            }
+        }
+    }
+
+    private static class WorkerThreadFactory implements ThreadFactory {
+
+        private final int processorNumber;
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        private WorkerThreadFactory(int processorNumber) {
+            this.processorNumber = processorNumber;
+        }
+
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "smooks-batch-" + processorNumber + "-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
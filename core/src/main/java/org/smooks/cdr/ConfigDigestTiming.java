@@ -0,0 +1,114 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.cdr;
+
+/**
+ * Time taken to digest one XML configuration file.
+ * <p/>
+ * One timing is recorded for the root configuration, each &lt;import&gt;ed configuration and each
+ * extension digest configuration.  The total time of a configuration includes the time taken to
+ * digest the configurations it imports.
+ *
+ * @see SmooksResourceConfigurationList#getDigestTimings()
+ */
+public class ConfigDigestTiming {
+
+    private final String config;
+    private final int depth;
+    private final long parseNanos;
+    private final long validateNanos;
+    private final long totalNanos;
+
+    ConfigDigestTiming(String config, int depth, long parseNanos, long validateNanos, long totalNanos) {
+        this.config = config;
+        this.depth = depth;
+        this.parseNanos = parseNanos;
+        this.validateNanos = validateNanos;
+        this.totalNanos = totalNanos;
+    }
+
+    /**
+     * Get the configuration URI (or classpath resource path, for extension digest configurations).
+     * @return The configuration.
+     */
+    public String getConfig() {
+        return config;
+    }
+
+    /**
+     * Get the import depth of the configuration. The root configuration is at depth 0.
+     * @return The import depth.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Get the time taken to parse the configuration into a DOM.
+     * @return The parse time in nanoseconds.
+     */
+    public long getParseNanos() {
+        return parseNanos;
+    }
+
+    /**
+     * Get the time taken to validate the configuration against its namespace XSDs (including getting the Schema).
+     * @return The validation time in nanoseconds.
+     */
+    public long getValidateNanos() {
+        return validateNanos;
+    }
+
+    /**
+     * Get the total time taken to digest the configuration, including its imports.
+     * @return The total time in nanoseconds.
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    @Override
+    public String toString() {
+        return config + ": " + (totalNanos / 1000000) + "ms (parse " + (parseNanos / 1000000) + "ms, validate " + (validateNanos / 1000000) + "ms)";
+    }
+}
@@ -0,0 +1,616 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.cdr;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.smooks.assertion.AssertArgument;
+import org.smooks.expression.ExecutionContextExpressionEvaluator;
+import org.smooks.expression.ExpressionEvaluator;
+import org.smooks.profile.DefaultProfileSet;
+import org.smooks.profile.Profile;
+import org.smooks.profile.ProfileSet;
+import org.smooks.resource.URIResourceLocator;
+import org.smooks.util.ClassUtil;
+import org.w3c.dom.Element;
+
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import java.io.*;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Store for precompiled snapshots of digested XML configurations.
+ * <p/>
+ * Digesting an XML configuration involves parsing it into a DOM, validating it against the configuration
+ * XSDs, resolving its &lt;import&gt;s and running its extension configurations through their digesters.
+ * A snapshot is a compact binary form of the resulting {@link SmooksResourceConfigurationList}, from which
+ * the list can be recreated without doing any of that.
+ * <p/>
+ * Snapshots are keyed by a (SHA-256) hash of the configuration content and its base URI, and record
+ * a hash of the content of every configuration it depends on (imported configurations and extension
+ * digest configurations).  A snapshot is only used if all those dependencies are unchanged.
+ * <p/>
+ * Snapshots are kept in memory and, if the store is created with a directory, on disk (so that they survive
+ * restarts).  Configurations whose digested form cannot be recreated from a snapshot (e.g. extension configurations
+ * that set non String parameter values) are simply not stored.
+ * <p/>
+ * Configure a store on the {@link org.smooks.cdr.registry.Registry} (or through the
+ * {@link org.smooks.container.standalone.DefaultApplicationContextBuilder}).  Stores can be shared
+ * between Smooks instances.
+ *
+ * @see XMLConfigDigester#digestConfig(InputStream, String, ClassLoader, ConfigSnapshotStore)
+ */
+public class ConfigSnapshotStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConfigSnapshotStore.class);
+
+    private static final int MAGIC = 0x534D4B53;
+    private static final int VERSION = 1;
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final String FILE_EXTENSION = ".snapshot";
+
+    private final File directory;
+    private final Map<String, byte[]> snapshots = new ConcurrentHashMap<String, byte[]>();
+    private volatile boolean trusted;
+
+    /**
+     * Create an in-memory snapshot store.
+     */
+    public ConfigSnapshotStore() {
+        this.directory = null;
+    }
+
+    /**
+     * Create a snapshot store that also keeps its snapshots in the supplied directory.
+     * @param directory The snapshot directory.  Created if it doesn't exist.
+     */
+    public ConfigSnapshotStore(File directory) {
+        AssertArgument.isNotNull(directory, "directory");
+        if(!directory.isDirectory() && !directory.mkdirs()) {
+            throw new SmooksConfigurationException("Unable to create configuration snapshot directory '" + directory.getAbsolutePath() + "'.");
+        }
+        this.directory = directory;
+    }
+
+    /**
+     * Get the snapshot directory.
+     * @return The snapshot directory, or null if this is an in-memory store.
+     */
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Trust the snapshots in this store.
+     * <p/>
+     * The dependencies of a trusted snapshot (the configurations imported by the snapshotted configuration)
+     * are not re-read and checked for changes when the snapshot is loaded.  Only trust snapshots of
+     * configurations whose imports can't change without the snapshots being cleared e.g. configurations
+     * packaged in the application.
+     *
+     * @param trusted True to trust the snapshots, otherwise false (the default).
+     * @return This store.
+     */
+    public ConfigSnapshotStore setTrusted(boolean trusted) {
+        this.trusted = trusted;
+        return this;
+    }
+
+    /**
+     * Are the snapshots in this store trusted.
+     * @return True if the snapshots are trusted, otherwise false.
+     * @see #setTrusted(boolean)
+     */
+    public boolean isTrusted() {
+        return trusted;
+    }
+
+    /**
+     * Recreate the configuration list from the snapshot of the supplied configuration.
+     *
+     * @param configBytes The XML configuration.
+     * @param baseURI The base URI of the configuration.
+     * @param classLoader The ClassLoader used to digest the configuration.
+     * @return The configuration list, or null if there's no valid snapshot of the configuration.
+     */
+    public SmooksResourceConfigurationList load(byte[] configBytes, String baseURI, ClassLoader classLoader) {
+        byte[] key = createKey(configBytes, baseURI);
+        String keyString = toHex(key);
+        byte[] snapshot = snapshots.get(keyString);
+
+        try {
+            if(snapshot == null && directory != null) {
+                File snapshotFile = new File(directory, keyString + FILE_EXTENSION);
+                if(!snapshotFile.isFile()) {
+                    return null;
+                }
+                snapshot = Files.readAllBytes(snapshotFile.toPath());
+            }
+            if(snapshot == null) {
+                return null;
+            }
+
+            SmooksResourceConfigurationList list = new SnapshotReader(snapshot).read(key, classLoader, !trusted);
+            if(list == null) {
+                LOGGER.debug("Configuration snapshot '" + keyString + "' for '" + baseURI + "' is out of date.");
+                snapshots.remove(keyString);
+            } else {
+                LOGGER.debug("Loaded configuration '" + baseURI + "' from snapshot '" + keyString + "'.");
+                snapshots.put(keyString, snapshot);
+            }
+
+            return list;
+        } catch (Exception e) {
+            LOGGER.debug("Failed to load configuration snapshot '" + keyString + "' for '" + baseURI + "'.  Digesting the configuration.", e);
+            snapshots.remove(keyString);
+            return null;
+        }
+    }
+
+    /**
+     * Store a snapshot of a digested configuration.
+     *
+     * @param configBytes The XML configuration.
+     * @param baseURI The base URI of the configuration.
+     * @param classLoader The ClassLoader used to digest the configuration.
+     * @param list The digested configuration list.
+     * @param dependencies The configurations on which the digested configuration depends.
+     * @return True if the snapshot was stored, false if the configuration can't be snapshotted.
+     */
+    boolean store(byte[] configBytes, String baseURI, ClassLoader classLoader, SmooksResourceConfigurationList list, List<Dependency> dependencies) {
+        byte[] key = createKey(configBytes, baseURI);
+        String keyString = toHex(key);
+        byte[] snapshot;
+
+        try {
+            snapshot = new SnapshotWriter().write(key, list, dependencies);
+        } catch (UnsupportedSnapshotException e) {
+            LOGGER.debug("Not storing a snapshot of configuration '" + baseURI + "'. " + e.getMessage());
+            return false;
+        } catch (IOException e) {
+            throw new SmooksConfigurationException("Unexpected error creating snapshot of configuration '" + baseURI + "'.", e);
+        }
+
+        snapshots.put(keyString, snapshot);
+        if(directory != null) {
+            try {
+                File snapshotFile = new File(directory, keyString + FILE_EXTENSION);
+                File tempFile = File.createTempFile(keyString, ".tmp", directory);
+
+                Files.write(tempFile.toPath(), snapshot);
+                Files.move(tempFile.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                LOGGER.warn("Failed to write configuration snapshot '" + keyString + "' for '" + baseURI + "' to '" + directory.getAbsolutePath() + "'.", e);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Clear the in-memory snapshots.
+     */
+    public void clear() {
+        snapshots.clear();
+    }
+
+    static DigestInputStream newDigestInputStream(InputStream stream) {
+        return new DigestInputStream(stream, newMessageDigest());
+    }
+
+    private static byte[] createKey(byte[] configBytes, String baseURI) {
+        MessageDigest messageDigest = newMessageDigest();
+
+        messageDigest.update((byte) VERSION);
+        messageDigest.update(String.valueOf(baseURI).getBytes(StandardCharsets.UTF_8));
+        messageDigest.update((byte) 0);
+        messageDigest.update(configBytes);
+
+        return messageDigest.digest();
+    }
+
+    private static MessageDigest newMessageDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("'" + DIGEST_ALGORITHM + "' message digest not supported by the JVM.", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+
+        for(byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16));
+            hex.append(Character.forDigit(b & 0xF, 16));
+        }
+
+        return hex.toString();
+    }
+
+    /**
+     * A configuration resource on which a digested configuration depends.
+     */
+    static class Dependency {
+
+        /**
+         * The base URI against which the location is resolved, or null for a classpath resource.
+         */
+        private final String baseURI;
+        private final String location;
+        private final byte[] digest;
+
+        Dependency(String baseURI, String location, byte[] digest) {
+            this.baseURI = baseURI;
+            this.location = location;
+            this.digest = digest;
+        }
+
+        private boolean isUnchanged(ClassLoader classLoader) throws IOException {
+            InputStream resourceStream;
+
+            try {
+                if(baseURI != null) {
+                    URIResourceLocator resourceLocator = new URIResourceLocator();
+
+                    resourceLocator.setBaseURI(new URI(baseURI));
+                    resourceStream = resourceLocator.getResource(location);
+                } else {
+                    resourceStream = ClassUtil.getResourceAsStream(location, classLoader);
+                }
+            } catch (Exception e) {
+                LOGGER.debug("Configuration dependency '" + location + "' is no longer available.", e);
+                return false;
+            }
+            if(resourceStream == null) {
+                return false;
+            }
+
+            DigestInputStream digestStream = newDigestInputStream(resourceStream);
+            byte[] buffer = new byte[4096];
+            try {
+                while(digestStream.read(buffer) != -1) {
+                    // Just digesting...
+                }
+            } finally {
+                digestStream.close();
+            }
+
+            return Arrays.equals(digest, digestStream.getMessageDigest().digest());
+        }
+    }
+
+    private static class UnsupportedSnapshotException extends Exception {
+        private UnsupportedSnapshotException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Writes a snapshot.
+     * <p/>
+     * All strings are written to a table at the start of the snapshot, and referenced by index.
+     */
+    private static class SnapshotWriter {
+
+        private final Map<String, Integer> stringTable = new LinkedHashMap<String, Integer>();
+        private final Map<ExpressionEvaluator, Integer> evaluatorTable = new IdentityHashMap<ExpressionEvaluator, Integer>();
+        private final ByteArrayOutputStream evaluatorBytes = new ByteArrayOutputStream();
+        private final DataOutputStream evaluators = new DataOutputStream(evaluatorBytes);
+        private Transformer xmlSerializer;
+
+        private byte[] write(byte[] key, SmooksResourceConfigurationList list, List<Dependency> dependencies) throws IOException, UnsupportedSnapshotException {
+            ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream();
+            DataOutputStream body = new DataOutputStream(bodyBytes);
+
+            body.writeInt(dependencies.size());
+            for(Dependency dependency : dependencies) {
+                writeString(dependency.baseURI, body);
+                writeString(dependency.location, body);
+                writeBytes(dependency.digest, body);
+            }
+
+            writeString(list.getName(), body);
+            body.writeBoolean(list.isSystemConfigList());
+            body.writeInt(list.getProfiles().size());
+            for(ProfileSet profileSet : list.getProfiles()) {
+                writeProfileSet(profileSet, body);
+            }
+            body.writeInt(list.size());
+            for(int i = 0; i < list.size(); i++) {
+                writeResourceConfig(list.get(i), body);
+            }
+            body.flush();
+            evaluators.flush();
+
+            ByteArrayOutputStream snapshotBytes = new ByteArrayOutputStream(bodyBytes.size() + evaluatorBytes.size() + 1024);
+            DataOutputStream snapshot = new DataOutputStream(snapshotBytes);
+
+            snapshot.writeInt(MAGIC);
+            snapshot.writeInt(VERSION);
+            writeBytes(key, snapshot);
+            snapshot.writeInt(stringTable.size());
+            for(String string : stringTable.keySet()) {
+                byte[] utf8 = string.getBytes(StandardCharsets.UTF_8);
+                writeBytes(utf8, snapshot);
+            }
+            snapshot.writeInt(evaluatorTable.size());
+            evaluatorBytes.writeTo(snapshot);
+            bodyBytes.writeTo(snapshot);
+            snapshot.flush();
+
+            return snapshotBytes.toByteArray();
+        }
+
+        private void writeProfileSet(ProfileSet profileSet, DataOutputStream out) throws IOException, UnsupportedSnapshotException {
+            if(profileSet.getClass() != DefaultProfileSet.class) {
+                throw new UnsupportedSnapshotException("Unsupported ProfileSet type '" + profileSet.getClass().getName() + "'.");
+            }
+
+            List<String> subProfiles = new ArrayList<String>();
+            Iterator iterator = profileSet.iterator();
+            while(iterator.hasNext()) {
+                subProfiles.add(((Profile) iterator.next()).getName());
+            }
+
+            writeString(profileSet.getBaseProfile(), out);
+            out.writeInt(subProfiles.size());
+            for(String subProfile : subProfiles) {
+                writeString(subProfile, out);
+            }
+        }
+
+        private void writeResourceConfig(SmooksResourceConfiguration resourceConfig, DataOutputStream out) throws IOException, UnsupportedSnapshotException {
+            writeString(resourceConfig.getSelector(), out);
+            writeString(resourceConfig.getSelectorNamespaceURI(), out);
+            writeString(resourceConfig.getTargetProfile(), out);
+            writeString(resourceConfig.getResource(), out);
+            writeString(resourceConfig.getDeclaredResourceType(), out);
+            writeString(resourceConfig.getExtendedConfigNS(), out);
+            out.writeBoolean(resourceConfig.isDefaultResource());
+            out.writeInt(getEvaluatorIndex(resourceConfig.getConditionEvaluator()));
+
+            List parameters = resourceConfig.getParameterList();
+            List<Parameter> parameterList = new ArrayList<Parameter>();
+            if(parameters != null) {
+                for(Object parameter : parameters) {
+                    if(parameter instanceof List) {
+                        // Multiple parameters with the same name...
+                        for(Object namedParameter : (List<?>) parameter) {
+                            parameterList.add((Parameter) namedParameter);
+                        }
+                    } else {
+                        parameterList.add((Parameter) parameter);
+                    }
+                }
+            }
+
+            out.writeInt(parameterList.size());
+            for(Parameter parameter : parameterList) {
+                Object value = parameter.getValue();
+                Element xml = parameter.getXml();
+
+                if(!(value instanceof String)) {
+                    throw new UnsupportedSnapshotException("Parameter '" + parameter.getName() + "' on resource '" + resourceConfig + "' has a non String value of type '" + value.getClass().getName() + "'.");
+                }
+                writeString(parameter.getName(), out);
+                writeString(parameter.getType(), out);
+                writeString((String) value, out);
+                writeString((xml != null ? serialize(xml) : null), out);
+            }
+        }
+
+        private String serialize(Element xml) throws IOException {
+            StringWriter writer = new StringWriter();
+
+            try {
+                if(xmlSerializer == null) {
+                    xmlSerializer = TransformerFactory.newInstance().newTransformer();
+                    xmlSerializer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+                }
+                xmlSerializer.transform(new DOMSource(xml), new StreamResult(writer));
+            } catch (TransformerException e) {
+                throw new IOException("Unable to serialize parameter configuration xml.", e);
+            }
+
+            return writer.toString();
+        }
+
+        private int getEvaluatorIndex(ExpressionEvaluator evaluator) throws IOException, UnsupportedSnapshotException {
+            if(evaluator == null) {
+                return -1;
+            }
+
+            Integer index = evaluatorTable.get(evaluator);
+            if(index == null) {
+                if(!(evaluator instanceof ExecutionContextExpressionEvaluator) || evaluator.getExpression() == null) {
+                    throw new UnsupportedSnapshotException("Unsupported condition evaluator '" + evaluator.getClass().getName() + "'.");
+                }
+                index = evaluatorTable.size();
+                evaluatorTable.put(evaluator, index);
+                writeString(evaluator.getClass().getName(), evaluators);
+                writeString(evaluator.getExpression(), evaluators);
+            }
+
+            return index;
+        }
+
+        private void writeString(String string, DataOutputStream out) throws IOException {
+            if(string == null) {
+                out.writeInt(-1);
+                return;
+            }
+
+            Integer index = stringTable.get(string);
+            if(index == null) {
+                index = stringTable.size();
+                stringTable.put(string, index);
+            }
+            out.writeInt(index);
+        }
+
+        private static void writeBytes(byte[] bytes, DataOutputStream out) throws IOException {
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Reads a snapshot written by the {@link SnapshotWriter}.
+     */
+    private static class SnapshotReader {
+
+        private final DataInputStream in;
+        private String[] strings;
+        private ExpressionEvaluator[] evaluators;
+
+        private SnapshotReader(byte[] snapshot) {
+            in = new DataInputStream(new ByteArrayInputStream(snapshot));
+        }
+
+        /**
+         * Read the snapshot.
+         * @return The configuration list, or null if any of the configurations dependencies have changed.
+         */
+        private SmooksResourceConfigurationList read(byte[] key, ClassLoader classLoader, boolean checkDependencies) throws IOException {
+            if(in.readInt() != MAGIC || in.readInt() != VERSION || !Arrays.equals(key, readBytes())) {
+                throw new IOException("Not a valid configuration snapshot.");
+            }
+
+            strings = new String[in.readInt()];
+            for(int i = 0; i < strings.length; i++) {
+                strings[i] = new String(readBytes(), StandardCharsets.UTF_8);
+            }
+            evaluators = new ExpressionEvaluator[in.readInt()];
+            for(int i = 0; i < evaluators.length; i++) {
+                evaluators[i] = ExpressionEvaluator.Factory.createInstance(readString(), readString());
+            }
+
+            int dependencyCount = in.readInt();
+            for(int i = 0; i < dependencyCount; i++) {
+                Dependency dependency = new Dependency(readString(), readString(), readBytes());
+                if(checkDependencies && !dependency.isUnchanged(classLoader)) {
+                    return null;
+                }
+            }
+
+            SmooksResourceConfigurationList list = new SmooksResourceConfigurationList(readString());
+            list.setSystemConfigList(in.readBoolean());
+
+            int profileSetCount = in.readInt();
+            for(int i = 0; i < profileSetCount; i++) {
+                DefaultProfileSet profileSet = new DefaultProfileSet(readString());
+                String[] subProfiles = new String[in.readInt()];
+
+                for(int j = 0; j < subProfiles.length; j++) {
+                    subProfiles[j] = readString();
+                }
+                profileSet.addProfiles(subProfiles);
+                list.add(profileSet);
+            }
+
+            int resourceConfigCount = in.readInt();
+            for(int i = 0; i < resourceConfigCount; i++) {
+                list.add(readResourceConfig());
+            }
+
+            return list;
+        }
+
+        private SmooksResourceConfiguration readResourceConfig() throws IOException {
+            SmooksResourceConfiguration resourceConfig = new SmooksResourceConfiguration(readString(), readString(), readString(), readString());
+            String resourceType = readString();
+            String extendedConfigNS = readString();
+            int evaluatorIndex;
+
+            if(resourceType != null) {
+                resourceConfig.setResourceType(resourceType);
+            }
+            resourceConfig.setExtendedConfigNS(extendedConfigNS);
+            resourceConfig.setDefaultResource(in.readBoolean());
+            evaluatorIndex = in.readInt();
+            if(evaluatorIndex != -1) {
+                resourceConfig.setConditionEvaluator(evaluators[evaluatorIndex]);
+            }
+
+            int parameterCount = in.readInt();
+            for(int i = 0; i < parameterCount; i++) {
+                String name = readString();
+                String type = readString();
+                Parameter<String> parameter = resourceConfig.setParameter(name, type, readString());
+                String xmlSource = readString();
+
+                if(xmlSource != null) {
+                    parameter.setXMLSource(xmlSource);
+                }
+            }
+
+            return resourceConfig;
+        }
+
+        private String readString() throws IOException {
+            int index = in.readInt();
+            return (index != -1 ? strings[index] : null);
+        }
+
+        private byte[] readBytes() throws IOException {
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            return bytes;
+        }
+    }
+}
@@ -43,8 +43,10 @@
 package org.smooks.cdr;
 
 import org.smooks.delivery.ContentDeliveryConfig;
+import org.smooks.xml.XmlUtil;
 import org.w3c.dom.Element;
 
+import java.io.StringReader;
 import java.util.List;
 
 /**
@@ -60,6 +62,7 @@ public class Parameter<T> {
 	private final T value;
 
     private Element xml;
+    private String xmlSource;
     
     /**
 	 * Public constructor.
@@ -171,6 +174,26 @@ public class Parameter<T> {
      * @return Parameter configuration xml.
      */
     public Element getXml() {
+        if(xml == null && xmlSource != null) {
+            try {
+                xml = XmlUtil.parseStream(new StringReader(xmlSource)).getDocumentElement();
+            } catch (Exception e) {
+                throw new SmooksConfigurationException("Unable to parse the configuration xml of parameter '" + name + "'.", e);
+            }
+        }
         return xml;
     }
+
+    /**
+     * Set the serialized DOM element node associated with the parameter definition.
+     * <p/>
+     * The element is only parsed if it's {@link #getXml() asked for}.
+     *
+     * @param xmlSource Serialized parameter configuration xml.
+     */
+    Parameter setXMLSource(String xmlSource) {
+        this.xml = null;
+        this.xmlSource = xmlSource;
+        return this;
+    }
 }
@@ -46,11 +46,13 @@ import org.smooks.Smooks;
 import org.smooks.assertion.AssertArgument;
 import org.smooks.cdr.registry.Registry;
 import org.smooks.cdr.registry.lookup.SmooksResourceConfigurationListsLookup;
+import org.smooks.cdr.registry.lookup.SystemSmooksResourceConfigurationListLookup;
 import org.smooks.delivery.ContentDeliveryConfig;
 
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Accessor class for looking up global parameters.
@@ -74,6 +76,8 @@ public abstract class ParameterAccessor {
 	 * Device parameters .cdrl lookup string.
 	 */
 	public static final String GLOBAL_PARAMETERS = "global-parameters";
+
+    private static final String CHANGE_LISTENERS_CTX_KEY = ParameterAccessor.class.getName() + "#changeListeners";
 	
 	/**
 	 * Get the named parameter String value.
@@ -187,8 +191,14 @@ public abstract class ParameterAccessor {
     public static void setParameter(String name, Object value, Smooks smooks) {
         SmooksResourceConfiguration config = new SmooksResourceConfiguration(ParameterAccessor.GLOBAL_PARAMETERS);
 
+        Registry registry = smooks.getApplicationContext().getRegistry();
+
         config.setParameter(name, value);
-        smooks.getApplicationContext().getRegistry().registerResource(config);
+        registry.registerResource(config);
+
+        // The registered config is a clone...
+        SmooksResourceConfigurationList systemConfigList = registry.lookup(new SystemSmooksResourceConfigurationListLookup());
+        fireChanged(name, systemConfigList.get(systemConfigList.size() - 1), registry);
     }
 
     public static void removeParameter(String name, Smooks smooks) {
@@ -204,5 +214,44 @@ public abstract class ParameterAccessor {
                 }
             }
         }
+        fireChanged(name, null, registry);
+    }
+
+    /**
+     * Add a global parameter change listener.
+     * @param listener The listener.
+     * @param registry The registry holding the global parameters.
+     */
+    public static void addChangeListener(GlobalParameterChangeListener listener, Registry registry) {
+        AssertArgument.isNotNull(listener, "listener");
+        AssertArgument.isNotNull(registry, "registry");
+        getChangeListeners(registry).add(listener);
+    }
+
+    /**
+     * Remove a global parameter change listener.
+     * @param listener The listener.
+     * @param registry The registry holding the global parameters.
+     */
+    public static void removeChangeListener(GlobalParameterChangeListener listener, Registry registry) {
+        getChangeListeners(registry).remove(listener);
+    }
+
+    private static void fireChanged(String name, SmooksResourceConfiguration config, Registry registry) {
+        for(GlobalParameterChangeListener listener : getChangeListeners(registry)) {
+            listener.changed(name, config);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<GlobalParameterChangeListener> getChangeListeners(Registry registry) {
+        synchronized (registry) {
+            List<GlobalParameterChangeListener> listeners = (List<GlobalParameterChangeListener>) registry.lookup(CHANGE_LISTENERS_CTX_KEY);
+            if(listeners == null) {
+                listeners = new CopyOnWriteArrayList<GlobalParameterChangeListener>();
+                registry.registerObject(CHANGE_LISTENERS_CTX_KEY, listeners);
+            }
+            return listeners;
+        }
     }
 }
@@ -802,6 +802,14 @@ public class SmooksResourceConfiguration {
         return restype;
     }
 
+    /**
+     * Get the resource type explicitly set on this configuration.
+     * @return The resource type set through {@link #setResourceType(String)}, or null if not set.
+     */
+    String getDeclaredResourceType() {
+        return resourceType;
+    }
+
     /**
      * Parse the targeting expressions for this configuration.
      *
@@ -1413,7 +1421,7 @@ public class SmooksResourceConfiguration {
      * @return True if this configuration is targeted at the supplied element, otherwise false.
      */
     public boolean isTargetedAtElement(Element element, ExecutionContext executionContext) {
-        if (!assertConditionTrue()) {
+        if (!assertConditionTrue(executionContext)) {
             return false;
         }
 
@@ -1466,7 +1474,23 @@ public class SmooksResourceConfiguration {
      * @return True if this configuration is targeted at the supplied element, otherwise false.
      */
     public boolean isTargetedAtElement(SAXElement element, ExecutionContext executionContext) {
-        if (expressionEvaluator != null && !assertConditionTrue()) {
+        return isTargetedAtElement(element, executionContext, true);
+    }
+
+    /**
+     * Is this configuration targeted at the supplied SAX element.
+     * <p/>
+     * Checks that the element is in the correct namespace and, optionally, is a contextual
+     * match for the configuration.
+     *
+     * @param element The element to be checked.
+     * @param executionContext The current execution context.
+     * @param checkContext False if the caller has already established that the element's ancestors
+     * match the selector context, otherwise true.
+     * @return True if this configuration is targeted at the supplied element, otherwise false.
+     */
+    public boolean isTargetedAtElement(SAXElement element, ExecutionContext executionContext, boolean checkContext) {
+        if (expressionEvaluator != null && !assertConditionTrue(executionContext)) {
             return false;
         }
 
@@ -1495,7 +1519,7 @@ public class SmooksResourceConfiguration {
             return false;
         }
 
-        if (isContextualSelector && !isTargetedAtElementContext(element, executionContext)) {
+        if (checkContext && isContextualSelector && !isTargetedAtElementContext(element, executionContext)) {
             // Note: If the selector is not contextual, there's no need to perform the
             // isTargetedAtElementContext check because we already know the visitor is targeted at the
             // element by name - because we looked it up by name in the 1st place (at least that's the assumption).
@@ -1509,15 +1533,17 @@ public class SmooksResourceConfiguration {
     }
 
     @SuppressWarnings("BooleanMethodIsAlwaysInverted")
-    private boolean assertConditionTrue() {
+    private boolean assertConditionTrue(ExecutionContext executionContext) {
         if (expressionEvaluator == null) {
             return true;
         }
 
         ExecutionContextExpressionEvaluator evaluator = (ExecutionContextExpressionEvaluator) expressionEvaluator;
-        ExecutionContext execContext = Filter.getCurrentExecutionContext();
+        if (executionContext == null) {
+            executionContext = Filter.getCurrentExecutionContext();
+        }
 
-        return evaluator.eval(execContext);
+        return evaluator.eval(executionContext);
     }
 
     /**
@@ -49,6 +49,7 @@ import org.smooks.profile.ProfileSet;
 
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Vector;
 
@@ -82,6 +83,10 @@ public class SmooksResourceConfigurationList {
      * List of loaded resource URIs.
      */
     private final List<URI> loadedResources = new ArrayList<URI>();
+    /**
+     * The time taken to digest each of the XML configurations in the list.
+     */
+    private final List<ConfigDigestTiming> digestTimings = new ArrayList<ConfigDigestTiming>();
 
     /**
      * Public constructor.
@@ -222,6 +227,23 @@ public class SmooksResourceConfigurationList {
         return profiles;
     }
 
+    /**
+     * Get the time taken to digest each of the XML configuration files from which this list was created.
+     * <p/>
+     * Timings are in digest completion order i.e. imported configurations before the configurations
+     * that import them.  The list is empty for lists that were not digested from XML (including lists
+     * recreated from a {@link ConfigSnapshotStore snapshot}).
+     *
+     * @return The digest timings.
+     */
+    public List<ConfigDigestTiming> getDigestTimings() {
+        return Collections.unmodifiableList(digestTimings);
+    }
+
+    void addDigestTiming(ConfigDigestTiming timing) {
+        digestTimings.add(timing);
+    }
+
     protected boolean addSourceResourceURI(URI resource) {
         AssertArgument.isNotNull(resource, "resource");
 
@@ -67,6 +67,8 @@ import javax.xml.transform.dom.DOMSource;
 import java.io.*;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.security.DigestInputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -89,6 +91,9 @@ public final class XMLConfigDigester {
     private ClassLoader classLoader;
 
     private Map<String, Smooks> extendedConfigDigesters = new HashMap<String, Smooks>();
+    private List<ConfigSnapshotStore.Dependency> dependencies;
+    private SmooksResourceConfigurationList timingsList;
+    private int depth;
     private static final ThreadLocal<Boolean> extentionDigestOn = new ThreadLocal<Boolean>();
 
     /**
@@ -111,6 +116,7 @@ public final class XMLConfigDigester {
      */
     public XMLConfigDigester(SmooksResourceConfigurationList list) {
         this.resourcelist = list;
+        this.timingsList = list;
         configStack.push(new SmooksConfig("root-config"));
     }
 
@@ -157,7 +163,7 @@ public final class XMLConfigDigester {
         }
 
         digester.extendedConfigDigesters = extendedConfigDigesters;
-        digester.digestConfigRecursively(new InputStreamReader(stream), baseURI);
+        digester.digestConfigRecursively(new InputStreamReader(stream), baseURI, baseURI);
 
         return list;
     }
@@ -199,7 +205,52 @@ public final class XMLConfigDigester {
         if(classLoader != null) {
             digester.classLoader = classLoader;
         }
-        digester.digestConfigRecursively(new InputStreamReader(stream), baseURI);
+        digester.digestConfigRecursively(new InputStreamReader(stream), baseURI, baseURI);
+
+        return list;
+    }
+
+    /**
+     * Digest the XML Smooks configuration stream, using a previously stored snapshot of the digested
+     * configuration if the configuration (and all the configurations it imports) have not changed since
+     * the snapshot was taken.
+     * <p/>
+     * Where there is no valid snapshot, the configuration is digested and a snapshot of it is stored.
+     *
+     * @param stream  The stream.
+     * @param baseURI The base URI to be associated with the configuration stream.
+     * @param classLoader The ClassLoader to be used.
+     * @param snapshotStore The snapshot store.
+     * @return A {@link SmooksResourceConfigurationList} containing the list of
+     *         {@link SmooksResourceConfiguration SmooksResourceConfigurations} defined in the
+     *         XML configuration.
+     * @throws SAXException Error parsing the XML stream.
+     * @throws IOException  Error reading the XML stream.
+     * @throws SmooksConfigurationException  Invalid configuration..
+     * @see ConfigSnapshotStore
+     */
+    public static SmooksResourceConfigurationList digestConfig(InputStream stream, String baseURI, ClassLoader classLoader, ConfigSnapshotStore snapshotStore) throws SAXException, IOException, URISyntaxException, SmooksConfigurationException {
+        if(snapshotStore == null) {
+            return digestConfig(stream, baseURI, classLoader);
+        }
+
+        byte[] configBytes = StreamUtils.readStream(stream);
+        SmooksResourceConfigurationList list = snapshotStore.load(configBytes, baseURI, classLoader);
+
+        if(list != null) {
+            return list;
+        }
+
+        list = new SmooksResourceConfigurationList(baseURI);
+        setExtentionDigestOff();
+        XMLConfigDigester digester = new XMLConfigDigester(list);
+
+        if(classLoader != null) {
+            digester.classLoader = classLoader;
+        }
+        digester.dependencies = new ArrayList<ConfigSnapshotStore.Dependency>();
+        digester.digestConfigRecursively(new InputStreamReader(new ByteArrayInputStream(configBytes)), baseURI, baseURI);
+        snapshotStore.store(configBytes, baseURI, classLoader, list, digester.dependencies);
 
         return list;
     }
@@ -212,7 +263,10 @@ public final class XMLConfigDigester {
     	return resourcelist;
     }
 
-    private void digestConfigRecursively(Reader stream, String baseURI) throws IOException, SAXException, URISyntaxException, SmooksConfigurationException {
+    private void digestConfigRecursively(Reader stream, String baseURI, String configName) throws IOException, SAXException, URISyntaxException, SmooksConfigurationException {
+        long start = System.nanoTime();
+        long parsed;
+        long validated;
         Document configDoc;
         String streamData = StreamUtils.readStream(stream);
 
@@ -221,19 +275,32 @@ public final class XMLConfigDigester {
         } catch (ParserConfigurationException ee) {
             throw new SAXException("Unable to parse Smooks configuration.", ee);
         }
+        parsed = System.nanoTime();
 
         XsdDOMValidator validator = new XsdDOMValidator(configDoc);
         String defaultNS = validator.getDefaultNamespace().toString();
 
         validator.validate();
+        validated = System.nanoTime();
 
         configStack.peek().defaultNS = defaultNS;
         if (XSD_V12.equals(defaultNS)) {
-            digestV12XSDValidatedConfig(baseURI, configDoc);
+            depth++;
+            try {
+                digestV12XSDValidatedConfig(baseURI, configDoc);
+            } finally {
+                depth--;
+            }
         } else {
             throw new SAXException("Cannot parse Smooks configuration.  Unsupported default Namespace '" + defaultNS + "'.");
         }
 
+        ConfigDigestTiming timing = new ConfigDigestTiming(configName, depth, parsed - start, validated - parsed, System.nanoTime() - start);
+        timingsList.addDigestTiming(timing);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Digested configuration " + timing + ".");
+        }
+
         if (resourcelist.isEmpty()) {
             throw new SAXException("Invalid Content Delivery Resource archive definition file: 0 Content Delivery Resource definitions.");
         }
@@ -324,6 +391,9 @@ public final class XMLConfigDigester {
                 }
 
                 resourceStream = resourceLocator.getResource(file);
+                if(dependencies != null) {
+                    resourceStream = ConfigSnapshotStore.newDigestInputStream(resourceStream);
+                }
                 try {
                     List<Element> importParams = DomUtils.getElements(importElement, "param", null);
                     if(!importParams.isEmpty()) {
@@ -337,13 +407,16 @@ public final class XMLConfigDigester {
                             importConfig = importConfig.replaceAll("@" + paramName + "@", paramValue);
                         }
 
-                        digestConfigRecursively(new StringReader(importConfig), URIUtil.getParent(fileURI).toString()); // the file's parent URI becomes the new base URI.
+                        digestConfigRecursively(new StringReader(importConfig), URIUtil.getParent(fileURI).toString(), fileURI.toString()); // the file's parent URI becomes the new base URI.
                     } else {
-                        digestConfigRecursively(new InputStreamReader(resourceStream), URIUtil.getParent(fileURI).toString()); // the file's parent URI becomes the new base URI.
+                        digestConfigRecursively(new InputStreamReader(resourceStream), URIUtil.getParent(fileURI).toString(), fileURI.toString()); // the file's parent URI becomes the new base URI.
                     }
                 } finally {
                     resourceStream.close();
                 }
+                if(dependencies != null) {
+                    dependencies.add(new ConfigSnapshotStore.Dependency(baseURI.toString(), file, ((DigestInputStream) resourceStream).getMessageDigest().digest()));
+                }
             } finally {
                 popConfig();
             }
@@ -527,10 +600,20 @@ public final class XMLConfigDigester {
                 SmooksResourceConfigurationList extConfigList = new SmooksResourceConfigurationList(baseURI);
 
                 XMLConfigDigester configDigester = new XMLConfigDigester(extConfigList);
+                InputStream resourceStream = ClassUtil.getResourceAsStream(resourcePath, classLoader);
 
                 configDigester.extendedConfigDigesters = extendedConfigDigesters;
-                configDigester.digestConfigRecursively(new InputStreamReader(ClassUtil.getResourceAsStream(resourcePath, classLoader)), baseURI);
+                configDigester.dependencies = dependencies;
+                configDigester.timingsList = timingsList;
+                configDigester.depth = depth;
+                if(dependencies != null) {
+                    resourceStream = ConfigSnapshotStore.newDigestInputStream(resourceStream);
+                }
+                configDigester.digestConfigRecursively(new InputStreamReader(resourceStream), baseURI, resourcePath);
                 configStore.addSmooksResourceConfigurationList(extConfigList);
+                if(dependencies != null) {
+                    dependencies.add(new ConfigSnapshotStore.Dependency(null, resourcePath, ((DigestInputStream) resourceStream).getMessageDigest().digest()));
+                }
             } catch (Exception e) {
                 throw new SmooksConfigurationException("Failed to construct Smooks instance for processing extended configuration resource '" + resourcePath + "'.", e);
             } finally {
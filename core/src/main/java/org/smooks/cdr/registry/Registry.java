@@ -47,6 +47,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.smooks.SmooksException;
 import org.smooks.assertion.AssertArgument;
+import org.smooks.cdr.ConfigSnapshotStore;
 import org.smooks.cdr.SmooksResourceConfiguration;
 import org.smooks.cdr.SmooksResourceConfigurationList;
 import org.smooks.cdr.XMLConfigDigester;
@@ -58,7 +59,9 @@ import org.smooks.cdr.lifecycle.phase.PreDestroyLifecyclePhase;
 import org.smooks.cdr.registry.lookup.LifecycleManagerLookup;
 import org.smooks.cdr.registry.lookup.SmooksResourceConfigurationListsLookup;
 import org.smooks.cdr.registry.lookup.SystemSmooksResourceConfigurationListLookup;
+import org.smooks.cdr.registry.lookup.converter.TypeConverterFactoryIndex;
 import org.smooks.cdr.registry.lookup.converter.TypeConverterFactoryLookup;
+import org.smooks.cdr.registry.lookup.converter.TypeConverterFactorySet;
 import org.smooks.converter.TypeConverterFactoryLoader;
 import org.smooks.converter.factory.TypeConverterFactory;
 import org.smooks.profile.ProfileSet;
@@ -93,6 +96,7 @@ public class Registry {
     private final ContainerResourceLocator containerResourceLocator;
     private final ClassLoader classLoader;
     private final ProfileStore profileStore;
+    private ConfigSnapshotStore configSnapshotStore;
 
     public Registry(ClassLoader classLoader, ContainerResourceLocator containerResourceLocator, ProfileStore profileStore) {
         AssertArgument.isNotNull(containerResourceLocator, "containerResourceLocator");
@@ -102,8 +106,9 @@ public class Registry {
         this.classLoader = classLoader;
         this.profileStore = profileStore;
 
-        final Set<TypeConverterFactory<?, ?>> typeConverterFactories = new TypeConverterFactoryLoader().load();
+        final Set<TypeConverterFactory<?, ?>> typeConverterFactories = new TypeConverterFactorySet(new TypeConverterFactoryLoader().load());
         registerObject(TypeConverterFactoryLookup.TYPE_CONVERTER_FACTORY_REGISTRY_KEY, typeConverterFactories);
+        registerObject(TypeConverterFactoryIndex.class, new TypeConverterFactoryIndex(typeConverterFactories));
         registerObject(LifecycleManager.class, new DefaultLifecycleManager());
  
         // add the default list to the list.
@@ -136,10 +141,19 @@ public class Registry {
         if (registry.putIfAbsent(key, value) != null) {
             throw new SmooksException(String.format("Duplicate registration: %s", key));
         }
+        invalidateTypeConverterFactoryIndex();
     }
 
     public void deRegisterObject(Object key) {
         registry.remove(key);
+        invalidateTypeConverterFactoryIndex();
+    }
+
+    private void invalidateTypeConverterFactoryIndex() {
+        final TypeConverterFactoryIndex typeConverterFactoryIndex = (TypeConverterFactoryIndex) registry.get(TypeConverterFactoryIndex.class);
+        if (typeConverterFactoryIndex != null) {
+            typeConverterFactoryIndex.invalidate();
+        }
     }
     
     public <R> R lookup(final Function<Map<Object, Object>, R> function) {
@@ -209,12 +223,31 @@ public class Registry {
             throw new IllegalArgumentException("null 'resourceConfigStream' arg in method call.");
         }
 
-        smooksResourceConfigurationList = XMLConfigDigester.digestConfig(resourceConfigStream, baseURI, classLoader);
+        smooksResourceConfigurationList = XMLConfigDigester.digestConfig(resourceConfigStream, baseURI, classLoader, configSnapshotStore);
         addSmooksResourceConfigurationList(smooksResourceConfigurationList);
 
         return smooksResourceConfigurationList;
     }
     
+    /**
+     * Set the store for snapshots of the XML configurations registered through {@link #registerResources(String, InputStream)}.
+     * <p/>
+     * Configurations whose snapshot is current are recreated from the snapshot instead of being digested.
+     *
+     * @param configSnapshotStore The snapshot store, or null to always digest configurations.
+     */
+    public void setConfigSnapshotStore(ConfigSnapshotStore configSnapshotStore) {
+        this.configSnapshotStore = configSnapshotStore;
+    }
+
+    /**
+     * Get the configuration snapshot store.
+     * @return The configuration snapshot store, or null if not set.
+     */
+    public ConfigSnapshotStore getConfigSnapshotStore() {
+        return configSnapshotStore;
+    }
+
     @SuppressWarnings("ConstantConditions")
     private void addProfileSets(List<ProfileSet> profileSets) {
         if (profileSets == null) {
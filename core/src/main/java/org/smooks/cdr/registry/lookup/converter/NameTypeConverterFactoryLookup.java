@@ -43,11 +43,8 @@
 package org.smooks.cdr.registry.lookup.converter;
 
 import org.smooks.converter.factory.TypeConverterFactory;
-import org.smooks.util.ClassUtil;
 
-import javax.annotation.Resource;
 import java.util.Map;
-import java.util.Set;
 
 public class NameTypeConverterFactoryLookup<S, T> implements TypeConverterFactoryLookup<S, T> {
     private final String name;
@@ -58,21 +55,9 @@ public class NameTypeConverterFactoryLookup<S, T> implements TypeConverterFactor
 
     @Override
     public TypeConverterFactory<S, T> apply(final Map<Object, Object> registryEntries) {
-        TypeConverterFactory<?, ?> typeConverterFactory = null;
-        if (name != null) {
-            final Set<TypeConverterFactory<?, ?>> typeConverterFactories = (Set<TypeConverterFactory<?, ?>>) registryEntries.get(TYPE_CONVERTER_FACTORY_REGISTRY_KEY);
-            typeConverterFactory = typeConverterFactories.stream().filter(t -> t.getClass().isAnnotationPresent(Resource.class) && t.getClass().getAnnotation(Resource.class).name().equals(name)).findFirst().orElse(null);
-            if (typeConverterFactory == null) {
-                final Class typeConverterFactoryClass;
-                try {
-                    typeConverterFactoryClass = ClassUtil.forName(name, NameTypeConverterFactoryLookup.class);
-                    typeConverterFactory = typeConverterFactories.stream().filter(t -> t.getClass().equals(typeConverterFactoryClass)).findFirst().orElse(null);
-                } catch (ClassNotFoundException e) {
-                    typeConverterFactory = null;
-                }
-            }
+        if (name == null) {
+            return null;
         }
-
-        return (TypeConverterFactory<S, T>) typeConverterFactory;
+        return TypeConverterFactoryIndex.getIndex(registryEntries).lookup(name);
     }
 }
@@ -51,6 +51,7 @@ import java.util.Set;
 public class SourceTargetTypeConverterFactoryLookup<S, T> implements TypeConverterFactoryLookup<S, T> {
 
     private final TypeConverterDescriptor<Class<S>, Class<T>> typeConverterDescriptor;
+    private volatile TypeConverterFactoryIndex typeConverterFactoryIndex;
 
     public SourceTargetTypeConverterFactoryLookup(final Class<S> sourceType, final Class<T> targetType) {
         typeConverterDescriptor = new TypeConverterDescriptor<>(sourceType, targetType);
@@ -58,15 +59,16 @@ public class SourceTargetTypeConverterFactoryLookup<S, T> implements TypeConvert
 
     @Override
     public TypeConverterFactory<S, T> apply(final Map<Object, Object> registryEntries) {
-        final Set<TypeConverterFactory<?, ?>> typeConverterFactories = (Set<TypeConverterFactory<?, ?>>) registryEntries.get(TYPE_CONVERTER_FACTORY_REGISTRY_KEY);
-        return lookup(typeConverterFactories);
+        return TypeConverterFactoryIndex.getIndex(registryEntries).lookup(typeConverterDescriptor.getSourceType(), typeConverterDescriptor.getTargetType());
     }
     
     public TypeConverterFactory<S, T> lookup(final Set<TypeConverterFactory<?, ?>> typeConverterFactories) {
-        return (TypeConverterFactory<S, T>) typeConverterFactories.stream().
-                filter(t -> t.getTypeConverterDescriptor().getSourceType().equals(typeConverterDescriptor.getSourceType()) && t.getTypeConverterDescriptor().getTargetType().equals(typeConverterDescriptor.getTargetType())).
-                sorted((o1, o2) -> o2.getTypeConverterDescriptor().getPriority().compareTo(o1.getTypeConverterDescriptor().getPriority())).
-                findFirst().
-                orElse(null);
+        // Reuse the index while it's the same set instance.  The index detects changes to the set itself...
+        TypeConverterFactoryIndex currentTypeConverterFactoryIndex = typeConverterFactoryIndex;
+        if (currentTypeConverterFactoryIndex == null || !currentTypeConverterFactoryIndex.isIndexOf(typeConverterFactories)) {
+            currentTypeConverterFactoryIndex = new TypeConverterFactoryIndex(typeConverterFactories);
+            typeConverterFactoryIndex = currentTypeConverterFactoryIndex;
+        }
+        return currentTypeConverterFactoryIndex.lookup(typeConverterDescriptor.getSourceType(), typeConverterDescriptor.getTargetType());
     }
 }
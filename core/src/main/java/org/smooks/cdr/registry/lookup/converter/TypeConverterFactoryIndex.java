@@ -0,0 +1,290 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.cdr.registry.lookup.converter;
+
+import org.smooks.converter.TypeConverterDescriptor;
+import org.smooks.converter.factory.TypeConverterFactory;
+
+import javax.annotation.Resource;
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Index over the registered {@link TypeConverterFactory} set.
+ * <p/>
+ * Resolves {@link TypeConverterFactory} lookups by (source type, target type) and by name without
+ * scanning the factory set:
+ * <ul>
+ *  <li>The highest priority factory for each exact (source type, target type) pair is resolved up front.</li>
+ *  <li>If there's no exact match for a pair of classes, the factory with the exact target type and the
+ *      most specific source type assignable from the requested source type is used.</li>
+ *  <li>Factories are indexed by their {@link Resource} name and by class name.</li>
+ *  <li>Lookup results are memoized, including misses.</li>
+ * </ul>
+ * The index is rebuilt when it's {@link #invalidate() invalidated} (e.g. the {@link org.smooks.cdr.registry.Registry}
+ * invalidates its index on every registration change), when a {@link TypeConverterFactorySet} it indexes is modified,
+ * or when the size of any other indexed factory set changes.  Code that replaces a factory in a plain {@link Set}
+ * must therefore {@link #invalidate() invalidate} the index.
+ */
+public class TypeConverterFactoryIndex {
+
+    private static final Object NO_MATCH = new Object();
+
+    private final Set<TypeConverterFactory<?, ?>> typeConverterFactories;
+    private final AtomicLong invalidations = new AtomicLong();
+    private volatile Index index;
+
+    public TypeConverterFactoryIndex(final Set<TypeConverterFactory<?, ?>> typeConverterFactories) {
+        this.typeConverterFactories = typeConverterFactories;
+        this.index = new Index(typeConverterFactories, 0, getSetVersion(typeConverterFactories));
+    }
+
+    /**
+     * Get the index for the {@link TypeConverterFactory} set in the supplied registry entries.
+     * @param registryEntries The registry entries.
+     * @return The registered index, or a new index if none is registered.
+     */
+    @SuppressWarnings("unchecked")
+    public static TypeConverterFactoryIndex getIndex(final Map<Object, Object> registryEntries) {
+        final Set<TypeConverterFactory<?, ?>> typeConverterFactories = (Set<TypeConverterFactory<?, ?>>) registryEntries.get(TypeConverterFactoryLookup.TYPE_CONVERTER_FACTORY_REGISTRY_KEY);
+        final TypeConverterFactoryIndex typeConverterFactoryIndex = (TypeConverterFactoryIndex) registryEntries.get(TypeConverterFactoryIndex.class);
+        if (typeConverterFactoryIndex != null && typeConverterFactoryIndex.isIndexOf(typeConverterFactories)) {
+            return typeConverterFactoryIndex;
+        }
+        return new TypeConverterFactoryIndex(typeConverterFactories);
+    }
+
+    /**
+     * Is this the index of the supplied {@link TypeConverterFactory} set.
+     * @param typeConverterFactories The factory set.
+     * @return True if this index indexes the supplied set instance, otherwise false.
+     */
+    public boolean isIndexOf(final Set<TypeConverterFactory<?, ?>> typeConverterFactories) {
+        return this.typeConverterFactories == typeConverterFactories;
+    }
+
+    /**
+     * Invalidate the index, forcing a rebuild on the next lookup.
+     */
+    public void invalidate() {
+        invalidations.incrementAndGet();
+    }
+
+    /**
+     * Find the {@link TypeConverterFactory} for the supplied source and target types.
+     * @param sourceType The source type.
+     * @param targetType The target type.
+     * @return The factory, or null if there's no factory for the types.
+     */
+    @SuppressWarnings("unchecked")
+    public <S, T> TypeConverterFactory<S, T> lookup(final Type sourceType, final Type targetType) {
+        final Index index = getCurrentIndex();
+        final TypePair typePair = new TypePair(sourceType, targetType);
+        Object typeConverterFactory = index.lookups.get(typePair);
+
+        if (typeConverterFactory == null) {
+            typeConverterFactory = index.resolve(sourceType, targetType);
+            index.lookups.putIfAbsent(typePair, typeConverterFactory);
+        }
+
+        return typeConverterFactory != NO_MATCH ? (TypeConverterFactory<S, T>) typeConverterFactory : null;
+    }
+
+    /**
+     * Find the {@link TypeConverterFactory} with the supplied {@link Resource} name or class name.
+     * @param name The {@link Resource} name or class name.
+     * @return The factory, or null if there's no factory with the name.
+     */
+    @SuppressWarnings("unchecked")
+    public <S, T> TypeConverterFactory<S, T> lookup(final String name) {
+        final Index index = getCurrentIndex();
+        TypeConverterFactory<?, ?> typeConverterFactory = index.byResourceName.get(name);
+
+        if (typeConverterFactory == null) {
+            typeConverterFactory = index.byClassName.get(name);
+        }
+
+        return (TypeConverterFactory<S, T>) typeConverterFactory;
+    }
+
+    private Index getCurrentIndex() {
+        Index currentIndex = index;
+        if (isStale(currentIndex)) {
+            synchronized (this) {
+                currentIndex = index;
+                if (isStale(currentIndex)) {
+                    // Read the versions before building, so a concurrent change causes another rebuild...
+                    final long currentInvalidations = invalidations.get();
+                    final long currentSetVersion = getSetVersion(typeConverterFactories);
+                    currentIndex = new Index(typeConverterFactories, currentInvalidations, currentSetVersion);
+                    index = currentIndex;
+                }
+            }
+        }
+        return currentIndex;
+    }
+
+    private boolean isStale(final Index currentIndex) {
+        return currentIndex.invalidations != invalidations.get() ||
+                currentIndex.setVersion != getSetVersion(typeConverterFactories) ||
+                currentIndex.size != typeConverterFactories.size();
+    }
+
+    private static long getSetVersion(final Set<TypeConverterFactory<?, ?>> typeConverterFactories) {
+        if (typeConverterFactories instanceof TypeConverterFactorySet) {
+            return ((TypeConverterFactorySet) typeConverterFactories).getVersion();
+        }
+        return 0;
+    }
+
+    private static class Index {
+
+        private final int size;
+        private final long invalidations;
+        private final long setVersion;
+        private final Map<TypePair, TypeConverterFactory<?, ?>> byTypes = new HashMap<>();
+        private final Map<Type, Map<Class<?>, TypeConverterFactory<?, ?>>> byTargetType = new HashMap<>();
+        private final Map<String, TypeConverterFactory<?, ?>> byResourceName = new HashMap<>();
+        private final Map<String, TypeConverterFactory<?, ?>> byClassName = new HashMap<>();
+        private final Map<TypePair, Object> lookups = new ConcurrentHashMap<>();
+
+        private Index(final Set<TypeConverterFactory<?, ?>> typeConverterFactories, final long invalidations, final long setVersion) {
+            this.invalidations = invalidations;
+            this.setVersion = setVersion;
+            size = typeConverterFactories.size();
+            for (TypeConverterFactory<?, ?> typeConverterFactory : typeConverterFactories) {
+                if (typeConverterFactory == null) {
+                    continue;
+                }
+
+                final TypeConverterDescriptor<?, ?> typeConverterDescriptor = typeConverterFactory.getTypeConverterDescriptor();
+                byTypes.merge(new TypePair(typeConverterDescriptor.getSourceType(), typeConverterDescriptor.getTargetType()), typeConverterFactory, Index::higherPriority);
+                if (typeConverterDescriptor.getSourceType() instanceof Class) {
+                    byTargetType.computeIfAbsent(typeConverterDescriptor.getTargetType(), targetType -> new HashMap<>()).
+                            merge((Class<?>) typeConverterDescriptor.getSourceType(), typeConverterFactory, Index::higherPriority);
+                }
+
+                final Resource resource = typeConverterFactory.getClass().getAnnotation(Resource.class);
+                if (resource != null) {
+                    byResourceName.putIfAbsent(resource.name(), typeConverterFactory);
+                }
+                byClassName.putIfAbsent(typeConverterFactory.getClass().getName(), typeConverterFactory);
+            }
+        }
+
+        private Object resolve(final Type sourceType, final Type targetType) {
+            TypeConverterFactory<?, ?> typeConverterFactory = byTypes.get(new TypePair(sourceType, targetType));
+
+            if (typeConverterFactory == null && sourceType instanceof Class) {
+                // No exact match... use the converter with the most specific assignable source type...
+                final Map<Class<?>, TypeConverterFactory<?, ?>> bySourceType = byTargetType.get(targetType);
+                if (bySourceType != null) {
+                    Class<?> bestSourceType = null;
+                    for (Map.Entry<Class<?>, TypeConverterFactory<?, ?>> entry : bySourceType.entrySet()) {
+                        final Class<?> candidateSourceType = entry.getKey();
+                        if (candidateSourceType.isAssignableFrom((Class<?>) sourceType) && isBetterMatch(candidateSourceType, entry.getValue(), bestSourceType, typeConverterFactory)) {
+                            bestSourceType = candidateSourceType;
+                            typeConverterFactory = entry.getValue();
+                        }
+                    }
+                }
+            }
+
+            return typeConverterFactory != null ? typeConverterFactory : NO_MATCH;
+        }
+
+        private static boolean isBetterMatch(final Class<?> candidateSourceType, final TypeConverterFactory<?, ?> candidate, final Class<?> bestSourceType, final TypeConverterFactory<?, ?> best) {
+            if (bestSourceType == null) {
+                return true;
+            } else if (bestSourceType.isAssignableFrom(candidateSourceType)) {
+                // More specific source type...
+                return true;
+            } else if (candidateSourceType.isAssignableFrom(bestSourceType)) {
+                return false;
+            }
+            // Unrelated source types (e.g. two interfaces)... fall back to priority...
+            return higherPriority(best, candidate) == candidate;
+        }
+
+        private static TypeConverterFactory<?, ?> higherPriority(final TypeConverterFactory<?, ?> typeConverterFactory1, final TypeConverterFactory<?, ?> typeConverterFactory2) {
+            final Short priority1 = typeConverterFactory1.getTypeConverterDescriptor().getPriority();
+            final Short priority2 = typeConverterFactory2.getTypeConverterDescriptor().getPriority();
+            return priority2.compareTo(priority1) > 0 ? typeConverterFactory2 : typeConverterFactory1;
+        }
+    }
+
+    private static final class TypePair {
+
+        private final Type sourceType;
+        private final Type targetType;
+        private final int hashCode;
+
+        private TypePair(final Type sourceType, final Type targetType) {
+            this.sourceType = sourceType;
+            this.targetType = targetType;
+            this.hashCode = Objects.hash(sourceType, targetType);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TypePair)) {
+                return false;
+            }
+            final TypePair that = (TypePair) o;
+            return Objects.equals(sourceType, that.sourceType) && Objects.equals(targetType, that.targetType);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.cdr.registry.lookup.converter;
+
+import org.smooks.assertion.AssertArgument;
+import org.smooks.converter.factory.TypeConverterFactory;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link TypeConverterFactory} set that counts its modifications.
+ * <p/>
+ * Lets a {@link TypeConverterFactoryIndex} over the set detect that it's stale, including when a factory is
+ * replaced by another one without changing the size of the set.
+ */
+public class TypeConverterFactorySet extends AbstractSet<TypeConverterFactory<?, ?>> {
+
+    private final Set<TypeConverterFactory<?, ?>> typeConverterFactories;
+    private final AtomicLong version = new AtomicLong();
+
+    public TypeConverterFactorySet(final Set<TypeConverterFactory<?, ?>> typeConverterFactories) {
+        AssertArgument.isNotNull(typeConverterFactories, "typeConverterFactories");
+        this.typeConverterFactories = typeConverterFactories;
+    }
+
+    /**
+     * Get the modification count of the set.
+     * @return The modification count.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    @Override
+    public boolean add(final TypeConverterFactory<?, ?> typeConverterFactory) {
+        final boolean added = typeConverterFactories.add(typeConverterFactory);
+        if (added) {
+            version.incrementAndGet();
+        }
+        return added;
+    }
+
+    @Override
+    public boolean remove(final Object typeConverterFactory) {
+        final boolean removed = typeConverterFactories.remove(typeConverterFactory);
+        if (removed) {
+            version.incrementAndGet();
+        }
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        typeConverterFactories.clear();
+        version.incrementAndGet();
+    }
+
+    @Override
+    public boolean contains(final Object typeConverterFactory) {
+        return typeConverterFactories.contains(typeConverterFactory);
+    }
+
+    @Override
+    public int size() {
+        return typeConverterFactories.size();
+    }
+
+    @Override
+    public Iterator<TypeConverterFactory<?, ?>> iterator() {
+        final Iterator<TypeConverterFactory<?, ?>> iterator = typeConverterFactories.iterator();
+        return new Iterator<TypeConverterFactory<?, ?>>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public TypeConverterFactory<?, ?> next() {
+                return iterator.next();
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+                version.incrementAndGet();
+            }
+        };
+    }
+}
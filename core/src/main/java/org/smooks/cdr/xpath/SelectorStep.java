@@ -278,8 +278,16 @@ public class SelectorStep {
     }
 
     public boolean isTargetedAtElement(SAXElement element) {
-        QName qname = element.getName();
+        return isTargetedAtElement(element.getName());
+    }
 
+    /**
+     * Is this StepSelector instance targeted at the specified element name.
+     *
+     * @param qname The element name to be tested.
+     * @return True if the step targets the element name, otherwise false.
+     */
+    public boolean isTargetedAtElement(QName qname) {
         if(isStar || isStarStar) {
             return true;
         }
@@ -207,4 +207,37 @@ public interface ExecutionContext extends BoundAttributeStore {
      * @param beanContext The BeanContext.
      */
     void setBeanContext(BeanContext beanContext);
+
+    /**
+     * Get the attribute bound under the supplied typed key.
+     * <p/>
+     * The default implementation delegates to {@link #getAttribute(Object)}, using the key name.
+     * Implementations can store typed attributes in a slot indexed array.
+     *
+     * @param key The key.
+     * @param <T> The attribute value type.
+     * @return The attribute value, or null if no value is bound under the key.
+     */
+    @SuppressWarnings("unchecked")
+    default <T> T get(TypedKey<T> key) {
+        return (T) getAttribute(key.getName());
+    }
+
+    /**
+     * Bind an attribute under the supplied typed key.
+     * @param key The key.
+     * @param value The attribute value.
+     * @param <T> The attribute value type.
+     */
+    default <T> void put(TypedKey<T> key, T value) {
+        setAttribute(key.getName(), value);
+    }
+
+    /**
+     * Remove the attribute bound under the supplied typed key.
+     * @param key The key.
+     */
+    default void remove(TypedKey<?> key) {
+        removeAttribute(key.getName());
+    }
 }
@@ -0,0 +1,150 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.container;
+
+import org.smooks.assertion.AssertArgument;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Typed {@link ExecutionContext} attribute key.
+ * <p/>
+ * Each key is assigned a slot index when it is first registered, allowing {@link ExecutionContext}
+ * implementations to store the attribute value in an array slot instead of a {@link java.util.Map}
+ * entry (see {@link ExecutionContext#get(TypedKey)}).  Keys should be registered once, as a static field.
+ * <p/>
+ * Registered keys are never released, and every {@link ExecutionContext} reserves a slot for every registered
+ * key.  Keys must therefore come from a fixed set.  Don't register keys whose name depends on configuration
+ * or data (e.g. a key per datasource or resource name).  Bind such attributes through the untyped
+ * {@link BoundAttributeStore} methods instead.
+ * <p/>
+ * Keys are interned by name.  The key name is also the key used when the attribute is accessed via
+ * the untyped {@link BoundAttributeStore} methods, so code using the typed and untyped methods
+ * see the same attributes.
+ *
+ * @param <T> The attribute value type.
+ */
+public final class TypedKey<T> {
+
+    private static final AtomicInteger slotCount = new AtomicInteger();
+    private static final ConcurrentMap<Object, TypedKey<?>> keys = new ConcurrentHashMap<Object, TypedKey<?>>();
+    private static final ConcurrentMap<Integer, TypedKey<?>> keysBySlot = new ConcurrentHashMap<Integer, TypedKey<?>>();
+
+    private final Object name;
+    private final int slot;
+
+    private TypedKey(Object name, int slot) {
+        this.name = name;
+        this.slot = slot;
+    }
+
+    /**
+     * Get the key registered under the supplied name, registering it if needs be.
+     * @param name The key name.  The same name as used by the untyped {@link BoundAttributeStore} methods.
+     * @param <T> The attribute value type.
+     * @return The key.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> TypedKey<T> of(Object name) {
+        AssertArgument.isNotNull(name, "name");
+
+        TypedKey<?> key = keys.get(name);
+        if(key == null) {
+            key = keys.computeIfAbsent(name, keyName -> {
+                TypedKey<Object> newKey = new TypedKey<Object>(keyName, slotCount.getAndIncrement());
+                keysBySlot.put(newKey.getSlot(), newKey);
+                return newKey;
+            });
+        }
+
+        return (TypedKey<T>) key;
+    }
+
+    /**
+     * Get the key registered under the supplied name, if any.
+     * @param name The key name.
+     * @return The key, or null if no key is registered under the name.
+     */
+    public static TypedKey<?> forName(Object name) {
+        return keys.get(name);
+    }
+
+    /**
+     * Get the key assigned to the supplied slot index.
+     * @param slot The slot index.
+     * @return The key, or null if no key is assigned to the slot.
+     */
+    public static TypedKey<?> forSlot(int slot) {
+        return keysBySlot.get(slot);
+    }
+
+    /**
+     * Get the number of slots assigned to the registered keys.
+     * @return The slot count.
+     */
+    public static int getSlotCount() {
+        return slotCount.get();
+    }
+
+    /**
+     * Get the key name.
+     * @return The key name.
+     */
+    public Object getName() {
+        return name;
+    }
+
+    /**
+     * Get the slot index assigned to the key.
+     * @return The slot index.
+     */
+    public int getSlot() {
+        return slot;
+    }
+
+    public String toString() {
+        return name.toString();
+    }
+}
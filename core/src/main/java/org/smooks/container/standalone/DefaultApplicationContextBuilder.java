@@ -42,6 +42,7 @@
  */
 package org.smooks.container.standalone;
 
+import org.smooks.cdr.ConfigSnapshotStore;
 import org.smooks.cdr.SystemSmooksResourceConfigurationListFactory;
 import org.smooks.cdr.injector.Scope;
 import org.smooks.cdr.lifecycle.phase.PostConstructLifecyclePhase;
@@ -60,12 +61,18 @@ public class DefaultApplicationContextBuilder implements ApplicationContextBuild
 
     private boolean registerInstalledResources = true;
     private ClassLoader classLoader;
+    private ConfigSnapshotStore configSnapshotStore;
 
     public DefaultApplicationContextBuilder setClassLoader(ClassLoader classLoader) {
         this.classLoader = classLoader;
         return this;
     }
 
+    public DefaultApplicationContextBuilder setConfigSnapshotStore(ConfigSnapshotStore configSnapshotStore) {
+        this.configSnapshotStore = configSnapshotStore;
+        return this;
+    }
+
     public DefaultApplicationContextBuilder setRegisterInstalledResources(boolean registerInstalledResources) {
         this.registerInstalledResources = registerInstalledResources;
         return this;
@@ -77,6 +84,7 @@ public class DefaultApplicationContextBuilder implements ApplicationContextBuild
         
         final Registry registry = new Registry(standaloneApplicationContext.getClassLoader(), standaloneApplicationContext.getResourceLocator(), standaloneApplicationContext.getProfileStore());
         registry.registerObject(ApplicationContext.class, standaloneApplicationContext);
+        registry.setConfigSnapshotStore(configSnapshotStore);
 
         registerInstalledContentHandlerFactories(registry);
         if (registerInstalledResources) {
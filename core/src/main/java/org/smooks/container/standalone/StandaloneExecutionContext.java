@@ -45,9 +45,9 @@ package org.smooks.container.standalone;
 import org.smooks.cdr.ParameterAccessor;
 import org.smooks.container.ApplicationContext;
 import org.smooks.container.ExecutionContext;
+import org.smooks.container.TypedKey;
 import org.smooks.delivery.ContentDeliveryConfig;
 import org.smooks.delivery.ContentDeliveryConfigBuilder;
-import org.smooks.delivery.Filter;
 import org.smooks.delivery.VisitorConfigMap;
 import org.smooks.event.ExecutionEventListener;
 import org.smooks.javabean.context.BeanContext;
@@ -57,7 +57,9 @@ import org.smooks.profile.UnknownProfileMemberException;
 
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
+import java.util.Arrays;
 import java.util.Hashtable;
+import java.util.Map;
 
 /**
  * Standalone Container Request implementation.
@@ -67,13 +69,14 @@ public class StandaloneExecutionContext implements ExecutionContext {
 
     private final ProfileSet targetProfileSet;
     private final Hashtable<Object, Object> attributes = new Hashtable<Object, Object>();
+    private Object[] typedAttributes = new Object[TypedKey.getSlotCount()];
     private final ContentDeliveryConfig deliveryConfig;
     private URI docSource;
 	private String contentEncoding;
+	private final String initialContentEncoding;
     private final ApplicationContext context;
     private ExecutionEventListener executionListener;
     private Throwable terminationError;
-    private final boolean isDefaultSerializationOn;
     private BeanContext beanContext;
 
     /**
@@ -113,9 +116,9 @@ public class StandaloneExecutionContext implements ExecutionContext {
         }
 		this.context = applicationContext;
 		setContentEncoding(contentEncoding);
+		this.initialContentEncoding = this.contentEncoding;
         targetProfileSet = applicationContext.getProfileStore().getProfileSet(targetProfile);
         deliveryConfig = ContentDeliveryConfigBuilder.getConfig(targetProfileSet, applicationContext, extendedVisitorConfigMap);
-        isDefaultSerializationOn = Boolean.parseBoolean(ParameterAccessor.getParameterValue(Filter.DEFAULT_SERIALIZATION_ON, String.class, "true", deliveryConfig));
     }
 
     public void setDocumentSource(URI docSource) {
@@ -192,20 +195,29 @@ public class StandaloneExecutionContext implements ExecutionContext {
     }
 
     public boolean isDefaultSerializationOn() {
-        return isDefaultSerializationOn;
+        return deliveryConfig.isDefaultSerializationOn();
     }
 
     /* (non-Javadoc)
       * @see org.smooks.container.BoundAttributeStore#setAttribute(java.lang.Object, java.lang.Object)
       */
 	public void setAttribute(Object key, Object value) {
-		attributes.put(key, value);
+        TypedKey<Object> typedKey = toTypedKey(key);
+        if(typedKey != null) {
+            put(typedKey, value);
+        } else {
+		    attributes.put(key, value);
+        }
 	}
 
 	/* (non-Javadoc)
 	 * @see org.smooks.container.BoundAttributeStore#getAttribute(java.lang.Object)
 	 */
 	public Object getAttribute(Object key) {
+        TypedKey<Object> typedKey = toTypedKey(key);
+        if(typedKey != null) {
+            return get(typedKey);
+        }
 		return attributes.get(key);
 	}
 
@@ -213,15 +225,83 @@ public class StandaloneExecutionContext implements ExecutionContext {
 	 * @see org.smooks.container.BoundAttributeStore#removeAttribute(java.lang.Object)
 	 */
 	public void removeAttribute(Object key) {
-		attributes.remove(key);
+        TypedKey<Object> typedKey = toTypedKey(key);
+        if(typedKey != null) {
+            remove(typedKey);
+        } else {
+		    attributes.remove(key);
+        }
 	}
 
+    @SuppressWarnings("unchecked")
+    public <T> T get(TypedKey<T> key) {
+        int slot = key.getSlot();
+        if(slot < typedAttributes.length) {
+            Object value = typedAttributes[slot];
+            if(value != null) {
+                return (T) value;
+            }
+        }
+        if(!attributes.isEmpty()) {
+            // Bound via the untyped methods before the key was registered...
+            return (T) attributes.get(key.getName());
+        }
+        return null;
+    }
+
+    public <T> void put(TypedKey<T> key, T value) {
+        int slot = key.getSlot();
+        if(slot >= typedAttributes.length) {
+            typedAttributes = Arrays.copyOf(typedAttributes, Math.max(slot + 1, TypedKey.getSlotCount()));
+        }
+        typedAttributes[slot] = value;
+    }
+
+    public void remove(TypedKey<?> key) {
+        int slot = key.getSlot();
+        if(slot < typedAttributes.length) {
+            typedAttributes[slot] = null;
+        }
+        if(!attributes.isEmpty()) {
+            attributes.remove(key.getName());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TypedKey<Object> toTypedKey(Object key) {
+        if(key instanceof TypedKey) {
+            return (TypedKey<Object>) key;
+        }
+        return (TypedKey<Object>) TypedKey.forName(key);
+    }
+
     public String toString() {
-        return attributes.toString();
+        return getAttributes().toString();
     }
 
+    /**
+     * Get all the attributes bound in this context, keyed by name.
+     * <p/>
+     * The returned table holds the attributes bound via the untyped {@link org.smooks.container.BoundAttributeStore}
+     * methods, as well as the attributes bound via a {@link TypedKey} (keyed by {@link TypedKey#getName()}).
+     * Note that, unlike in earlier versions, the table is a snapshot and not the context's own attribute
+     * table.  {@link Hashtable#put(Object, Object) put} and {@link Hashtable#remove(Object) remove} calls
+     * on the returned table are written through to the context, but later changes to the context are not
+     * reflected in the returned table.
+     * @return The attributes.
+     */
     public Hashtable<Object, Object> getAttributes() {
-    	return attributes;
+        AttributesSnapshot snapshot = new AttributesSnapshot();
+
+        snapshot.putAllLocal(attributes);
+        for(int i = 0; i < typedAttributes.length; i++) {
+            Object value = typedAttributes[i];
+            if(value != null) {
+                snapshot.putLocal(TypedKey.forSlot(i).getName(), value);
+            }
+        }
+
+        return snapshot;
     }
 
     public BeanContext getBeanContext() {
@@ -234,4 +314,46 @@ public class StandaloneExecutionContext implements ExecutionContext {
     public void setBeanContext(BeanContext beanContext) {
         this.beanContext = beanContext;
     }
+
+    /**
+     * Reset this context so it can be reused for another filter operation.
+     * <p/>
+     * Clears all the message specific state (untyped and typed attributes, bean context, event listener, termination error etc),
+     * while keeping the target profile and delivery configuration, so the (relatively expensive) context
+     * construction can be avoided when filtering many messages.  Must not be called while the context is in use.
+     */
+    public void reset() {
+        attributes.clear();
+        Arrays.fill(typedAttributes, null);
+        docSource = null;
+        contentEncoding = initialContentEncoding;
+        executionListener = null;
+        terminationError = null;
+        beanContext = null;
+    }
+
+    private class AttributesSnapshot extends Hashtable<Object, Object> {
+
+        private void putLocal(Object key, Object value) {
+            super.put(key, value);
+        }
+
+        private void putAllLocal(Map<?, ?> map) {
+            for(Map.Entry<?, ?> entry : map.entrySet()) {
+                super.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        public synchronized Object put(Object key, Object value) {
+            Object previous = super.put(key, value);
+            setAttribute(key, value);
+            return previous;
+        }
+
+        public synchronized Object remove(Object key) {
+            Object previous = super.remove(key);
+            removeAttribute(key);
+            return previous;
+        }
+    }
 }
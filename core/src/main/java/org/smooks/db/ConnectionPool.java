@@ -0,0 +1,519 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.db;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * JDBC connection pool used by the {@link DirectDataSource}.
+ * <p/>
+ * Borrowers wait (first come, first served) for at most <code>maxWait</code> milliseconds once
+ * <code>maxSize</code> connections are borrowed.  Idle connections are handed out most recently used first,
+ * are optionally validated on borrow using <code>validationQuery</code>, and are closed once idle for longer than
+ * <code>idleTimeout</code> milliseconds (down to <code>minSize</code> connections).
+ * <p/>
+ * Borrowed connections are returned to the pool when closed.  If <code>statementCacheSize</code> is greater than
+ * zero, {@link Connection#prepareStatement(String)} statements are cached per connection, and closing them returns
+ * them to the cache.  Returning a statement to the cache closes its open result sets and clears its parameters.
+ * Statements whose attributes were changed (e.g. {@link Statement#setMaxRows(int)}) are not returned to the cache.
+ */
+class ConnectionPool {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConnectionPool.class);
+    private static final Class<?>[] CONNECTION_INTERFACES = {Connection.class};
+    private static final Class<?>[] PREPARED_STATEMENT_INTERFACES = {PreparedStatement.class};
+
+    private final String name;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeout;
+    private final long maxWait;
+    private final String validationQuery;
+    private final int statementCacheSize;
+
+    private final Semaphore borrowPermits;
+    private final LinkedBlockingDeque<PooledConnection> idleConnections = new LinkedBlockingDeque<PooledConnection>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed;
+
+    ConnectionPool(String name, String url, String username, String password, int minSize, int maxSize, long idleTimeout, long maxWait, String validationQuery, int statementCacheSize) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size configuration for datasource '" + name + "'.  'minPoolSize' (" + minSize + ") must be between 0 and 'maxPoolSize' (" + maxSize + "), and 'maxPoolSize' must be greater than zero.");
+        }
+        this.name = name;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeout = idleTimeout;
+        this.maxWait = maxWait;
+        this.validationQuery = validationQuery;
+        this.statementCacheSize = statementCacheSize;
+        this.borrowPermits = new Semaphore(maxSize, true);
+
+        if (idleTimeout > 0 || minSize > 0) {
+            final long evictionInterval = (idleTimeout > 0 ? Math.max(idleTimeout / 2, 1) : 30000);
+
+            evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "smooks-datasource-" + name + "-evictor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            evictor.scheduleWithFixedDelay(this::evict, 0, evictionInterval, TimeUnit.MILLISECONDS);
+        } else {
+            evictor = null;
+        }
+    }
+
+    /**
+     * Borrow a connection from the pool.
+     * @return The connection.  Close the connection to return it to the pool.
+     * @throws SQLException Unable to borrow a connection.
+     */
+    Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool for datasource '" + name + "' is closed.");
+        }
+
+        try {
+            if (!borrowPermits.tryAcquire(maxWait, TimeUnit.MILLISECONDS)) {
+                throw new SQLTimeoutException("Timed out after " + maxWait + "ms waiting on a connection from datasource '" + name + "'.  All " + maxSize + " connections ('maxPoolSize') are in use.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting on a connection from datasource '" + name + "'.", e);
+        }
+
+        try {
+            PooledConnection pooledConnection;
+
+            while ((pooledConnection = idleConnections.pollFirst()) != null) {
+                if (isValid(pooledConnection)) {
+                    return pooledConnection.borrow();
+                }
+                discard(pooledConnection);
+            }
+
+            size.incrementAndGet();
+            try {
+                pooledConnection = new PooledConnection(DriverManager.getConnection(url, username, password));
+            } catch (SQLException | RuntimeException e) {
+                size.decrementAndGet();
+                throw e;
+            }
+
+            return pooledConnection.borrow();
+        } catch (SQLException | RuntimeException e) {
+            borrowPermits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Close the pool.
+     * <p/>
+     * Idle connections are closed immediately.  Borrowed connections are closed when they're returned.
+     */
+    void close() {
+        closed = true;
+        if (evictor != null) {
+            evictor.shutdownNow();
+        }
+
+        PooledConnection pooledConnection;
+        while ((pooledConnection = idleConnections.pollFirst()) != null) {
+            discard(pooledConnection);
+        }
+    }
+
+    /**
+     * Get the number of open connections, borrowed and idle.
+     * @return The number of open connections.
+     */
+    int getSize() {
+        return size.get();
+    }
+
+    /**
+     * Get the number of idle connections.
+     * @return The number of idle connections.
+     */
+    int getIdleCount() {
+        return idleConnections.size();
+    }
+
+    private boolean isValid(PooledConnection pooledConnection) {
+        try {
+            if (validationQuery == null) {
+                return !pooledConnection.connection.isClosed();
+            }
+            try (Statement statement = pooledConnection.connection.createStatement()) {
+                statement.execute(validationQuery);
+            }
+            return true;
+        } catch (SQLException e) {
+            LOGGER.debug("Discarding invalid pooled connection for datasource '" + name + "'.", e);
+            return false;
+        }
+    }
+
+    private void release(PooledConnection pooledConnection) {
+        try {
+            if (closed || size.get() > maxSize || pooledConnection.connection.isClosed()) {
+                discard(pooledConnection);
+            } else {
+                if (!pooledConnection.connection.getAutoCommit()) {
+                    // Don't hand an open transaction to the next borrower...
+                    pooledConnection.connection.rollback();
+                }
+                pooledConnection.lastReleased = System.currentTimeMillis();
+                idleConnections.offerFirst(pooledConnection);
+            }
+        } catch (SQLException e) {
+            LOGGER.debug("Discarding pooled connection for datasource '" + name + "'.  Failed to reset connection.", e);
+            discard(pooledConnection);
+        } finally {
+            borrowPermits.release();
+        }
+    }
+
+    private void discard(PooledConnection pooledConnection) {
+        size.decrementAndGet();
+        try {
+            pooledConnection.connection.close();
+        } catch (SQLException e) {
+            LOGGER.debug("Error closing pooled connection for datasource '" + name + "'.", e);
+        }
+    }
+
+    private void evict() {
+        try {
+            if (idleTimeout > 0) {
+                final long evictBefore = System.currentTimeMillis() - idleTimeout;
+                // Least recently used connections are at the end of the deque...
+                final Iterator<PooledConnection> idleIterator = idleConnections.descendingIterator();
+
+                while (idleIterator.hasNext() && size.get() > minSize) {
+                    final PooledConnection pooledConnection = idleIterator.next();
+                    if (pooledConnection.lastReleased < evictBefore && idleConnections.removeFirstOccurrence(pooledConnection)) {
+                        discard(pooledConnection);
+                    }
+                }
+            }
+
+            while (!closed && size.incrementAndGet() <= minSize) {
+                final PooledConnection pooledConnection;
+                try {
+                    pooledConnection = new PooledConnection(DriverManager.getConnection(url, username, password));
+                } catch (SQLException | RuntimeException e) {
+                    size.decrementAndGet();
+                    throw e;
+                }
+                pooledConnection.lastReleased = System.currentTimeMillis();
+                idleConnections.offerLast(pooledConnection);
+            }
+            size.decrementAndGet();
+        } catch (Exception e) {
+            LOGGER.warn("Error maintaining connection pool for datasource '" + name + "'.", e);
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Physical connection, plus its statement cache.
+     * <p/>
+     * Only accessed by one borrower at a time.
+     */
+    private class PooledConnection {
+
+        private final Connection connection;
+        private final Map<String, CachedStatement> statementCache;
+        private volatile long lastReleased;
+
+        private PooledConnection(Connection connection) {
+            this.connection = connection;
+            if (statementCacheSize > 0) {
+                statementCache = new LinkedHashMap<String, CachedStatement>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                        if (size() > statementCacheSize) {
+                            eldest.getValue().evict();
+                            return true;
+                        }
+                        return false;
+                    }
+                };
+            } else {
+                statementCache = null;
+            }
+        }
+
+        private Connection borrow() {
+            final BorrowedConnection borrowedConnection = new BorrowedConnection(this);
+
+            borrowedConnection.proxy = (Connection) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(), CONNECTION_INTERFACES, borrowedConnection);
+
+            return borrowedConnection.proxy;
+        }
+    }
+
+    /**
+     * Borrowed connection handle.  Closing it returns the connection to the pool.
+     */
+    private class BorrowedConnection implements InvocationHandler {
+
+        private final PooledConnection pooledConnection;
+        private final List<Statement> statements = new ArrayList<Statement>();
+        // Tracked here, rather than through the statement cache, as they may be evicted from the cache while in use...
+        private final List<CachedStatement> cachedStatements = new ArrayList<CachedStatement>();
+        private Connection proxy;
+        private boolean closed;
+
+        private BorrowedConnection(PooledConnection pooledConnection) {
+            this.pooledConnection = pooledConnection;
+        }
+
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            final String methodName = method.getName();
+
+            switch (methodName) {
+                case "close":
+                    close();
+                    return null;
+                case "isClosed":
+                    return closed || pooledConnection.connection.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled " + pooledConnection.connection;
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Connection is closed.");
+            }
+
+            if (methodName.equals("prepareStatement") && args.length == 1 && pooledConnection.statementCache != null) {
+                return prepareCachedStatement((String) args[0]);
+            }
+
+            final Object result = ConnectionPool.invoke(pooledConnection.connection, method, args);
+            if (result instanceof Statement) {
+                // Closed along with the borrowed connection...
+                statements.add((Statement) result);
+            }
+
+            return result;
+        }
+
+        private PreparedStatement prepareCachedStatement(String sql) throws SQLException {
+            CachedStatement cachedStatement = pooledConnection.statementCache.get(sql);
+
+            if (cachedStatement == null || cachedStatement.evicted) {
+                cachedStatement = new CachedStatement(pooledConnection.connection.prepareStatement(sql));
+                pooledConnection.statementCache.put(sql, cachedStatement);
+            } else if (cachedStatement.owner != null) {
+                // Already in use.  Hand out a non-cached statement...
+                final PreparedStatement statement = pooledConnection.connection.prepareStatement(sql);
+                statements.add(statement);
+                return statement;
+            }
+            cachedStatement.owner = this;
+            cachedStatements.add(cachedStatement);
+
+            return cachedStatement.proxy;
+        }
+
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+
+            for (Statement statement : statements) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    LOGGER.debug("Error closing statement.", e);
+                }
+            }
+            statements.clear();
+            for (CachedStatement cachedStatement : new ArrayList<CachedStatement>(cachedStatements)) {
+                try {
+                    cachedStatement.release();
+                } catch (SQLException e) {
+                    LOGGER.debug("Error releasing cached statement.", e);
+                }
+            }
+            cachedStatements.clear();
+
+            release(pooledConnection);
+        }
+    }
+
+    /**
+     * Cached prepared statement.  Closing it returns it to the cache.
+     */
+    private static class CachedStatement implements InvocationHandler {
+
+        private final PreparedStatement statement;
+        private final PreparedStatement proxy;
+        private final List<ResultSet> resultSets = new ArrayList<ResultSet>();
+        private BorrowedConnection owner;
+        private boolean modified;
+        private boolean evicted;
+
+        private CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(), PREPARED_STATEMENT_INTERFACES, this);
+        }
+
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    release();
+                    return null;
+                case "isClosed":
+                    return owner == null;
+                case "getConnection":
+                    return (owner != null ? owner.proxy : null);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Cached " + statement;
+                default:
+                    break;
+            }
+
+            if (owner == null) {
+                throw new SQLException("Statement is closed.");
+            }
+            if (method.getDeclaringClass() == Statement.class && (method.getName().startsWith("set") || method.getName().equals("closeOnCompletion"))) {
+                // maxRows, fetchSize, queryTimeout etc. can't be reliably reset...
+                modified = true;
+            }
+
+            final Object result = ConnectionPool.invoke(statement, method, args);
+            if (result instanceof ResultSet) {
+                resultSets.add((ResultSet) result);
+            }
+
+            return result;
+        }
+
+        private void release() throws SQLException {
+            if (owner == null) {
+                return;
+            }
+            owner.cachedStatements.remove(this);
+            owner = null;
+            for (ResultSet resultSet : resultSets) {
+                try {
+                    resultSet.close();
+                } catch (SQLException e) {
+                    LOGGER.debug("Error closing result set.", e);
+                }
+            }
+            resultSets.clear();
+            if (evicted || modified) {
+                // Replaced in the cache the next time it's prepared...
+                evicted = true;
+                statement.close();
+            } else {
+                statement.clearParameters();
+            }
+        }
+
+        private void evict() {
+            evicted = true;
+            if (owner == null) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    LOGGER.debug("Error closing evicted statement.", e);
+                }
+            }
+        }
+    }
+}
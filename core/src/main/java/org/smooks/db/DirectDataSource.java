@@ -47,17 +47,34 @@ import org.smooks.event.report.annotation.VisitAfterReport;
 import org.smooks.event.report.annotation.VisitBeforeReport;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Named;
 import java.sql.Connection;
 import java.sql.Driver;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.Optional;
 
 /**
  * Direct DataSource.
  * <p/>
  * Configured with a specific JDBC driver plus username etc.
+ * <p/>
+ * By default, a new connection is opened for every {@link org.smooks.container.ExecutionContext} using the
+ * datasource (and closed again at the end of the execution).  Set <code>pooled</code> to reuse the connections
+ * through an embedded connection pool, configured with:
+ * <ul>
+ *  <li><b>minPoolSize</b>: Minimum number of open connections.  Default 0.</li>
+ *  <li><b>maxPoolSize</b>: Maximum number of open connections.  Default 10.</li>
+ *  <li><b>idleTimeout</b>: Milliseconds after which idle connections are closed (down to <code>minPoolSize</code>).
+ *      Zero or less disables eviction.  Default 600000 (10 minutes).</li>
+ *  <li><b>maxWait</b>: Maximum number of milliseconds to wait on a connection once <code>maxPoolSize</code>
+ *      connections are in use.  Waiting executions are served in order.  Default 30000.</li>
+ *  <li><b>validationQuery</b>: Query used to validate an idle connection before it's borrowed e.g. "SELECT 1".
+ *      Default none, in which case only closed connections are discarded.</li>
+ *  <li><b>statementCacheSize</b>: Number of prepared statements cached per connection.  Default 0 (disabled).</li>
+ * </ul>
  *
  * @author <a href="mailto:tom.fennelly@gmail.com">tom.fennelly@gmail.com</a>
  */
@@ -84,6 +101,16 @@ public class DirectDataSource extends AbstractDataSource {
     @Inject
     private String password;
 
+    private boolean pooled;
+    private int minPoolSize = 0;
+    private int maxPoolSize = 10;
+    private long idleTimeout = 600000;
+    private long maxWait = 30000;
+    private String validationQuery;
+    private int statementCacheSize = 0;
+
+    private ConnectionPool connectionPool;
+
     public String getName() {
         return name;
     }
@@ -123,6 +150,48 @@ public class DirectDataSource extends AbstractDataSource {
         return this;
     }
 
+    @Inject
+    public DirectDataSource setPooled(Optional<Boolean> pooled) {
+        this.pooled = pooled.orElse(this.pooled);
+        return this;
+    }
+
+    @Inject
+    public DirectDataSource setMinPoolSize(Optional<Integer> minPoolSize) {
+        this.minPoolSize = minPoolSize.orElse(this.minPoolSize);
+        return this;
+    }
+
+    @Inject
+    public DirectDataSource setMaxPoolSize(Optional<Integer> maxPoolSize) {
+        this.maxPoolSize = maxPoolSize.orElse(this.maxPoolSize);
+        return this;
+    }
+
+    @Inject
+    public DirectDataSource setIdleTimeout(Optional<Long> idleTimeout) {
+        this.idleTimeout = idleTimeout.orElse(this.idleTimeout);
+        return this;
+    }
+
+    @Inject
+    public DirectDataSource setMaxWait(Optional<Long> maxWait) {
+        this.maxWait = maxWait.orElse(this.maxWait);
+        return this;
+    }
+
+    @Inject
+    public DirectDataSource setValidationQuery(Optional<String> validationQuery) {
+        this.validationQuery = validationQuery.orElse(this.validationQuery);
+        return this;
+    }
+
+    @Inject
+    public DirectDataSource setStatementCacheSize(Optional<Integer> statementCacheSize) {
+        this.statementCacheSize = statementCacheSize.orElse(this.statementCacheSize);
+        return this;
+    }
+
     @PostConstruct
     public void registerDriver() throws SQLException {
         Driver driverInstance;
@@ -141,9 +210,24 @@ public class DirectDataSource extends AbstractDataSource {
         }
         
         DriverManager.registerDriver(driverInstance);
+
+        if (pooled) {
+            connectionPool = new ConnectionPool(name, url, username, password, minPoolSize, maxPoolSize, idleTimeout, maxWait, validationQuery, statementCacheSize);
+        }
+    }
+
+    @PreDestroy
+    public void closePool() {
+        if (connectionPool != null) {
+            connectionPool.close();
+            connectionPool = null;
+        }
     }
 
     public Connection getConnection() throws SQLException {
+        if (connectionPool != null) {
+            return connectionPool.getConnection();
+        }
         return DriverManager.getConnection(url, username, password);
     }
 
@@ -44,6 +44,7 @@ package org.smooks.delivery;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.smooks.cdr.GlobalParameterChangeListener;
 import org.smooks.cdr.ParameterAccessor;
 import org.smooks.cdr.SmooksResourceConfiguration;
 import org.smooks.cdr.registry.Registry;
@@ -52,11 +53,11 @@ import org.smooks.container.ApplicationContext;
 import org.smooks.container.ExecutionContext;
 import org.smooks.dtd.DTDStore;
 import org.smooks.event.types.ConfigBuilderEvent;
+import org.smooks.xml.ReusableXMLReader;
 import org.xml.sax.XMLReader;
 
 import java.util.*;
 import java.util.Map.Entry;
-import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Abstract {@link ContentDeliveryConfig}.
@@ -64,7 +65,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
  * @author <a href="mailto:tom.fennelly@gmail.com">tom.fennelly@gmail.com</a>
  */
 @SuppressWarnings("unchecked")
-public abstract class AbstractContentDeliveryConfig implements ContentDeliveryConfig {
+public abstract class AbstractContentDeliveryConfig implements ContentDeliveryConfig, GlobalParameterChangeListener {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractContentDeliveryConfig.class);
 
@@ -94,10 +95,19 @@ public abstract class AbstractContentDeliveryConfig implements ContentDeliveryCo
     private final Set<ExecutionLifecycleInitializable> execInitializableHandlers = new LinkedHashSet<ExecutionLifecycleInitializable>();
     private final Set<ExecutionLifecycleCleanable> execCleanableHandlers = new LinkedHashSet<ExecutionLifecycleCleanable>();
 
-    private Boolean isDefaultSerializationOn = null;
+    private volatile GlobalParameterSettings globalParameterSettings;
+    /**
+     * Global parameter configurations registered after this config was built (see {@link #changed(String, SmooksResourceConfiguration)}).
+     * Newest first.  Immutable, replaced on change.
+     */
+    private volatile List<SmooksResourceConfiguration> addedGlobalParameters = Collections.emptyList();
+
+    /**
+     * Default {@link XMLReader} pool size, used if {@link Filter#READER_POOL_SIZE} is not configured.
+     */
+    public static final int DEFAULT_READER_POOL_SIZE = Runtime.getRuntime().availableProcessors() * 2;
 
-    private final List<XMLReader> readerPool = new CopyOnWriteArrayList<XMLReader>();
-	private         int             readerPoolSize;
+    private volatile XMLReaderPool readerPool = new XMLReaderPool(0);
 
     public void setApplicationContext(ApplicationContext applicationContext) {
         this.applicationContext = applicationContext;
@@ -114,6 +124,8 @@ public abstract class AbstractContentDeliveryConfig implements ContentDeliveryCo
 
     public void setSmooksResourceConfigurations(Map<String, List<SmooksResourceConfiguration>> resourceConfigTable) {
         this.resourceConfigTable = resourceConfigTable;
+        this.addedGlobalParameters = Collections.emptyList();
+        this.globalParameterSettings = null;
     }
 
     /**
@@ -184,11 +196,58 @@ public abstract class AbstractContentDeliveryConfig implements ContentDeliveryCo
     }
 
     public boolean isDefaultSerializationOn() {
-        if(isDefaultSerializationOn == null) {
-            isDefaultSerializationOn = Boolean.valueOf(ParameterAccessor.getParameterValue(Filter.DEFAULT_SERIALIZATION_ON, String.class, "true", this));
+        return getGlobalParameterSettings().isDefaultSerializationOn();
+    }
+
+    public GlobalParameterSettings getGlobalParameterSettings() {
+        GlobalParameterSettings settings = globalParameterSettings;
+
+        if(settings == null) {
+            settings = new GlobalParameterSettings(getGlobalParameterTable());
+            globalParameterSettings = settings;
         }
 
-        return isDefaultSerializationOn;
+        return settings;
+    }
+
+    private Map<String, List<SmooksResourceConfiguration>> getGlobalParameterTable() {
+        List<SmooksResourceConfiguration> addedGlobalParameters = this.addedGlobalParameters;
+
+        if(addedGlobalParameters.isEmpty()) {
+            return resourceConfigTable;
+        }
+
+        // Parameters are looked up first match, so the newest settings go first...
+        List<SmooksResourceConfiguration> globalParameters = new ArrayList<SmooksResourceConfiguration>(addedGlobalParameters);
+        List<SmooksResourceConfiguration> builtGlobalParameters = resourceConfigTable.get(ParameterAccessor.GLOBAL_PARAMETERS);
+        if(builtGlobalParameters != null) {
+            globalParameters.addAll(builtGlobalParameters);
+        }
+
+        return Collections.singletonMap(ParameterAccessor.GLOBAL_PARAMETERS, globalParameters);
+    }
+
+    /**
+     * Refresh the {@link GlobalParameterSettings} after a global parameter change.
+     * <p/>
+     * A newly registered {@link ParameterAccessor#GLOBAL_PARAMETERS global-parameters} configuration is applied
+     * to the {@link GlobalParameterSettings} of this configuration, overriding any earlier setting of the same
+     * parameter (runtime or configured).  The resource configuration table, which is
+     * shared with concurrent filter threads, is not modified.  The new settings are published through a volatile
+     * field.
+     *
+     * @param name The parameter name.
+     * @param config The new global-parameters configuration, or null if the parameter was removed.
+     */
+    public synchronized void changed(String name, SmooksResourceConfiguration config) {
+        if(config != null) {
+            List<SmooksResourceConfiguration> newAddedGlobalParameters = new ArrayList<SmooksResourceConfiguration>(addedGlobalParameters.size() + 1);
+
+            newAddedGlobalParameters.add(config);
+            newAddedGlobalParameters.addAll(addedGlobalParameters);
+            addedGlobalParameters = Collections.unmodifiableList(newAddedGlobalParameters);
+        }
+        globalParameterSettings = new GlobalParameterSettings(getGlobalParameterTable());
     }
 
     @SuppressWarnings("WeakerAccess")
@@ -224,29 +283,60 @@ public abstract class AbstractContentDeliveryConfig implements ContentDeliveryCo
     }
 
     public void initializeXMLReaderPool() {
-    	try {
-	        readerPoolSize = Integer.parseInt(ParameterAccessor.getParameterValue(Filter.READER_POOL_SIZE, String.class, "0", this));
-    	} catch(NumberFormatException e) {
-    		readerPoolSize = 0;
-    	}
+        readerPool = new XMLReaderPool(getGlobalParameterSettings().getReaderPoolSize());
+    }
+
+    /**
+     * Make sure the {@link XMLReader} pool can hold at least the specified number of readers.
+     * <p/>
+     * Used when the configuration is known to be used by a fixed number of concurrent filter
+     * operations (e.g. by a {@link org.smooks.batch.SmooksBatchProcessor}), so each of them can
+     * reuse a reader.
+     *
+     * @param minReaderPoolSize The minimum reader pool size.
+     */
+    public void ensureXMLReaderPoolSize(int minReaderPoolSize) {
+        readerPool.ensureCapacity(minReaderPoolSize);
+    }
+
+    /**
+     * Get the {@link XMLReader} pool, e.g. for monitoring the pool hit/miss counts.
+     * @return The reader pool.
+     */
+    public XMLReaderPool getXMLReaderPool() {
+        return readerPool;
     }
 
     public XMLReader getXMLReader() {
-        synchronized (readerPool) {
-            if (!readerPool.isEmpty()) {
-                return readerPool.remove(0);
-            } else {
-                return null;
-            }
-        }
+        return readerPool.take();
     }
 
 	public void returnXMLReader(XMLReader reader) {
-		synchronized(readerPool) {
-			if(readerPool.size() < readerPoolSize) {
-				readerPool.add(reader);
-			}
-		}
+        if(readerPool.getCapacity() == 0) {
+            return;
+        }
+
+        // Release the per message handlers, so a pooled reader does not hold on to the last message's state...
+        try {
+            reader.setContentHandler(null);
+        } catch(Throwable t) {
+            LOGGER.debug("Unable to reset ContentHandler on XMLReader '" + reader.getClass().getName() + "'.  Not returning reader to pool.", t);
+            return;
+        }
+        try {
+            reader.setProperty("http://xml.org/sax/properties/lexical-handler", null);
+        } catch(Throwable t) {
+            // Property not supported, or the reader does not allow it to be cleared...
+        }
+        if(reader instanceof ReusableXMLReader) {
+            try {
+                ((ReusableXMLReader) reader).reset();
+            } catch(Throwable t) {
+                LOGGER.debug("Unable to reset XMLReader '" + reader.getClass().getName() + "'.  Not returning reader to pool.", t);
+                return;
+            }
+        }
+        readerPool.offer(reader);
 	}
 
     protected FilterBypass getFilterBypass(ContentHandlerConfigMapTable... visitorTables) {
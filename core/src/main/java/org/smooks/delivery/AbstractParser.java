@@ -53,9 +53,11 @@ import org.smooks.cdr.lifecycle.LifecycleManager;
 import org.smooks.cdr.lifecycle.phase.PostConstructLifecyclePhase;
 import org.smooks.cdr.registry.lookup.LifecycleManagerLookup;
 import org.smooks.container.ExecutionContext;
+import org.smooks.container.TypedKey;
 import org.smooks.delivery.java.JavaXMLReader;
 import org.smooks.delivery.java.XStreamXMLReader;
 import org.smooks.io.NullReader;
+import org.smooks.io.MarkupWriter;
 import org.smooks.io.NullWriter;
 import org.smooks.namespace.NamespaceDeclarationStack;
 import org.smooks.namespace.NamespaceDeclarationStackAware;
@@ -64,6 +66,7 @@ import org.smooks.payload.JavaSource;
 import org.smooks.util.ClassUtil;
 import org.smooks.xml.NamespaceMappings;
 import org.smooks.xml.NullSourceXMLReader;
+import org.smooks.xml.ReusableXMLReader;
 import org.smooks.xml.SmooksXMLReader;
 import org.xml.sax.*;
 import org.xml.sax.ext.DefaultHandler2;
@@ -76,6 +79,7 @@ import javax.xml.transform.stream.StreamSource;
 import java.io.*;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Stack;
@@ -88,6 +92,7 @@ import java.util.Stack;
 public class AbstractParser {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractParser.class);
+    private static final TypedKey<Stack<XMLReader>> READERS_KEY = TypedKey.of(XMLReader.class);
 
     private final ExecutionContext execContext;
     private final SmooksResourceConfiguration saxDriverConfig;
@@ -151,7 +156,7 @@ public class AbstractParser {
 
     @SuppressWarnings("unchecked")
     public static Stack<XMLReader> getReaders(ExecutionContext execContext) {
-        Stack<XMLReader> readers = (Stack<XMLReader>) execContext.getAttribute(XMLReader.class);
+        Stack<XMLReader> readers = execContext.get(READERS_KEY);
 
         if(readers == null) {
             readers = new Stack<XMLReader>();
@@ -161,7 +166,7 @@ public class AbstractParser {
     }
 
     public static void setReaders(Stack<XMLReader> readers, ExecutionContext execContext) {
-        execContext.setAttribute(XMLReader.class, readers);
+        execContext.put(READERS_KEY, readers);
     }
 
     /**
@@ -294,11 +299,11 @@ public class AbstractParser {
         } else if (streamResult.getOutputStream() != null) {
             try {
                 if (executionContext != null) {
-                    return new OutputStreamWriter(streamResult.getOutputStream(), executionContext.getContentEncoding());
+                    return new MarkupWriter(streamResult.getOutputStream(), Charset.forName(executionContext.getContentEncoding()));
                 } else {
-                    return new OutputStreamWriter(streamResult.getOutputStream(), StandardCharsets.UTF_8);
+                    return new MarkupWriter(streamResult.getOutputStream(), StandardCharsets.UTF_8);
                 }
-            } catch (UnsupportedEncodingException e) {
+            } catch (IllegalArgumentException e) {
                 throw new SmooksException("Unable to encode output stream.", e);
             }
         } else {
@@ -306,6 +311,33 @@ public class AbstractParser {
         }
     }
 
+    /**
+     * Can the {@link XMLReader} used to parse the supplied {@link Source} be taken from (and returned to)
+     * the delivery config's reader pool.
+     * <p/>
+     * Readers created for a {@link JavaSource} depend on the source, so they are only pooled if the reader
+     * class is explicitly configured.  An explicitly configured reader (e.g. a CSV or EDI reader) may keep the
+     * last message's {@link ExecutionContext} and parse state, so it's only pooled if it's a
+     * {@link ReusableXMLReader}, or if the reader pool size is explicitly configured.
+     *
+     * @param source The source.
+     * @return True if the reader can be pooled, otherwise false.
+     */
+    protected boolean isXMLReaderPoolable(Source source) {
+        if(saxDriverConfig != null && saxDriverConfig.getResource() != null) {
+            if(execContext.getDeliveryConfig().getGlobalParameterSettings().isReaderPoolSizeConfigured()) {
+                return true;
+            }
+            try {
+                return ReusableXMLReader.class.isAssignableFrom(ClassUtil.forName(saxDriverConfig.getResource(), getClass()));
+            } catch (ClassNotFoundException e) {
+                // Fails again (and is reported) when the reader is created...
+                return false;
+            }
+        }
+        return !(source instanceof JavaSource);
+    }
+
     protected XMLReader createXMLReader() throws SAXException {
         XMLReader reader;
         ExecutionContext execContext = getExecContext();
@@ -141,6 +141,12 @@ public interface ContentDeliveryConfig {
      */
     boolean isDefaultSerializationOn();
 
+    /**
+     * Get the resolved global parameter filter settings for this configuration.
+     * @return The global parameter settings.
+     */
+    GlobalParameterSettings getGlobalParameterSettings();
+
     /**
      * Sort the Visitors, targeted at each selector, based on the
      * what the Visitors {@link Producer produce} and {@link Consumer consume}.
@@ -178,6 +184,9 @@ public interface ContentDeliveryConfig {
     /**
      * Return an {@link XMLReader} instance to the
      * reader pool associated with this ContentDelivery config instance.
+     * <p/>
+     * Only readers that completed their last parse should be returned.  A {@link org.smooks.xml.ReusableXMLReader}
+     * is {@link org.smooks.xml.ReusableXMLReader#reset() reset} before it's pooled.
      * @param reader The XMLReader instance to be returned.  If the pool is full, the instance
      * is left to the GC (i.e. lost).
      */
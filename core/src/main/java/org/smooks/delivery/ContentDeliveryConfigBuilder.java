@@ -163,6 +163,10 @@ public class ContentDeliveryConfigBuilder {
                     ContentDeliveryConfigBuilder configBuilder = new ContentDeliveryConfigBuilder(profileSet, applicationContext);
                     configBuilder.load();
                     config = configBuilder.createConfig(extendedVisitorConfigMap);
+                    if(config instanceof GlobalParameterChangeListener) {
+                        // Refresh the config's global parameter settings on ParameterAccessor changes...
+                        ParameterAccessor.addChangeListener((GlobalParameterChangeListener) config, applicationContext.getRegistry());
+                    }
                     configTable.put(profileSet.getBaseProfile(), config);
                 }
             }
@@ -204,6 +208,7 @@ public class ContentDeliveryConfigBuilder {
             domConfig.addToExecutionLifecycleSets();
             domConfig.initializeXMLReaderPool();
             domConfig.configureFilterBypass();
+            domConfig.freeze();
 
             // Tell all interested listeners that the config builder for the profile has now been created.
             fireEvent(ContentDeliveryConfigBuilderLifecycleEvent.CONFIG_BUILDER_CREATED);
@@ -233,6 +238,7 @@ public class ContentDeliveryConfigBuilder {
             saxConfig.initializeXMLReaderPool();
 
             saxConfig.addIndexCounters();
+            saxConfig.freeze();
 
             // Tell all interested listeners that the config builder for the profile has now been created.
             fireEvent(ContentDeliveryConfigBuilderLifecycleEvent.CONFIG_BUILDER_CREATED);
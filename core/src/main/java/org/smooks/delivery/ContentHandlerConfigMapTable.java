@@ -49,13 +49,17 @@ import java.util.*;
 
 /**
  * Simple table for storing {@link ContentHandlerConfigMap} lists against a selector string.
+ * <p/>
+ * The table is mutable while the delivery configuration is being built.  It is then {@link #freeze() frozen},
+ * after which its mapping lists are immutable and array-backed, and can be read concurrently without locking.
  * 
  * @author <a href="mailto:tom.fennelly@gmail.com">tom.fennelly@gmail.com</a>
  */
 public class ContentHandlerConfigMapTable<T extends ContentHandler> {
 
     private final Map<String, List<ContentHandlerConfigMap<T>>> table = new LinkedHashMap<String, List<ContentHandlerConfigMap<T>>>();
-    private final List<ContentHandlerConfigMap<T>> list = new ArrayList<ContentHandlerConfigMap<T>>();
+    private List<ContentHandlerConfigMap<T>> list = new ArrayList<ContentHandlerConfigMap<T>>();
+    private boolean frozen = false;
     private int count = 0;
     private int userConfiguredCount = 0;
 
@@ -76,10 +80,12 @@ public class ContentHandlerConfigMapTable<T extends ContentHandler> {
      * @param mapInst The mapping instance to be added.
      */
     private void addMapping(String elementName, ContentHandlerConfigMap<T> mapInst) {
+        assertNotFrozen();
+
         List<ContentHandlerConfigMap<T>> elementMappings = table.get(elementName);
 
         if(elementMappings == null) {
-            elementMappings = new Vector<ContentHandlerConfigMap<T>>();
+            elementMappings = new ArrayList<ContentHandlerConfigMap<T>>();
             table.put(elementName, elementMappings);
         }
         elementMappings.add(mapInst);
@@ -173,10 +179,66 @@ public class ContentHandlerConfigMapTable<T extends ContentHandler> {
      * @param sortOrder The sort order.
      */
     public void sort(Sorter.SortOrder sortOrder) {
+        assertNotFrozen();
+
         Set<Map.Entry<String,List<ContentHandlerConfigMap<T>>>> tableEntries = table.entrySet();
 
         for(Map.Entry<String, List<ContentHandlerConfigMap<T>>> tableEntry : tableEntries) {
             Sorter.sort(tableEntry.getValue(), sortOrder);
         }
     }
+
+    /**
+     * Freeze the table.
+     * <p/>
+     * Replaces all the mapping lists with immutable, array-backed lists.  The table can't be
+     * modified after it has been frozen.
+     */
+    public void freeze() {
+        if(frozen) {
+            return;
+        }
+
+        for(Map.Entry<String, List<ContentHandlerConfigMap<T>>> tableEntry : table.entrySet()) {
+            tableEntry.setValue(toFrozenList(tableEntry.getValue()));
+        }
+        list = toFrozenList(list);
+        frozen = true;
+    }
+
+    /**
+     * Is the table frozen.
+     * @return True if the table is frozen, otherwise false.
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Create an immutable, array-backed copy of the supplied mapping list.
+     * @param mappings The mapping list.
+     * @return The immutable list.
+     */
+    public static <T extends ContentHandler> List<ContentHandlerConfigMap<T>> toFrozenList(List<ContentHandlerConfigMap<T>> mappings) {
+        if(mappings == null) {
+            return null;
+        }
+        return Collections.unmodifiableList(Arrays.asList(toArray(mappings)));
+    }
+
+    /**
+     * Copy the supplied mapping list into an array.
+     * @param mappings The mapping list.
+     * @return The mapping array.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends ContentHandler> ContentHandlerConfigMap<T>[] toArray(List<ContentHandlerConfigMap<T>> mappings) {
+        return mappings.toArray(new ContentHandlerConfigMap[mappings.size()]);
+    }
+
+    private void assertNotFrozen() {
+        if(frozen) {
+            throw new IllegalStateException("Illegal attempt to modify a frozen ContentHandlerConfigMapTable.");
+        }
+    }
 }
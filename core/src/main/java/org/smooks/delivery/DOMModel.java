@@ -43,6 +43,8 @@
 package org.smooks.delivery;
 
 import org.smooks.container.ExecutionContext;
+import org.smooks.container.TypedKey;
+import org.smooks.delivery.dom.fragment.FragmentElement;
 import org.w3c.dom.Element;
 
 import java.util.LinkedHashMap;
@@ -55,18 +57,41 @@ import java.util.Map;
  */
 public class DOMModel {
 
+    private static final TypedKey<DOMModel> CONTEXT_KEY = TypedKey.of(DOMModel.class);
+
     private final Map<String, Element> models = new LinkedHashMap<String, Element>();
 
     public Map<String, Element> getModels() {
         return models;
     }
 
+    /**
+     * Get a modifiable model.
+     * <p/>
+     * Model created by the {@link DomModelCreator} under SAX filtering are read-only by default.  A
+     * read-only model is replaced by a modifiable (W3C DOM) copy of the model the first time it's asked
+     * for through this method.
+     *
+     * @param name The model name.
+     * @return The modifiable model, or <code>null</code> if there's no such model.
+     */
+    public Element getMutableModel(String name) {
+        Element model = models.get(name);
+
+        if(model instanceof FragmentElement) {
+            model = (Element) model.cloneNode(true);
+            models.put(name, model);
+        }
+
+        return model;
+    }
+
     public static DOMModel getModel(ExecutionContext executionContext) {
-        DOMModel nodeModel = (DOMModel) executionContext.getAttribute(DOMModel.class);
+        DOMModel nodeModel = executionContext.get(CONTEXT_KEY);
 
         if(nodeModel == null) {
             nodeModel = new DOMModel();
-            executionContext.setAttribute(DOMModel.class, nodeModel);
+            executionContext.put(CONTEXT_KEY, nodeModel);
         }
 
         return nodeModel;
@@ -45,7 +45,10 @@ package org.smooks.delivery;
 import org.smooks.SmooksException;
 import org.smooks.cdr.SmooksResourceConfiguration;
 import org.smooks.container.ExecutionContext;
+import org.smooks.container.TypedKey;
 import org.smooks.delivery.dom.DOMVisitBefore;
+import org.smooks.delivery.dom.fragment.FragmentBuilder;
+import org.smooks.delivery.dom.fragment.FragmentNameTable;
 import org.smooks.delivery.ordering.Producer;
 import org.smooks.delivery.sax.*;
 import org.smooks.util.CollectionsUtil;
@@ -59,6 +62,7 @@ import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import java.io.IOException;
+import java.util.Optional;
 import java.util.Set;
 import java.util.Stack;
 
@@ -120,10 +124,28 @@ import java.util.Stack;
  * at any given time, with each new "order-item" model overwriting the previous "order-item" model.
  * All this ensures that the memory footprint is kept to a minimum.
  *
+ * <h2>Read-only fragment models</h2>
+ * When used with SAX filtering, the model are built as read-only, array backed DOM fragments
+ * (see {@link FragmentBuilder}) instead of full W3C DOM {@link Document Documents}.  They support
+ * the read part of the W3C DOM API, which is all that's needed by e.g. FreeMarker templates and XPath.
+ * A modifiable W3C DOM copy of a model can be had through {@link DOMModel#getMutableModel(String)}, or
+ * the creator can be configured to build W3C DOM model up front:
+ * <pre>
+ * &lt;resource-config selector="order,order-item"&gt;
+ *     &lt;resource&gt;org.smooks.delivery.DomModelCreator&lt;/resource&gt;
+ *     &lt;param name="mutableModel"&gt;true&lt;/param&gt;
+ * &lt;/resource-config&gt;
+ * </pre>
+ *
  * @author <a href="mailto:tom.fennelly@gmail.com">tom.fennelly@gmail.com</a>
  */
 public class DomModelCreator implements DOMVisitBefore, SAXVisitBefore, SAXVisitAfter, Producer {
+
+    private static final TypedKey<Stack<DOMCreator>> DOM_CREATOR_STACK_KEY = TypedKey.of(DOMCreator.class);
+
     private final DocumentBuilder documentBuilder;
+    private final FragmentNameTable fragmentNameTable = new FragmentNameTable();
+    private boolean mutableModel = false;
 
     @Inject
     private SmooksResourceConfiguration config;
@@ -132,6 +154,12 @@ public class DomModelCreator implements DOMVisitBefore, SAXVisitBefore, SAXVisit
         documentBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
     }
 
+    @Inject
+    public DomModelCreator setMutableModel(Optional<Boolean> mutableModel) {
+        this.mutableModel = mutableModel.orElse(this.mutableModel);
+        return this;
+    }
+
     public Set<String> getProducts() {
         return CollectionsUtil.toSet(config.getTargetElement());
     }
@@ -143,7 +171,7 @@ public class DomModelCreator implements DOMVisitBefore, SAXVisitBefore, SAXVisit
     public void visitBefore(SAXElement element, ExecutionContext executionContext) throws SmooksException, IOException {
         // Push a new DOMCreator onto the DOMCreator stack and install it in the
         // Dynamic Vistor list in the SAX handler...
-        pushCreator(new DOMCreator(), executionContext);
+        pushCreator((mutableModel ? new W3CDOMCreator() : new FragmentDOMCreator()), executionContext);
     }
 
     public void visitAfter(SAXElement element, ExecutionContext executionContext) throws SmooksException, IOException {
@@ -159,11 +187,11 @@ public class DomModelCreator implements DOMVisitBefore, SAXVisitBefore, SAXVisit
 
     @SuppressWarnings("unchecked")
     private void pushCreator(DOMCreator domCreator, ExecutionContext executionContext) {
-        Stack<DOMCreator> domCreatorStack = (Stack<DOMCreator>) executionContext.getAttribute(DOMCreator.class);
+        Stack<DOMCreator> domCreatorStack = executionContext.get(DOM_CREATOR_STACK_KEY);
 
         if(domCreatorStack == null) {
             domCreatorStack = new Stack<DOMCreator>();
-            executionContext.setAttribute(DOMCreator.class, domCreatorStack);
+            executionContext.put(DOM_CREATOR_STACK_KEY, domCreatorStack);
         } else if(!domCreatorStack.isEmpty()) {
             // We need to remove the current DOMCreator from the dynamic visitor list because
             // we want to stop nodes being added to it and instead, have them added to the new
@@ -180,7 +208,7 @@ public class DomModelCreator implements DOMVisitBefore, SAXVisitBefore, SAXVisit
 
     @SuppressWarnings({ "unchecked", "WeakerAccess", "UnusedReturnValue" })
     public Document popCreator(ExecutionContext executionContext) {
-        Stack<DOMCreator> domCreatorStack = (Stack<DOMCreator>) executionContext.getAttribute(DOMCreator.class);
+        Stack<DOMCreator> domCreatorStack = executionContext.get(DOM_CREATOR_STACK_KEY);
 
         if(domCreatorStack == null) {
             throw new IllegalStateException("No DOM Creator Stack available.");
@@ -191,7 +219,7 @@ public class DomModelCreator implements DOMVisitBefore, SAXVisitBefore, SAXVisit
                     DOMCreator removedCreator = domCreatorStack.pop();
                     DynamicSAXElementVisitorList.removeDynamicVisitor(removedCreator, executionContext);
 
-                    return removedCreator.document;
+                    return removedCreator.getDocument();
                 } else {
                     return null;
                 }
@@ -204,16 +232,25 @@ public class DomModelCreator implements DOMVisitBefore, SAXVisitBefore, SAXVisit
         }
     }
 
-    private class DOMCreator implements SAXElementVisitor {
+    private interface DOMCreator extends SAXElementVisitor {
+
+        Document getDocument();
+    }
+
+    private class W3CDOMCreator implements DOMCreator {
 
         private final Document document;
         private Node currentNode;
 
-        private DOMCreator() {
+        private W3CDOMCreator() {
             document = documentBuilder.newDocument();
             currentNode = document;
         }
 
+        public Document getDocument() {
+            return document;
+        }
+
         public void visitBefore(SAXElement element, ExecutionContext executionContext) throws SmooksException, IOException {
             Element domElement = element.toDOMElement(document);
 
@@ -259,4 +296,35 @@ public class DomModelCreator implements DOMVisitBefore, SAXVisitBefore, SAXVisit
             currentNode = currentNode.getParentNode();
         }
     }
+
+    private class FragmentDOMCreator implements DOMCreator {
+
+        private final FragmentBuilder fragmentBuilder = new FragmentBuilder(fragmentNameTable);
+
+        public Document getDocument() {
+            return fragmentBuilder.getDocument();
+        }
+
+        public void visitBefore(SAXElement element, ExecutionContext executionContext) throws SmooksException, IOException {
+            boolean isRoot = fragmentBuilder.isDocumentLevel();
+            Element fragmentElement = fragmentBuilder.startElement(element);
+
+            if(isRoot) {
+                addNodeModel(fragmentElement, executionContext);
+            }
+        }
+
+        @SuppressWarnings("RedundantThrows")
+        public void onChildText(SAXElement element, SAXText childText, ExecutionContext executionContext) throws SmooksException, IOException {
+            fragmentBuilder.text(childText);
+        }
+
+        @SuppressWarnings("RedundantThrows")
+        public void onChildElement(SAXElement element, SAXElement childElement, ExecutionContext executionContext) throws SmooksException, IOException {
+        }
+
+        public void visitAfter(SAXElement element, ExecutionContext executionContext) throws SmooksException, IOException {
+            fragmentBuilder.endElement();
+        }
+    }
 }
@@ -48,7 +48,9 @@ import org.smooks.Smooks;
 import org.smooks.SmooksException;
 import org.smooks.cdr.ParameterAccessor;
 import org.smooks.container.ExecutionContext;
+import org.smooks.container.TypedKey;
 import org.smooks.io.NullReader;
+import org.smooks.io.MarkupWriter;
 import org.smooks.io.NullWriter;
 import org.smooks.payload.FilterResult;
 import org.smooks.payload.FilterSource;
@@ -59,6 +61,7 @@ import javax.xml.transform.Source;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 import java.io.*;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 
 /**
@@ -85,7 +88,7 @@ public abstract class Filter {
     }
 
     /**
-     * The Threadlocal storage instance for the ExecutionContext associated with the "current" SmooksDOMFilter thread instance.
+     * The Threadlocal storage instance for the Filter associated with the "current" thread.
      */
     private static final StackedThreadLocal<Filter> filterThreadLocal = new StackedThreadLocal<Filter>("Filter");
 
@@ -94,6 +97,8 @@ public abstract class Filter {
      */
     private static final StackedThreadLocal<ExecutionContext> execThreadLocal = new StackedThreadLocal<ExecutionContext>("ExecutionContext");
 
+    private static final TypedKey<Filter> FILTER_KEY = TypedKey.of(Filter.class);
+
     public static final String CLOSE_SOURCE = "close.source";
 
     public static final String CLOSE_RESULT = "close.result";
@@ -108,8 +113,31 @@ public abstract class Filter {
 
     public static final String TERMINATE_ON_VISITOR_EXCEPTION = "terminate.on.visitor.exception";
 
+    /**
+     * {@link org.xml.sax.XMLReader} pool size config parameter.  Defaults to
+     * {@link AbstractContentDeliveryConfig#DEFAULT_READER_POOL_SIZE}.
+     * <p/>
+     * If not configured, only the default XML parser and {@link org.smooks.xml.ReusableXMLReader reusable}
+     * readers are pooled.  Configuring the pool size explicitly pools all readers.
+     * @see XMLReaderPool
+     */
     public static final String READER_POOL_SIZE = "reader.pool.size";
 
+    /**
+     * SAX element recycling config parameter.  Off by default.
+     * @see org.smooks.delivery.sax.annotation.RetainsElement
+     */
+    public static final String RECYCLE_ELEMENTS = "recycle.elements";
+
+    /**
+     * SAX untargeted subtree pass-through config parameter.  On by default.
+     * <p/>
+     * Subtrees that no visitor can target are written straight from the parser events to the
+     * output, without creating {@link org.smooks.delivery.sax.SAXElement} instances.
+     * @see org.smooks.delivery.sax.SAXContentDeliveryConfig#isPassThroughUntargeted()
+     */
+    public static final String PASS_THROUGH_UNTARGETED = "pass.through.untargeted";
+
     /**
      * Filter the content in the supplied {@link javax.xml.transform.Source} instance, outputing the result
      * to the supplied {@link javax.xml.transform.Result} instance.
@@ -164,10 +192,48 @@ public abstract class Filter {
         Filter.filterThreadLocal.remove();
     }
 
+    /**
+     * Get the {@link Filter} instance bound to the supplied {@link ExecutionContext}.
+     * <p/>
+     * Unlike {@link #getFilter()}, this lookup does not depend on the calling thread, so it can be
+     * used by code that is handed the {@link ExecutionContext} explicitly.
+     *
+     * @param executionContext The execution context.
+     * @return The {@link Filter} instance bound to the execution context, or null if no filter is bound.
+     */
+    public static Filter getFilter(ExecutionContext executionContext) {
+        return executionContext.get(FILTER_KEY);
+    }
+
+    /**
+     * Bind the {@link Filter} instance to the supplied {@link ExecutionContext} and the current thread.
+     *
+     * @param executionContext The execution context.
+     * @param filter The {@link Filter} instance.
+     */
+    public static void setFilter(ExecutionContext executionContext, Filter filter) {
+        executionContext.put(FILTER_KEY, filter);
+        Filter.filterThreadLocal.set(filter);
+    }
+
+    /**
+     * Remove the {@link Filter} bound to the supplied {@link ExecutionContext} and the current thread.
+     *
+     * @param executionContext The execution context.
+     */
+    public static void removeFilter(ExecutionContext executionContext) {
+        executionContext.remove(FILTER_KEY);
+        Filter.filterThreadLocal.remove();
+    }
+
     /**
      * Get the {@link org.smooks.container.ExecutionContext} instance bound to the current thread.
+     * <p/>
+     * Code that has access to the {@link org.smooks.container.ExecutionContext} (e.g. visitors) should use
+     * it directly.  This thread-bound lookup is only a fallback for code that is not handed the context.
      *
-     * @return The thread-bound {@link org.smooks.container.ExecutionContext} instance.
+     * @return The thread-bound {@link org.smooks.container.ExecutionContext} instance, or null if the
+     * current thread is not executing a filter operation.
      */
     public static ExecutionContext getCurrentExecutionContext() {
         return execThreadLocal.get();
@@ -223,11 +289,11 @@ public abstract class Filter {
         } else if(streamResult.getOutputStream() != null) {
             try {
                 if(executionContext instanceof ExecutionContext) {
-                    return new OutputStreamWriter(streamResult.getOutputStream(), executionContext.getContentEncoding());
+                    return new MarkupWriter(streamResult.getOutputStream(), Charset.forName(executionContext.getContentEncoding()));
                 } else {
-                    return new OutputStreamWriter(streamResult.getOutputStream(), StandardCharsets.UTF_8);
+                    return new MarkupWriter(streamResult.getOutputStream(), StandardCharsets.UTF_8);
                 }
-            } catch(UnsupportedEncodingException e) {
+            } catch(IllegalArgumentException e) {
                 throw new SmooksException("Unable to encode output stream.", e);
             }
         } else {
@@ -0,0 +1,192 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.delivery;
+
+import org.smooks.cdr.ParameterAccessor;
+import org.smooks.cdr.SmooksResourceConfiguration;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Global parameter filter settings, resolved and decoded once for a {@link ContentDeliveryConfig}.
+ * <p/>
+ * The {@link Filter} flags are looked up (through {@link ParameterAccessor}) when the settings are created,
+ * so filter executions only read fields.  Instances are immutable.  A {@link ContentDeliveryConfig}
+ * replaces its settings instance when a global parameter is changed through
+ * {@link ParameterAccessor#setParameter(String, Object, org.smooks.Smooks)} or
+ * {@link ParameterAccessor#removeParameter(String, org.smooks.Smooks)}.
+ */
+public final class GlobalParameterSettings {
+
+    private final boolean defaultSerializationOn;
+    private final boolean rewriteEntities;
+    private final boolean terminateOnVisitorException;
+    private final boolean closeSource;
+    private final boolean closeResult;
+    private final boolean maintainElementStack;
+    private final boolean reverseVisitOrderOnVisitAfter;
+    private final boolean recycleElements;
+    private final boolean passThroughUntargeted;
+    private final int readerPoolSize;
+    private final boolean readerPoolSizeConfigured;
+
+    /**
+     * Resolve the settings from the supplied resource configuration table.
+     * @param resourceConfigTable The resource configuration table of the {@link ContentDeliveryConfig}.
+     */
+    public GlobalParameterSettings(Map<String, List<SmooksResourceConfiguration>> resourceConfigTable) {
+        defaultSerializationOn = getBoolean(Filter.DEFAULT_SERIALIZATION_ON, true, resourceConfigTable);
+        rewriteEntities = getBoolean(Filter.ENTITIES_REWRITE, true, resourceConfigTable);
+        terminateOnVisitorException = getBoolean(Filter.TERMINATE_ON_VISITOR_EXCEPTION, true, resourceConfigTable);
+        closeSource = getBoolean(Filter.CLOSE_SOURCE, true, resourceConfigTable);
+        closeResult = getBoolean(Filter.CLOSE_RESULT, true, resourceConfigTable);
+        maintainElementStack = getBoolean(Filter.MAINTAIN_ELEMENT_STACK, true, resourceConfigTable);
+        reverseVisitOrderOnVisitAfter = getBoolean(Filter.REVERSE_VISIT_ORDER_ON_VISIT_AFTER, true, resourceConfigTable);
+        recycleElements = getBoolean(Filter.RECYCLE_ELEMENTS, false, resourceConfigTable);
+        passThroughUntargeted = getBoolean(Filter.PASS_THROUGH_UNTARGETED, true, resourceConfigTable);
+        readerPoolSize = getInt(Filter.READER_POOL_SIZE, AbstractContentDeliveryConfig.DEFAULT_READER_POOL_SIZE, resourceConfigTable);
+        readerPoolSizeConfigured = (ParameterAccessor.getParameterValue(Filter.READER_POOL_SIZE, String.class, resourceConfigTable) != null);
+    }
+
+    /**
+     * Is default serialization on.
+     * @see Filter#DEFAULT_SERIALIZATION_ON
+     */
+    public boolean isDefaultSerializationOn() {
+        return defaultSerializationOn;
+    }
+
+    /**
+     * Rewrite XML entities.
+     * @see Filter#ENTITIES_REWRITE
+     */
+    public boolean isRewriteEntities() {
+        return rewriteEntities;
+    }
+
+    /**
+     * Terminate filtering on a visitor exception.
+     * @see Filter#TERMINATE_ON_VISITOR_EXCEPTION
+     */
+    public boolean isTerminateOnVisitorException() {
+        return terminateOnVisitorException;
+    }
+
+    /**
+     * Close the filter Source.
+     * @see Filter#CLOSE_SOURCE
+     */
+    public boolean isCloseSource() {
+        return closeSource;
+    }
+
+    /**
+     * Close the filter Result.
+     * @see Filter#CLOSE_RESULT
+     */
+    public boolean isCloseResult() {
+        return closeResult;
+    }
+
+    /**
+     * Maintain the SAX element stack.
+     * @see Filter#MAINTAIN_ELEMENT_STACK
+     */
+    public boolean isMaintainElementStack() {
+        return maintainElementStack;
+    }
+
+    /**
+     * Reverse the order in which visitAfter visitors are applied.
+     * @see Filter#REVERSE_VISIT_ORDER_ON_VISIT_AFTER
+     */
+    public boolean isReverseVisitOrderOnVisitAfter() {
+        return reverseVisitOrderOnVisitAfter;
+    }
+
+    /**
+     * Recycle SAX element instances, as configured.
+     * @see Filter#RECYCLE_ELEMENTS
+     */
+    public boolean isRecycleElements() {
+        return recycleElements;
+    }
+
+    /**
+     * Pass untargeted SAX subtrees straight through to the output, as configured.
+     * @see Filter#PASS_THROUGH_UNTARGETED
+     */
+    public boolean isPassThroughUntargeted() {
+        return passThroughUntargeted;
+    }
+
+    /**
+     * {@link org.xml.sax.XMLReader} pool size.
+     * @see Filter#READER_POOL_SIZE
+     */
+    public int getReaderPoolSize() {
+        return readerPoolSize;
+    }
+
+    /**
+     * Is the {@link org.xml.sax.XMLReader} pool size explicitly configured.  If it is, all readers are pooled.
+     * Otherwise only readers known to be reusable are pooled.
+     * @see org.smooks.xml.ReusableXMLReader
+     */
+    public boolean isReaderPoolSizeConfigured() {
+        return readerPoolSizeConfigured;
+    }
+
+    private static boolean getBoolean(String name, boolean defaultVal, Map<String, List<SmooksResourceConfiguration>> resourceConfigTable) {
+        return Boolean.parseBoolean(ParameterAccessor.getParameterValue(name, String.class, Boolean.toString(defaultVal), resourceConfigTable));
+    }
+
+    private static int getInt(String name, int defaultVal, Map<String, List<SmooksResourceConfiguration>> resourceConfigTable) {
+        try {
+            return Integer.parseInt(ParameterAccessor.getParameterValue(name, String.class, Integer.toString(defaultVal), resourceConfigTable));
+        } catch(NumberFormatException e) {
+            return defaultVal;
+        }
+    }
+}
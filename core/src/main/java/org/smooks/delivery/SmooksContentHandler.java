@@ -44,6 +44,7 @@ package org.smooks.delivery;
 
 import org.smooks.SmooksException;
 import org.smooks.container.ExecutionContext;
+import org.smooks.container.TypedKey;
 import org.smooks.delivery.replay.EndElementEvent;
 import org.smooks.delivery.replay.SAXEventReplay;
 import org.smooks.delivery.replay.StartElementEvent;
@@ -61,6 +62,8 @@ import org.xml.sax.ext.DefaultHandler2;
  */
 public abstract class SmooksContentHandler extends DefaultHandler2 implements SAXEventReplay {
 
+    private static final TypedKey<SmooksContentHandler> CONTEXT_KEY = TypedKey.of(DefaultHandler2.class);
+
     private final ExecutionContext executionContext;
     private final SmooksContentHandler parentContentHandler;
     private SmooksContentHandler nestedContentHandler;
@@ -147,15 +150,15 @@ public abstract class SmooksContentHandler extends DefaultHandler2 implements SA
     }
 
     private void attachHandler() {
-        executionContext.setAttribute(DefaultHandler2.class, this);
+        executionContext.put(CONTEXT_KEY, this);
     }
 
     public static SmooksContentHandler getHandler(ExecutionContext executionContext) {
-        return (SmooksContentHandler) executionContext.getAttribute(DefaultHandler2.class);
+        return executionContext.get(CONTEXT_KEY);
     }
 
     public void detachHandler() {
-        executionContext.removeAttribute(DefaultHandler2.class);
+        executionContext.remove(CONTEXT_KEY);
     }
 
     public ExecutionContext getExecutionContext() {
@@ -0,0 +1,192 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.delivery;
+
+import org.xml.sax.XMLReader;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Non-blocking {@link XMLReader} pool.
+ * <p/>
+ * The pool is a fixed array of slots.  A thread first tries the slot it is "home" to (derived
+ * from the thread ID), so a thread filtering message after message typically gets back the
+ * reader it returned on the previous message, without contending with other threads.  Only
+ * on a miss on the home slot are the other slots scanned.
+ * <p/>
+ * The pool never blocks.  An empty pool is a miss (the caller creates a new reader), and a
+ * reader returned to a full pool is discarded.  Hit, miss and discard counts are maintained
+ * for monitoring.
+ *
+ * @see Filter#READER_POOL_SIZE
+ */
+public class XMLReaderPool {
+
+    private volatile AtomicReferenceArray<XMLReader> slots;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder discardCount = new LongAdder();
+
+    /**
+     * Public constructor.
+     * @param capacity The maximum number of pooled readers.  Zero disables pooling.
+     */
+    public XMLReaderPool(int capacity) {
+        slots = new AtomicReferenceArray<XMLReader>(Math.max(capacity, 0));
+    }
+
+    /**
+     * Take a reader from the pool.
+     * @return A pooled reader, or null if the pool is empty.
+     */
+    public XMLReader take() {
+        AtomicReferenceArray<XMLReader> slots = this.slots;
+        int length = slots.length();
+
+        if(length > 0) {
+            int home = homeSlot(length);
+            for(int i = 0; i < length; i++) {
+                int slot = (home + i) % length;
+                if(slots.get(slot) != null) {
+                    XMLReader reader = slots.getAndSet(slot, null);
+                    if(reader != null) {
+                        hitCount.increment();
+                        return reader;
+                    }
+                }
+            }
+        }
+        missCount.increment();
+
+        return null;
+    }
+
+    /**
+     * Return a reader to the pool.
+     * @param reader The reader.
+     * @return True if the reader was pooled, false if it was discarded because the pool is full.
+     */
+    public boolean offer(XMLReader reader) {
+        AtomicReferenceArray<XMLReader> slots = this.slots;
+        int length = slots.length();
+
+        if(length > 0) {
+            int home = homeSlot(length);
+            for(int i = 0; i < length; i++) {
+                int slot = (home + i) % length;
+                if(slots.get(slot) == null && slots.compareAndSet(slot, null, reader)) {
+                    return true;
+                }
+            }
+        }
+        discardCount.increment();
+
+        return false;
+    }
+
+    /**
+     * Make sure the pool can hold at least the specified number of readers.
+     * <p/>
+     * Readers pooled at the time of the call are carried over to the resized pool.
+     *
+     * @param minCapacity The minimum pool capacity.
+     */
+    public synchronized void ensureCapacity(int minCapacity) {
+        AtomicReferenceArray<XMLReader> oldSlots = slots;
+
+        if(minCapacity <= oldSlots.length()) {
+            return;
+        }
+
+        AtomicReferenceArray<XMLReader> newSlots = new AtomicReferenceArray<XMLReader>(minCapacity);
+        int newSlot = 0;
+        for(int i = 0; i < oldSlots.length(); i++) {
+            XMLReader reader = oldSlots.getAndSet(i, null);
+            if(reader != null) {
+                newSlots.set(newSlot++, reader);
+            }
+        }
+        slots = newSlots;
+    }
+
+    /**
+     * Get the pool capacity.
+     * @return The maximum number of pooled readers.
+     */
+    public int getCapacity() {
+        return slots.length();
+    }
+
+    /**
+     * Get the number of {@link #take()} calls that returned a pooled reader.
+     * @return The hit count.
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Get the number of {@link #take()} calls that found the pool empty.
+     * @return The miss count.
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Get the number of readers discarded because the pool was full when they were returned.
+     * @return The discard count.
+     */
+    public long getDiscardCount() {
+        return discardCount.sum();
+    }
+
+    private static int homeSlot(int length) {
+        return (int) ((Thread.currentThread().getId() & Long.MAX_VALUE) % length);
+    }
+
+    public String toString() {
+        return "XMLReaderPool[capacity=" + getCapacity() + ", hits=" + getHitCount() + ", misses=" + getMissCount() + ", discards=" + getDiscardCount() + "]";
+    }
+}
@@ -44,9 +44,7 @@ package org.smooks.delivery.dom;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.smooks.cdr.ParameterAccessor;
 import org.smooks.container.ExecutionContext;
-import org.smooks.delivery.Filter;
 import org.smooks.delivery.SmooksContentHandler;
 import org.smooks.delivery.replay.EndElementEvent;
 import org.smooks.delivery.replay.StartElementEvent;
@@ -101,7 +99,7 @@ public class DOMBuilder extends SmooksContentHandler {
 
         this.execContext = execContext;
         initialiseEmptyElements();
-        rewriteEntities = Boolean.parseBoolean(ParameterAccessor.getParameterValue(Filter.ENTITIES_REWRITE, String.class, "true", execContext.getDeliveryConfig()));
+        rewriteEntities = execContext.getDeliveryConfig().getGlobalParameterSettings().isRewriteEntities();
     }
 
     private void initialiseEmptyElements() {
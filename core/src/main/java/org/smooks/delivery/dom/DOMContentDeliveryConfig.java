@@ -134,6 +134,21 @@ public class DOMContentDeliveryConfig extends AbstractContentDeliveryConfig {
         addToExecutionLifecycleSets(processingVisitAfters);
     }
 
+    /**
+     * Freeze the configuration.
+     * <p/>
+     * Called once the configuration is fully built.  Turns all the visitor tables into immutable,
+     * array-backed tables.
+     */
+    public void freeze() {
+        assemblyVisitBefores.freeze();
+        assemblyVisitAfters.freeze();
+        processingVisitBefores.freeze();
+        processingVisitAfters.freeze();
+        serializationVisitors.freeze();
+        visitCleanables.freeze();
+    }
+
     public void configureFilterBypass() {
 		filterBypass = getFilterBypass(assemblyVisitBefores, assemblyVisitAfters, processingVisitBefores, processingVisitAfters, serializationVisitors);
 	}
@@ -155,13 +155,18 @@ public class DOMParser extends AbstractParser {
 			ContentDeliveryConfig deliveryConfig = executionContext.getDeliveryConfig();
 
 	  		XMLReader domReader = getXMLReader(executionContext);
+            boolean pooledReader = false;
+            boolean parsed = false;
 
 	  		try {
                 if(domReader == null) {
-                    domReader = deliveryConfig.getXMLReader();
-                }
-                if(domReader == null) {
-                    domReader = createXMLReader();
+                    pooledReader = isXMLReaderPoolable(source);
+                    if(pooledReader) {
+                        domReader = deliveryConfig.getXMLReader();
+                    }
+                    if(domReader == null) {
+                        domReader = createXMLReader();
+                    }
                 }
 
                 if(domReader instanceof HierarchyChangeReader) {
@@ -175,6 +180,7 @@ public class DOMParser extends AbstractParser {
                 attachXMLReader(domReader, executionContext);
                 configureReader(domReader, contentHandler, executionContext, source);
 		        domReader.parse(createInputSource(source, executionContext.getContentEncoding()));
+                parsed = true;
 	  		} finally {
                 try {
                     if(domReader instanceof HierarchyChangeReader) {
@@ -185,7 +191,8 @@ public class DOMParser extends AbstractParser {
                         try {
                             detachXMLReader(executionContext);
                         } finally {
-                            if(domReader != null) {
+                            // A reader that failed to parse may be left in an unknown state...
+                            if(domReader != null && pooledReader && parsed) {
                                 deliveryConfig.returnXMLReader(domReader);
                             }
                         }
@@ -45,7 +45,6 @@ package org.smooks.delivery.dom;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.smooks.SmooksException;
-import org.smooks.cdr.ParameterAccessor;
 import org.smooks.cdr.ResourceConfigurationNotFoundException;
 import org.smooks.cdr.SmooksResourceConfiguration;
 import org.smooks.container.ExecutionContext;
@@ -220,11 +219,12 @@ public class SmooksDOMFilter extends Filter {
         deliveryConfig = (DOMContentDeliveryConfig) executionContext.getDeliveryConfig();
         eventListener = executionContext.getEventListener();
 
-        closeSource = Boolean.parseBoolean(ParameterAccessor.getParameterValue(Filter.CLOSE_SOURCE, String.class, "true", executionContext.getDeliveryConfig()));
-        closeResult = Boolean.parseBoolean(ParameterAccessor.getParameterValue(Filter.CLOSE_RESULT, String.class, "true", executionContext.getDeliveryConfig()));
-        reverseVisitOrderOnVisitAfter = Boolean.parseBoolean(ParameterAccessor.getParameterValue(Filter.REVERSE_VISIT_ORDER_ON_VISIT_AFTER, String.class, "true", executionContext.getDeliveryConfig()));
+        GlobalParameterSettings settings = deliveryConfig.getGlobalParameterSettings();
+        closeSource = settings.isCloseSource();
+        closeResult = settings.isCloseResult();
+        reverseVisitOrderOnVisitAfter = settings.isReverseVisitOrderOnVisitAfter();
         if(!(executionContext.getEventListener() instanceof AbstractReportGenerator)) {
-            terminateOnVisitorException = Boolean.parseBoolean(ParameterAccessor.getParameterValue(Filter.TERMINATE_ON_VISITOR_EXCEPTION, String.class, "true", executionContext.getDeliveryConfig()));
+            terminateOnVisitorException = settings.isTerminateOnVisitorException();
         } else {
             terminateOnVisitorException = false;
         }
@@ -479,8 +479,9 @@ public class SmooksDOMFilter extends Filter {
     }
 
     private void applyAssemblyBefores(Element element, List<ContentHandlerConfigMap<DOMVisitBefore>> assemblyBefores) {
-        for (final ContentHandlerConfigMap<DOMVisitBefore> configMap : assemblyBefores)
+        for (int i = 0; i < assemblyBefores.size(); i++)
         {
+            final ContentHandlerConfigMap<DOMVisitBefore> configMap = assemblyBefores.get(i);
             SmooksResourceConfiguration config = configMap.getResourceConfig();
 
             // Make sure the assembly unit is targeted at this element...
@@ -505,7 +506,7 @@ public class SmooksDOMFilter extends Filter {
                 assemblyUnit.visitBefore(element, executionContext);
                 if (eventListener != null)
                 {
-                    eventListener.onEvent(new ElementVisitEvent(element, configMap, VisitSequence.BEFORE));
+                    eventListener.onEvent(new ElementVisitEvent(element, configMap, VisitSequence.BEFORE, executionContext));
                 }
             }
             catch (Throwable e)
@@ -525,9 +526,9 @@ public class SmooksDOMFilter extends Filter {
                 applyAssemblyAfter(element, configMap);
             }
         } else {
-            for (final ContentHandlerConfigMap<DOMVisitAfter> configMap : elementVisitAfters)
+            for (int i = 0; i < elementVisitAfters.size(); i++)
             {
-                applyAssemblyAfter(element, configMap);
+                applyAssemblyAfter(element, elementVisitAfters.get(i));
             }
         }
     }
@@ -547,7 +548,7 @@ public class SmooksDOMFilter extends Filter {
             }
             visitAfter.visitAfter(element, executionContext);
             if (eventListener != null) {
-                eventListener.onEvent(new ElementVisitEvent(element, configMap, VisitSequence.AFTER));
+                eventListener.onEvent(new ElementVisitEvent(element, configMap, VisitSequence.AFTER, executionContext));
             }
         } catch (Throwable e) {
             String errorMsg = "(Assembly) visitAfter failed [" + visitAfter.getClass().getName() + "] on [" + executionContext.getDocumentSource() + ":" + DomUtils.getXPath(element) + "].";
@@ -733,9 +734,9 @@ public class SmooksDOMFilter extends Filter {
         private void process(ExecutionContext executionContext) {
 
             if (visitBefores != null) {
-                for (final ContentHandlerConfigMap<DOMVisitBefore> visitBefore : visitBefores)
+                for (int i = 0; i < visitBefores.size(); i++)
                 {
-                    processMapping(executionContext, visitBefore, VisitSequence.BEFORE);
+                    processMapping(executionContext, visitBefores.get(i), VisitSequence.BEFORE);
                 }
             } else if(visitAfters != null) {
                 int loopLength = visitAfters.size();
@@ -745,15 +746,15 @@ public class SmooksDOMFilter extends Filter {
                         processMapping(executionContext, configMap, VisitSequence.AFTER);
                     }
                 } else {
-                    for (final ContentHandlerConfigMap<DOMVisitAfter> visitAfter : visitAfters)
+                    for (int i = 0; i < loopLength; i++)
                     {
-                        processMapping(executionContext, visitAfter, VisitSequence.AFTER);
+                        processMapping(executionContext, visitAfters.get(i), VisitSequence.AFTER);
                     }
                 }
             } else {
-                for (final ContentHandlerConfigMap<VisitLifecycleCleanable> visitCleanable : visitCleanables)
+                for (int i = 0; i < visitCleanables.size(); i++)
                 {
-                    processMapping(executionContext, visitCleanable, VisitSequence.CLEAN);
+                    processMapping(executionContext, visitCleanables.get(i), VisitSequence.CLEAN);
                 }
             }
         }
@@ -785,7 +786,7 @@ public class SmooksDOMFilter extends Filter {
                     }
                     visitor.visitBefore(element, executionContext);
                     if (eventListener != null) {
-                        eventListener.onEvent(new ElementVisitEvent(element, configMap, VisitSequence.BEFORE));
+                        eventListener.onEvent(new ElementVisitEvent(element, configMap, VisitSequence.BEFORE, executionContext));
                     }
                 } catch (Throwable e) {
                     String errorMsg = "Failed to apply processing unit [" + visitor.getClass().getName() + "] to [" + executionContext.getDocumentSource() + ":" + DomUtils.getXPath(element) + "].";
@@ -804,7 +805,7 @@ public class SmooksDOMFilter extends Filter {
                     }
                     visitor.visitAfter(element, executionContext);
                     if (eventListener != null) {
-                        eventListener.onEvent(new ElementVisitEvent(element, configMap, VisitSequence.AFTER));
+                        eventListener.onEvent(new ElementVisitEvent(element, configMap, VisitSequence.AFTER, executionContext));
                     }
                 } catch (Throwable e) {
                     String errorMsg = "Failed to apply processing unit [" + visitor.getClass().getName() + "] to [" + executionContext.getDocumentSource() + ":" + DomUtils.getXPath(element) + "].";
@@ -825,7 +826,7 @@ public class SmooksDOMFilter extends Filter {
                         }
                         visitor.executeVisitLifecycleCleanup(new Fragment(element), executionContext);
                         if (eventListener != null) {
-                            eventListener.onEvent(new ElementVisitEvent(element, configMap, VisitSequence.CLEAN));
+                            eventListener.onEvent(new ElementVisitEvent(element, configMap, VisitSequence.CLEAN, executionContext));
                         }
                     } catch (Throwable e) {
                         String errorMsg = "Failed to clean up [" + visitor.getClass().getName() + "]. Targeted at [" + executionContext.getDocumentSource() + ":" + DomUtils.getXPath(element) + "].";
@@ -838,7 +839,7 @@ public class SmooksDOMFilter extends Filter {
 
     private void processVisitorException(Element element, Throwable error, ContentHandlerConfigMap configMapping, VisitSequence visitSequence, String errorMsg) throws SmooksException {
         if (eventListener != null) {
-            eventListener.onEvent(new ElementVisitEvent(element, configMapping, visitSequence, error));
+            eventListener.onEvent(new ElementVisitEvent(element, configMapping, visitSequence, executionContext, error));
         }
 
         executionContext.setTerminationError(error);
@@ -0,0 +1,140 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.delivery.dom.fragment;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.DOMException;
+import org.w3c.dom.Element;
+import org.w3c.dom.TypeInfo;
+
+import java.util.List;
+
+/**
+ * Read-only fragment {@link Attr}.
+ * <p/>
+ * A view onto an attribute held by the owner {@link FragmentElement}.
+ */
+final class FragmentAttr extends FragmentNode implements Attr {
+
+    private final FragmentElement ownerElement;
+
+    FragmentAttr(FragmentElement ownerElement, int index) {
+        super(ownerElement.document);
+        this.ownerElement = ownerElement;
+        this.index = index;
+    }
+
+    @Override
+    FragmentElement getNamespaceContext() {
+        return ownerElement;
+    }
+
+    @Override
+    List<FragmentNode> getPath() {
+        List<FragmentNode> path = ownerElement.getPath();
+        path.add(this);
+        return path;
+    }
+
+    @Override
+    int getSiblingOrder() {
+        // Attributes are before the children of the owner element...
+        return index - ownerElement.getAttributeCount();
+    }
+
+    public String getNodeName() {
+        return ownerElement.getAttributeName(index).qualifiedName;
+    }
+
+    public short getNodeType() {
+        return ATTRIBUTE_NODE;
+    }
+
+    @Override
+    public String getNodeValue() throws DOMException {
+        return getValue();
+    }
+
+    @Override
+    public String getNamespaceURI() {
+        return ownerElement.getAttributeName(index).namespaceURI;
+    }
+
+    @Override
+    public String getPrefix() {
+        return ownerElement.getAttributeName(index).prefix;
+    }
+
+    @Override
+    public String getLocalName() {
+        return ownerElement.getAttributeName(index).localName;
+    }
+
+    public String getName() {
+        return getNodeName();
+    }
+
+    public boolean getSpecified() {
+        return true;
+    }
+
+    public String getValue() {
+        return ownerElement.getAttributeValue(index);
+    }
+
+    public void setValue(String value) throws DOMException {
+        throw readOnly();
+    }
+
+    public Element getOwnerElement() {
+        return ownerElement;
+    }
+
+    public TypeInfo getSchemaTypeInfo() {
+        return null;
+    }
+
+    public boolean isId() {
+        return false;
+    }
+}
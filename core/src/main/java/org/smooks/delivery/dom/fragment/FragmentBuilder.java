@@ -0,0 +1,176 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.delivery.dom.fragment;
+
+import org.smooks.delivery.sax.SAXElement;
+import org.smooks.delivery.sax.SAXText;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.xml.sax.Attributes;
+
+/**
+ * Read-only DOM fragment builder.
+ * <p/>
+ * Builds a {@link Document} from SAX element and text events.  The resulting DOM implements the read
+ * subset of the W3C DOM API (as used by e.g. FreeMarker {@link freemarker.ext.dom.NodeModel node models}
+ * and XPath) at a fraction of the construction cost of a full W3C DOM:
+ * <ul>
+ *     <li>child nodes are array backed,</li>
+ *     <li>element and attribute names are symbols shared (via the {@link FragmentNameTable}) with all the other fragments, and</li>
+ *     <li>text is held as slices of a single character buffer per fragment.</li>
+ * </ul>
+ * Pure whitespace text is ignored and adjacent text (incl. entities) is merged into a single text node.
+ * <p/>
+ * The DOM cannot be modified.  Use {@link org.w3c.dom.Node#cloneNode(boolean)} to get a mutable (standard W3C)
+ * copy.
+ */
+public final class FragmentBuilder {
+
+    private final FragmentNameTable nameTable;
+    private final FragmentDocument document = new FragmentDocument();
+    private FragmentParentNode currentNode = document;
+
+    public FragmentBuilder(FragmentNameTable nameTable) {
+        this.nameTable = nameTable;
+    }
+
+    /**
+     * Get the fragment document.
+     * @return The fragment document.
+     */
+    public Document getDocument() {
+        return document;
+    }
+
+    /**
+     * Is the builder positioned at the document level i.e. outside the fragment root element.
+     * @return True if the builder is at the document level, otherwise false.
+     */
+    public boolean isDocumentLevel() {
+        return currentNode == document;
+    }
+
+    /**
+     * Start a fragment element.
+     * @param element The SAX element.
+     * @return The fragment element.
+     */
+    public Element startElement(SAXElement element) {
+        FragmentElement fragmentElement;
+        Attributes attributes = element.getAttributes();
+        int attributeCount = attributes.getLength();
+
+        if(attributeCount == 0) {
+            fragmentElement = new FragmentElement(document, nameTable.getElementName(element.getName()), null, null);
+        } else {
+            FragmentName[] attributeNames = new FragmentName[attributeCount];
+            String[] attributeValues = new String[attributeCount];
+
+            for(int i = 0; i < attributeCount; i++) {
+                attributeNames[i] = nameTable.getAttributeName(attributes, i);
+                attributeValues[i] = attributes.getValue(i);
+            }
+            fragmentElement = new FragmentElement(document, nameTable.getElementName(element.getName()), attributeNames, attributeValues);
+        }
+
+        currentNode.addChild(fragmentElement);
+        currentNode = fragmentElement;
+
+        return fragmentElement;
+    }
+
+    /**
+     * Add text to the current fragment element.
+     * <p/>
+     * Text at the document level and pure whitespace text is ignored.
+     * @param text The SAX text.
+     */
+    public void text(SAXText text) {
+        if(currentNode == document || isWhitespace(text)) {
+            return;
+        }
+
+        int length = text.getLength();
+        int offset = document.appendText(text.getCharacters(), text.getOffset(), length);
+
+        switch (text.getType()) {
+            case TEXT:
+            case ENTITY:
+                FragmentNode lastChild = currentNode.getLastFragmentChild();
+                if(lastChild == null || lastChild.getClass() != FragmentText.class || !((FragmentText) lastChild).extend(length)) {
+                    currentNode.addChild(new FragmentText(document, offset, length));
+                }
+                break;
+            case CDATA:
+                currentNode.addChild(new FragmentCDATASection(document, offset, length));
+                break;
+            case COMMENT:
+                currentNode.addChild(new FragmentComment(document, offset, length));
+                break;
+        }
+    }
+
+    /**
+     * End the current fragment element.
+     */
+    public void endElement() {
+        if(currentNode == document) {
+            throw new IllegalStateException("No fragment element to end.");
+        }
+        currentNode = currentNode.parent;
+    }
+
+    private static boolean isWhitespace(SAXText text) {
+        char[] characters = text.getCharacters();
+        int end = text.getOffset() + text.getLength();
+
+        for(int i = text.getOffset(); i < end; i++) {
+            // Same test as String#trim()...
+            if(characters[i] > ' ') {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,130 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.delivery.dom.fragment;
+
+import org.w3c.dom.CharacterData;
+import org.w3c.dom.DOMException;
+
+/**
+ * Read-only fragment {@link CharacterData}.
+ * <p/>
+ * The character data is a slice of the {@link FragmentDocument} text buffer and is only turned into a
+ * {@link String} when it's first read.
+ */
+abstract class FragmentCharacterData extends FragmentNode implements CharacterData {
+
+    private final int offset;
+    private int length;
+    private String data;
+
+    FragmentCharacterData(FragmentDocument document, int offset, int length) {
+        super(document);
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Extend the slice to include characters appended to the end of the text buffer.
+     */
+    boolean extend(int length) {
+        if(offset + this.length != document.getTextLength() - length) {
+            return false;
+        }
+
+        this.length += length;
+        data = null;
+
+        return true;
+    }
+
+    void appendTo(StringBuilder builder) {
+        if(data != null) {
+            builder.append(data);
+        } else {
+            document.appendText(offset, length, builder);
+        }
+    }
+
+    public String getData() throws DOMException {
+        if(data == null) {
+            data = document.getText(offset, length);
+        }
+        return data;
+    }
+
+    @Override
+    public String getNodeValue() throws DOMException {
+        return getData();
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public String substringData(int offset, int count) throws DOMException {
+        if(offset < 0 || offset > length || count < 0) {
+            throw new DOMException(DOMException.INDEX_SIZE_ERR, "Invalid character data offset/count: " + offset + "/" + count);
+        }
+        return getData().substring(offset, Math.min(length, offset + count));
+    }
+
+    public void setData(String data) throws DOMException {
+        throw readOnly();
+    }
+
+    public void appendData(String arg) throws DOMException {
+        throw readOnly();
+    }
+
+    public void insertData(int offset, String arg) throws DOMException {
+        throw readOnly();
+    }
+
+    public void deleteData(int offset, int count) throws DOMException {
+        throw readOnly();
+    }
+
+    public void replaceData(int offset, int count, String arg) throws DOMException {
+        throw readOnly();
+    }
+}
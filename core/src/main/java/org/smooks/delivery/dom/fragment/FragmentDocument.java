@@ -0,0 +1,267 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.delivery.dom.fragment;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.CDATASection;
+import org.w3c.dom.Comment;
+import org.w3c.dom.DOMConfiguration;
+import org.w3c.dom.DOMException;
+import org.w3c.dom.DOMImplementation;
+import org.w3c.dom.Document;
+import org.w3c.dom.DocumentFragment;
+import org.w3c.dom.DocumentType;
+import org.w3c.dom.Element;
+import org.w3c.dom.EntityReference;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.w3c.dom.ProcessingInstruction;
+import org.w3c.dom.Text;
+
+/**
+ * Read-only fragment {@link Document}.
+ * <p/>
+ * Owns the character buffer holding the text of all the text, CDATA and comment nodes of the
+ * fragment.  Those nodes only hold a slice (offset and length) of the buffer.
+ */
+final class FragmentDocument extends FragmentParentNode implements Document {
+
+    private static final char[] NO_TEXT = new char[0];
+
+    private char[] text = NO_TEXT;
+    private int textLength;
+
+    FragmentDocument() {
+        super(null);
+    }
+
+    /**
+     * Append characters to the document text buffer.
+     * @return The offset of the characters in the text buffer.
+     */
+    int appendText(char[] characters, int offset, int length) {
+        if(textLength + length > text.length) {
+            char[] newText = new char[Math.max(textLength + length, Math.max(64, text.length * 2))];
+            System.arraycopy(text, 0, newText, 0, textLength);
+            text = newText;
+        }
+
+        int textOffset = textLength;
+        System.arraycopy(characters, offset, text, textOffset, length);
+        textLength += length;
+
+        return textOffset;
+    }
+
+    int getTextLength() {
+        return textLength;
+    }
+
+    String getText(int offset, int length) {
+        return new String(text, offset, length);
+    }
+
+    void appendText(int offset, int length, StringBuilder builder) {
+        builder.append(text, offset, length);
+    }
+
+    public String getNodeName() {
+        return "#document";
+    }
+
+    public short getNodeType() {
+        return DOCUMENT_NODE;
+    }
+
+    @Override
+    public Document getOwnerDocument() {
+        return null;
+    }
+
+    @Override
+    FragmentElement getNamespaceContext() {
+        return (FragmentElement) getDocumentElement();
+    }
+
+    @Override
+    public Node cloneNode(boolean deep) {
+        Document clone = newW3CDocument();
+
+        if(deep) {
+            for(int i = 0; i < getLength(); i++) {
+                clone.appendChild(clone.importNode(item(i), true));
+            }
+        }
+
+        return clone;
+    }
+
+    public DocumentType getDoctype() {
+        return null;
+    }
+
+    public DOMImplementation getImplementation() {
+        return newW3CDocument().getImplementation();
+    }
+
+    public Element getDocumentElement() {
+        for(int i = 0; i < getLength(); i++) {
+            if(item(i) instanceof Element) {
+                return (Element) item(i);
+            }
+        }
+        return null;
+    }
+
+    public Element createElement(String tagName) throws DOMException {
+        throw notSupported("createElement");
+    }
+
+    public DocumentFragment createDocumentFragment() {
+        throw notSupported("createDocumentFragment");
+    }
+
+    public Text createTextNode(String data) {
+        throw notSupported("createTextNode");
+    }
+
+    public Comment createComment(String data) {
+        throw notSupported("createComment");
+    }
+
+    public CDATASection createCDATASection(String data) throws DOMException {
+        throw notSupported("createCDATASection");
+    }
+
+    public ProcessingInstruction createProcessingInstruction(String target, String data) throws DOMException {
+        throw notSupported("createProcessingInstruction");
+    }
+
+    public Attr createAttribute(String name) throws DOMException {
+        throw notSupported("createAttribute");
+    }
+
+    public EntityReference createEntityReference(String name) throws DOMException {
+        throw notSupported("createEntityReference");
+    }
+
+    public NodeList getElementsByTagName(String tagname) {
+        return getElementsByTagName(null, tagname, false);
+    }
+
+    public Node importNode(Node importedNode, boolean deep) throws DOMException {
+        throw notSupported("importNode");
+    }
+
+    public Element createElementNS(String namespaceURI, String qualifiedName) throws DOMException {
+        throw notSupported("createElementNS");
+    }
+
+    public Attr createAttributeNS(String namespaceURI, String qualifiedName) throws DOMException {
+        throw notSupported("createAttributeNS");
+    }
+
+    public NodeList getElementsByTagNameNS(String namespaceURI, String localName) {
+        return getElementsByTagName(namespaceURI, localName, true);
+    }
+
+    public Element getElementById(String elementId) {
+        return null;
+    }
+
+    public String getInputEncoding() {
+        return null;
+    }
+
+    public String getXmlEncoding() {
+        return null;
+    }
+
+    public boolean getXmlStandalone() {
+        return false;
+    }
+
+    public void setXmlStandalone(boolean xmlStandalone) throws DOMException {
+        throw readOnly();
+    }
+
+    public String getXmlVersion() {
+        return "1.0";
+    }
+
+    public void setXmlVersion(String xmlVersion) throws DOMException {
+        throw readOnly();
+    }
+
+    public boolean getStrictErrorChecking() {
+        return true;
+    }
+
+    public void setStrictErrorChecking(boolean strictErrorChecking) {
+        throw readOnly();
+    }
+
+    public String getDocumentURI() {
+        return null;
+    }
+
+    public void setDocumentURI(String documentURI) {
+        throw readOnly();
+    }
+
+    public Node adoptNode(Node source) throws DOMException {
+        throw readOnly();
+    }
+
+    public DOMConfiguration getDomConfig() {
+        return null;
+    }
+
+    public void normalizeDocument() {
+        // Adjacent text is merged while building the fragment...
+    }
+
+    public Node renameNode(Node n, String namespaceURI, String qualifiedName) throws DOMException {
+        throw readOnly();
+    }
+}
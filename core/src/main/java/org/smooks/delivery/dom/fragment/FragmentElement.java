@@ -0,0 +1,297 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.delivery.dom.fragment;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.DOMException;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.NodeList;
+import org.w3c.dom.TypeInfo;
+
+import javax.xml.XMLConstants;
+
+/**
+ * Read-only fragment {@link Element}.
+ * <p/>
+ * The element and attribute names are {@link FragmentNameTable shared symbols}.  The attribute values
+ * are held in an array on the element, with the {@link Attr} nodes only being created if they are
+ * asked for.
+ * <p/>
+ * Use {@link #cloneNode(boolean)} to get a modifiable (standard W3C DOM) copy of the element.
+ */
+public final class FragmentElement extends FragmentParentNode implements Element {
+
+    private static final FragmentName[] NO_ATTRIBUTE_NAMES = new FragmentName[0];
+    private static final String[] NO_ATTRIBUTE_VALUES = new String[0];
+
+    final FragmentName name;
+    private final FragmentName[] attributeNames;
+    private final String[] attributeValues;
+    private FragmentAttr[] attributeNodes;
+    private FragmentAttributeMap attributeMap;
+
+    FragmentElement(FragmentDocument document, FragmentName name, FragmentName[] attributeNames, String[] attributeValues) {
+        super(document);
+        this.name = name;
+        this.attributeNames = (attributeNames != null ? attributeNames : NO_ATTRIBUTE_NAMES);
+        this.attributeValues = (attributeValues != null ? attributeValues : NO_ATTRIBUTE_VALUES);
+    }
+
+    int getAttributeCount() {
+        return attributeNames.length;
+    }
+
+    FragmentName getAttributeName(int index) {
+        return attributeNames[index];
+    }
+
+    String getAttributeValue(int index) {
+        return attributeValues[index];
+    }
+
+    FragmentAttr getAttributeNode(int index) {
+        if(index < 0 || index >= attributeNames.length) {
+            return null;
+        }
+        if(attributeNodes == null) {
+            attributeNodes = new FragmentAttr[attributeNames.length];
+        }
+        if(attributeNodes[index] == null) {
+            attributeNodes[index] = new FragmentAttr(this, index);
+        }
+        return attributeNodes[index];
+    }
+
+    int indexOfAttribute(String qualifiedName) {
+        for(int i = 0; i < attributeNames.length; i++) {
+            if(attributeNames[i].qualifiedName.equals(qualifiedName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    int indexOfAttributeNS(String namespaceURI, String localName) {
+        namespaceURI = FragmentName.emptyToNull(namespaceURI);
+        for(int i = 0; i < attributeNames.length; i++) {
+            if(attributeNames[i].localName.equals(localName) && FragmentName.equals(attributeNames[i].namespaceURI, namespaceURI)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public String getNodeName() {
+        return name.qualifiedName;
+    }
+
+    public short getNodeType() {
+        return ELEMENT_NODE;
+    }
+
+    public String getTagName() {
+        return name.qualifiedName;
+    }
+
+    @Override
+    public String getNamespaceURI() {
+        return name.namespaceURI;
+    }
+
+    @Override
+    public String getPrefix() {
+        return name.prefix;
+    }
+
+    @Override
+    public String getLocalName() {
+        return name.localName;
+    }
+
+    @Override
+    public NamedNodeMap getAttributes() {
+        if(attributeMap == null) {
+            attributeMap = new FragmentAttributeMap(this);
+        }
+        return attributeMap;
+    }
+
+    @Override
+    public boolean hasAttributes() {
+        return attributeNames.length > 0;
+    }
+
+    @Override
+    public String getTextContent() throws DOMException {
+        StringBuilder textContent = new StringBuilder();
+        appendTextContent(textContent);
+        return textContent.toString();
+    }
+
+    public String getAttribute(String name) {
+        int index = indexOfAttribute(name);
+        return (index != -1 ? attributeValues[index] : "");
+    }
+
+    public void setAttribute(String name, String value) throws DOMException {
+        throw readOnly();
+    }
+
+    public void removeAttribute(String name) throws DOMException {
+        throw readOnly();
+    }
+
+    public Attr getAttributeNode(String name) {
+        return getAttributeNode(indexOfAttribute(name));
+    }
+
+    public Attr setAttributeNode(Attr newAttr) throws DOMException {
+        throw readOnly();
+    }
+
+    public Attr removeAttributeNode(Attr oldAttr) throws DOMException {
+        throw readOnly();
+    }
+
+    public NodeList getElementsByTagName(String name) {
+        return getElementsByTagName(null, name, false);
+    }
+
+    public String getAttributeNS(String namespaceURI, String localName) throws DOMException {
+        int index = indexOfAttributeNS(namespaceURI, localName);
+        return (index != -1 ? attributeValues[index] : "");
+    }
+
+    public void setAttributeNS(String namespaceURI, String qualifiedName, String value) throws DOMException {
+        throw readOnly();
+    }
+
+    public void removeAttributeNS(String namespaceURI, String localName) throws DOMException {
+        throw readOnly();
+    }
+
+    public Attr getAttributeNodeNS(String namespaceURI, String localName) throws DOMException {
+        return getAttributeNode(indexOfAttributeNS(namespaceURI, localName));
+    }
+
+    public Attr setAttributeNodeNS(Attr newAttr) throws DOMException {
+        throw readOnly();
+    }
+
+    public NodeList getElementsByTagNameNS(String namespaceURI, String localName) throws DOMException {
+        return getElementsByTagName(namespaceURI, localName, true);
+    }
+
+    public boolean hasAttribute(String name) {
+        return indexOfAttribute(name) != -1;
+    }
+
+    public boolean hasAttributeNS(String namespaceURI, String localName) throws DOMException {
+        return indexOfAttributeNS(namespaceURI, localName) != -1;
+    }
+
+    public TypeInfo getSchemaTypeInfo() {
+        return null;
+    }
+
+    public void setIdAttribute(String name, boolean isId) throws DOMException {
+        throw readOnly();
+    }
+
+    public void setIdAttributeNS(String namespaceURI, String localName, boolean isId) throws DOMException {
+        throw readOnly();
+    }
+
+    public void setIdAttributeNode(Attr idAttr, boolean isId) throws DOMException {
+        throw readOnly();
+    }
+
+    @Override
+    public String lookupNamespaceURI(String prefix) {
+        prefix = FragmentName.emptyToNull(prefix);
+        if(name.namespaceURI != null && FragmentName.equals(name.prefix, prefix)) {
+            return name.namespaceURI;
+        }
+
+        for(int i = 0; i < attributeNames.length; i++) {
+            if(isNamespaceDeclaration(attributeNames[i], prefix)) {
+                return FragmentName.emptyToNull(attributeValues[i]);
+            }
+        }
+
+        return super.lookupNamespaceURI(prefix);
+    }
+
+    @Override
+    public String lookupPrefix(String namespaceURI) {
+        if(namespaceURI == null) {
+            return null;
+        }
+        if(namespaceURI.equals(name.namespaceURI) && name.prefix != null) {
+            return name.prefix;
+        }
+
+        for(int i = 0; i < attributeNames.length; i++) {
+            FragmentName attributeName = attributeNames[i];
+            if(XMLConstants.XMLNS_ATTRIBUTE.equals(attributeName.prefix) && namespaceURI.equals(attributeValues[i])) {
+                return attributeName.localName;
+            }
+        }
+
+        return super.lookupPrefix(namespaceURI);
+    }
+
+    @Override
+    public boolean isDefaultNamespace(String namespaceURI) {
+        return FragmentName.equals(lookupNamespaceURI(null), FragmentName.emptyToNull(namespaceURI));
+    }
+
+    private static boolean isNamespaceDeclaration(FragmentName attributeName, String prefix) {
+        if(prefix == null) {
+            return attributeName.prefix == null && attributeName.localName.equals(XMLConstants.XMLNS_ATTRIBUTE);
+        } else {
+            return XMLConstants.XMLNS_ATTRIBUTE.equals(attributeName.prefix) && attributeName.localName.equals(prefix);
+        }
+    }
+}
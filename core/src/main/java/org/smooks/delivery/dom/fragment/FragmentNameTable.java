@@ -0,0 +1,109 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.delivery.dom.fragment;
+
+import org.smooks.delivery.sax.SymbolTable;
+import org.xml.sax.Attributes;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.QName;
+
+/**
+ * Element and attribute name symbol table.
+ * <p/>
+ * Shares a single name instance between all the nodes of the fragments built against the table, instead
+ * of a name per node.  Names are keyed by (namespace URI, local name, prefix) in a {@link SymbolTable},
+ * so lookups are lock free.  The table should be owned by something that lives as long as the resource
+ * that builds the fragments (e.g. a visitor instance).  Once the table holds {@link #MAX_SYMBOLS} names,
+ * new names are no longer interned, so messages with unbounded name sets don't grow the table indefinitely.
+ */
+public final class FragmentNameTable extends SymbolTable<FragmentName> {
+
+    static final int MAX_SYMBOLS = 1024;
+
+    public FragmentNameTable() {
+        super(MAX_SYMBOLS);
+    }
+
+    /**
+     * Get an element name symbol.
+     * @param name The element name.
+     * @return The name symbol.
+     */
+    FragmentName getElementName(QName name) {
+        return get(FragmentName.emptyToNull(name.getNamespaceURI()), name.getLocalPart(), FragmentName.emptyToNull(name.getPrefix()));
+    }
+
+    /**
+     * Get an attribute name symbol.
+     * @param attributes The SAX attributes.
+     * @param index The attribute index.
+     * @return The name symbol.
+     */
+    FragmentName getAttributeName(Attributes attributes, int index) {
+        String namespaceURI = FragmentName.emptyToNull(attributes.getURI(index));
+        String qualifiedName = attributes.getQName(index);
+        String localName = attributes.getLocalName(index);
+        int colonIndex = qualifiedName.indexOf(':');
+        String prefix = (colonIndex > 0 ? qualifiedName.substring(0, colonIndex) : null);
+
+        if(localName == null || localName.length() == 0) {
+            localName = (colonIndex > 0 ? qualifiedName.substring(colonIndex + 1) : qualifiedName);
+        }
+        if(namespaceURI == null) {
+            // Same namespace defaulting as SAXElement#toDOMElement...
+            if(prefix == null ? qualifiedName.equals(XMLConstants.XMLNS_ATTRIBUTE) : prefix.equals(XMLConstants.XMLNS_ATTRIBUTE)) {
+                namespaceURI = XMLConstants.XMLNS_ATTRIBUTE_NS_URI;
+            } else if(XMLConstants.XML_NS_PREFIX.equals(prefix)) {
+                namespaceURI = XMLConstants.XML_NS_URI;
+            }
+        }
+
+        return get(namespaceURI, localName, prefix);
+    }
+
+    @Override
+    protected FragmentName create(String namespaceURI, String localName, String prefix) {
+        return new FragmentName(namespaceURI, prefix, localName);
+    }
+}
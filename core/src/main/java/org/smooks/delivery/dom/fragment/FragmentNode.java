@@ -0,0 +1,347 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.delivery.dom.fragment;
+
+import org.w3c.dom.DOMException;
+import org.w3c.dom.Document;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.w3c.dom.UserDataHandler;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-only fragment {@link Node}.
+ * <p/>
+ * All mutating operations throw a {@link DOMException#NO_MODIFICATION_ALLOWED_ERR}.  {@link #cloneNode(boolean)}
+ * returns a mutable copy of the node, owned by a new (standard W3C) {@link Document}.
+ */
+abstract class FragmentNode implements Node {
+
+    static final NodeList EMPTY_NODE_LIST = new FragmentNodeList(new ArrayList<Node>(0));
+
+    private static final DocumentBuilderFactory DOCUMENT_BUILDER_FACTORY = DocumentBuilderFactory.newInstance();
+
+    static {
+        DOCUMENT_BUILDER_FACTORY.setNamespaceAware(true);
+    }
+
+    final FragmentDocument document;
+    FragmentParentNode parent;
+    int index;
+
+    FragmentNode(FragmentDocument document) {
+        this.document = document;
+    }
+
+    static DOMException readOnly() {
+        return new DOMException(DOMException.NO_MODIFICATION_ALLOWED_ERR, "Read-only DOM fragment.  Use cloneNode() to get a modifiable copy of the fragment.");
+    }
+
+    static DOMException notSupported(String operation) {
+        return new DOMException(DOMException.NOT_SUPPORTED_ERR, "'" + operation + "' is not supported on a read-only DOM fragment.");
+    }
+
+    static Document newW3CDocument() {
+        try {
+            synchronized (DOCUMENT_BUILDER_FACTORY) {
+                return DOCUMENT_BUILDER_FACTORY.newDocumentBuilder().newDocument();
+            }
+        } catch (ParserConfigurationException e) {
+            DOMException domException = new DOMException(DOMException.NOT_SUPPORTED_ERR, "Unable to create a W3C DOM Document.");
+            domException.initCause(e);
+            throw domException;
+        }
+    }
+
+    /**
+     * Get the element used to resolve namespace lookups on this node.
+     * @return The namespace context element, or <code>null</code> if there is none.
+     */
+    FragmentElement getNamespaceContext() {
+        return (parent instanceof FragmentElement ? (FragmentElement) parent : null);
+    }
+
+    public String getNodeValue() throws DOMException {
+        return null;
+    }
+
+    public void setNodeValue(String nodeValue) throws DOMException {
+        throw readOnly();
+    }
+
+    public Node getParentNode() {
+        return parent;
+    }
+
+    public NodeList getChildNodes() {
+        return EMPTY_NODE_LIST;
+    }
+
+    public Node getFirstChild() {
+        return null;
+    }
+
+    public Node getLastChild() {
+        return null;
+    }
+
+    public Node getPreviousSibling() {
+        return (parent != null ? parent.item(index - 1) : null);
+    }
+
+    public Node getNextSibling() {
+        return (parent != null ? parent.item(index + 1) : null);
+    }
+
+    public NamedNodeMap getAttributes() {
+        return null;
+    }
+
+    public Document getOwnerDocument() {
+        return document;
+    }
+
+    public Node insertBefore(Node newChild, Node refChild) throws DOMException {
+        throw readOnly();
+    }
+
+    public Node replaceChild(Node newChild, Node oldChild) throws DOMException {
+        throw readOnly();
+    }
+
+    public Node removeChild(Node oldChild) throws DOMException {
+        throw readOnly();
+    }
+
+    public Node appendChild(Node newChild) throws DOMException {
+        throw readOnly();
+    }
+
+    public boolean hasChildNodes() {
+        return false;
+    }
+
+    public Node cloneNode(boolean deep) {
+        return newW3CDocument().importNode(this, deep);
+    }
+
+    public void normalize() {
+        // Adjacent text is merged while building the fragment...
+    }
+
+    public boolean isSupported(String feature, String version) {
+        return false;
+    }
+
+    public String getNamespaceURI() {
+        return null;
+    }
+
+    public String getPrefix() {
+        return null;
+    }
+
+    public void setPrefix(String prefix) throws DOMException {
+        throw readOnly();
+    }
+
+    public String getLocalName() {
+        return null;
+    }
+
+    public boolean hasAttributes() {
+        return false;
+    }
+
+    public String getBaseURI() {
+        return null;
+    }
+
+    public short compareDocumentPosition(Node other) throws DOMException {
+        if(other == this) {
+            return 0;
+        }
+        if(!(other instanceof FragmentNode) || ((FragmentNode) other).getDocument() != getDocument()) {
+            return (short) (DOCUMENT_POSITION_DISCONNECTED | DOCUMENT_POSITION_IMPLEMENTATION_SPECIFIC |
+                    (System.identityHashCode(other) < System.identityHashCode(this) ? DOCUMENT_POSITION_PRECEDING : DOCUMENT_POSITION_FOLLOWING));
+        }
+
+        List<FragmentNode> thisPath = getPath();
+        List<FragmentNode> otherPath = ((FragmentNode) other).getPath();
+        int commonLength = Math.min(thisPath.size(), otherPath.size());
+
+        for(int i = 0; i < commonLength; i++) {
+            FragmentNode thisAncestor = thisPath.get(i);
+            FragmentNode otherAncestor = otherPath.get(i);
+
+            if(thisAncestor != otherAncestor) {
+                return (otherAncestor.getSiblingOrder() < thisAncestor.getSiblingOrder() ? DOCUMENT_POSITION_PRECEDING : DOCUMENT_POSITION_FOLLOWING);
+            }
+        }
+
+        if(otherPath.size() < thisPath.size()) {
+            return DOCUMENT_POSITION_CONTAINS | DOCUMENT_POSITION_PRECEDING;
+        } else {
+            return DOCUMENT_POSITION_CONTAINED_BY | DOCUMENT_POSITION_FOLLOWING;
+        }
+    }
+
+    private FragmentDocument getDocument() {
+        return (document != null ? document : (FragmentDocument) this);
+    }
+
+    /**
+     * Get the path from the document to this node (inclusive).
+     */
+    List<FragmentNode> getPath() {
+        List<FragmentNode> path = new ArrayList<FragmentNode>();
+
+        for(FragmentNode node = this; node != null; node = node.parent) {
+            path.add(0, node);
+        }
+
+        return path;
+    }
+
+    /**
+     * Get the document order of this node relative to its siblings.
+     */
+    int getSiblingOrder() {
+        return index;
+    }
+
+    public String getTextContent() throws DOMException {
+        return getNodeValue();
+    }
+
+    public void setTextContent(String textContent) throws DOMException {
+        throw readOnly();
+    }
+
+    public boolean isSameNode(Node other) {
+        return other == this;
+    }
+
+    public String lookupPrefix(String namespaceURI) {
+        FragmentElement namespaceContext = getNamespaceContext();
+        return (namespaceContext != null ? namespaceContext.lookupPrefix(namespaceURI) : null);
+    }
+
+    public boolean isDefaultNamespace(String namespaceURI) {
+        FragmentElement namespaceContext = getNamespaceContext();
+        return (namespaceContext != null && namespaceContext.isDefaultNamespace(namespaceURI));
+    }
+
+    public String lookupNamespaceURI(String prefix) {
+        FragmentElement namespaceContext = getNamespaceContext();
+        return (namespaceContext != null ? namespaceContext.lookupNamespaceURI(prefix) : null);
+    }
+
+    public boolean isEqualNode(Node other) {
+        if(other == this) {
+            return true;
+        }
+        if(other == null || other.getNodeType() != getNodeType()
+                || !FragmentName.equals(other.getNodeName(), getNodeName())
+                || !FragmentName.equals(other.getLocalName(), getLocalName())
+                || !FragmentName.equals(other.getNamespaceURI(), getNamespaceURI())
+                || !FragmentName.equals(other.getPrefix(), getPrefix())
+                || !FragmentName.equals(other.getNodeValue(), getNodeValue())) {
+            return false;
+        }
+
+        NamedNodeMap attributes = getAttributes();
+        NamedNodeMap otherAttributes = other.getAttributes();
+        if(attributes != null && otherAttributes != null) {
+            if(attributes.getLength() != otherAttributes.getLength()) {
+                return false;
+            }
+            for(int i = 0; i < attributes.getLength(); i++) {
+                Node attribute = attributes.item(i);
+                Node otherAttribute = (attribute.getLocalName() != null ?
+                        otherAttributes.getNamedItemNS(attribute.getNamespaceURI(), attribute.getLocalName()) :
+                        otherAttributes.getNamedItem(attribute.getNodeName()));
+
+                if(!attribute.isEqualNode(otherAttribute)) {
+                    return false;
+                }
+            }
+        } else if(attributes != otherAttributes) {
+            return false;
+        }
+
+        NodeList children = getChildNodes();
+        NodeList otherChildren = other.getChildNodes();
+        if(children.getLength() != otherChildren.getLength()) {
+            return false;
+        }
+        for(int i = 0; i < children.getLength(); i++) {
+            if(!children.item(i).isEqualNode(otherChildren.item(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public Object getFeature(String feature, String version) {
+        return null;
+    }
+
+    public Object setUserData(String key, Object data, UserDataHandler handler) {
+        throw notSupported("setUserData");
+    }
+
+    public Object getUserData(String key) {
+        return null;
+    }
+
+    public String toString() {
+        return "[" + getNodeName() + ": " + getNodeValue() + "]";
+    }
+}
@@ -0,0 +1,143 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.delivery.dom.fragment;
+
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fragment node with child nodes.
+ * <p/>
+ * The child nodes are held in an array on the parent node, with each child knowing its index in
+ * that array, so sibling navigation doesn't need per node links.  The node is its own
+ * {@link #getChildNodes() child node list}.
+ */
+abstract class FragmentParentNode extends FragmentNode implements NodeList {
+
+    private static final FragmentNode[] NO_CHILDREN = new FragmentNode[0];
+
+    private FragmentNode[] children = NO_CHILDREN;
+    private int childCount;
+
+    FragmentParentNode(FragmentDocument document) {
+        super(document);
+    }
+
+    void addChild(FragmentNode child) {
+        if(childCount == children.length) {
+            FragmentNode[] newChildren = new FragmentNode[childCount == 0 ? 4 : childCount * 2];
+            System.arraycopy(children, 0, newChildren, 0, childCount);
+            children = newChildren;
+        }
+
+        child.parent = this;
+        child.index = childCount;
+        children[childCount++] = child;
+    }
+
+    FragmentNode getLastFragmentChild() {
+        return (childCount > 0 ? children[childCount - 1] : null);
+    }
+
+    public Node item(int index) {
+        return (index >= 0 && index < childCount ? children[index] : null);
+    }
+
+    public int getLength() {
+        return childCount;
+    }
+
+    @Override
+    public NodeList getChildNodes() {
+        return this;
+    }
+
+    @Override
+    public Node getFirstChild() {
+        return item(0);
+    }
+
+    @Override
+    public Node getLastChild() {
+        return item(childCount - 1);
+    }
+
+    @Override
+    public boolean hasChildNodes() {
+        return childCount > 0;
+    }
+
+    NodeList getElementsByTagName(String namespaceURI, String name, boolean namespaceAware) {
+        List<FragmentElement> elements = new ArrayList<FragmentElement>();
+        addElementsByTagName(namespaceURI, name, namespaceAware, elements);
+        return new FragmentNodeList(elements);
+    }
+
+    void addElementsByTagName(String namespaceURI, String name, boolean namespaceAware, List<FragmentElement> elements) {
+        for(int i = 0; i < childCount; i++) {
+            if(children[i] instanceof FragmentElement) {
+                FragmentElement element = (FragmentElement) children[i];
+
+                if(namespaceAware ? element.name.matchesNS(namespaceURI, name) : (name.equals("*") || element.name.qualifiedName.equals(name))) {
+                    elements.add(element);
+                }
+                element.addElementsByTagName(namespaceURI, name, namespaceAware, elements);
+            }
+        }
+    }
+
+    void appendTextContent(StringBuilder textContent) {
+        for(int i = 0; i < childCount; i++) {
+            FragmentNode child = children[i];
+
+            if(child instanceof FragmentText) {
+                ((FragmentText) child).appendTo(textContent);
+            } else if(child instanceof FragmentElement) {
+                ((FragmentElement) child).appendTextContent(textContent);
+            }
+        }
+    }
+}
@@ -44,6 +44,7 @@ package org.smooks.delivery.dom.serialize;
 
 import org.smooks.container.ExecutionContext;
 import org.smooks.delivery.Filter;
+import org.smooks.io.MarkupWriter;
 import org.smooks.xml.XmlUtil;
 import org.w3c.dom.*;
 
@@ -119,7 +120,11 @@ public class DefaultSerializationUnit implements SerializationUnit {
 
             if(rewriteEntities) {
                 writer.write('\"');
-                XmlUtil.encodeAttributeValue(attribValue.toCharArray(), 0, attribValue.length(), writer);
+                if(writer instanceof MarkupWriter) {
+                    ((MarkupWriter) writer).writeEscapedAttribute(attribValue);
+                } else {
+                    XmlUtil.encodeAttributeValue(attribValue.toCharArray(), 0, attribValue.length(), writer);
+                }
                 writer.write('\"');
             } else {
                 if(attribValue.indexOf('"') != -1) {
@@ -45,13 +45,12 @@ package org.smooks.delivery.dom.serialize;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.smooks.SmooksException;
-import org.smooks.cdr.ParameterAccessor;
 import org.smooks.cdr.ResourceConfigurationNotFoundException;
 import org.smooks.cdr.SmooksResourceConfiguration;
 import org.smooks.container.ExecutionContext;
 import org.smooks.delivery.ContentHandlerConfigMap;
 import org.smooks.delivery.ContentHandlerConfigMapTable;
-import org.smooks.delivery.Filter;
+import org.smooks.delivery.GlobalParameterSettings;
 import org.smooks.delivery.dom.DOMContentDeliveryConfig;
 import org.smooks.event.ExecutionEventListener;
 import org.smooks.event.types.DOMFilterLifecycleEvent;
@@ -134,13 +133,13 @@ public class Serializer {
     /*
       Turn default serialization on/off.  Default is "true".
      */
-    boolean defaultSerializationOn = Boolean.parseBoolean(ParameterAccessor.getParameterValue(Filter.DEFAULT_SERIALIZATION_ON, String.class, "true", executionContext.getDeliveryConfig()));
+    GlobalParameterSettings settings = deliveryConfig.getGlobalParameterSettings();
+    boolean defaultSerializationOn = settings.isDefaultSerializationOn();
         if(defaultSerializationOn) {
             defaultSerializationUnit = new DefaultSerializationUnit();
-            boolean rewriteEntities = Boolean.parseBoolean(ParameterAccessor.getParameterValue(Filter.ENTITIES_REWRITE, String.class, "true", executionContext.getDeliveryConfig()));
-            defaultSerializationUnit.setRewriteEntities(Optional.of(rewriteEntities));
+            defaultSerializationUnit.setRewriteEntities(Optional.of(settings.isRewriteEntities()));
         }
-        terminateOnVisitorException = Boolean.parseBoolean(ParameterAccessor.getParameterValue(Filter.TERMINATE_ON_VISITOR_EXCEPTION, String.class, "true", executionContext.getDeliveryConfig()));
+        terminateOnVisitorException = settings.isTerminateOnVisitorException();
 	}
 
 	/**
@@ -295,8 +294,9 @@ public class Serializer {
 		}
 
         if(elementSUs != null) {
-          for (final ContentHandlerConfigMap<SerializationUnit> elementSU : elementSUs)
+          for (int i = 0; i < elementSUs.size(); i++)
           {
+            final ContentHandlerConfigMap<SerializationUnit> elementSU = elementSUs.get(i);
             SmooksResourceConfiguration config = elementSU.getResourceConfig();
 
             // Make sure the serialization unit is targeted at this element.
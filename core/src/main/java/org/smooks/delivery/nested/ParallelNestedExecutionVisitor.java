@@ -0,0 +1,568 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.delivery.nested;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.smooks.GenericReaderConfigurator;
+import org.smooks.Smooks;
+import org.smooks.SmooksException;
+import org.smooks.cdr.SmooksConfigurationException;
+import org.smooks.container.ApplicationContext;
+import org.smooks.container.ExecutionContext;
+import org.smooks.container.TypedKey;
+import org.smooks.container.standalone.StandaloneExecutionContext;
+import org.smooks.delivery.AbstractContentDeliveryConfig;
+import org.smooks.delivery.ContentDeliveryConfig;
+import org.smooks.delivery.ExecutionLifecycleCleanable;
+import org.smooks.delivery.Filter;
+import org.smooks.delivery.ordering.Producer;
+import org.smooks.delivery.replay.SAXEventBuffer;
+import org.smooks.delivery.replay.SAXEventReplayReader;
+import org.smooks.delivery.sax.DynamicSAXElementVisitorList;
+import org.smooks.delivery.sax.SAXContentDeliveryConfig;
+import org.smooks.delivery.sax.SAXElement;
+import org.smooks.delivery.sax.SAXElementVisitor;
+import org.smooks.delivery.sax.SAXText;
+import org.smooks.delivery.sax.SAXVisitAfter;
+import org.smooks.delivery.sax.SAXVisitBefore;
+import org.smooks.javabean.context.BeanContext;
+import org.smooks.javabean.lifecycle.BeanContextLifecycleEvent;
+import org.smooks.javabean.lifecycle.BeanLifecycle;
+import org.smooks.javabean.repository.BeanId;
+import org.smooks.payload.JavaSource;
+import org.smooks.util.CollectionsUtil;
+import org.smooks.xml.NamespaceMappings;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parallel nested Smooks execution visitor.
+ * <p/>
+ * Splits a streamed (SAX filtered) message into fragments and filters each of the fragments through a
+ * nested Smooks configuration on a pool of worker threads.  Unlike the {@link NestedExecutionVisitor},
+ * the nested execution does not run on the parsing thread, so messages made up of many independent fragments
+ * (e.g. records) can use more than one core for heavy per-fragment processing (templating, binding, routing etc).
+ * <p/>
+ * Each targeted fragment is captured into a self contained {@link SAXEventBuffer} which, once the fragment end
+ * is reached, is filtered by the nested Smooks instance (through a {@link SAXEventReplayReader}) in a child
+ * {@link ExecutionContext} on one of the worker threads.  The fragment is still filtered as normal by the
+ * parent execution (e.g. serialized to the parent result).
+ * <pre>
+ * &lt;resource-config selector="order-item"&gt;
+ *     &lt;resource&gt;org.smooks.delivery.nested.ParallelNestedExecutionVisitor&lt;/resource&gt;
+ *     &lt;param name="smooksConfig"&gt;order-item-config.xml&lt;/param&gt;
+ *     &lt;!-- Optional... --&gt;
+ *     &lt;param name="mapBeans"&gt;orderItem&lt;/param&gt;
+ *     &lt;param name="threads"&gt;8&lt;/param&gt;
+ *     &lt;param name="maxInFlight"&gt;16&lt;/param&gt;
+ *     &lt;param name="ordered"&gt;true&lt;/param&gt;
+ * &lt;/resource-config&gt;
+ * </pre>
+ * <ul>
+ *  <li><b>mapBeans</b>: The beans to be mapped from the child {@link ExecutionContext} back onto the parent
+ *      {@link ExecutionContext} when a fragment's nested execution is merged.  The beans are added to, and
+ *      then removed from, the parent bean context, which is enough to fire wirings and lifecycle observers
+ *      (e.g. to add the bean to a list).</li>
+ *  <li><b>threads</b>: The number of worker threads.  Default is the number of available processors.</li>
+ *  <li><b>maxInFlight</b>: The maximum number of fragments that are queued or being filtered for an execution.
+ *      The parsing thread blocks once the limit is reached, until the oldest (ordered), or any (unordered)
+ *      nested execution completes (backpressure).  Default is twice the number of worker threads.</li>
+ *  <li><b>ordered</b>: Merge the nested executions in fragment order (<code>true</code>), or in the order in
+ *      which they complete (<code>false</code>).  Default is <code>true</code>.</li>
+ * </ul>
+ * Nested executions are merged on the parsing thread, so the parent bean context is never accessed
+ * concurrently.  Merges happen at the start and end of each fragment (for the nested executions completed
+ * by then) and, for all outstanding nested executions, at the end of the element enclosing the fragments.
+ * <p/>
+ * A failed nested execution is reported on the parsing thread when it's merged, like a failure of a visitor
+ * running on the parsing thread i.e. it's set as the parent {@link ExecutionContext#getTerminationError() termination error}
+ * and, if the parent execution is configured to terminate on visitor exceptions, terminates the parent execution.
+ * <p/>
+ * The nested configuration must be SAX filtered and must not configure a reader.  Nested executions do not
+ * inherit the parent bean context or event listener.  The namespace prefix mappings in scope on a fragment root
+ * are replayed with the fragment, so fragments can use prefixes declared on their ancestors.
+ * <p/>
+ * The parent execution must maintain the SAX element stack (i.e. {@link Filter#MAINTAIN_ELEMENT_STACK} must not
+ * be turned off).  The parent execution fails with a {@link SmooksConfigurationException} otherwise.
+ */
+public class ParallelNestedExecutionVisitor implements SAXVisitBefore, SAXVisitAfter, ExecutionLifecycleCleanable, Producer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelNestedExecutionVisitor.class);
+    private static final AtomicInteger VISITOR_COUNT = new AtomicInteger();
+    private static final TypedKey<Map<ParallelNestedExecutionVisitor, FragmentExecutions>> EXECUTIONS_KEY = TypedKey.of(FragmentExecutions.class);
+
+    @Inject
+    private String smooksConfig;
+
+    private String[] mapBeans = new String[0];
+    private final List<BeanId> mapBeanIds = new ArrayList<BeanId>();
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int maxInFlight = -1;
+    private boolean ordered = true;
+
+    @Inject
+    private ApplicationContext applicationContext;
+
+    private volatile Smooks smooksInstance;
+    private ExecutorService executor;
+    private final BlockingQueue<ExecutionContext> executionContexts = new LinkedBlockingQueue<ExecutionContext>();
+
+    public void setSmooksConfig(String smooksConfig) {
+        this.smooksConfig = smooksConfig;
+    }
+
+    /**
+     * Set the nested Smooks instance.
+     * <p/>
+     * The instance reader is configured by this visitor, so it must not have been used before.
+     * @param smooksInstance The nested Smooks instance.
+     */
+    public void setSmooksInstance(Smooks smooksInstance) {
+        smooksInstance.setReaderConfig(new GenericReaderConfigurator(SAXEventReplayReader.class));
+        this.smooksInstance = smooksInstance;
+    }
+
+    @Inject
+    public ParallelNestedExecutionVisitor setMapBeans(Optional<String[]> mapBeans) {
+        this.mapBeans = mapBeans.orElse(this.mapBeans);
+        return this;
+    }
+
+    @Inject
+    public ParallelNestedExecutionVisitor setThreads(Optional<Integer> threads) {
+        this.threads = threads.orElse(this.threads);
+        return this;
+    }
+
+    @Inject
+    public ParallelNestedExecutionVisitor setMaxInFlight(Optional<Integer> maxInFlight) {
+        this.maxInFlight = maxInFlight.orElse(this.maxInFlight);
+        return this;
+    }
+
+    @Inject
+    public ParallelNestedExecutionVisitor setOrdered(Optional<Boolean> ordered) {
+        this.ordered = ordered.orElse(this.ordered);
+        return this;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        if(threads < 1) {
+            throw new SmooksException("Invalid 'threads' value '" + threads + "'.  Must be greater than zero.");
+        }
+        if(maxInFlight == -1) {
+            maxInFlight = threads * 2;
+        } else if(maxInFlight < 1) {
+            throw new SmooksException("Invalid 'maxInFlight' value '" + maxInFlight + "'.  Must be greater than zero.");
+        }
+
+        for(String mapBean : mapBeans) {
+            mapBeanIds.add(applicationContext.getBeanIdStore().register(mapBean));
+        }
+        executor = Executors.newFixedThreadPool(threads, new WorkerThreadFactory(VISITOR_COUNT.incrementAndGet()));
+    }
+
+    @PreDestroy
+    public void uninitialize() {
+        try {
+            if(executor != null) {
+                executor.shutdown();
+                if(!executor.awaitTermination(60, TimeUnit.SECONDS)) {
+                    LOGGER.warn("Timed out waiting on ParallelNestedExecutionVisitor worker threads to terminate.");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executionContexts.clear();
+            if (smooksInstance != null) {
+                smooksInstance.close();
+            }
+        }
+    }
+
+    public Set<?> getProducts() {
+        return CollectionsUtil.toSet(mapBeans);
+    }
+
+    public void visitBefore(SAXElement element, ExecutionContext executionContext) throws SmooksException, IOException {
+        getExecutions(executionContext).mergeCompleted();
+
+        // Capture the fragment events...
+        FragmentCapture fragmentCapture = new FragmentCapture();
+        element.setCache(this, fragmentCapture);
+        DynamicSAXElementVisitorList.addDynamicVisitor(fragmentCapture, executionContext);
+    }
+
+    public void visitAfter(SAXElement element, ExecutionContext executionContext) throws SmooksException, IOException {
+        FragmentCapture fragmentCapture = (FragmentCapture) element.getCache(this);
+
+        DynamicSAXElementVisitorList.removeDynamicVisitor(fragmentCapture, executionContext);
+        getExecutions(executionContext).submit(fragmentCapture.eventBuffer, element.getParent());
+    }
+
+    public void executeExecutionLifecycleCleanup(ExecutionContext executionContext) {
+        Map<ParallelNestedExecutionVisitor, FragmentExecutions> executionsMap = executionContext.get(EXECUTIONS_KEY);
+
+        if(executionsMap != null) {
+            FragmentExecutions executions = executionsMap.remove(this);
+            if(executions != null) {
+                // Only left outstanding if the parent execution failed...
+                executions.cancel();
+            }
+        }
+    }
+
+    private FragmentExecutions getExecutions(ExecutionContext executionContext) {
+        Map<ParallelNestedExecutionVisitor, FragmentExecutions> executionsMap = executionContext.get(EXECUTIONS_KEY);
+
+        if(executionsMap == null) {
+            executionsMap = new IdentityHashMap<ParallelNestedExecutionVisitor, FragmentExecutions>();
+            executionContext.put(EXECUTIONS_KEY, executionsMap);
+        }
+
+        FragmentExecutions executions = executionsMap.get(this);
+        if(executions == null) {
+            assertElementStackMaintained(executionContext);
+            executions = new FragmentExecutions(executionContext);
+            executionsMap.put(this, executions);
+        }
+
+        return executions;
+    }
+
+    private static void assertElementStackMaintained(ExecutionContext executionContext) {
+        ContentDeliveryConfig deliveryConfig = executionContext.getDeliveryConfig();
+
+        // The fragment parent tells apart fragments that share an enclosing element...
+        if(deliveryConfig instanceof SAXContentDeliveryConfig && !((SAXContentDeliveryConfig) deliveryConfig).isMaintainElementStack()) {
+            throw new SmooksConfigurationException("Invalid Smooks configuration.  '" + ParallelNestedExecutionVisitor.class.getName() + "' requires the SAX element stack.  The '" + Filter.MAINTAIN_ELEMENT_STACK + "' global parameter must not be set to 'false'.");
+        }
+    }
+
+    private Smooks getSmooksInstance() {
+        // Lazily create the Smooks instance...
+        if(smooksInstance == null) {
+            synchronized (this) {
+                if(smooksInstance == null) {
+                    Smooks smooks;
+                    try {
+                        smooks = new Smooks(smooksConfig);
+                    } catch (Exception e) {
+                        throw new SmooksException("Error creating nested Smooks instance for Smooks configuration '" + smooksConfig + "'.", e);
+                    }
+                    smooks.setReaderConfig(new GenericReaderConfigurator(SAXEventReplayReader.class));
+                    smooksInstance = smooks;
+                }
+            }
+        }
+        return smooksInstance;
+    }
+
+    private ExecutionContext takeExecutionContext() {
+        ExecutionContext executionContext = executionContexts.poll();
+
+        if(executionContext == null) {
+            executionContext = getSmooksInstance().createExecutionContext();
+
+            // Make sure each of the workers can reuse an XMLReader...
+            ContentDeliveryConfig deliveryConfig = executionContext.getDeliveryConfig();
+            if(deliveryConfig instanceof AbstractContentDeliveryConfig) {
+                ((AbstractContentDeliveryConfig) deliveryConfig).ensureXMLReaderPoolSize(threads);
+            }
+        }
+
+        return executionContext;
+    }
+
+    private void returnExecutionContext(ExecutionContext executionContext) {
+        if(executionContext instanceof StandaloneExecutionContext) {
+            ((StandaloneExecutionContext) executionContext).reset();
+            executionContexts.offer(executionContext);
+        }
+    }
+
+    /**
+     * Captures the events of a fragment.
+     */
+    private static class FragmentCapture implements SAXElementVisitor {
+
+        private final SAXEventBuffer eventBuffer = new SAXEventBuffer();
+
+        public void visitBefore(SAXElement element, ExecutionContext executionContext) throws SmooksException, IOException {
+            if(eventBuffer.size() == 0) {
+                // The fragment root.  Its prefixes may be declared on its ancestors...
+                eventBuffer.startElement(element, NamespaceMappings.getNamespaceDeclarationStack(executionContext).getActiveNamespaces());
+            } else {
+                eventBuffer.startElement(element);
+            }
+        }
+
+        @SuppressWarnings("RedundantThrows")
+        public void onChildText(SAXElement element, SAXText childText, ExecutionContext executionContext) throws SmooksException, IOException {
+            eventBuffer.text(childText);
+        }
+
+        @SuppressWarnings("RedundantThrows")
+        public void onChildElement(SAXElement element, SAXElement childElement, ExecutionContext executionContext) throws SmooksException, IOException {
+        }
+
+        public void visitAfter(SAXElement element, ExecutionContext executionContext) throws SmooksException, IOException {
+            eventBuffer.endElement();
+        }
+    }
+
+    /**
+     * The nested executions of the fragments of a parent execution.
+     * <p/>
+     * Only accessed on the parsing thread, apart from the completion queue.  Also installed as a dynamic
+     * visitor on the parent execution while fragments are outstanding, so as to merge all the outstanding
+     * nested executions at the end of the element enclosing the fragments.
+     */
+    private class FragmentExecutions implements SAXVisitAfter {
+
+        private final ExecutionContext executionContext;
+        private final Deque<FragmentExecution> inFlight = new ArrayDeque<FragmentExecution>();
+        private final BlockingQueue<FragmentExecution> completed = new LinkedBlockingQueue<FragmentExecution>();
+        private SAXElement enclosingElement;
+        private boolean enclosingElementVisitorInstalled;
+        private long fragmentCount;
+
+        private FragmentExecutions(ExecutionContext executionContext) {
+            this.executionContext = executionContext;
+        }
+
+        private void submit(SAXEventBuffer eventBuffer, SAXElement fragmentParent) {
+            if(fragmentParent != enclosingElement || fragmentParent == null) {
+                mergeAll();
+                if(enclosingElementVisitorInstalled) {
+                    DynamicSAXElementVisitorList.removeDynamicVisitor(this, executionContext);
+                    enclosingElementVisitorInstalled = false;
+                }
+                enclosingElement = fragmentParent;
+                if(fragmentParent != null) {
+                    DynamicSAXElementVisitorList.addDynamicVisitor(this, executionContext);
+                    enclosingElementVisitorInstalled = true;
+                }
+            }
+
+            // Backpressure...
+            while(inFlight.size() >= maxInFlight) {
+                mergeNext();
+            }
+
+            FragmentExecution fragmentExecution = new FragmentExecution(fragmentCount++, eventBuffer, completed);
+            inFlight.add(fragmentExecution);
+            try {
+                executor.execute(fragmentExecution);
+            } catch (RejectedExecutionException e) {
+                inFlight.remove(fragmentExecution);
+                throw new SmooksException("Failed to submit fragment " + fragmentExecution.index + " for nested execution.  Visitor uninitialized.", e);
+            }
+
+            if(fragmentParent == null) {
+                // The fragment is the document root element...
+                mergeAll();
+            }
+        }
+
+        public void visitAfter(SAXElement element, ExecutionContext executionContext) throws SmooksException, IOException {
+            if(element == enclosingElement) {
+                // Can't remove the visitor while the dynamic visitors are being applied, so it's
+                // just disabled until the next fragment is submitted...
+                enclosingElement = null;
+                mergeAll();
+            }
+        }
+
+        /**
+         * Merge the completed nested executions, without blocking.
+         */
+        private void mergeCompleted() {
+            if(ordered) {
+                while(!inFlight.isEmpty() && inFlight.peekFirst().isDone()) {
+                    merge(inFlight.peekFirst());
+                }
+            } else {
+                FragmentExecution fragmentExecution;
+                while((fragmentExecution = completed.poll()) != null) {
+                    merge(fragmentExecution);
+                }
+            }
+        }
+
+        /**
+         * Merge the next nested execution, blocking until it completes.
+         */
+        private void mergeNext() {
+            try {
+                merge(ordered ? inFlight.peekFirst() : completed.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SmooksException("Interrupted while waiting on a nested fragment execution.", e);
+            }
+        }
+
+        private void mergeAll() {
+            while(!inFlight.isEmpty()) {
+                mergeNext();
+            }
+        }
+
+        private void merge(FragmentExecution fragmentExecution) {
+            ExecutionContext nestedExecutionContext;
+
+            inFlight.remove(fragmentExecution);
+            try {
+                nestedExecutionContext = fragmentExecution.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SmooksException("Interrupted while waiting on a nested fragment execution.", e);
+            } catch (ExecutionException e) {
+                throw new SmooksException("Nested execution of fragment " + fragmentExecution.index + " failed.", e.getCause());
+            }
+
+            try {
+                BeanContext parentBeanContext = executionContext.getBeanContext();
+                BeanContext nestedBeanContext = nestedExecutionContext.getBeanContext();
+
+                for(BeanId beanId : mapBeanIds) {
+                    Object bean = nestedBeanContext.getBean(beanId.getName());
+
+                    if(bean != null) {
+                        // Add the bean from the nested context onto the parent context and then remove
+                        // it again.  This is enough to fire the wiring and end events...
+                        parentBeanContext.notifyObservers(new BeanContextLifecycleEvent(executionContext, null, BeanLifecycle.START_FRAGMENT, beanId, bean));
+                        parentBeanContext.addBean(beanId, bean);
+                        parentBeanContext.notifyObservers(new BeanContextLifecycleEvent(executionContext, null, BeanLifecycle.END_FRAGMENT, beanId, bean));
+                        parentBeanContext.removeBean(beanId, null);
+                    }
+                }
+            } finally {
+                returnExecutionContext(nestedExecutionContext);
+            }
+        }
+
+        private void cancel() {
+            for(FragmentExecution fragmentExecution : inFlight) {
+                fragmentExecution.cancel(false);
+            }
+            inFlight.clear();
+            completed.clear();
+        }
+    }
+
+    /**
+     * The nested execution of a fragment.
+     */
+    private class FragmentExecution extends FutureTask<ExecutionContext> {
+
+        private final long index;
+        private final BlockingQueue<FragmentExecution> completed;
+
+        private FragmentExecution(long index, final SAXEventBuffer eventBuffer, BlockingQueue<FragmentExecution> completed) {
+            super(() -> {
+                ExecutionContext nestedExecutionContext = takeExecutionContext();
+                try {
+                    JavaSource source = new JavaSource(eventBuffer);
+
+                    // Not adding the event buffer to the nested bean context...
+                    source.setBeans(null);
+                    getSmooksInstance().filterSource(nestedExecutionContext, source);
+                } catch (Throwable t) {
+                    returnExecutionContext(nestedExecutionContext);
+                    throw t;
+                }
+                return nestedExecutionContext;
+            });
+            this.index = index;
+            this.completed = completed;
+        }
+
+        @Override
+        protected void done() {
+            if(!ordered && !isCancelled()) {
+                completed.add(this);
+            }
+        }
+    }
+
+    private static class WorkerThreadFactory implements ThreadFactory {
+
+        private final int visitorNumber;
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        private WorkerThreadFactory(int visitorNumber) {
+            this.visitorNumber = visitorNumber;
+        }
+
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "smooks-parallel-nested-" + visitorNumber + "-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
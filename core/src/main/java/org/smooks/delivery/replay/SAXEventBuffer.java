@@ -0,0 +1,190 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.delivery.replay;
+
+import org.smooks.SmooksException;
+import org.smooks.delivery.sax.SAXElement;
+import org.smooks.delivery.sax.SAXText;
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.QName;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Buffered SAX event replay.
+ * <p/>
+ * Captures the element and text events of a message fragment into a self contained buffer (no references
+ * to parser owned state), so the fragment can be replayed later, and on another thread.  The events are
+ * replayed in the order they were captured, with end events added for any elements left open.
+ * <p/>
+ * A fragment cut from a larger document may use namespace prefixes declared on its ancestors.  Capture the
+ * fragment root with {@link #startElement(SAXElement, Map)} to make the replayed fragment namespace complete.
+ */
+public class SAXEventBuffer implements SAXEventReplay {
+
+    private static final Attributes NO_ATTRIBUTES = new AttributesImpl();
+
+    private final List<SAXEventReplay> events = new ArrayList<SAXEventReplay>();
+    private final List<StartElementEvent> openElements = new ArrayList<StartElementEvent>();
+    private final Map<String, String> prefixMappings = new LinkedHashMap<String, String>();
+
+    /**
+     * Capture a start element event.
+     * @param element The element.
+     */
+    public void startElement(SAXElement element) {
+        Attributes attributes = element.getAttributes();
+        addStartElement(element.getName(), (attributes.getLength() == 0 ? NO_ATTRIBUTES : new AttributesImpl(attributes)));
+    }
+
+    /**
+     * Capture the start element event of the fragment root element, along with the namespace prefix mappings
+     * in scope on the element.
+     * <p/>
+     * The mappings are replayed as <code>startPrefixMapping</code> events before, and <code>endPrefixMapping</code>
+     * events after, the fragment events.  Mappings not declared on the element itself are also added to the replayed
+     * element as <code>xmlns</code> attributes, for handlers that track namespaces through the declaring attributes.
+     * @param element The fragment root element.  Must be the first captured event.
+     * @param namespaces The in-scope prefix to namespace URI mappings ({@link XMLConstants#DEFAULT_NS_PREFIX} for the
+     * default namespace).
+     */
+    public void startElement(SAXElement element, Map<String, String> namespaces) {
+        if(!events.isEmpty()) {
+            throw new IllegalStateException("The fragment root element must be the first captured event.");
+        }
+
+        AttributesImpl attributes = new AttributesImpl(element.getAttributes());
+        for(Map.Entry<String, String> namespace : namespaces.entrySet()) {
+            String prefix = namespace.getKey();
+            String xmlnsQName = (prefix.length() == 0 ? XMLConstants.XMLNS_ATTRIBUTE : XMLConstants.XMLNS_ATTRIBUTE + ":" + prefix);
+
+            if(XMLConstants.XML_NS_PREFIX.equals(prefix)) {
+                continue;
+            }
+            prefixMappings.put(prefix, namespace.getValue());
+            if(attributes.getIndex(xmlnsQName) == -1) {
+                attributes.addAttribute(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, (prefix.length() == 0 ? XMLConstants.XMLNS_ATTRIBUTE : prefix), xmlnsQName, "CDATA", namespace.getValue());
+            }
+        }
+
+        addStartElement(element.getName(), (attributes.getLength() == 0 ? NO_ATTRIBUTES : attributes));
+    }
+
+    private void addStartElement(QName name, Attributes attributes) {
+        StartElementEvent startEvent = new StartElementEvent();
+        String prefix = name.getPrefix();
+
+        startEvent.set(name.getNamespaceURI(), name.getLocalPart(),
+                (prefix.length() == 0 ? name.getLocalPart() : prefix + ":" + name.getLocalPart()),
+                attributes);
+        events.add(startEvent);
+        openElements.add(startEvent);
+    }
+
+    /**
+     * Capture a text event.
+     * @param text The text.  The characters are copied.
+     */
+    public void text(SAXText text) {
+        TextEvent textEvent = new TextEvent();
+        char[] characters = new char[text.getLength()];
+
+        System.arraycopy(text.getCharacters(), text.getOffset(), characters, 0, characters.length);
+        textEvent.set(characters, 0, characters.length, text.getType());
+        events.add(textEvent);
+    }
+
+    /**
+     * Capture the end element event of the current element.
+     */
+    public void endElement() {
+        if(openElements.isEmpty()) {
+            throw new IllegalStateException("No open element to end.");
+        }
+        events.add(newEndEvent(openElements.remove(openElements.size() - 1)));
+    }
+
+    /**
+     * Get the number of captured events.
+     * @return The number of captured events.
+     */
+    public int size() {
+        return events.size();
+    }
+
+    public void replay(ContentHandler handler) throws SmooksException {
+        try {
+            for(Map.Entry<String, String> prefixMapping : prefixMappings.entrySet()) {
+                handler.startPrefixMapping(prefixMapping.getKey(), prefixMapping.getValue());
+            }
+        } catch (SAXException e) {
+            throw new SmooksException("Error replaying startPrefixMapping event.", e);
+        }
+        for(SAXEventReplay event : events) {
+            event.replay(handler);
+        }
+        for(int i = openElements.size() - 1; i >= 0; i--) {
+            newEndEvent(openElements.get(i)).replay(handler);
+        }
+        try {
+            for(String prefix : prefixMappings.keySet()) {
+                handler.endPrefixMapping(prefix);
+            }
+        } catch (SAXException e) {
+            throw new SmooksException("Error replaying endPrefixMapping event.", e);
+        }
+    }
+
+    private static EndElementEvent newEndEvent(StartElementEvent startEvent) {
+        EndElementEvent endEvent = new EndElementEvent();
+        endEvent.set(startEvent.uri, startEvent.localName, startEvent.qName);
+        return endEvent;
+    }
+}
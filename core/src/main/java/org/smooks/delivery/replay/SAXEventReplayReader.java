@@ -0,0 +1,158 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.delivery.replay;
+
+import org.smooks.SmooksException;
+import org.smooks.cdr.SmooksConfigurationException;
+import org.smooks.container.ExecutionContext;
+import org.smooks.delivery.java.JavaXMLReader;
+import org.smooks.xml.ReusableXMLReader;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.DTDHandler;
+import org.xml.sax.EntityResolver;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXNotRecognizedException;
+import org.xml.sax.SAXNotSupportedException;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * {@link SAXEventReplay} {@link org.xml.sax.XMLReader}.
+ * <p/>
+ * Replays the {@link SAXEventReplay} supplied as the source object of a
+ * {@link org.smooks.payload.JavaSource} (e.g. a {@link SAXEventBuffer}) as a document.
+ * <pre>
+ * smooks.setReaderConfig(new GenericReaderConfigurator(SAXEventReplayReader.class));
+ * smooks.filterSource(new JavaSource(eventBuffer));
+ * </pre>
+ */
+public class SAXEventReplayReader implements JavaXMLReader, ReusableXMLReader {
+
+    private ContentHandler contentHandler;
+    private SAXEventReplay eventReplay;
+
+    public void setSourceObjects(List<Object> sourceObjects) throws SmooksConfigurationException {
+        if(sourceObjects.size() != 1 || !(sourceObjects.get(0) instanceof SAXEventReplay)) {
+            throw new SmooksConfigurationException("Invalid source object list.  Must contain a single " + SAXEventReplay.class.getName() + " instance.");
+        }
+        eventReplay = (SAXEventReplay) sourceObjects.get(0);
+    }
+
+    public void setExecutionContext(ExecutionContext executionContext) {
+    }
+
+    public void reset() {
+        contentHandler = null;
+        eventReplay = null;
+    }
+
+    public void parse(InputSource input) throws IOException, SAXException {
+        if(eventReplay == null) {
+            throw new SAXException("No " + SAXEventReplay.class.getName() + " source object set on the reader.");
+        }
+
+        try {
+            contentHandler.startDocument();
+            eventReplay.replay(contentHandler);
+            contentHandler.endDocument();
+        } catch (SmooksException e) {
+            if(e.getCause() instanceof SAXException) {
+                throw (SAXException) e.getCause();
+            }
+            throw e;
+        } finally {
+            // Readers are pooled...
+            eventReplay = null;
+        }
+    }
+
+    public void parse(String systemId) throws IOException, SAXException {
+        throw new UnsupportedOperationException("Only supports parsing of a JavaSource.");
+    }
+
+    public void setContentHandler(ContentHandler handler) {
+        this.contentHandler = handler;
+    }
+
+    public ContentHandler getContentHandler() {
+        return contentHandler;
+    }
+
+    public boolean getFeature(String name) throws SAXNotRecognizedException, SAXNotSupportedException {
+        return false;
+    }
+
+    public void setFeature(String name, boolean value) throws SAXNotRecognizedException, SAXNotSupportedException {
+    }
+
+    public Object getProperty(String name) throws SAXNotRecognizedException, SAXNotSupportedException {
+        return null;
+    }
+
+    public void setProperty(String name, Object value) throws SAXNotRecognizedException, SAXNotSupportedException {
+    }
+
+    public void setEntityResolver(EntityResolver resolver) {
+    }
+
+    public EntityResolver getEntityResolver() {
+        return null;
+    }
+
+    public void setDTDHandler(DTDHandler handler) {
+    }
+
+    public DTDHandler getDTDHandler() {
+        return null;
+    }
+
+    public void setErrorHandler(ErrorHandler handler) {
+    }
+
+    public ErrorHandler getErrorHandler() {
+        return null;
+    }
+}
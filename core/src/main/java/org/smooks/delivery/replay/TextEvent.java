@@ -0,0 +1,95 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.delivery.replay;
+
+import org.smooks.SmooksException;
+import org.smooks.delivery.sax.TextType;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.ext.LexicalHandler;
+
+/**
+ * Text event replay.
+ * <p/>
+ * CDATA and comment events are only replayed as such if the handler is also a {@link LexicalHandler}.
+ * Otherwise, CDATA is replayed as plain characters and comments are dropped.
+ */
+public class TextEvent implements SAXEventReplay {
+
+    public char[] characters;
+    public int offset;
+    public int length;
+    public TextType type;
+
+    public void set(char[] characters, int offset, int length, TextType type) {
+        this.characters = characters;
+        this.offset = offset;
+        this.length = length;
+        this.type = type;
+    }
+
+    public void replay(ContentHandler handler) throws SmooksException {
+        try {
+            switch (type) {
+                case CDATA:
+                    if(handler instanceof LexicalHandler) {
+                        ((LexicalHandler) handler).startCDATA();
+                        handler.characters(characters, offset, length);
+                        ((LexicalHandler) handler).endCDATA();
+                    } else {
+                        handler.characters(characters, offset, length);
+                    }
+                    break;
+                case COMMENT:
+                    if(handler instanceof LexicalHandler) {
+                        ((LexicalHandler) handler).comment(characters, offset, length);
+                    }
+                    break;
+                default:
+                    handler.characters(characters, offset, length);
+            }
+        } catch (SAXException e) {
+            throw new SmooksException("Error replaying text event.", e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.delivery.sax;
+
+import javax.xml.namespace.QName;
+
+/**
+ * Concurrent element name symbol table.
+ * <p/>
+ * Canonicalizes the (namespace URI, local name, qualified name) tuples reported by the parser
+ * into shared, immutable {@link QName} instances, so repeated element names do not allocate a
+ * new {@link QName} per start tag, and name comparisons downstream (e.g. the
+ * {@link SelectorAutomaton} transition lookups) usually succeed on identity.
+ * <p/>
+ * Lookups do not lock or allocate (see {@link SymbolTable}).  The table is bounded: once it holds
+ * {@link #MAX_SYMBOLS} names, new names are created per call (as {@link SAXUtil#toQName(String, String, String)}
+ * does) so that documents with an unbounded vocabulary cannot grow it without limit.
+ */
+public class QNameTable extends SymbolTable<QName> {
+
+    /**
+     * Maximum number of names held in the table.
+     */
+    public static final int MAX_SYMBOLS = 4096;
+
+    public QNameTable() {
+        super(MAX_SYMBOLS);
+    }
+
+    /**
+     * Get the canonical {@link QName} for the supplied SAX element name.
+     * <p/>
+     * Same semantics as {@link SAXUtil#toQName(String, String, String)}.
+     *
+     * @param namespaceURI The Namespace URI, or null/empty if the element has no Namespace URI.
+     * @param localName    The local name (without prefix).
+     * @param qName        The qualified name (with prefix).
+     * @return The canonical element {@link QName}.
+     */
+    public QName toQName(String namespaceURI, String localName, String qName) {
+        return get(namespaceURI, localName, qName);
+    }
+
+    @Override
+    protected QName create(String namespaceURI, String localName, String qName) {
+        return SAXUtil.toQName(namespaceURI, localName, qName);
+    }
+}
@@ -42,7 +42,8 @@
  */
 package org.smooks.delivery.sax;
 
-import org.smooks.cdr.ParameterAccessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.smooks.cdr.SmooksConfigurationException;
 import org.smooks.cdr.SmooksResourceConfiguration;
 import org.smooks.cdr.xpath.SelectorStep;
@@ -51,6 +52,7 @@ import org.smooks.cdr.xpath.evaluators.equality.IndexEvaluator;
 import org.smooks.container.ExecutionContext;
 import org.smooks.delivery.*;
 import org.smooks.delivery.ordering.Sorter;
+import org.smooks.delivery.sax.annotation.RetainsElement;
 
 import javax.xml.XMLConstants;
 import javax.xml.namespace.QName;
@@ -64,17 +66,21 @@ import java.util.*;
 @SuppressWarnings({ "WeakerAccess", "unused", "unchecked" })
 public class SAXContentDeliveryConfig extends AbstractContentDeliveryConfig {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(SAXContentDeliveryConfig.class);
+
     private ContentHandlerConfigMapTable<SAXVisitBefore> visitBefores;
     private final ContentHandlerConfigMapTable<SAXVisitChildren> childVisitors = new ContentHandlerConfigMapTable<SAXVisitChildren>();
     private ContentHandlerConfigMapTable<SAXVisitAfter> visitAfters;
     private ContentHandlerConfigMapTable<VisitLifecycleCleanable> visitCleanables;
-    private boolean rewriteEntities;
-    private boolean maintainElementStack;
-    private boolean reverseVisitOrderOnVisitAfter;
-    private boolean terminateOnVisitorException;
+    private boolean recycleElements;
+    private boolean passThroughUntargeted;
     private FilterBypass filterBypass;
+    private SelectorAutomaton selectorAutomaton;
+    private final QNameTable qNameTable = new QNameTable();
 
-    private final Map<String, SAXElementVisitorMap> optimizedVisitorConfig = new HashMap<String, SAXElementVisitorMap>();
+    private Map<String, SAXElementVisitorMap> optimizedVisitorConfig = new HashMap<String, SAXElementVisitorMap>();
+    private SAXElementVisitorMap globalVisitorConfig;
+    private boolean frozen = false;
 
     public ContentHandlerConfigMapTable<SAXVisitBefore> getVisitBefores() {
         return visitBefores;
@@ -108,6 +114,103 @@ public class SAXContentDeliveryConfig extends AbstractContentDeliveryConfig {
         return optimizedVisitorConfig;
     }
 
+    /**
+     * Get the compiled contextual selectors.
+     * @return The contextual selector automaton, or null if the configuration has no compilable
+     * contextual selectors.
+     */
+    SelectorAutomaton getSelectorAutomaton() {
+        return selectorAutomaton;
+    }
+
+    /**
+     * Get the element name symbol table shared by all filter executions on this configuration.
+     * @return The element name symbol table.
+     */
+    public QNameTable getQNameTable() {
+        return qNameTable;
+    }
+
+    /**
+     * Get the merged "*" and "**" visitor config, applied to elements that have no visitor config of their own.
+     * @return The global visitor config, or null if there are no global visitors.
+     */
+    public SAXElementVisitorMap getGlobalVisitorConfig() {
+        return globalVisitorConfig;
+    }
+
+    /**
+     * Freeze the configuration.
+     * <p/>
+     * Called once the configuration is fully built.  Turns all the visitor tables and visitor maps into
+     * immutable, array-backed structures that the {@link SAXHandler} can iterate over without locking.
+     */
+    public void freeze() {
+        if(frozen) {
+            return;
+        }
+
+        visitBefores.freeze();
+        childVisitors.freeze();
+        visitAfters.freeze();
+        visitCleanables.freeze();
+
+        for(SAXElementVisitorMap visitorMap : optimizedVisitorConfig.values()) {
+            visitorMap.freeze();
+        }
+        optimizedVisitorConfig = Collections.unmodifiableMap(optimizedVisitorConfig);
+
+        SAXElementVisitorMap starVisitorConfigs = optimizedVisitorConfig.get("*");
+        SAXElementVisitorMap starStarVisitorConfigs = optimizedVisitorConfig.get("**");
+        if(starVisitorConfigs != null) {
+            globalVisitorConfig = starVisitorConfigs.merge(starStarVisitorConfigs);
+            globalVisitorConfig.freeze();
+        } else {
+            globalVisitorConfig = starStarVisitorConfigs;
+        }
+
+        passThroughUntargeted = (passThroughUntargeted && globalVisitorConfig == null && isPassThroughCompatible());
+
+        frozen = true;
+    }
+
+    private boolean isPassThroughCompatible() {
+        for(Map.Entry<String, SAXElementVisitorMap> entry : optimizedVisitorConfig.entrySet()) {
+            if(entry.getKey().equals(SmooksResourceConfiguration.DOCUMENT_FRAGMENT_SELECTOR)) {
+                // Only ever applied to the root element...
+                continue;
+            }
+
+            SAXElementVisitorMap visitorMap = entry.getValue();
+            if(!isPassThroughCompatible(visitorMap.getVisitBefores()) || !isPassThroughCompatible(visitorMap.getChildVisitors()) ||
+                    !isPassThroughCompatible(visitorMap.getVisitAfters()) || !isPassThroughCompatible(visitorMap.getVisitCleanables())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private <T extends ContentHandler> boolean isPassThroughCompatible(List<ContentHandlerConfigMap<T>> mappings) {
+        if(mappings != null) {
+            for(ContentHandlerConfigMap<T> mapping : mappings) {
+                SmooksResourceConfiguration resourceConfig = mapping.getResourceConfig();
+
+                // Non contextual selectors are checked on every element in a passed through subtree.  Contextual
+                // selectors must be rooted, so that the automaton knows when they can no longer match...
+                if(resourceConfig.isSelectorContextual() && (selectorAutomaton == null || !selectorAutomaton.isRootedSelector(resourceConfig))) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
     public FilterBypass getFilterBypass() {
     	return filterBypass;
     }
@@ -206,12 +309,33 @@ public class SAXContentDeliveryConfig extends AbstractContentDeliveryConfig {
             optimizedVisitorConfig.put(elementName, entry);
         }
 
-        rewriteEntities = Boolean.parseBoolean(ParameterAccessor.getParameterValue(Filter.ENTITIES_REWRITE, String.class, "true", this));
-        maintainElementStack = Boolean.parseBoolean(ParameterAccessor.getParameterValue(Filter.MAINTAIN_ELEMENT_STACK, String.class, "true", this));
-        reverseVisitOrderOnVisitAfter = Boolean.parseBoolean(ParameterAccessor.getParameterValue(Filter.REVERSE_VISIT_ORDER_ON_VISIT_AFTER, String.class, "true", this));
-        terminateOnVisitorException = Boolean.parseBoolean(ParameterAccessor.getParameterValue(Filter.TERMINATE_ON_VISITOR_EXCEPTION, String.class, "true", this));
+        // Element recycling and pass-through also depend on the visitor tables, so they're only resolved here...
+        recycleElements = getGlobalParameterSettings().isRecycleElements();
+        passThroughUntargeted = getGlobalParameterSettings().isPassThroughUntargeted();
+        if(recycleElements) {
+            ContentHandlerConfigMap<?> retainingMapping = getElementRetainingMapping(visitBefores, childVisitors, visitAfters, visitCleanables);
+            if(retainingMapping != null) {
+                LOGGER.debug("Turning off SAX element recycling. Resource '" + retainingMapping.getResourceConfig() + "' is annotated with @" + RetainsElement.class.getSimpleName() + ".");
+                recycleElements = false;
+            }
+        }
 
 		filterBypass = getFilterBypass(visitBefores, visitAfters);
+		selectorAutomaton = SelectorAutomaton.compile(this, visitBefores, childVisitors, visitAfters, visitCleanables);
+    }
+
+    private ContentHandlerConfigMap<?> getElementRetainingMapping(ContentHandlerConfigMapTable<?>... tables) {
+        for(ContentHandlerConfigMapTable<?> table : tables) {
+            for(List<? extends ContentHandlerConfigMap<?>> mappings : table.getTable().values()) {
+                for(ContentHandlerConfigMap<?> mapping : mappings) {
+                    if(mapping.getContentHandler().getClass().isAnnotationPresent(RetainsElement.class)) {
+                        return mapping;
+                    }
+                }
+            }
+        }
+
+        return null;
     }
 
     public void assertSelectorsNotAccessingText() {
@@ -350,6 +474,7 @@ public class SAXContentDeliveryConfig extends AbstractContentDeliveryConfig {
         if(combinedConfig.getVisitBefores() == null && combinedConfig.getChildVisitors() == null && combinedConfig.getVisitAfters() == null ) {
             return null;
         } else {
+            combinedConfig.freeze();
             return combinedConfig;
         }
     }
@@ -390,18 +515,34 @@ public class SAXContentDeliveryConfig extends AbstractContentDeliveryConfig {
     }
 
 	public boolean isRewriteEntities() {
-		return rewriteEntities;
+		return getGlobalParameterSettings().isRewriteEntities();
 	}
 
 	public boolean isMaintainElementStack() {
-		return maintainElementStack;
+		return getGlobalParameterSettings().isMaintainElementStack();
 	}
 
 	public boolean isReverseVisitOrderOnVisitAfter() {
-		return reverseVisitOrderOnVisitAfter;
+		return getGlobalParameterSettings().isReverseVisitOrderOnVisitAfter();
 	}
 
 	public boolean isTerminateOnVisitorException() {
-		return terminateOnVisitorException;
+		return getGlobalParameterSettings().isTerminateOnVisitorException();
+	}
+
+	public boolean isRecycleElements() {
+		return recycleElements;
+	}
+
+	/**
+	 * Are untargeted subtrees streamed straight to the output by the {@link SAXHandler}?
+	 * <p/>
+	 * Only true if {@link Filter#PASS_THROUGH_UNTARGETED} is on, there are no "*" or "**" visitors, and
+	 * all the contextual selectors are compiled, rooted selectors (e.g. "/a/b/c" or "#document/a/b/c").
+	 * A subtree that no contextual selector can reach is then known as soon as its root element starts.
+	 * @return True if untargeted subtrees are passed through, otherwise false.
+	 */
+	public boolean isPassThroughUntargeted() {
+		return passThroughUntargeted;
 	}
 }
@@ -52,9 +52,13 @@ import org.xml.sax.helpers.AttributesImpl;
 
 import javax.xml.XMLConstants;
 import javax.xml.namespace.QName;
+import java.io.CharArrayReader;
 import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.nio.CharBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -93,11 +97,28 @@ import java.util.Map;
  */
 public class SAXElement {
 
+    private static final char[] NO_TEXT = new char[0];
+
     private QName name;
     private AttributesImpl attributes;
+    /**
+     * Parser owned attributes.  Only set on {@link #recycle(QName, Attributes, SAXElement) recycled}
+     * elements, whose attributes are copied lazily (on first read, or when the element is
+     * {@link #detachAttributes() detached} from the parser event).
+     */
+    private Attributes parserAttributes;
     private SAXElement parent;
     private Writer writer;
     private List<SAXText> text;
+    private TextList textList;
+    /**
+     * Accumulated text content buffer.  Each accumulated {@link SAXText} fragment is recorded
+     * as a slice of this buffer, so the text is copied once (out of the parser buffer) and the
+     * {@link #getTextContent() text content} is the buffer prefix up to {@link #textBufferLength}.
+     * Recycled elements reuse the buffer of the previous element at the same depth.
+     */
+    private char[] textBuffer = NO_TEXT;
+    private int textBufferLength;
     private StringWriter textAccumulator;
     private String accumulatedText;
 
@@ -191,6 +212,61 @@ public class SAXElement {
         return attributesCopy;
     }
 
+    /**
+     * Reset this element instance so it can be reused for a new element event.
+     * <p/>
+     * Used by the SAX filter when {@link org.smooks.delivery.Filter#RECYCLE_ELEMENTS element recycling}
+     * is turned on.  The supplied attributes are not copied until they are read, or until the element is
+     * {@link #detachAttributes() detached} from the parser event.
+     *
+     * @param name       The element {@link QName}.
+     * @param attributes The parser attributes attached to the element.
+     * @param parent     Parent element, or null if the element is the document root element.
+     */
+    void recycle(QName name, Attributes attributes, SAXElement parent) {
+        this.name = name;
+        this.parserAttributes = attributes;
+        this.parent = parent;
+        this.writer = null;
+        this.text = null;
+        this.accumulatedText = null;
+        this.l1Cache = null;
+        this.l1CacheOwner = null;
+        if(l2Caches != null) {
+            l2Caches.clear();
+        }
+    }
+
+    /**
+     * Detach this element from the parser event that created it, copying the parser attributes
+     * if they have not already been copied.
+     * <p/>
+     * Must be called before the parser reuses the {@link Attributes} instance i.e. before the
+     * start element event returns.
+     */
+    void detachAttributes() {
+        if(parserAttributes != null) {
+            copyAttributes(parserAttributes, attributes);
+            parserAttributes = null;
+        }
+    }
+
+    private AttributesImpl attributes() {
+        detachAttributes();
+        return attributes;
+    }
+
+    private static void copyAttributes(Attributes from, AttributesImpl to) {
+        // AttributesImpl.setAttributes reallocates its storage on every call. Clearing and
+        // re-adding keeps reusing the storage of the target instance...
+        int attributeCount = from.getLength();
+
+        to.clear();
+        for(int i = 0; i < attributeCount; i++) {
+            to.addAttribute(from.getURI(i), from.getLocalName(i), from.getQName(i), from.getType(i), from.getValue(i));
+        }
+    }
+
     /**
      * Turn on {@link SAXText text} accumulation for this {@link SAXElement}.
      * <p/>
@@ -199,16 +275,14 @@ public class SAXElement {
      */
     public void accumulateText() {
         if(text == null) {
-            text = new ArrayList<SAXText>() {
-                public boolean add(SAXText saxText) {
-                    if(textAccumulator != null) {
-                        // Clear the accumulatedText object so as any subsequent calls to the
-                        // getTextAsString method will recreate the buffer from scratch...
-                        accumulatedText = null;
-                    }
-                    return super.add((SAXText) saxText.clone());
-                }
-            };
+            if(textList == null) {
+                textList = new TextList();
+            } else {
+                textList.clear();
+            }
+            textList.reset();
+            textBufferLength = 0;
+            text = textList;
         }
     }
 
@@ -270,28 +344,162 @@ public class SAXElement {
      * @see TextConsumer
      */
     public String getTextContent() throws SmooksException {
+        assertAccumulatingText("getTextContent()");
+
+        if(!textList.isContiguous()) {
+            // The list was modified in place, so the buffer (and cached String) can't be trusted...
+            return serializeText();
+        }
+        if(accumulatedText == null) {
+            accumulatedText = new String(textBuffer, 0, textBufferLength);
+        }
+
+        return accumulatedText;
+    }
+
+    /**
+     * Get the {@link SAXText} objects associated with this {@link SAXElement},
+     * as a {@link CharSequence} view of the {@link #accumulateText() accumulated} text.
+     * <p/>
+     * The content is the same as that returned by {@link #getTextContent()}, but it is not
+     * copied into a String.  The returned sequence is only valid for the lifetime of the
+     * element event and should not be cached.  Use {@link #getTextContent()} if you need
+     * to retain the text.
+     *
+     * @return The accumulated text as a {@link CharSequence}.
+     * @throws SmooksException This {@link SAXElement} instance does not have
+     * {@link #accumulateText() text accumulation} turned on.
+     * @see #accumulateText()
+     * @see TextConsumer
+     */
+    public CharSequence getTextContentAsCharSequence() throws SmooksException {
+        assertAccumulatingText("getTextContentAsCharSequence()");
+
+        if(textList.isContiguous()) {
+            return CharBuffer.wrap(textBuffer, 0, textBufferLength).asReadOnlyBuffer();
+        }
+
+        return getTextContent();
+    }
+
+    /**
+     * Get a {@link Reader} over the {@link #accumulateText() accumulated} text of this
+     * {@link SAXElement}.
+     * <p/>
+     * The content is the same as that returned by {@link #getTextContent()}, but it is not
+     * copied into a String.  The returned reader is only valid for the lifetime of the
+     * element event.
+     *
+     * @return A {@link Reader} over the accumulated text.
+     * @throws SmooksException This {@link SAXElement} instance does not have
+     * {@link #accumulateText() text accumulation} turned on.
+     * @see #accumulateText()
+     * @see TextConsumer
+     */
+    public Reader getTextContentReader() throws SmooksException {
+        assertAccumulatingText("getTextContentReader()");
+
+        if(textList.isContiguous()) {
+            return new CharArrayReader(textBuffer, 0, textBufferLength);
+        }
+
+        return new StringReader(getTextContent());
+    }
+
+    private void assertAccumulatingText(String method) throws SmooksException {
         if(text == null) {
-            throw new SmooksException("Illegal call to getTextContent().  SAXElement instance not accumulating SAXText Objects.  You must call SAXElement.accumulateText(), or annotate the Visitor implementation class with the @TextConsumer annotation.");
+            throw new SmooksException("Illegal call to " + method + ".  SAXElement instance not accumulating SAXText Objects.  You must call SAXElement.accumulateText(), or annotate the Visitor implementation class with the @TextConsumer annotation.");
         }
+    }
 
+    /**
+     * Serialize the text list fragment by fragment.  Only used when the text list was modified
+     * other than by appending to it, in which case the text buffer no longer reflects its content.
+     */
+    private String serializeText() {
         if(textAccumulator == null) {
             textAccumulator = new StringWriter();
         }
 
-        if(accumulatedText == null) {
-            textAccumulator.getBuffer().setLength(0);
-            for(SAXText textObj : text) {
-                try {
-                    textObj.toWriter(textAccumulator, false);
-                } catch (IOException e) {
-                    throw new RuntimeException("Unexpected IOException.", e);
-                }
+        textAccumulator.getBuffer().setLength(0);
+        for(SAXText textObj : text) {
+            try {
+                textObj.toWriter(textAccumulator, false);
+            } catch (IOException e) {
+                throw new RuntimeException("Unexpected IOException.", e);
             }
+        }
+
+        return textAccumulator.toString();
+    }
 
-            accumulatedText = textAccumulator.toString();
+    /**
+     * Append the supplied fragment to the text buffer, in the form it takes in the
+     * {@link #getTextContent() text content} (i.e. {@link SAXText#toWriter(Writer, boolean)}
+     * without special character encoding).
+     *
+     * @param saxText The text fragment.
+     * @return A {@link SAXText} slice of the text buffer, holding the fragment's raw characters.
+     */
+    private SAXText appendToTextBuffer(SAXText saxText) {
+        char[] characters = saxText.getCharacters();
+        int offset = saxText.getOffset();
+        int length = saxText.getLength();
+        TextType type = saxText.getType();
+
+        switch(type) {
+            case COMMENT:
+                return appendToTextBuffer("<!--", characters, offset, length, "-->", type);
+            case CDATA:
+                return appendToTextBuffer("<![CDATA[", characters, offset, length, "]]>", type);
+            case ENTITY:
+                if(length != 1) {
+                    // Only the first character of an entity fragment makes it into the text
+                    // content, so keep the raw fragment characters outside the buffer...
+                    char[] entityCharacters = new char[length];
+                    System.arraycopy(characters, offset, entityCharacters, 0, length);
+                    ensureTextBufferCapacity(1);
+                    if(length > 0) {
+                        textBuffer[textBufferLength++] = entityCharacters[0];
+                    }
+                    return new SAXText(entityCharacters, 0, length, type);
+                }
+            default:
+                return appendToTextBuffer(null, characters, offset, length, null, type);
         }
+    }
 
-        return accumulatedText;
+    private SAXText appendToTextBuffer(String prefix, char[] characters, int offset, int length, String suffix, TextType type) {
+        int prefixLength = (prefix != null ? prefix.length() : 0);
+        int suffixLength = (suffix != null ? suffix.length() : 0);
+
+        ensureTextBufferCapacity(prefixLength + length + suffixLength);
+        if(prefix != null) {
+            prefix.getChars(0, prefixLength, textBuffer, textBufferLength);
+            textBufferLength += prefixLength;
+        }
+        int sliceOffset = textBufferLength;
+        System.arraycopy(characters, offset, textBuffer, textBufferLength, length);
+        textBufferLength += length;
+        if(suffix != null) {
+            suffix.getChars(0, suffixLength, textBuffer, textBufferLength);
+            textBufferLength += suffixLength;
+        }
+
+        return new SAXText(textBuffer, sliceOffset, length, type);
+    }
+
+    private void ensureTextBufferCapacity(int length) {
+        int requiredCapacity = textBufferLength + length;
+
+        if(textBuffer == NO_TEXT) {
+            textBuffer = new char[Math.max(requiredCapacity, 64)];
+        } else if(requiredCapacity > textBuffer.length) {
+            // Slices of the old buffer stay valid because the old buffer is never written to again...
+            char[] newTextBuffer = new char[Math.max(requiredCapacity, textBuffer.length * 2)];
+            System.arraycopy(textBuffer, 0, newTextBuffer, 0, textBufferLength);
+            textBuffer = newTextBuffer;
+        }
     }
 
     /**
@@ -368,7 +576,7 @@ public class SAXElement {
      * @return Element attributes.
      */
     public Attributes getAttributes() {
-        return attributes;
+        return attributes();
     }
 
     /**
@@ -379,6 +587,7 @@ public class SAXElement {
     public void setAttributes(Attributes attributes) {
         AssertArgument.isNotNull(attributes, "attributes");
         this.attributes = copyAttributes(attributes);
+        this.parserAttributes = null;
     }
 
     /**
@@ -387,7 +596,7 @@ public class SAXElement {
      * @return The attribute value, or an empty string if the attribute is not specified.
      */
     public String getAttribute(String attribute) {
-        return SAXUtil.getAttribute(attribute, attributes);
+        return SAXUtil.getAttribute(attribute, attributes());
     }
 
     /**
@@ -397,7 +606,7 @@ public class SAXElement {
      * @return The attribute value, or an empty string if the attribute is not specified.
      */
     public String getAttributeNS(String namespaceURI, String attribute) {
-        return SAXUtil.getAttribute(namespaceURI, attribute, attributes, "");
+        return SAXUtil.getAttribute(namespaceURI, attribute, attributes(), "");
     }
 
     /**
@@ -418,6 +627,7 @@ public class SAXElement {
     public void setAttributeNS(String namespaceURI, String name, String value) {
         removeAttributeNS(namespaceURI, name);
 
+        AttributesImpl attributes = attributes();
         int prefixIndex = name.indexOf(":");
         if(prefixIndex != -1) {
             attributes.addAttribute(namespaceURI, name.substring(prefixIndex + 1), name, "CDATA", value);
@@ -440,6 +650,7 @@ public class SAXElement {
      * @param name The attribute name.
      */
     public void removeAttributeNS(String namespaceURI, String name) {
+        AttributesImpl attributes = attributes();
         int attribCount = attributes.getLength();
         for(int i = 0; i < attribCount; i++) {
             if(namespaceURI.equals(attributes.getURI(i))) {
@@ -540,6 +751,7 @@ public class SAXElement {
             element = document.createElement(name.getLocalPart());
         }
 
+        AttributesImpl attributes = attributes();
         int attributeCount = attributes.getLength();
         for(int i = 0; i < attributeCount; i++) {
             String namespace = attributes.getURI(i);
@@ -565,4 +777,39 @@ public class SAXElement {
 
         return element;
     }
+
+    private class TextList extends ArrayList<SAXText> {
+
+        /**
+         * The list modCount after the last append.  Any other modification to the list means the
+         * text buffer no longer mirrors the list content.
+         */
+        private int appendModCount;
+
+        private void reset() {
+            appendModCount = modCount;
+        }
+
+        private boolean isContiguous() {
+            return appendModCount == modCount;
+        }
+
+        public boolean add(SAXText saxText) {
+            // Clear the accumulatedText object so as any subsequent calls to the
+            // getTextContent method will recreate the text from scratch...
+            accumulatedText = null;
+            if(isContiguous()) {
+                boolean added = super.add(appendToTextBuffer(saxText));
+                appendModCount = modCount;
+                return added;
+            }
+            return super.add((SAXText) saxText.clone());
+        }
+
+        public SAXText set(int index, SAXText saxText) {
+            accumulatedText = null;
+            appendModCount = -1;
+            return super.set(index, saxText);
+        }
+    }
 }
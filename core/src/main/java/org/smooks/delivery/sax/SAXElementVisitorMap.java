@@ -45,6 +45,7 @@ package org.smooks.delivery.sax;
 import org.smooks.cdr.SmooksResourceConfiguration;
 import org.smooks.cdr.xpath.SelectorStep;
 import org.smooks.delivery.ContentHandlerConfigMap;
+import org.smooks.delivery.ContentHandlerConfigMapTable;
 import org.smooks.delivery.VisitLifecycleCleanable;
 import org.smooks.delivery.sax.annotation.StreamResultWriter;
 import org.smooks.delivery.sax.annotation.TextConsumer;
@@ -56,6 +57,9 @@ import java.util.List;
 
 /**
  * SAXElement visitor Map.
+ * <p/>
+ * Once {@link #freeze() frozen}, the visitor lists are immutable and are also available as arrays,
+ * for iterating on every element without locking or iterator allocation.
  * 
  * @author <a href="mailto:tom.fennelly@gmail.com">tom.fennelly@gmail.com</a>
  */
@@ -67,12 +71,19 @@ public class SAXElementVisitorMap {
     private List<ContentHandlerConfigMap<VisitLifecycleCleanable>> visitCleanables;
     private boolean accumulateText = false;
     private SAXVisitor acquireWriterFor = null;
+    private boolean frozen = false;
+    private ContentHandlerConfigMap<SAXVisitBefore>[] visitBeforeArray;
+    private ContentHandlerConfigMap<SAXVisitChildren>[] childVisitorArray;
+    private ContentHandlerConfigMap<SAXVisitAfter>[] visitAfterArray;
+    private ContentHandlerConfigMap<SAXVisitAfter>[] reverseVisitAfterArray;
+    private ContentHandlerConfigMap<VisitLifecycleCleanable>[] visitCleanableArray;
 
     public List<ContentHandlerConfigMap<SAXVisitBefore>> getVisitBefores() {
         return visitBefores;
     }
 
     public void setVisitBefores(List<ContentHandlerConfigMap<SAXVisitBefore>> visitBefores) {
+        assertNotFrozen();
         this.visitBefores = visitBefores;
     }
 
@@ -81,6 +92,7 @@ public class SAXElementVisitorMap {
     }
 
     public void setChildVisitors(List<ContentHandlerConfigMap<SAXVisitChildren>> childVisitors) {
+        assertNotFrozen();
         this.childVisitors = childVisitors;
     }
 
@@ -89,6 +101,7 @@ public class SAXElementVisitorMap {
     }
 
     public void setVisitAfters(List<ContentHandlerConfigMap<SAXVisitAfter>> visitAfters) {
+        assertNotFrozen();
         this.visitAfters = visitAfters;
     }
 
@@ -97,6 +110,7 @@ public class SAXElementVisitorMap {
     }
 
     public void setVisitCleanables(List<ContentHandlerConfigMap<VisitLifecycleCleanable>> visitCleanables) {
+        assertNotFrozen();
         this.visitCleanables = visitCleanables;
     }
 
@@ -178,6 +192,90 @@ public class SAXElementVisitorMap {
         return merge;
     }
 
+    /**
+     * Freeze this visitor map.
+     * <p/>
+     * Replaces the visitor lists with immutable lists and creates the visitor arrays, including
+     * the reversed visitAfter array.  The map can't be modified after it has been frozen.
+     */
+    public void freeze() {
+        if(frozen) {
+            return;
+        }
+
+        visitBefores = ContentHandlerConfigMapTable.toFrozenList(visitBefores);
+        childVisitors = ContentHandlerConfigMapTable.toFrozenList(childVisitors);
+        visitAfters = ContentHandlerConfigMapTable.toFrozenList(visitAfters);
+        visitCleanables = ContentHandlerConfigMapTable.toFrozenList(visitCleanables);
+
+        visitBeforeArray = (visitBefores != null ? ContentHandlerConfigMapTable.toArray(visitBefores) : null);
+        childVisitorArray = (childVisitors != null ? ContentHandlerConfigMapTable.toArray(childVisitors) : null);
+        visitCleanableArray = (visitCleanables != null ? ContentHandlerConfigMapTable.toArray(visitCleanables) : null);
+        if(visitAfters != null) {
+            visitAfterArray = ContentHandlerConfigMapTable.toArray(visitAfters);
+            reverseVisitAfterArray = ContentHandlerConfigMapTable.toArray(visitAfters);
+            for(int i = 0, j = reverseVisitAfterArray.length - 1; i < j; i++, j--) {
+                ContentHandlerConfigMap<SAXVisitAfter> mapping = reverseVisitAfterArray[i];
+                reverseVisitAfterArray[i] = reverseVisitAfterArray[j];
+                reverseVisitAfterArray[j] = mapping;
+            }
+        }
+
+        frozen = true;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Does this map have no effect on the element it's applied to, i.e. no visitors and no
+     * writer acquisition?
+     * @return True if the map has no effect, otherwise false.
+     */
+    boolean isEmpty() {
+        return !hasVisitors() && acquireWriterFor == null;
+    }
+
+    /**
+     * Does this map have any visitors?
+     * @return True if the map has visitors, otherwise false.
+     */
+    boolean hasVisitors() {
+        return !(isEmpty(visitBefores) && isEmpty(childVisitors) && isEmpty(visitAfters) && isEmpty(visitCleanables));
+    }
+
+    private static boolean isEmpty(List<?> mappings) {
+        return (mappings == null || mappings.isEmpty());
+    }
+
+    ContentHandlerConfigMap<SAXVisitBefore>[] getVisitBeforeArray() {
+        return visitBeforeArray;
+    }
+
+    ContentHandlerConfigMap<SAXVisitChildren>[] getChildVisitorArray() {
+        return childVisitorArray;
+    }
+
+    /**
+     * Get the visitAfter array.
+     * @param reverse True if the array is to be in reverse visit order.
+     * @return The visitAfter array.
+     */
+    ContentHandlerConfigMap<SAXVisitAfter>[] getVisitAfterArray(boolean reverse) {
+        return (reverse ? reverseVisitAfterArray : visitAfterArray);
+    }
+
+    ContentHandlerConfigMap<VisitLifecycleCleanable>[] getVisitCleanableArray() {
+        return visitCleanableArray;
+    }
+
+    private void assertNotFrozen() {
+        if(frozen) {
+            throw new IllegalStateException("Illegal attempt to modify a frozen SAXElementVisitorMap.");
+        }
+    }
+
 	private <T extends SAXVisitor> T getAnnotatedHandler(List<ContentHandlerConfigMap<T>> handlerMaps, Class<? extends Annotation> annotationClass, boolean checkFields) {
 		if(handlerMaps == null) {
 			return null;
@@ -42,6 +42,7 @@
  */
 package org.smooks.delivery.sax;
 
+import org.smooks.io.MarkupWriter;
 import org.smooks.xml.HTMLEntityLookup;
 import org.smooks.xml.XmlUtil;
 import org.xml.sax.Attributes;
@@ -74,17 +75,20 @@ public class SAXElementWriterUtil {
 
     public static void writeEndElement(SAXElement element, Writer writer) throws IOException {
         if(writer != null) {
-            QName name = element.getName();
-            String prefix = name.getPrefix();
+            writeEndElement(element.getName(), writer);
+        }
+    }
 
-            writer.write("</");
-            if(prefix != null && !prefix.equals(XMLConstants.NULL_NS_URI)) {
-                writer.write(prefix);
-                writer.write(':');
-            }
-            writer.write(name.getLocalPart());
-            writer.write('>');
+    static void writeEndElement(QName name, Writer writer) throws IOException {
+        String prefix = name.getPrefix();
+
+        writer.write("</");
+        if(prefix != null && !prefix.equals(XMLConstants.NULL_NS_URI)) {
+            writer.write(prefix);
+            writer.write(':');
         }
+        writer.write(name.getLocalPart());
+        writer.write('>');
     }
 
     public static void writeText(String text, TextType textType, Writer writer) throws IOException {
@@ -138,7 +142,10 @@ public class SAXElementWriterUtil {
     }
 
     private static void writeUnclosedElement(SAXElement element, Writer writer, boolean encodeSpecialChars) throws IOException {
-        QName name = element.getName();
+        writeUnclosedElement(element.getName(), element.getAttributes(), writer, encodeSpecialChars);
+    }
+
+    static void writeUnclosedElement(QName name, Attributes attributes, Writer writer, boolean encodeSpecialChars) throws IOException {
         String prefix = name.getPrefix();
 
         writer.write('<');
@@ -147,7 +154,7 @@ public class SAXElementWriterUtil {
             writer.write(':');
         }
         writer.write(name.getLocalPart());
-        writeAttributes(element.getAttributes(), writer, encodeSpecialChars);
+        writeAttributes(attributes, writer, encodeSpecialChars);
     }
 
     private static void writeAttributes(Attributes attributes, Writer writer, boolean encodeSpecialChars) throws IOException {
@@ -166,7 +173,11 @@ public class SAXElementWriterUtil {
                 }
                 if(encodeSpecialChars) {
                     writer.write("=\"");
-                    XmlUtil.encodeAttributeValue(attValue.toCharArray(), 0, attValue.length(), writer);
+                    if(writer instanceof MarkupWriter) {
+                        ((MarkupWriter) writer).writeEscapedAttribute(attValue);
+                    } else {
+                        XmlUtil.encodeAttributeValue(attValue.toCharArray(), 0, attValue.length(), writer);
+                    }
                     writer.write('\"');
                 } else {
                     if(attValue.indexOf('"') != -1) {
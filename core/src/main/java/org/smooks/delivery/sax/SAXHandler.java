@@ -57,14 +57,17 @@ import org.smooks.event.report.AbstractReportGenerator;
 import org.smooks.event.types.ElementPresentEvent;
 import org.smooks.event.types.ElementVisitEvent;
 import org.smooks.event.types.ResourceTargetingEvent;
+import org.smooks.io.MarkupWriter;
 import org.smooks.io.NullWriter;
 import org.smooks.xml.DocType;
 import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
 
 import javax.xml.namespace.QName;
 import java.io.IOException;
 import java.io.Writer;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -85,11 +88,30 @@ public class SAXHandler extends SmooksContentHandler {
     private final SAXContentDeliveryConfig deliveryConfig;
     private final Map<String, SAXElementVisitorMap> visitorConfigMap;
     private final SAXElementVisitorMap globalVisitorConfig;
+    private final SelectorAutomaton selectorAutomaton;
+    private final QNameTable qNameTable;
     private final boolean rewriteEntities;
     private boolean defaultSerializationOn;
     private final boolean maintainElementStack;
     private final boolean reverseVisitOrderOnVisitAfter;
     private final boolean terminateOnVisitorException;
+    private final boolean recycleElements;
+    private final boolean passThroughUntargeted;
+    private int elementDepth = 0;
+    /**
+     * Depth within the untargeted subtree being passed through (see {@link #startPassThrough}),
+     * or 0 if no subtree is being passed through.
+     */
+    private int passThroughDepth = 0;
+    private QName[] passThroughNames;
+    private AttributesImpl[] passThroughAttributes;
+    private SAXElementVisitorMap[] passThroughVisitorConfigs;
+    private boolean passThroughStartPending;
+    private Writer passThroughWriter;
+    private Writer lastWriter;
+    private SelectorAutomaton.State passThroughState;
+    private ElementProcessor[] processorPool;
+    private WriterManagedSAXElement[] elementPool;
     private final DefaultSAXElementSerializer defaultSerializer = new DefaultSAXElementSerializer();
     private static final ContentHandlerConfigMap defaultSerializerMapping;
     private final ExecutionEventListener eventListener;
@@ -117,16 +139,11 @@ public class SAXHandler extends SmooksContentHandler {
 
         deliveryConfig = ((SAXContentDeliveryConfig)executionContext.getDeliveryConfig());
         visitorConfigMap = deliveryConfig.getOptimizedVisitorConfig();
+        selectorAutomaton = deliveryConfig.getSelectorAutomaton();
+        qNameTable = deliveryConfig.getQNameTable();
 
         SAXContentDeliveryConfig contentDeliveryConfig = (SAXContentDeliveryConfig) executionContext.getDeliveryConfig();
-        SAXElementVisitorMap starVisitorConfigs = visitorConfigMap.get("*");
-        SAXElementVisitorMap starStarVisitorConfigs = visitorConfigMap.get("**");
-
-        if(starVisitorConfigs != null) {
-            globalVisitorConfig = starVisitorConfigs.merge(starStarVisitorConfigs);
-        } else {
-            globalVisitorConfig = starStarVisitorConfigs;
-        }
+        globalVisitorConfig = contentDeliveryConfig.getGlobalVisitorConfig();
 
         rewriteEntities = contentDeliveryConfig.isRewriteEntities();
         defaultSerializer.setRewriteEntities(Optional.of(rewriteEntities));
@@ -145,10 +162,26 @@ public class SAXHandler extends SmooksContentHandler {
             terminateOnVisitorException = false;
         }
 
+        // Element recycling is not compatible with event listeners, which can hold on to the elements
+        // passed in the events (e.g. the HTML report generator)...
+        recycleElements = (contentDeliveryConfig.isRecycleElements() && eventListener == null);
+        if(recycleElements) {
+            processorPool = new ElementProcessor[16];
+            elementPool = new WriterManagedSAXElement[16];
+        }
+
         dynamicVisitorList = DynamicSAXElementVisitorList.getList(executionContext);
         if(dynamicVisitorList == null) {
             dynamicVisitorList = new DynamicSAXElementVisitorList(executionContext);
         }
+
+        // Passing subtrees through bypasses the element events, so it's off if anything listens to them...
+        passThroughUntargeted = (deliveryConfig.isPassThroughUntargeted() && defaultSerializationOn && maintainElementStack && eventListener == null);
+        if(passThroughUntargeted) {
+            passThroughNames = new QName[16];
+            passThroughAttributes = new AttributesImpl[16];
+            passThroughVisitorConfigs = new SAXElementVisitorMap[16];
+        }
     }
 
     public void cleanup() {
@@ -159,41 +192,60 @@ public class SAXHandler extends SmooksContentHandler {
         WriterManagedSAXElement element;
         boolean isRoot = (currentProcessor == null);
         SAXElementVisitorMap elementVisitorConfig;
+        SelectorAutomaton.State selectorState = null;
         QName elementQName;
         String elementName;
 
-        elementQName = SAXUtil.toQName(startEvent.uri, startEvent.localName, startEvent.qName);
+        if(passThroughDepth > 0 && passThroughStartElement(startEvent)) {
+            return;
+        }
+
+        elementQName = qNameTable.toQName(startEvent.uri, startEvent.localName, startEvent.qName);
         elementName = elementQName != null ? elementQName.getLocalPart() : null;
 
-        if(isRoot) {
-            elementVisitorConfig = deliveryConfig.getCombinedOptimizedConfig(new String[] {SmooksResourceConfiguration.DOCUMENT_FRAGMENT_SELECTOR, elementName});
+        if(selectorAutomaton != null) {
+            // The automaton gives us the element visitors, less the ones whose selector context does not match...
+            SelectorAutomaton.Transition transition = (isRoot ? selectorAutomaton.getDocumentState() : currentProcessor.selectorState).next(elementQName);
+
+            selectorState = transition.getState();
+            elementVisitorConfig = transition.getVisitorConfig();
         } else {
-            elementVisitorConfig = visitorConfigMap.get(elementName);
+            if(isRoot) {
+                elementVisitorConfig = deliveryConfig.getCombinedOptimizedConfig(new String[] {SmooksResourceConfiguration.DOCUMENT_FRAGMENT_SELECTOR, elementName});
+            } else {
+                elementVisitorConfig = visitorConfigMap.get(elementName);
+            }
+
+            if(elementVisitorConfig == null) {
+                elementVisitorConfig = globalVisitorConfig;
+            }
         }
 
-        if(elementVisitorConfig == null) {
-            elementVisitorConfig = globalVisitorConfig;
+        if(passThroughUntargeted && !isRoot && isUntargetedSubtree(elementVisitorConfig, selectorState)) {
+            startPassThrough(elementQName, startEvent.atts, elementVisitorConfig, selectorState);
+            return;
         }
 
         if(!maintainElementStack && elementVisitorConfig == null) {
-            ElementProcessor processor = new ElementProcessor();
+            ElementProcessor processor = newProcessor();
 
             processor.isNullProcessor = true;
             processor.parentProcessor = currentProcessor;
+            processor.selectorState = selectorState;
             currentProcessor = processor;
             // Register the "presence" of the element...
             if(eventListener != null) {
-                eventListener.onEvent(new ElementPresentEvent(new WriterManagedSAXElement(elementQName, startEvent.atts, currentProcessor.element)));
+                eventListener.onEvent(new ElementPresentEvent(newElement(elementQName, startEvent.atts, currentProcessor.element)));
             }
         } else {
             if(!isRoot) {
                 // Push the existing "current" processor onto the stack and create a new current
                 // based on this start event...
-                element = new WriterManagedSAXElement(elementQName, startEvent.atts, currentProcessor.element);
+                element = newElement(elementQName, startEvent.atts, currentProcessor.element);
                 element.setWriter(getWriter());
                 onChildElement(element);
             } else {
-                element = new WriterManagedSAXElement(elementQName, startEvent.atts, null);
+                element = newElement(elementQName, startEvent.atts, null);
                 element.setWriter(writer);
             }
 
@@ -202,7 +254,266 @@ public class SAXHandler extends SmooksContentHandler {
                 eventListener.onEvent(new ElementPresentEvent(element));
             }
 
-            visitBefore(element, elementVisitorConfig);
+            visitBefore(element, elementVisitorConfig, selectorState);
+
+            if(recycleElements) {
+                // The parser may reuse the attributes instance once this event returns...
+                element.detachAttributes();
+            }
+        }
+    }
+
+    private ElementProcessor newProcessor() {
+        elementDepth++;
+        if(!recycleElements) {
+            return new ElementProcessor();
+        }
+
+        if(elementDepth > processorPool.length) {
+            processorPool = Arrays.copyOf(processorPool, processorPool.length * 2);
+        }
+
+        ElementProcessor processor = processorPool[elementDepth - 1];
+        if(processor == null) {
+            processor = new ElementProcessor();
+            processorPool[elementDepth - 1] = processor;
+        } else {
+            processor.isNullProcessor = false;
+        }
+
+        return processor;
+    }
+
+    private WriterManagedSAXElement newElement(QName elementQName, Attributes attributes, SAXElement parent) {
+        if(!recycleElements) {
+            return new WriterManagedSAXElement(elementQName, attributes, parent);
+        }
+
+        // The element's processor has not been created yet, so the element lives at the next depth...
+        if(elementDepth >= elementPool.length) {
+            elementPool = Arrays.copyOf(elementPool, elementPool.length * 2);
+        }
+
+        WriterManagedSAXElement element = elementPool[elementDepth];
+        if(element == null) {
+            element = new WriterManagedSAXElement(elementQName, attributes, parent);
+            elementPool[elementDepth] = element;
+        } else {
+            element.recycle(elementQName, attributes, parent);
+        }
+
+        return element;
+    }
+
+    /**
+     * Can the subtree of the element being started be passed straight through to the output?
+     * <p/>
+     * True if the element has no visitors of its own, no visitor can target anything in its subtree
+     * (the selector automaton is in a dead state, and the config only has rooted selectors), and
+     * nothing on the parent element needs to see the element.
+     */
+    private boolean isUntargetedSubtree(SAXElementVisitorMap elementVisitorConfig, SelectorAutomaton.State selectorState) {
+        if(elementVisitorConfig != null && !elementVisitorConfig.isEmpty()) {
+            return false;
+        }
+        if(selectorState != null && !selectorState.isDead()) {
+            return false;
+        }
+        if(currentProcessor.isNullProcessor || currentProcessor.element == null) {
+            return false;
+        }
+        if(currentProcessor.elementVisitorConfig != null) {
+            ContentHandlerConfigMap<SAXVisitChildren>[] visitChildMappings = currentProcessor.elementVisitorConfig.getChildVisitorArray();
+            if(visitChildMappings != null && visitChildMappings.length > 0) {
+                return false;
+            }
+        }
+
+        return (dynamicVisitorList.getVisitBefores().isEmpty() && dynamicVisitorList.getChildVisitors().isEmpty() && dynamicVisitorList.getVisitAfters().isEmpty());
+    }
+
+    /**
+     * Start passing an untargeted subtree through to the output.
+     * <p/>
+     * No {@link SAXElement} instances are created and no visitors are applied in the subtree.  The start
+     * and end tags and the text are written from the parser events exactly as the {@link DefaultSAXElementSerializer}
+     * would write them: the start tag is left open until the first child event, so that childless elements
+     * are written as empty elements.  Only the element names and attributes are kept, in case an element in
+     * the subtree turns out to be targeted by a non contextual selector (see {@link #exitPassThrough()}).
+     */
+    private void startPassThrough(QName elementQName, Attributes attributes, SAXElementVisitorMap elementVisitorConfig, SelectorAutomaton.State selectorState) {
+        // The parent's start tag is written before its first child...
+        if(applyDefaultSerialization()) {
+            try {
+                defaultSerializer.onChildElement(currentProcessor.element, null, execContext);
+            } catch (IOException e) {
+                throw new SmooksException("Unexpected exception applying defaultSerializer.", e);
+            }
+        }
+
+        passThroughWriter = getWriter();
+        passThroughState = selectorState;
+        pushPassThroughElement(elementQName, attributes, elementVisitorConfig);
+    }
+
+    /**
+     * Pass a start element event in an untargeted subtree through to the output.
+     * @return True if the event was passed through, or false if the element is targeted, in which case the
+     * subtree is no longer being passed through and the event must be processed as usual.
+     */
+    private boolean passThroughStartElement(StartElementEvent startEvent) {
+        QName elementQName = qNameTable.toQName(startEvent.uri, startEvent.localName, startEvent.qName);
+        SAXElementVisitorMap visitorConfig;
+
+        // Contextual selectors can't match in the subtree, but non contextual selectors can...
+        if(passThroughState != null) {
+            visitorConfig = passThroughState.next(elementQName).getVisitorConfig();
+        } else {
+            visitorConfig = visitorConfigMap.get(elementQName.getLocalPart());
+        }
+
+        if(visitorConfig != null && visitorConfig.hasVisitors()) {
+            exitPassThrough();
+            return false;
+        }
+
+        pushPassThroughElement(elementQName, startEvent.atts, visitorConfig);
+        return true;
+    }
+
+    private void pushPassThroughElement(QName elementQName, Attributes attributes, SAXElementVisitorMap visitorConfig) {
+        try {
+            closePassThroughStart();
+        } catch (IOException e) {
+            throw new SmooksException("Unexpected exception applying defaultSerializer.", e);
+        }
+
+        passThroughDepth++;
+        if(passThroughDepth == passThroughNames.length) {
+            passThroughNames = Arrays.copyOf(passThroughNames, passThroughDepth * 2);
+            passThroughAttributes = Arrays.copyOf(passThroughAttributes, passThroughDepth * 2);
+            passThroughVisitorConfigs = Arrays.copyOf(passThroughVisitorConfigs, passThroughDepth * 2);
+        }
+        if(passThroughAttributes[passThroughDepth] == null) {
+            passThroughAttributes[passThroughDepth] = new AttributesImpl();
+        }
+        passThroughNames[passThroughDepth] = elementQName;
+        passThroughAttributes[passThroughDepth].setAttributes(attributes);
+        passThroughVisitorConfigs[passThroughDepth] = visitorConfig;
+
+        // Elements whose config acquires the element writer (without applying any visitors) are not
+        // serialized by the default serializer...
+        if(isPassThroughSerialized(passThroughDepth)) {
+            try {
+                if(passThroughWriter != null) {
+                    SAXElementWriterUtil.writeUnclosedElement(elementQName, attributes, passThroughWriter, rewriteEntities);
+                }
+            } catch (IOException e) {
+                throw new SmooksException("Unexpected exception applying defaultSerializer.", e);
+            }
+            passThroughStartPending = true;
+        }
+    }
+
+    /**
+     * Stop passing the current subtree through, and create the elements (and their processors) for the
+     * passed through ancestors of the element being started, in the state they would be in had they been
+     * processed as usual: start tags written, and the element writer owned by the default serializer.
+     */
+    private void exitPassThrough() {
+        try {
+            // The innermost element's start tag is written before its first child...
+            closePassThroughStart();
+        } catch (IOException e) {
+            throw new SmooksException("Unexpected exception applying defaultSerializer.", e);
+        }
+
+        for(int depth = 1; depth <= passThroughDepth; depth++) {
+            SAXElementVisitorMap visitorConfig = passThroughVisitorConfigs[depth];
+            WriterManagedSAXElement element = newElement(passThroughNames[depth], passThroughAttributes[depth], currentProcessor.element);
+            ElementProcessor processor;
+
+            element.setWriter(passThroughWriter);
+            if(recycleElements) {
+                element.detachAttributes();
+            }
+
+            processor = newProcessor();
+            processor.parentProcessor = currentProcessor;
+            processor.element = element;
+            processor.elementVisitorConfig = visitorConfig;
+            processor.selectorState = passThroughState;
+            currentProcessor = processor;
+
+            if(visitorConfig != null && visitorConfig.acquireWriterFor() != null) {
+                element.getWriter(visitorConfig.acquireWriterFor());
+            } else {
+                try {
+                    defaultSerializer.visitBefore(element, execContext);
+                } catch (IOException e) {
+                    throw new SmooksException("Unexpected exception applying defaultSerializer.", e);
+                }
+                // The start tag has already been passed through...
+                element.setCache(defaultSerializer, true);
+            }
+
+            passThroughVisitorConfigs[depth] = null;
+        }
+
+        passThroughDepth = 0;
+        passThroughWriter = null;
+        passThroughState = null;
+    }
+
+    private boolean isPassThroughSerialized(int depth) {
+        SAXElementVisitorMap visitorConfig = passThroughVisitorConfigs[depth];
+        return (visitorConfig == null || visitorConfig.acquireWriterFor() == null);
+    }
+
+    private void passThroughEndElement(EndElementEvent endEvent) {
+        try {
+            if(isPassThroughSerialized(passThroughDepth) && passThroughWriter != null) {
+                if(passThroughStartPending) {
+                    passThroughWriter.write(" />");
+                } else {
+                    SAXElementWriterUtil.writeEndElement(qNameTable.toQName(endEvent.uri, endEvent.localName, endEvent.qName), passThroughWriter);
+                }
+            }
+        } catch (IOException e) {
+            throw new SmooksException("Unexpected exception applying defaultSerializer.", e);
+        }
+
+        passThroughStartPending = false;
+        passThroughVisitorConfigs[passThroughDepth] = null;
+        passThroughDepth--;
+        if(passThroughDepth == 0) {
+            if(passThroughWriter != null) {
+                writerUsed(passThroughWriter);
+            }
+            passThroughWriter = null;
+            passThroughState = null;
+        }
+    }
+
+    private void passThroughText(SAXText text) {
+        if(isPassThroughSerialized(passThroughDepth)) {
+            try {
+                closePassThroughStart();
+                if(passThroughWriter != null) {
+                    text.toWriter(passThroughWriter, rewriteEntities);
+                }
+            } catch (IOException e) {
+                throw new SmooksException("Unexpected exception applying defaultSerializer.", e);
+            }
+        }
+    }
+
+    private void closePassThroughStart() throws IOException {
+        if(passThroughStartPending) {
+            if(passThroughWriter != null) {
+                passThroughWriter.write('>');
+            }
+            passThroughStartPending = false;
         }
     }
 
@@ -210,6 +521,11 @@ public class SAXHandler extends SmooksContentHandler {
     public void endElement(EndElementEvent endEvent) throws SAXException {
         boolean flush = false;
 
+        if(passThroughDepth > 0) {
+            passThroughEndElement(endEvent);
+            return;
+        }
+
         // Apply the dynamic visitors...
         List<SAXVisitAfter> dynamicVisitAfters = dynamicVisitorList.getVisitAfters();
         if(!dynamicVisitAfters.isEmpty()) {
@@ -224,23 +540,12 @@ public class SAXHandler extends SmooksContentHandler {
         }
 
         if(currentProcessor.elementVisitorConfig != null) {
-            List<ContentHandlerConfigMap<SAXVisitAfter>> visitAfterMappings = currentProcessor.elementVisitorConfig.getVisitAfters();
+            // The visit afters are pre-sorted into reverse order if reverseVisitOrderOnVisitAfter is on...
+            ContentHandlerConfigMap<SAXVisitAfter>[] visitAfterMappings = currentProcessor.elementVisitorConfig.getVisitAfterArray(reverseVisitOrderOnVisitAfter);
 
             if(visitAfterMappings != null) {
-                if(reverseVisitOrderOnVisitAfter) {
-                    // We work through the mappings in reverse order on the end element event...
-                    int mappingCount = visitAfterMappings.size();
-                    ContentHandlerConfigMap<SAXVisitAfter> mapping;
-
-                    for(int i = mappingCount - 1; i >= 0; i--) {
-                        mapping = visitAfterMappings.get(i);
-                        visitAfter(mapping);
-                    }
-                } else {
-                    for (final ContentHandlerConfigMap<SAXVisitAfter> visitAfterMapping : visitAfterMappings)
-                    {
-                        visitAfter(visitAfterMapping);
-                    }
+                for (int i = 0; i < visitAfterMappings.length; i++) {
+                    visitAfter(visitAfterMappings[i]);
                 }
             }
             flush = true;
@@ -250,7 +555,7 @@ public class SAXHandler extends SmooksContentHandler {
             try {
                 defaultSerializer.visitAfter(currentProcessor.element, execContext);
                 if(eventListener != null) {
-                    eventListener.onEvent(new ElementVisitEvent(currentProcessor.element, defaultSerializerMapping, VisitSequence.AFTER));
+                    eventListener.onEvent(new ElementVisitEvent(currentProcessor.element, defaultSerializerMapping, VisitSequence.AFTER, execContext));
                 }
             } catch (IOException e) {
                 throw new SmooksException("Unexpected exception applying defaultSerializer.", e);
@@ -259,18 +564,22 @@ public class SAXHandler extends SmooksContentHandler {
         }
 
         if(flush) {
-            flushCurrentWriter();
+            Writer writer = getWriter();
+            if(writer != null) {
+                writerUsed(writer);
+            }
         }
 
         // Process cleanables after applying all the visit afters...
         if(currentProcessor.elementVisitorConfig != null) {
-            List<ContentHandlerConfigMap<VisitLifecycleCleanable>> visitCleanables = currentProcessor.elementVisitorConfig.getVisitCleanables();
+            ContentHandlerConfigMap<VisitLifecycleCleanable>[] visitCleanables = currentProcessor.elementVisitorConfig.getVisitCleanableArray();
 
             if(visitCleanables != null) {
-                for (final ContentHandlerConfigMap<VisitLifecycleCleanable> visitCleanable : visitCleanables)
+                for (int i = 0; i < visitCleanables.length; i++)
                 {
+                    final ContentHandlerConfigMap<VisitLifecycleCleanable> visitCleanable = visitCleanables[i];
                     final boolean targetedAtElement
-                        = visitCleanable.getResourceConfig().isTargetedAtElement(currentProcessor.element, execContext);
+                        = isTargetedAtElement(visitCleanable);
 
                     if (targetedAtElement)
                     {
@@ -281,10 +590,18 @@ public class SAXHandler extends SmooksContentHandler {
         }
 
         ElementProcessor parentProcessor = currentProcessor.parentProcessor;
+        elementDepth--;
         currentProcessor.element = null;
         currentProcessor.elementVisitorConfig = null;
+        currentProcessor.selectorState = null;
         currentProcessor.parentProcessor = null;
         currentProcessor = parentProcessor;
+
+        if(currentProcessor == null && lastWriter != null) {
+            // End of the document...
+            flush(lastWriter);
+            lastWriter = null;
+        }
     }
 
     private Writer getWriter() {
@@ -303,19 +620,20 @@ public class SAXHandler extends SmooksContentHandler {
         return null;
     }
 
-    private void visitBefore(WriterManagedSAXElement element, SAXElementVisitorMap elementVisitorConfig) {
+    private void visitBefore(WriterManagedSAXElement element, SAXElementVisitorMap elementVisitorConfig, SelectorAutomaton.State selectorState) {
 
         // Now create the new "current" processor...
-        ElementProcessor processor = new ElementProcessor();
+        ElementProcessor processor = newProcessor();
 
         processor.parentProcessor = currentProcessor;
         processor.element = element;
         processor.elementVisitorConfig = elementVisitorConfig;
+        processor.selectorState = selectorState;
 
         currentProcessor = processor;
         if(currentProcessor.elementVisitorConfig != null) {
             // And visit it with the targeted visitor...
-            List<ContentHandlerConfigMap<SAXVisitBefore>> visitBeforeMappings = currentProcessor.elementVisitorConfig.getVisitBefores();
+            ContentHandlerConfigMap<SAXVisitBefore>[] visitBeforeMappings = currentProcessor.elementVisitorConfig.getVisitBeforeArray();
 
             if(elementVisitorConfig.accumulateText()) {
                 currentProcessor.element.accumulateText();
@@ -326,18 +644,19 @@ public class SAXHandler extends SmooksContentHandler {
             }
 
             if(visitBeforeMappings != null) {
-                for (final ContentHandlerConfigMap<SAXVisitBefore> mapping : visitBeforeMappings)
+                for (int i = 0; i < visitBeforeMappings.length; i++)
                 {
+                    final ContentHandlerConfigMap<SAXVisitBefore> mapping = visitBeforeMappings[i];
                     try
                     {
-                        if (mapping.getResourceConfig().isTargetedAtElement(currentProcessor.element, execContext))
+                        if (isTargetedAtElement(mapping))
                         {
                             mapping.getContentHandler().visitBefore(currentProcessor.element, execContext);
                             // Register the targeting event.  No need to register this event again on the visitAfter...
                             if (eventListener != null)
                             {
                                 eventListener.onEvent(new ResourceTargetingEvent(element, mapping.getResourceConfig(), VisitSequence.BEFORE));
-                                eventListener.onEvent(new ElementVisitEvent(element, mapping, VisitSequence.BEFORE));
+                                eventListener.onEvent(new ElementVisitEvent(element, mapping, VisitSequence.BEFORE, execContext));
                             }
                         }
                     }
@@ -354,7 +673,7 @@ public class SAXHandler extends SmooksContentHandler {
             try {
                 defaultSerializer.visitBefore(currentProcessor.element, execContext);
                 if(eventListener != null) {
-                    eventListener.onEvent(new ElementVisitEvent(element, defaultSerializerMapping, VisitSequence.BEFORE));
+                    eventListener.onEvent(new ElementVisitEvent(element, defaultSerializerMapping, VisitSequence.BEFORE, execContext));
                 }
             } catch (IOException e) {
                 throw new SmooksException("Unexpected exception applying defaultSerializer.", e);
@@ -377,12 +696,13 @@ public class SAXHandler extends SmooksContentHandler {
 
     private void onChildElement(SAXElement childElement) {
         if(currentProcessor.elementVisitorConfig != null) {
-            List<ContentHandlerConfigMap<SAXVisitChildren>> visitChildMappings = currentProcessor.elementVisitorConfig.getChildVisitors();
+            ContentHandlerConfigMap<SAXVisitChildren>[] visitChildMappings = currentProcessor.elementVisitorConfig.getChildVisitorArray();
 
             if(visitChildMappings != null) {
-                for (final ContentHandlerConfigMap<SAXVisitChildren> mapping : visitChildMappings)
+                for (int i = 0; i < visitChildMappings.length; i++)
                 {
-                    if (mapping.getResourceConfig().isTargetedAtElement(currentProcessor.element, execContext))
+                    final ContentHandlerConfigMap<SAXVisitChildren> mapping = visitChildMappings[i];
+                    if (isTargetedAtElement(mapping))
                     {
                         try
                         {
@@ -423,10 +743,10 @@ public class SAXHandler extends SmooksContentHandler {
     private void visitAfter(ContentHandlerConfigMap<SAXVisitAfter> afterMapping) {
 
         try {
-            if(afterMapping.getResourceConfig().isTargetedAtElement(currentProcessor.element, execContext)) {
+            if(isTargetedAtElement(afterMapping)) {
                 afterMapping.getContentHandler().visitAfter(currentProcessor.element, execContext);
                 if(eventListener != null) {
-                    eventListener.onEvent(new ElementVisitEvent(currentProcessor.element, afterMapping, VisitSequence.AFTER));
+                    eventListener.onEvent(new ElementVisitEvent(currentProcessor.element, afterMapping, VisitSequence.AFTER, execContext));
                 }
             }
         } catch(Throwable t) {
@@ -435,6 +755,12 @@ public class SAXHandler extends SmooksContentHandler {
         }
     }
 
+    private boolean isTargetedAtElement(ContentHandlerConfigMap<?> mapping) {
+        // No need to check the selector context if the automaton has already matched it...
+        boolean checkContext = !(mapping instanceof SelectorAutomaton.ContextMatchedConfigMap);
+        return mapping.getResourceConfig().isTargetedAtElement(currentProcessor.element, execContext, checkContext);
+    }
+
     private final SAXText textWrapper = new SAXText();
     @SuppressWarnings("RedundantThrows")
     public void characters(char[] ch, int start, int length) throws SAXException {
@@ -460,6 +786,11 @@ public class SAXHandler extends SmooksContentHandler {
             textWrapper.setText(ch, start, length, currentTextType);
         }
 
+        if(passThroughDepth > 0) {
+            passThroughText(textWrapper);
+            return;
+        }
+
         if(currentProcessor != null) {
             // Accumulate the text...
             if(currentProcessor.element != null) {
@@ -471,14 +802,15 @@ public class SAXHandler extends SmooksContentHandler {
 
             if(!currentProcessor.isNullProcessor) {
                 if(currentProcessor.elementVisitorConfig != null) {
-                    List<ContentHandlerConfigMap<SAXVisitChildren>> visitChildMappings = currentProcessor.elementVisitorConfig.getChildVisitors();
+                    ContentHandlerConfigMap<SAXVisitChildren>[] visitChildMappings = currentProcessor.elementVisitorConfig.getChildVisitorArray();
 
                     if(visitChildMappings != null) {
-                        for (final ContentHandlerConfigMap<SAXVisitChildren> mapping : visitChildMappings)
+                        for (int i = 0; i < visitChildMappings.length; i++)
                         {
+                            final ContentHandlerConfigMap<SAXVisitChildren> mapping = visitChildMappings[i];
                             try
                             {
-                                if (mapping.getResourceConfig().isTargetedAtElement(currentProcessor.element, execContext))
+                                if (isTargetedAtElement(mapping))
                                 {
                                     mapping.getContentHandler().onChildText(currentProcessor.element, textWrapper, execContext);
                                 }
@@ -524,14 +856,32 @@ public class SAXHandler extends SmooksContentHandler {
         return (currentProcessor.element.writerOwner == defaultSerializer || currentProcessor.element.writerOwner == null);
     }
 
-    private void flushCurrentWriter() {
-        Writer writer = getWriter();
-        if(writer != null) {
-            try {
-                writer.flush();
-            } catch (IOException e) {
-                LOGGER.debug("Error flushing writer.", e);
-            }
+    /**
+     * Output was written to the supplied writer.
+     * <p/>
+     * A {@link MarkupWriter} (i.e. the writer Smooks wraps around a {@link javax.xml.transform.stream.StreamResult}
+     * OutputStream) is not flushed after every element.  It's flushed when output moves to another writer (e.g. a
+     * visitor redirected an element's output), and at the end of the document.  Otherwise its own buffer decides
+     * when output is written.  All other writers, including those supplied by the caller, are flushed after every
+     * element.
+     */
+    private void writerUsed(Writer writer) {
+        if(lastWriter != null && lastWriter != writer) {
+            flush(lastWriter);
+            lastWriter = null;
+        }
+        if(writer instanceof MarkupWriter) {
+            lastWriter = writer;
+        } else {
+            flush(writer);
+        }
+    }
+
+    private void flush(Writer writer) {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            LOGGER.debug("Error flushing writer.", e);
         }
     }
 
@@ -594,11 +944,12 @@ public class SAXHandler extends SmooksContentHandler {
         private boolean isNullProcessor = false;
         private WriterManagedSAXElement element;
         private SAXElementVisitorMap elementVisitorConfig;
+        private SelectorAutomaton.State selectorState;
     }
 
     private void processVisitorException(SAXElement element, Throwable error, ContentHandlerConfigMap configMapping, VisitSequence visitSequence, String errorMsg) throws SmooksException {
         if (eventListener != null) {
-            eventListener.onEvent(new ElementVisitEvent(element, configMapping, visitSequence, error));
+            eventListener.onEvent(new ElementVisitEvent(element, configMapping, visitSequence, execContext, error));
         }
 
         processVisitorException(error, errorMsg);
@@ -630,6 +981,11 @@ public class SAXHandler extends SmooksContentHandler {
             super(qName, attributes, parent);
         }
 
+        void recycle(QName name, Attributes attributes, SAXElement parent) {
+            super.recycle(name, attributes, parent);
+            writerOwner = null;
+        }
+
         public Writer getWriter(SAXVisitor visitor) throws SAXWriterAccessException {
             if(writerOwner == null) {
                 writerOwner = visitor;
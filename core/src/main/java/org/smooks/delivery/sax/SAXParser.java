@@ -77,15 +77,20 @@ public class SAXParser extends AbstractParser {
         Writer writer = getWriter(result, executionContext);
         ContentDeliveryConfig deliveryConfig = executionContext.getDeliveryConfig();
         XMLReader saxReader = getXMLReader(executionContext);
+        boolean pooledReader = false;
+        boolean parsed = false;
 
         saxHandler = new SAXHandler(getExecContext(), writer);
 
         try {
             if(saxReader == null) {
-                saxReader = deliveryConfig.getXMLReader();
-            }
-            if(saxReader == null) {
-                saxReader = createXMLReader();
+                pooledReader = isXMLReaderPoolable(source);
+                if(pooledReader) {
+                    saxReader = deliveryConfig.getXMLReader();
+                }
+                if(saxReader == null) {
+                    saxReader = createXMLReader();
+                }
             }
 
             NamespaceDeclarationStack namespaceDeclarationStack = new NamespaceDeclarationStack();
@@ -103,6 +108,7 @@ public class SAXParser extends AbstractParser {
             } else {
                 saxReader.parse(createInputSource(source, Charset.defaultCharset().name()));
             }
+            parsed = true;
         } finally {
             try {
                 if(executionContext != null && saxReader instanceof HierarchyChangeReader) {
@@ -114,7 +120,10 @@ public class SAXParser extends AbstractParser {
                         try {
                             detachXMLReader(executionContext);
                         } finally {
-                            deliveryConfig.returnXMLReader(saxReader);
+                            // A reader that failed to parse may be left in an unknown state...
+                            if(pooledReader && parsed) {
+                                deliveryConfig.returnXMLReader(saxReader);
+                            }
                         }
                     }
                 } finally {
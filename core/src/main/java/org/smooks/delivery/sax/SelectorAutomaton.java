@@ -0,0 +1,405 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.delivery.sax;
+
+import org.smooks.cdr.SmooksResourceConfiguration;
+import org.smooks.cdr.xpath.SelectorStep;
+import org.smooks.cdr.xpath.evaluators.PassThruEvaluator;
+import org.smooks.cdr.xpath.evaluators.PredicatesEvaluator;
+import org.smooks.cdr.xpath.evaluators.XPathExpressionEvaluator;
+import org.smooks.delivery.ContentHandler;
+import org.smooks.delivery.ContentHandlerConfigMap;
+import org.smooks.delivery.ContentHandlerConfigMapTable;
+
+import javax.xml.namespace.QName;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Contextual selector state machine.
+ * <p/>
+ * Compiles the ancestor steps of the contextual selectors (e.g. "a/b/c[@x='1']") in a SAX
+ * configuration into a single automaton that the {@link SAXHandler} advances on every start element
+ * event.  The state reached on an element tells which contextual selectors match in the context of
+ * its child elements, so a child element gets a {@link SAXElementVisitorMap} containing only the
+ * visitors whose selector context matches, without walking the element stack for every visitor.
+ * <p/>
+ * States and transitions are built lazily (on first use, once the delivery config is
+ * {@link SAXContentDeliveryConfig#freeze() frozen}) and shared by all messages filtered with
+ * the same configuration.  Selectors containing a "**" step are not compiled and are matched in the
+ * usual way.  Selectors with predicates on ancestor steps are pre-filtered by the automaton and then
+ * fully matched in the usual way.
+ */
+class SelectorAutomaton {
+
+    /**
+     * Maximum number of states, and of transitions per state, that are cached.  Anything beyond
+     * this is computed on every use.
+     */
+    private static final int MAX_CACHED_STATES = 1024;
+    private static final int MAX_CACHED_TRANSITIONS = 1024;
+
+    private final SAXContentDeliveryConfig deliveryConfig;
+    private final Map<SmooksResourceConfiguration, CompiledSelector> compiledSelectors;
+    private final CompiledSelector[] selectors;
+    private final ConcurrentHashMap<BitSet, State> states = new ConcurrentHashMap<BitSet, State>();
+    private final State documentState;
+
+    private SelectorAutomaton(SAXContentDeliveryConfig deliveryConfig, Map<SmooksResourceConfiguration, CompiledSelector> compiledSelectors) {
+        this.deliveryConfig = deliveryConfig;
+        this.compiledSelectors = compiledSelectors;
+        this.selectors = compiledSelectors.values().toArray(new CompiledSelector[0]);
+
+        // Rooted selectors start on the document, all others start on any element.  The document
+        // fragment step ("#document/a/b") is matched by the document itself, whereas a rooted element
+        // step ("/a/b") must be matched by the root element...
+        BitSet documentPositions = new BitSet();
+        for(CompiledSelector selector : selectors) {
+            if(selector.isRooted) {
+                if(CompiledSelector.isDocumentStep(selector.contextSteps[0])) {
+                    documentPositions.set(selector.offset + 1);
+                } else {
+                    documentPositions.set(selector.offset);
+                }
+            }
+        }
+        documentState = getState(documentPositions);
+    }
+
+    /**
+     * Compile the contextual selectors used in the supplied visitor tables.
+     *
+     * @param deliveryConfig The delivery config.
+     * @param tables The visitor tables.
+     * @return The automaton, or null if none of the visitors have compilable contextual selectors.
+     */
+    static SelectorAutomaton compile(SAXContentDeliveryConfig deliveryConfig, ContentHandlerConfigMapTable<?>... tables) {
+        Map<SmooksResourceConfiguration, CompiledSelector> compiledSelectors = new IdentityHashMap<SmooksResourceConfiguration, CompiledSelector>();
+        int positionCount = 0;
+
+        for(ContentHandlerConfigMapTable<?> table : tables) {
+            for(List<? extends ContentHandlerConfigMap<?>> mappings : table.getTable().values()) {
+                for(ContentHandlerConfigMap<?> mapping : mappings) {
+                    SmooksResourceConfiguration resourceConfig = mapping.getResourceConfig();
+
+                    if(!compiledSelectors.containsKey(resourceConfig) && isCompilable(resourceConfig)) {
+                        CompiledSelector selector = new CompiledSelector(resourceConfig.getSelectorSteps(), positionCount);
+
+                        compiledSelectors.put(resourceConfig, selector);
+                        positionCount += selector.contextSteps.length + 1;
+                    }
+                }
+            }
+        }
+
+        if(compiledSelectors.isEmpty()) {
+            return null;
+        }
+
+        return new SelectorAutomaton(deliveryConfig, compiledSelectors);
+    }
+
+    private static boolean isCompilable(SmooksResourceConfiguration resourceConfig) {
+        if(!resourceConfig.isSelectorContextual()) {
+            return false;
+        }
+
+        SelectorStep[] selectorSteps = resourceConfig.getSelectorSteps();
+        for(int i = 0; i < selectorSteps.length; i++) {
+            if(selectorSteps[i].isStarStar() || (i > 0 && selectorSteps[i].isRooted())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    State getDocumentState() {
+        return documentState;
+    }
+
+    /**
+     * Is the supplied resource's selector compiled into this automaton and rooted, i.e. only
+     * matched along the element path the automaton tracks from the document root?
+     * @param resourceConfig The resource configuration.
+     * @return True if the selector is compiled and rooted, otherwise false.
+     */
+    boolean isRootedSelector(SmooksResourceConfiguration resourceConfig) {
+        CompiledSelector selector = compiledSelectors.get(resourceConfig);
+        return (selector != null && selector.isRooted);
+    }
+
+    private State getState(BitSet positions) {
+        State state = states.get(positions);
+
+        if(state == null) {
+            state = new State(positions);
+            if(states.size() < MAX_CACHED_STATES) {
+                State existing = states.putIfAbsent(positions, state);
+                if(existing != null) {
+                    state = existing;
+                }
+            }
+        }
+
+        return state;
+    }
+
+    /**
+     * Automaton state.  Set of the selector step positions matched by an element and its ancestors.
+     */
+    class State {
+
+        private final BitSet positions;
+        private final BitSet contextMatches = new BitSet();
+        private final Map<QName, Transition> transitions = new ConcurrentHashMap<QName, Transition>();
+
+        private State(BitSet positions) {
+            this.positions = positions;
+            for(CompiledSelector selector : selectors) {
+                if(positions.get(selector.offset + selector.contextSteps.length)) {
+                    contextMatches.set(selector.offset);
+                }
+            }
+        }
+
+        /**
+         * Is this a dead state, i.e. one in which no selector step position is reached?  Rooted
+         * selectors can't match anywhere in the subtree of an element in a dead state.
+         * @return True if this is a dead state, otherwise false.
+         */
+        boolean isDead() {
+            return positions.isEmpty();
+        }
+
+        /**
+         * Get the transition for a child element.
+         * @param elementName The child element name.
+         * @return The transition.
+         */
+        Transition next(QName elementName) {
+            Transition transition = transitions.get(elementName);
+
+            if(transition == null) {
+                transition = new Transition(getState(nextPositions(elementName)), filter(getVisitorConfig(elementName)));
+                if(transitions.size() < MAX_CACHED_TRANSITIONS) {
+                    transitions.put(elementName, transition);
+                }
+            }
+
+            return transition;
+        }
+
+        private BitSet nextPositions(QName elementName) {
+            BitSet nextPositions = new BitSet();
+
+            for(CompiledSelector selector : selectors) {
+                SelectorStep[] contextSteps = selector.contextSteps;
+
+                // Advance the positions reached by the parent...
+                for(int i = positions.nextSetBit(selector.offset); i >= 0 && i < selector.offset + contextSteps.length; i = positions.nextSetBit(i + 1)) {
+                    if(contextSteps[i - selector.offset].isTargetedAtElement(elementName)) {
+                        nextPositions.set(i + 1);
+                    }
+                }
+                // Start a new match on every element...
+                if(!selector.isRooted && contextSteps[0].isTargetedAtElement(elementName)) {
+                    nextPositions.set(selector.offset + 1);
+                }
+            }
+
+            return nextPositions;
+        }
+
+        private SAXElementVisitorMap getVisitorConfig(QName elementName) {
+            SAXElementVisitorMap visitorConfig;
+
+            if(this == documentState) {
+                visitorConfig = deliveryConfig.getCombinedOptimizedConfig(new String[] {SmooksResourceConfiguration.DOCUMENT_FRAGMENT_SELECTOR, elementName.getLocalPart()});
+            } else {
+                visitorConfig = deliveryConfig.getOptimizedVisitorConfig().get(elementName.getLocalPart());
+            }
+
+            if(visitorConfig == null) {
+                visitorConfig = deliveryConfig.getGlobalVisitorConfig();
+            }
+
+            return visitorConfig;
+        }
+
+        private SAXElementVisitorMap filter(SAXElementVisitorMap visitorConfig) {
+            if(visitorConfig == null || !(isCompiled(visitorConfig.getVisitBefores()) || isCompiled(visitorConfig.getChildVisitors()) ||
+                    isCompiled(visitorConfig.getVisitAfters()) || isCompiled(visitorConfig.getVisitCleanables()))) {
+                return visitorConfig;
+            }
+
+            SAXElementVisitorMap filteredConfig = new SAXElementVisitorMap();
+
+            filteredConfig.setVisitBefores(filter(visitorConfig.getVisitBefores()));
+            filteredConfig.setChildVisitors(filter(visitorConfig.getChildVisitors()));
+            filteredConfig.setVisitAfters(filter(visitorConfig.getVisitAfters()));
+            filteredConfig.setVisitCleanables(filter(visitorConfig.getVisitCleanables()));
+            filteredConfig.initAccumulateText(visitorConfig);
+            filteredConfig.initAcquireWriterFor(visitorConfig);
+            filteredConfig.freeze();
+
+            return filteredConfig;
+        }
+
+        private <T extends ContentHandler> boolean isCompiled(List<ContentHandlerConfigMap<T>> mappings) {
+            if(mappings != null) {
+                for(ContentHandlerConfigMap<T> mapping : mappings) {
+                    if(compiledSelectors.containsKey(mapping.getResourceConfig())) {
+                        return true;
+                    }
+                }
+            }
+
+            return false;
+        }
+
+        private <T extends ContentHandler> List<ContentHandlerConfigMap<T>> filter(List<ContentHandlerConfigMap<T>> mappings) {
+            if(mappings == null) {
+                return null;
+            }
+
+            List<ContentHandlerConfigMap<T>> filteredMappings = new ArrayList<ContentHandlerConfigMap<T>>(mappings.size());
+            for(ContentHandlerConfigMap<T> mapping : mappings) {
+                CompiledSelector selector = compiledSelectors.get(mapping.getResourceConfig());
+
+                if(selector == null) {
+                    filteredMappings.add(mapping);
+                } else if(contextMatches.get(selector.offset)) {
+                    if(selector.verifyContext) {
+                        filteredMappings.add(mapping);
+                    } else {
+                        filteredMappings.add(new ContextMatchedConfigMap<T>(mapping));
+                    }
+                }
+            }
+
+            return filteredMappings;
+        }
+    }
+
+    /**
+     * Transition to a child element.
+     */
+    static class Transition {
+
+        private final State state;
+        private final SAXElementVisitorMap visitorConfig;
+
+        private Transition(State state, SAXElementVisitorMap visitorConfig) {
+            this.state = state;
+            this.visitorConfig = visitorConfig;
+        }
+
+        /**
+         * Get the child element state.
+         * @return The child element state.
+         */
+        State getState() {
+            return state;
+        }
+
+        /**
+         * Get the child element visitor config, containing only the visitors whose selector context
+         * is not known to mismatch.
+         * @return The child element visitor config, or null if there are no visitors for the element.
+         */
+        SAXElementVisitorMap getVisitorConfig() {
+            return visitorConfig;
+        }
+    }
+
+    /**
+     * Mapping whose selector context is known to match the element.  The element stack does not need
+     * to be walked when checking if the mapping is targeted at the element.
+     */
+    static class ContextMatchedConfigMap<T extends ContentHandler> extends ContentHandlerConfigMap<T> {
+        private ContextMatchedConfigMap(ContentHandlerConfigMap<T> mapping) {
+            super(mapping.getContentHandler(), mapping.getResourceConfig());
+        }
+    }
+
+    private static class CompiledSelector {
+
+        private final SelectorStep[] contextSteps;
+        private final int offset;
+        private final boolean isRooted;
+        private final boolean verifyContext;
+
+        private CompiledSelector(SelectorStep[] selectorSteps, int offset) {
+            boolean hasContextPredicates = false;
+
+            this.isRooted = selectorSteps[0].isRooted();
+            this.offset = offset;
+            // The target step is matched on the element itself, so only the ancestor steps are compiled...
+            this.contextSteps = new SelectorStep[selectorSteps.length - 1];
+            System.arraycopy(selectorSteps, 0, contextSteps, 0, contextSteps.length);
+
+            for(SelectorStep contextStep : contextSteps) {
+                if(!contextStep.isStar() && !isDocumentStep(contextStep) && hasPredicates(contextStep.getPredicatesEvaluator())) {
+                    hasContextPredicates = true;
+                }
+            }
+            this.verifyContext = hasContextPredicates;
+        }
+
+        private static boolean isDocumentStep(SelectorStep selectorStep) {
+            return selectorStep.getTargetElement().getLocalPart().equals(SmooksResourceConfiguration.DOCUMENT_FRAGMENT_SELECTOR);
+        }
+
+        private static boolean hasPredicates(XPathExpressionEvaluator evaluator) {
+            if(evaluator == null || evaluator instanceof PassThruEvaluator) {
+                return false;
+            }
+            return !(evaluator instanceof PredicatesEvaluator && ((PredicatesEvaluator) evaluator).getEvaluators().isEmpty());
+        }
+    }
+}
@@ -45,9 +45,9 @@ package org.smooks.delivery.sax;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.smooks.SmooksException;
-import org.smooks.cdr.ParameterAccessor;
 import org.smooks.container.ExecutionContext;
 import org.smooks.delivery.Filter;
+import org.smooks.delivery.GlobalParameterSettings;
 import org.smooks.delivery.sax.terminate.TerminateException;
 import org.smooks.payload.FilterResult;
 import org.smooks.payload.FilterSource;
@@ -78,8 +78,9 @@ public class SmooksSAXFilter extends Filter {
 
     public SmooksSAXFilter(ExecutionContext executionContext) {
         this.executionContext = executionContext;
-        closeSource = Boolean.parseBoolean(ParameterAccessor.getParameterValue(Filter.CLOSE_SOURCE, String.class, "true", executionContext.getDeliveryConfig()));
-        closeResult = Boolean.parseBoolean(ParameterAccessor.getParameterValue(Filter.CLOSE_RESULT, String.class, "true", executionContext.getDeliveryConfig()));
+        GlobalParameterSettings settings = executionContext.getDeliveryConfig().getGlobalParameterSettings();
+        closeSource = settings.isCloseSource();
+        closeResult = settings.isCloseResult();
         parser = new SAXParser(executionContext);
     }
 
@@ -0,0 +1,190 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.delivery.sax;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Concurrent, bounded name symbol table.
+ * <p/>
+ * Maps a (namespace URI, local name, qualifier) name tuple to a shared, immutable symbol, created on first
+ * use by {@link #create(String, String, String)}.  The meaning of the qualifier (e.g. the qualified name or
+ * the prefix) is up to the subclass.
+ * <p/>
+ * Lookups do not lock or allocate.  Parsers tend to report names as the same (often interned)
+ * String instances, so matching usually comes down to reference checks.  New symbols are added
+ * under a lock.  The table is bounded: once it holds the maximum number of symbols, new symbols are
+ * created per call so that documents with an unbounded vocabulary cannot grow it without limit.
+ *
+ * @param <T> The symbol type.
+ */
+public abstract class SymbolTable<T> {
+
+    private final int maxSymbols;
+    private volatile AtomicReferenceArray<Symbol<T>> buckets = new AtomicReferenceArray<Symbol<T>>(64);
+    private int symbolCount;
+
+    /**
+     * Create a symbol table.
+     * @param maxSymbols Maximum number of symbols held in the table.
+     */
+    protected SymbolTable(int maxSymbols) {
+        this.maxSymbols = maxSymbols;
+    }
+
+    /**
+     * Get the symbol for the supplied name tuple, creating it if needs be.
+     * @param namespaceURI The Namespace URI.
+     * @param localName    The local name.
+     * @param qualifier    The name qualifier.
+     * @return The symbol.
+     */
+    protected T get(String namespaceURI, String localName, String qualifier) {
+        int hash = hash(namespaceURI, localName, qualifier);
+        AtomicReferenceArray<Symbol<T>> buckets = this.buckets;
+
+        for(Symbol<T> symbol = buckets.get(hash & (buckets.length() - 1)); symbol != null; symbol = symbol.next) {
+            if(symbol.matches(hash, namespaceURI, localName, qualifier)) {
+                return symbol.value;
+            }
+        }
+
+        return add(hash, namespaceURI, localName, qualifier);
+    }
+
+    /**
+     * Create the symbol for the supplied name tuple.
+     * @param namespaceURI The Namespace URI.
+     * @param localName    The local name.
+     * @param qualifier    The name qualifier.
+     * @return The symbol.
+     */
+    protected abstract T create(String namespaceURI, String localName, String qualifier);
+
+    /**
+     * Get the number of symbols in the table.
+     * @return The number of symbols in the table.
+     */
+    public synchronized int size() {
+        return symbolCount;
+    }
+
+    private synchronized T add(int hash, String namespaceURI, String localName, String qualifier) {
+        AtomicReferenceArray<Symbol<T>> buckets = this.buckets;
+        int index = hash & (buckets.length() - 1);
+
+        // Another thread may have added the symbol since the unlocked lookup...
+        for(Symbol<T> symbol = buckets.get(index); symbol != null; symbol = symbol.next) {
+            if(symbol.matches(hash, namespaceURI, localName, qualifier)) {
+                return symbol.value;
+            }
+        }
+
+        T value = create(namespaceURI, localName, qualifier);
+        if(symbolCount >= maxSymbols) {
+            return value;
+        }
+
+        buckets.set(index, new Symbol<T>(hash, namespaceURI, localName, qualifier, value, buckets.get(index)));
+        symbolCount++;
+        if(symbolCount > buckets.length() * 3 / 4) {
+            rehash(buckets);
+        }
+
+        return value;
+    }
+
+    private void rehash(AtomicReferenceArray<Symbol<T>> oldBuckets) {
+        AtomicReferenceArray<Symbol<T>> newBuckets = new AtomicReferenceArray<Symbol<T>>(oldBuckets.length() * 2);
+
+        for(int i = 0; i < oldBuckets.length(); i++) {
+            for(Symbol<T> symbol = oldBuckets.get(i); symbol != null; symbol = symbol.next) {
+                int index = symbol.hash & (newBuckets.length() - 1);
+                newBuckets.set(index, new Symbol<T>(symbol.hash, symbol.namespaceURI, symbol.localName, symbol.qualifier, symbol.value, newBuckets.get(index)));
+            }
+        }
+
+        // Readers still on the old buckets see a consistent (if incomplete) table...
+        buckets = newBuckets;
+    }
+
+    private static int hash(String namespaceURI, String localName, String qualifier) {
+        int hash = (localName != null ? localName.hashCode() : 0);
+
+        if(namespaceURI != null) {
+            hash = hash * 31 + namespaceURI.hashCode();
+        }
+        if(qualifier != null) {
+            hash = hash * 31 + qualifier.hashCode();
+        }
+
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean same(String a, String b) {
+        return a == b || (a != null && a.equals(b));
+    }
+
+    private static final class Symbol<T> {
+
+        private final int hash;
+        private final String namespaceURI;
+        private final String localName;
+        private final String qualifier;
+        private final T value;
+        private final Symbol<T> next;
+
+        private Symbol(int hash, String namespaceURI, String localName, String qualifier, T value, Symbol<T> next) {
+            this.hash = hash;
+            this.namespaceURI = namespaceURI;
+            this.localName = localName;
+            this.qualifier = qualifier;
+            this.value = value;
+            this.next = next;
+        }
+
+        private boolean matches(int hash, String namespaceURI, String localName, String qualifier) {
+            return this.hash == hash && same(this.localName, localName) && same(this.namespaceURI, namespaceURI) && same(this.qualifier, qualifier);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.delivery.sax.annotation;
+
+import org.smooks.delivery.sax.SAXElement;
+import org.smooks.delivery.sax.SAXVisitor;
+
+import java.lang.annotation.*;
+
+/**
+ * Element Retaining {@link SAXVisitor} Annotation.
+ * <p/>
+ * When {@link org.smooks.delivery.Filter#RECYCLE_ELEMENTS element recycling} is turned on, the
+ * SAX filter reuses {@link SAXElement} instances across elements at the same depth.  A {@link SAXVisitor}
+ * must therefore not hold on to the {@link SAXElement} instances it is passed (or to
+ * {@link org.smooks.delivery.Fragment Fragments} wrapping them) after the visitAfter event of that element.
+ * <p/>
+ * Visitors that do need to keep element references must be annotated with this annotation.  Element
+ * recycling is turned off for any configuration containing an annotated visitor.
+ * <p/>
+ * None of the built-in SAX visitors need the annotation.  They only use an element while it's being
+ * visited, and copy anything they keep beyond that.  For example, the {@link org.smooks.delivery.DomModelCreator}
+ * copies the element names, attributes and text into the DOM models it creates, the
+ * {@link org.smooks.delivery.nested.ParallelNestedExecutionVisitor} copies the fragment events into a
+ * {@link org.smooks.delivery.replay.SAXEventBuffer}, and the visitors that cache state on an element
+ * ({@link org.smooks.visitors.remove.RemoveElement}, {@link org.smooks.visitors.set.SetElementData},
+ * {@link org.smooks.delivery.sax.DefaultSAXElementSerializer}) release it by the element's visitAfter event.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE})
+@Inherited
+public @interface RetainsElement {
+}
@@ -81,10 +81,18 @@ public class ElementVisitEvent extends ElementProcessingEvent implements Resourc
     private String reportDetail;
 
     public ElementVisitEvent(Object element, ContentHandlerConfigMap configMapping, VisitSequence sequence) {
+        this(element, configMapping, sequence, Filter.getCurrentExecutionContext());
+    }
+
+    public ElementVisitEvent(Object element, ContentHandlerConfigMap configMapping, VisitSequence sequence, Throwable error) {
+        this(element, configMapping, sequence);
+        this.error = error;
+    }
+
+    public ElementVisitEvent(Object element, ContentHandlerConfigMap configMapping, VisitSequence sequence, ExecutionContext executionContext) {
         super(element);
         this.configMapping = configMapping;
         this.sequence = sequence;
-        ExecutionContext executionContext = Filter.getCurrentExecutionContext();
         try {
             executionContextState = MultiLineToStringBuilder.toString(executionContext);
 
@@ -96,8 +104,8 @@ public class ElementVisitEvent extends ElementProcessingEvent implements Resourc
         initReport(executionContext);
     }
 
-    public ElementVisitEvent(Object element, ContentHandlerConfigMap configMapping, VisitSequence sequence, Throwable error) {
-        this(element, configMapping, sequence);
+    public ElementVisitEvent(Object element, ContentHandlerConfigMap configMapping, VisitSequence sequence, ExecutionContext executionContext, Throwable error) {
+        this(element, configMapping, sequence, executionContext);
         this.error = error;
     }
 
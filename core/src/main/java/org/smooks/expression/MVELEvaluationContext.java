@@ -0,0 +1,176 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.expression;
+
+import org.mvel2.integration.VariableResolver;
+import org.mvel2.integration.VariableResolverFactory;
+import org.mvel2.integration.impl.MapVariableResolverFactory;
+import org.mvel2.integration.impl.SimpleValueResolver;
+import org.smooks.assertion.AssertArgument;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reusable <a href="http://mvel.codehaus.org/">MVEL</a> evaluation context for {@link MVELExpressionEvaluator}.
+ * <p/>
+ * Holds the {@link VariableResolverFactory} chain for evaluating expressions against one context map (e.g. the
+ * bean map of a {@link org.smooks.javabean.context.BeanContext}), so the factories, the variable map and the
+ * VARS ({@link MVELVariables}) variable don't have to be created for every evaluation.  Variable resolvers for the
+ * context map entries are cached by name in the factory and read the map entry value on every evaluation.
+ * Variables created by an expression are cleared before the next evaluation.
+ * <p/>
+ * Not thread safe.  Use one instance per {@link org.smooks.container.ExecutionContext}.
+ */
+public class MVELEvaluationContext {
+
+    private final Map<?, ?> contextMap;
+    private final LocalVariableResolverFactory localFactory;
+    private final LocalVariableResolverFactory varsFactory;
+    private boolean inUse;
+
+    /**
+     * Public constructor.
+     * @param contextMap The context map the expressions are evaluated against.
+     */
+    public MVELEvaluationContext(Map<?, ?> contextMap) {
+        AssertArgument.isNotNull(contextMap, "contextMap");
+
+        this.contextMap = contextMap;
+        localFactory = new LocalVariableResolverFactory(null);
+
+        // We use the root ResolverFactory so that variables created in MVEL Scripts are put in the empty HashMap
+        // of the root VariableResolverFactory and not in the context Map.  The VARS variable gets access to the root
+        // ResolverFactory to be able to look up the variables in the factory chain...
+        varsFactory = new LocalVariableResolverFactory(MVELExpressionEvaluator.MVEL_VARIABLES_VARIABLE_NAME);
+        varsFactory.setVarsResolver(new SimpleValueResolver(new MVELVariables(varsFactory)));
+        varsFactory.setNextFactory(new ContextVariableResolverFactory(contextMap));
+    }
+
+    /**
+     * Get the context map the expressions are evaluated against.
+     * @return The context map.
+     */
+    public Map<?, ?> getContextMap() {
+        return contextMap;
+    }
+
+    /**
+     * Acquire the resolver factory for an evaluation.
+     * @param withVarsVariable Resolve the VARS variable and the context map entries through the factory.
+     * @return The reset resolver factory, or null if the factory is in use by an enclosing evaluation.
+     */
+    VariableResolverFactory acquire(boolean withVarsVariable) {
+        if(inUse) {
+            return null;
+        }
+
+        LocalVariableResolverFactory factory = (withVarsVariable ? varsFactory : localFactory);
+
+        factory.clear();
+        inUse = true;
+
+        return factory;
+    }
+
+    /**
+     * Release the resolver factory acquired for an evaluation.
+     */
+    void release() {
+        inUse = false;
+    }
+
+    /**
+     * Context map variable resolver factory.
+     * <p/>
+     * The cached resolvers read the map entry on every access, but an entry may have been removed from the
+     * map since its resolver was cached, so resolvability is always checked against the map.
+     */
+    private static class ContextVariableResolverFactory extends MapVariableResolverFactory {
+
+        private ContextVariableResolverFactory(Map<?, ?> contextMap) {
+            super(contextMap);
+        }
+
+        @Override
+        public boolean isResolveable(String name) {
+            return variables.containsKey(name);
+        }
+    }
+
+    /**
+     * Local variable resolver factory, optionally resolving a fixed VARS variable.
+     */
+    private static class LocalVariableResolverFactory extends MapVariableResolverFactory {
+
+        private final String varsName;
+        private VariableResolver varsResolver;
+
+        private LocalVariableResolverFactory(String varsName) {
+            super(new HashMap<String, Object>());
+            this.varsName = varsName;
+        }
+
+        private void setVarsResolver(VariableResolver varsResolver) {
+            this.varsResolver = varsResolver;
+        }
+
+        @Override
+        public VariableResolver getVariableResolver(String name) {
+            if(varsName != null && varsName.equals(name) && !variables.containsKey(name)) {
+                return varsResolver;
+            }
+            return super.getVariableResolver(name);
+        }
+
+        @Override
+        public boolean isResolveable(String name) {
+            return (varsName != null && varsName.equals(name)) || super.isResolveable(name);
+        }
+
+        @Override
+        public boolean isTarget(String name) {
+            return (varsName != null && varsName.equals(name)) || super.isTarget(name);
+        }
+    }
+}
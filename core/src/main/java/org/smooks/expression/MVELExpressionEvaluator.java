@@ -50,6 +50,7 @@ import org.apache.commons.lang.builder.ToStringBuilder;
 import org.smooks.cdr.SmooksConfigurationException;
 import org.mvel2.DataConversion;
 import org.mvel2.MVEL;
+import org.mvel2.integration.VariableResolverFactory;
 import org.mvel2.integration.impl.MapVariableResolverFactory;
 
 /**
@@ -60,7 +61,7 @@ import org.mvel2.integration.impl.MapVariableResolverFactory;
  */
 public class MVELExpressionEvaluator implements ExpressionEvaluator {
 
-    private static final String MVEL_VARIABLES_VARIABLE_NAME = "VARS";
+    static final String MVEL_VARIABLES_VARIABLE_NAME = "VARS";
 
 	private String expression;
 
@@ -128,16 +129,59 @@ public class MVELExpressionEvaluator implements ExpressionEvaluator {
 	        	}
 
 	        } catch(Exception e) {
-	        	String msg = "Error evaluating MVEL expression '" + expression + "' against object type '" + contextObject.getClass().getName() + "'. " +
-	            				"Common issues include:" +
-	            				"\n\t\t1. Referencing a variable that is not bound into the context." +
-	            				" In this case use the 'isdef' operator to check if the variable is bound in the context." +
-	            				"\n\t\t2. Invalid expression reference to a List/Array based variable token.  Example List/Array referencing expression token: 'order.orderItems[0].productId'.";
-
-	            throw new ExpressionEvaluationException(msg, e);
+	            throw newEvaluationException(contextObject, e);
 	        }
 	}
 
+	/**
+	 * Evaluate the expression against the context map of the supplied (reusable) evaluation context.
+	 * <p/>
+	 * Equivalent to {@link #exec(Object)} on the {@link MVELEvaluationContext#getContextMap() context map},
+	 * without creating new MVEL resolver factories for the evaluation.
+	 *
+	 * @param evaluationContext The evaluation context.
+	 * @return The expression value.
+	 * @throws ExpressionEvaluationException Error evaluating the expression.
+	 */
+	public Object exec(MVELEvaluationContext evaluationContext) throws ExpressionEvaluationException {
+		Map<?, ?> contextMap = evaluationContext.getContextMap();
+		VariableResolverFactory resolverFactory = evaluationContext.acquire(containsVariablesVariable);
+
+		if(resolverFactory == null) {
+			// Nested evaluation (e.g. from a method called by an enclosing expression)...
+			return exec(contextMap);
+		}
+
+		try {
+			Object value;
+
+			if(containsVariablesVariable) {
+				value = MVEL.executeExpression(compiled, resolverFactory);
+			} else {
+				value = MVEL.executeExpression(compiled, contextMap, resolverFactory);
+			}
+			if(toType != null) {
+				return DataConversion.convert(value, toType);
+			}
+
+			return value;
+		} catch(Exception e) {
+			throw newEvaluationException(contextMap, e);
+		} finally {
+			evaluationContext.release();
+		}
+	}
+
+	private ExpressionEvaluationException newEvaluationException(Object contextObject, Exception cause) {
+		String msg = "Error evaluating MVEL expression '" + expression + "' against object type '" + contextObject.getClass().getName() + "'. " +
+						"Common issues include:" +
+						"\n\t\t1. Referencing a variable that is not bound into the context." +
+						" In this case use the 'isdef' operator to check if the variable is bound in the context." +
+						"\n\t\t2. Invalid expression reference to a List/Array based variable token.  Example List/Array referencing expression token: 'order.orderItems[0].productId'.";
+
+		return new ExpressionEvaluationException(msg, cause);
+	}
+
 	public Object exec(final Object contextObject) throws ExpressionEvaluationException {
         return exec(contextObject, new HashMap<String, Object>());
     }
@@ -199,6 +199,18 @@ public interface BeanContext {
 	 */
     void addObserver(BeanContextLifecycleObserver observer);
 
+	/**
+	 * Registers a bean context observer for a specific bean lifecycle event on a specific bean.
+	 * <p/>
+	 * The observer is only notified of the lifecycle events of the specified type fired for the specified bean,
+	 * so observers waiting on one specific bean don't have to filter every event fired on the context.
+	 *
+	 * @param beanId The bean ID.
+	 * @param lifecycle The lifecycle event type.
+	 * @param observer The actual BeanObserver instance.
+	 */
+    void addObserver(BeanId beanId, BeanLifecycle lifecycle, BeanContextLifecycleObserver observer);
+
 	/**
 	 * Notify all observers of a specific bean lifecycle event.
 	 *
@@ -213,6 +225,16 @@ public interface BeanContext {
 	 */
     void removeObserver(BeanContextLifecycleObserver observer);
 
+	/**
+	 * Unregisters a bean observer registered for a specific bean lifecycle event on a specific bean.
+	 *
+	 * @param beanId The bean ID.
+	 * @param lifecycle The lifecycle event type.
+	 * @param observer The actual BeanObserver instance.
+	 * @see #addObserver(BeanId, BeanLifecycle, BeanContextLifecycleObserver)
+	 */
+    void removeObserver(BeanId beanId, BeanLifecycle lifecycle, BeanContextLifecycleObserver observer);
+
 	/**
 	 * This returns a map which is backed by this repository. Changes made in the map
 	 * are reflected back into the repository.
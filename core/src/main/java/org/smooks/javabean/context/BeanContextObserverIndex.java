@@ -0,0 +1,189 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.javabean.context;
+
+import org.smooks.javabean.lifecycle.BeanContextLifecycleEvent;
+import org.smooks.javabean.lifecycle.BeanContextLifecycleObserver;
+import org.smooks.javabean.lifecycle.BeanLifecycle;
+import org.smooks.javabean.repository.BeanId;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link BeanContextLifecycleObserver} dispatch table for a {@link StandaloneBeanContext}.
+ * <p/>
+ * Observers registered for a specific {@link BeanId} and {@link BeanLifecycle} are indexed on the
+ * BeanId index and lifecycle ordinal, so an event only wakes the observers registered for it, plus the
+ * global observers (registered for all events).
+ * <p/>
+ * The observer arrays are copied on write, so observers added or removed while an event is being
+ * dispatched only take effect from the next event.  Events fired while an event is being dispatched are
+ * queued and fired once the current event has been delivered to all of its observers.
+ */
+final class BeanContextObserverIndex {
+
+    private static final BeanContextLifecycleObserver[] NO_OBSERVERS = new BeanContextLifecycleObserver[0];
+    private static final int LIFECYCLE_COUNT = BeanLifecycle.values().length;
+
+    private BeanContextLifecycleObserver[] globalObservers = NO_OBSERVERS;
+    private BeanContextLifecycleObserver[][] targetedObservers = new BeanContextLifecycleObserver[0][];
+    private boolean notifying;
+    private List<BeanContextLifecycleEvent> nestedEventQueue = new ArrayList<BeanContextLifecycleEvent>();
+
+    void addObserver(BeanContextLifecycleObserver observer) {
+        globalObservers = add(globalObservers, observer);
+    }
+
+    void removeObserver(BeanContextLifecycleObserver observer) {
+        globalObservers = remove(globalObservers, observer);
+    }
+
+    void addObserver(BeanId beanId, BeanLifecycle lifecycle, BeanContextLifecycleObserver observer) {
+        int slot = getSlot(beanId, lifecycle);
+
+        if(slot >= targetedObservers.length) {
+            BeanContextLifecycleObserver[][] newTargetedObservers = new BeanContextLifecycleObserver[Math.max(slot + LIFECYCLE_COUNT, targetedObservers.length * 2)][];
+            System.arraycopy(targetedObservers, 0, newTargetedObservers, 0, targetedObservers.length);
+            targetedObservers = newTargetedObservers;
+        }
+
+        BeanContextLifecycleObserver[] observers = targetedObservers[slot];
+        targetedObservers[slot] = add((observers != null ? observers : NO_OBSERVERS), observer);
+    }
+
+    void removeObserver(BeanId beanId, BeanLifecycle lifecycle, BeanContextLifecycleObserver observer) {
+        int slot = getSlot(beanId, lifecycle);
+
+        if(slot < targetedObservers.length && targetedObservers[slot] != null) {
+            targetedObservers[slot] = remove(targetedObservers[slot], observer);
+        }
+    }
+
+    /**
+     * Will an event for the supplied BeanId and lifecycle be delivered to (or queued for) any observer.
+     * <p/>
+     * Used to avoid creating events no one is listening for.
+     */
+    boolean isObserved(BeanId beanId, BeanLifecycle lifecycle) {
+        // Nested events are always queued, since an observer may be registered for them
+        // before they're fired...
+        return notifying || globalObservers.length > 0 || getTargetedObservers(beanId, lifecycle).length > 0;
+    }
+
+    void notifyObservers(BeanContextLifecycleEvent event) {
+        if(notifying) {
+            nestedEventQueue.add(event);
+            return;
+        }
+
+        notifying = true;
+        try {
+            BeanContextLifecycleObserver[] observers = globalObservers;
+            for(int i = 0; i < observers.length; i++) {
+                observers[i].onBeanLifecycleEvent(event);
+            }
+
+            observers = getTargetedObservers(event.getBeanId(), event.getLifecycle());
+            for(int i = 0; i < observers.length; i++) {
+                observers[i].onBeanLifecycleEvent(event);
+            }
+        } finally {
+            notifying = false;
+        }
+
+        if(!nestedEventQueue.isEmpty()) {
+            List<BeanContextLifecycleEvent> nestedEvents = nestedEventQueue;
+
+            // Create a new queue for nested events created by these events...
+            nestedEventQueue = new ArrayList<BeanContextLifecycleEvent>();
+            for(BeanContextLifecycleEvent nestedEvent : nestedEvents) {
+                notifyObservers(nestedEvent);
+            }
+        }
+    }
+
+    private BeanContextLifecycleObserver[] getTargetedObservers(BeanId beanId, BeanLifecycle lifecycle) {
+        if(beanId == null) {
+            return NO_OBSERVERS;
+        }
+
+        int slot = getSlot(beanId, lifecycle);
+        if(slot < targetedObservers.length && targetedObservers[slot] != null) {
+            return targetedObservers[slot];
+        }
+
+        return NO_OBSERVERS;
+    }
+
+    private static int getSlot(BeanId beanId, BeanLifecycle lifecycle) {
+        return beanId.getIndex() * LIFECYCLE_COUNT + lifecycle.ordinal();
+    }
+
+    private static BeanContextLifecycleObserver[] add(BeanContextLifecycleObserver[] observers, BeanContextLifecycleObserver observer) {
+        BeanContextLifecycleObserver[] newObservers = new BeanContextLifecycleObserver[observers.length + 1];
+
+        System.arraycopy(observers, 0, newObservers, 0, observers.length);
+        newObservers[observers.length] = observer;
+
+        return newObservers;
+    }
+
+    private static BeanContextLifecycleObserver[] remove(BeanContextLifecycleObserver[] observers, BeanContextLifecycleObserver observer) {
+        for(int i = 0; i < observers.length; i++) {
+            if(observers[i].equals(observer)) {
+                if(observers.length == 1) {
+                    return NO_OBSERVERS;
+                }
+
+                BeanContextLifecycleObserver[] newObservers = new BeanContextLifecycleObserver[observers.length - 1];
+                System.arraycopy(observers, 0, newObservers, 0, i);
+                System.arraycopy(observers, i + 1, newObservers, i, observers.length - i - 1);
+
+                return newObservers;
+            }
+        }
+
+        return observers;
+    }
+}
@@ -70,10 +70,7 @@ public class StandaloneBeanContext implements BeanContext {
 
 	private BeanContextMapAdapter repositoryBeanMapAdapter = new BeanContextMapAdapter();
 
-	private List<BeanContextLifecycleObserver> lifecycleObservers = new ArrayList<BeanContextLifecycleObserver>();
-	private List<BeanContextLifecycleObserver> addObserversQueue = new ArrayList<BeanContextLifecycleObserver>();
-	private List<BeanContextLifecycleObserver> removeObserversQueue = new ArrayList<BeanContextLifecycleObserver>();
-	private List<BeanContextLifecycleEvent> notifyObserverEventQueue = new ArrayList<BeanContextLifecycleEvent>();
+	private final BeanContextObserverIndex observerIndex;
 
 	/**
 	 * Create the StandAloneBeanContext
@@ -96,6 +93,7 @@ public class StandaloneBeanContext implements BeanContext {
 		this.beanMap = beanMap;
 
 		entries = new ArrayList<ContextEntry>(beanIdStore.size());
+		observerIndex = new BeanContextObserverIndex();
 
 		updateBeanMap();
 	}
@@ -106,10 +104,7 @@ public class StandaloneBeanContext implements BeanContext {
         this.beanMap = parentContext.beanMap;
         this.entries = parentContext.entries;
         this.repositoryBeanMapAdapter = parentContext.repositoryBeanMapAdapter;
-        this.lifecycleObservers = parentContext.lifecycleObservers;
-        this.addObserversQueue = parentContext.addObserversQueue;
-        this.removeObserversQueue = parentContext.removeObserversQueue;
-        this.notifyObserverEventQueue = parentContext.notifyObserverEventQueue;
+        this.observerIndex = parentContext.observerIndex;
     }
 
     public void addBean(BeanId beanId, Object bean) {
@@ -124,8 +119,7 @@ public class StandaloneBeanContext implements BeanContext {
 		// removal (removal by being overwritten)...
 		Object currentInstance = getBean(beanId);
 		if (currentInstance != null) {
-			notifyObservers(new BeanContextLifecycleEvent(executionContext,
-					source, BeanLifecycle.REMOVE, beanId, currentInstance));
+			notifyObservers(source, BeanLifecycle.REMOVE, beanId, currentInstance);
 		}
 
 		// Check if the BeanIdList has new BeanIds and if so then
@@ -140,8 +134,7 @@ public class StandaloneBeanContext implements BeanContext {
 		repoEntry.setValue(bean);
 
 		// Add the bean to the context...
-		notifyObservers(new BeanContextLifecycleEvent(executionContext, source,
-				BeanLifecycle.ADD, beanId, bean));
+		notifyObservers(source, BeanLifecycle.ADD, beanId, bean);
 	}
 
     public void addBean(String beanId, Object bean) {
@@ -254,8 +247,7 @@ public class StandaloneBeanContext implements BeanContext {
 		if (entries.size() > index && entries.get(index).getValue() != null) {
 			entries.get(index).setValue(bean);
 
-			notifyObservers(new BeanContextLifecycleEvent(executionContext,
-					source, BeanLifecycle.CHANGE, beanId, bean));
+			notifyObservers(source, BeanLifecycle.CHANGE, beanId, bean);
 		} else {
 			throw new IllegalStateException("The bean '" + beanId
 					+ "' can't be changed because it isn't in the repository.");
@@ -278,8 +270,7 @@ public class StandaloneBeanContext implements BeanContext {
 		repositoryEntry.clean();
 		repositoryEntry.setValue(null);
 
-		notifyObservers(new BeanContextLifecycleEvent(executionContext, source,
-				BeanLifecycle.REMOVE, beanId, getBean(beanId)));
+		notifyObservers(source, BeanLifecycle.REMOVE, beanId, getBean(beanId));
 
 		return old;
 	}
@@ -696,12 +687,23 @@ public class StandaloneBeanContext implements BeanContext {
 	 * .lifecycle.BeanContextLifecycleObserver)
 	 */
 	public void addObserver(BeanContextLifecycleObserver observer) {
-		if (lifecycleObservers != null) {
-			lifecycleObservers.add(observer);
-		} else {
-			// Will be sync'd up during next notify...
-			addObserversQueue.add(observer);
-		}
+		observerIndex.addObserver(observer);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.smooks.javabean.context.BeanContext#addObserver(org.smooks.javabean
+	 * .repository.BeanId, org.smooks.javabean.lifecycle.BeanLifecycle,
+	 * org.smooks.javabean.lifecycle.BeanContextLifecycleObserver)
+	 */
+	public void addObserver(BeanId beanId, BeanLifecycle lifecycle, BeanContextLifecycleObserver observer) {
+		AssertArgument.isNotNull(beanId, "beanId");
+		AssertArgument.isNotNull(lifecycle, "lifecycle");
+		AssertArgument.isNotNull(observer, "observer");
+
+		observerIndex.addObserver(beanId, lifecycle, observer);
 	}
 
 	/*
@@ -712,47 +714,7 @@ public class StandaloneBeanContext implements BeanContext {
 	 * .lifecycle.BeanContextLifecycleEvent)
 	 */
 	public void notifyObservers(BeanContextLifecycleEvent event) {
-		if (lifecycleObservers != null) {
-			List<BeanContextLifecycleObserver> localObserverListCopy = lifecycleObservers;
-
-			// Null the global List object reference while we're iterating it...
-			lifecycleObservers = null;
-			try {
-				int observerCount = localObserverListCopy.size();
-				for (int i = 0; i < observerCount; i++) {
-					localObserverListCopy.get(i).onBeanLifecycleEvent(event);
-				}
-			} finally {
-				// Reinstate the global List ref so it can be used again...
-				lifecycleObservers = localObserverListCopy;
-
-				// Synchronize the global observer list... there may be
-				// observers queued
-				// for addition or removal. This can happen if a request to add
-				// or remove
-				// an observer was triggered during the above iteration of the
-				// localObserverListCopy list...
-				syncObserverList();
-			}
-
-			// Handle nested events i.e. events triggered during the above
-			// iteration of the
-			// localObserverListCopy list...
-			if (!notifyObserverEventQueue.isEmpty()) {
-				List<BeanContextLifecycleEvent> notifyObserverEventQueueCopy = notifyObserverEventQueue;
-
-				// Create a new queue for nested notification events created by
-				// these events...
-				notifyObserverEventQueue = new ArrayList<BeanContextLifecycleEvent>();
-
-				// Fire the nested events from the notify queue copy...
-				for (BeanContextLifecycleEvent nestedEvent : notifyObserverEventQueueCopy) {
-					notifyObservers(nestedEvent);
-				}
-			}
-		} else {
-			notifyObserverEventQueue.add(event);
-		}
+		observerIndex.notifyObservers(event);
 	}
 
 	/*
@@ -763,29 +725,28 @@ public class StandaloneBeanContext implements BeanContext {
 	 * .lifecycle.BeanContextLifecycleObserver)
 	 */
 	public void removeObserver(BeanContextLifecycleObserver observer) {
-		if (lifecycleObservers != null) {
-			lifecycleObservers.remove(observer);
-		} else {
-			// Will be sync'd up during next notify...
-			removeObserversQueue.add(observer);
-		}
+		observerIndex.removeObserver(observer);
 	}
 
-	private void syncObserverList() {
-		int addObserverCount = addObserversQueue.size();
-		if (addObserverCount > 0) {
-			for (int i = 0; i < addObserverCount; i++) {
-				lifecycleObservers.add(addObserversQueue.get(i));
-			}
-			addObserversQueue.clear();
-		}
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.smooks.javabean.context.BeanContext#removeObserver(org.smooks.javabean
+	 * .repository.BeanId, org.smooks.javabean.lifecycle.BeanLifecycle,
+	 * org.smooks.javabean.lifecycle.BeanContextLifecycleObserver)
+	 */
+	public void removeObserver(BeanId beanId, BeanLifecycle lifecycle, BeanContextLifecycleObserver observer) {
+		AssertArgument.isNotNull(beanId, "beanId");
+		AssertArgument.isNotNull(lifecycle, "lifecycle");
 
-		int removeObserverCount = removeObserversQueue.size();
-		if (removeObserverCount > 0) {
-			for (int i = 0; i < removeObserverCount; i++) {
-				lifecycleObservers.remove(removeObserversQueue.get(i));
-			}
-			removeObserversQueue.clear();
+		observerIndex.removeObserver(beanId, lifecycle, observer);
+	}
+
+	private void notifyObservers(Fragment source, BeanLifecycle lifecycle, BeanId beanId, Object bean) {
+		// Only create the event if someone's listening for it...
+		if (observerIndex.isObserved(beanId, lifecycle)) {
+			observerIndex.notifyObservers(new BeanContextLifecycleEvent(executionContext, source, lifecycle, beanId, bean));
 		}
 	}
 }
@@ -44,8 +44,10 @@ package org.smooks.javabean.expression;
 
 import org.smooks.cdr.SmooksConfigurationException;
 import org.smooks.container.ExecutionContext;
+import org.smooks.container.TypedKey;
 import org.smooks.expression.ExecutionContextExpressionEvaluator;
 import org.smooks.expression.ExpressionEvaluationException;
+import org.smooks.expression.MVELEvaluationContext;
 import org.smooks.expression.MVELExpressionEvaluator;
 import org.smooks.javabean.context.BeanContext;
 import org.slf4j.Logger;
@@ -75,6 +77,7 @@ public class BeanMapExpressionEvaluator extends MVELExpressionEvaluator implemen
 	public static final String MVEL_EXECUTION_CONTEXT_KEY = "EC";
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(BeanMapExpressionEvaluator.class);
+	private static final TypedKey<MVELEvaluationContext> EVALUATION_CONTEXT_KEY = TypedKey.of(MVELEvaluationContext.class);
 
     public BeanMapExpressionEvaluator() {
     }
@@ -90,7 +93,7 @@ public class BeanMapExpressionEvaluator extends MVELExpressionEvaluator implemen
     public Object getValue(ExecutionContext context) throws ExpressionEvaluationException {
     	Map<String, Object> beans = context.getBeanContext().getBeanMap();
 
-        Object value = exec(beans);
+        Object value = exec(getEvaluationContext(context, beans));
 
         if(LOGGER.isDebugEnabled()) {
             LOGGER.debug("Expression value evaluation:===============================================================");
@@ -103,4 +106,16 @@ public class BeanMapExpressionEvaluator extends MVELExpressionEvaluator implemen
         return value;
     }
 
+    private static MVELEvaluationContext getEvaluationContext(ExecutionContext context, Map<String, Object> beans) {
+        MVELEvaluationContext evaluationContext = context.get(EVALUATION_CONTEXT_KEY);
+
+        // Rebind if the BeanContext has been replaced on the ExecutionContext...
+        if(evaluationContext == null || evaluationContext.getContextMap() != beans) {
+            evaluationContext = new MVELEvaluationContext(beans);
+            context.put(EVALUATION_CONTEXT_KEY, evaluationContext);
+        }
+
+        return evaluationContext;
+    }
+
 }
@@ -43,6 +43,7 @@
 package org.smooks.payload;
 
 import org.smooks.container.ExecutionContext;
+import org.smooks.container.TypedKey;
 
 import javax.xml.transform.Result;
 
@@ -55,18 +56,20 @@ public abstract class FilterResult implements Result {
 
     public static final String CONTEXT_KEY = FilterResult.class.getName() + "#CONTEXT_KEY";
 
+    private static final TypedKey<Result[]> RESULTS_KEY = TypedKey.of(CONTEXT_KEY);
+
     private String systemId;
 
     public static void setResults(ExecutionContext executionContext, Result... results) {
         if(results != null) {
-            executionContext.setAttribute(CONTEXT_KEY, results);
+            executionContext.put(RESULTS_KEY, results);
         } else {
-            executionContext.removeAttribute(CONTEXT_KEY);
+            executionContext.remove(RESULTS_KEY);
         }
     }
 
     public static Result[] getResults(ExecutionContext executionContext) {
-        return (Result[]) executionContext.getAttribute(CONTEXT_KEY);
+        return executionContext.get(RESULTS_KEY);
     }
 
     public static Result getResult(ExecutionContext executionContext, Class<? extends Result> resultType) {
@@ -43,6 +43,7 @@
 package org.smooks.payload;
 
 import org.smooks.container.ExecutionContext;
+import org.smooks.container.TypedKey;
 
 import javax.xml.transform.Source;
 
@@ -55,17 +56,19 @@ public abstract class FilterSource implements Source {
 
     public static final String CONTEXT_KEY = FilterSource.class.getName() + "#CONTEXT_KEY";
 
+    private static final TypedKey<Source> SOURCE_KEY = TypedKey.of(CONTEXT_KEY);
+
     private String systemId;
 
     public static Source getSource(ExecutionContext executionContext) {
-        return (Source) executionContext.getAttribute(CONTEXT_KEY);
+        return executionContext.get(SOURCE_KEY);
     }
 
     public static void setSource(ExecutionContext executionContext, Source source) {
         if(source != null) {
-            executionContext.setAttribute(CONTEXT_KEY, source);
+            executionContext.put(SOURCE_KEY, source);
         } else {
-            executionContext.removeAttribute(CONTEXT_KEY);
+            executionContext.remove(SOURCE_KEY);
         }
     }
 
@@ -44,6 +44,7 @@ package org.smooks.util;
 
 import freemarker.ext.dom.NodeModel;
 import org.smooks.container.ExecutionContext;
+import org.smooks.container.TypedKey;
 import org.smooks.delivery.DOMModel;
 import org.smooks.javabean.context.BeanContext;
 import org.w3c.dom.Element;
@@ -58,6 +59,8 @@ import java.util.Set;
  */
 public abstract class FreeMarkerUtils {
 
+    private static final TypedKey<Map<String, ElementToNodeModel>> NODE_MODELS_KEY = TypedKey.of(ElementToNodeModel.class);
+
     /**
      * Get a "merged" model for FreeMarker templating.
      * <p/>
@@ -109,12 +112,11 @@ public abstract class FreeMarkerUtils {
 
 
 	private static Map<String, ElementToNodeModel> getElementToNodeModelMap(ExecutionContext executionContext) {
-		@SuppressWarnings("unchecked")
-		Map<String, ElementToNodeModel> map = (Map<String, ElementToNodeModel>) executionContext.getAttribute(ElementToNodeModel.class);
+		Map<String, ElementToNodeModel> map = executionContext.get(NODE_MODELS_KEY);
 
         if(map == null) {
             map = new HashMap<String, ElementToNodeModel>();
-            executionContext.setAttribute(ElementToNodeModel.class, map);
+            executionContext.put(NODE_MODELS_KEY, map);
         }
 
         return map;
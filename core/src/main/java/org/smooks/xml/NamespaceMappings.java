@@ -52,6 +52,7 @@ import org.smooks.cdr.registry.lookup.SmooksResourceConfigurationListsLookup;
 import org.smooks.cdr.xpath.SelectorStep;
 import org.smooks.container.ApplicationContext;
 import org.smooks.container.ExecutionContext;
+import org.smooks.container.TypedKey;
 import org.smooks.namespace.NamespaceDeclarationStack;
 
 import javax.annotation.PostConstruct;
@@ -71,6 +72,8 @@ public class NamespaceMappings {
      * Logger.
      */
     private static final Logger LOGGER = LoggerFactory.getLogger(NamespaceMappings.class);
+
+    private static final TypedKey<NamespaceDeclarationStack> NAMESPACE_DECLARATION_STACK_KEY = TypedKey.of(NamespaceDeclarationStack.class);
 	
 	@Inject
 	private SmooksResourceConfiguration smooksResourceConfiguration;
@@ -106,7 +109,7 @@ public class NamespaceMappings {
      * @param executionContext The execution context.
      */
     public static void setNamespaceDeclarationStack(NamespaceDeclarationStack namespaceDeclarationStack, ExecutionContext executionContext) {
-        executionContext.setAttribute(NamespaceDeclarationStack.class, namespaceDeclarationStack);
+        executionContext.put(NAMESPACE_DECLARATION_STACK_KEY, namespaceDeclarationStack);
     }
 
     /**
@@ -114,6 +117,6 @@ public class NamespaceMappings {
      * @param executionContext The execution context.
      */
     public static NamespaceDeclarationStack getNamespaceDeclarationStack(ExecutionContext executionContext) {
-        return (NamespaceDeclarationStack) executionContext.getAttribute(NamespaceDeclarationStack.class);
+        return executionContext.get(NAMESPACE_DECLARATION_STACK_KEY);
     }
 }
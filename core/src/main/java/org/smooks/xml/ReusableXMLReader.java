@@ -0,0 +1,67 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.xml;
+
+import org.xml.sax.XMLReader;
+
+/**
+ * Reusable {@link XMLReader}.
+ * <p/>
+ * Readers are pooled (see {@link org.smooks.delivery.Filter#READER_POOL_SIZE}) and reused across messages.  By default,
+ * a reader configured through the <b>org.xml.sax.driver</b> resource (e.g. a CSV or EDI {@link SmooksXMLReader})
+ * is only pooled if it implements this interface, because it may otherwise keep the last message's
+ * {@link org.smooks.container.ExecutionContext} and parse state.  Explicitly configuring the reader pool size
+ * pools all readers.
+ */
+public interface ReusableXMLReader extends XMLReader {
+
+    /**
+     * Reset the reader before it's returned to the reader pool.
+     * <p/>
+     * The reader must release everything it holds from the last parse (e.g. the
+     * {@link org.smooks.container.ExecutionContext}, source and parse state), so as to not hold on to
+     * the last message in memory.  Only called after a successful parse.  A reader that failed to parse
+     * its message is not returned to the pool.
+     */
+    void reset();
+}
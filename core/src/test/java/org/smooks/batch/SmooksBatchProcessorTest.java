@@ -0,0 +1,244 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.batch;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.smooks.FilterSettings;
+import org.smooks.Smooks;
+import org.smooks.SmooksException;
+import org.smooks.container.ExecutionContext;
+import org.smooks.delivery.sax.SAXElement;
+import org.smooks.delivery.sax.SAXVisitBefore;
+import org.smooks.payload.StringResult;
+import org.smooks.payload.StringSource;
+
+import javax.xml.transform.Result;
+import javax.xml.transform.Source;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+public class SmooksBatchProcessorTest {
+
+    private Smooks smooks;
+    private ContextCapturingVisitor visitor;
+
+    @Before
+    public void setUp() {
+        smooks = new Smooks();
+        visitor = new ContextCapturingVisitor();
+        smooks.setFilterSettings(FilterSettings.DEFAULT_SAX);
+        smooks.addVisitor(visitor, "b");
+    }
+
+    @After
+    public void tearDown() {
+        smooks.close();
+    }
+
+    @Test
+    public void test_all_messages_filtered() {
+        List<Source> sources = newSources(200);
+        final Map<Source, StringResult> results = new ConcurrentHashMap<Source, StringResult>();
+
+        BatchReport report = smooks.filterBatch(sources, source -> {
+            StringResult result = new StringResult();
+            results.put(source, result);
+            return new Result[] {result};
+        }, 4);
+
+        assertTrue(report.isSuccess());
+        assertEquals(200, report.getMessageCount());
+        assertEquals(200, report.getSuccessCount());
+        for(int i = 0; i < 200; i++) {
+            assertEquals("<a><b>" + i + "</b></a>", results.get(sources.get(i)).getResult());
+        }
+    }
+
+    @Test
+    public void test_error_does_not_stop_batch() {
+        List<Source> sources = new ArrayList<Source>();
+
+        for(int i = 0; i < 20; i++) {
+            sources.add(new StringSource("<a><b fail=\"" + (i == 7 || i == 13) + "\">" + i + "</b></a>"));
+        }
+
+        BatchReport report = smooks.filterBatch(sources, source -> new Result[] {new StringResult()}, 3);
+
+        assertFalse(report.isSuccess());
+        assertEquals(20, report.getMessageCount());
+        assertEquals(18, report.getSuccessCount());
+        assertEquals(2, report.getErrors().size());
+        assertEquals(7, report.getErrors().get(0).getIndex());
+        assertSame(sources.get(7), report.getErrors().get(0).getSource());
+        assertEquals(13, report.getErrors().get(1).getIndex());
+    }
+
+    @Test
+    public void test_execution_contexts_reused() {
+        SmooksBatchProcessor batchProcessor = new SmooksBatchProcessor(smooks, 2);
+        try {
+            assertTrue(batchProcessor.process(newSources(100), source -> null).isSuccess());
+            assertTrue(batchProcessor.process(newSources(100), source -> null).isSuccess());
+        } finally {
+            batchProcessor.close();
+        }
+
+        assertEquals(200, visitor.visitCount);
+        assertTrue(visitor.executionContexts.size() <= 2);
+    }
+
+    @Test
+    public void test_filter_batch_reuses_processor() {
+        assertTrue(smooks.filterBatch(newSources(100), source -> null, 2).isSuccess());
+        assertTrue(smooks.filterBatch(newSources(100), source -> null, 2).isSuccess());
+
+        assertEquals(200, visitor.visitCount);
+        assertTrue(visitor.executionContexts.size() <= 2);
+    }
+
+    @Test
+    public void test_filter_batch_shares_one_pool() {
+        final Set<String> threadNames = Collections.synchronizedSet(new HashSet<String>());
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicInteger maxActive = new AtomicInteger();
+        Function<Source, Result[]> resultsFactory = source -> {
+            threadNames.add(Thread.currentThread().getName());
+            int count = active.incrementAndGet();
+            maxActive.accumulateAndGet(count, Math::max);
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                active.decrementAndGet();
+            }
+            return null;
+        };
+
+        assertTrue(smooks.filterBatch(newSources(50), resultsFactory, 4).isSuccess());
+        maxActive.set(0);
+        assertTrue(smooks.filterBatch(newSources(50), resultsFactory, 2).isSuccess());
+        assertTrue(maxActive.get() <= 2);
+        assertTrue(smooks.filterBatch(newSources(50), resultsFactory, 3).isSuccess());
+
+        // The pool is sized to the largest parallelism, not created per parallelism...
+        assertTrue(threadNames.toString(), threadNames.size() <= 4);
+        Set<String> pools = new HashSet<String>();
+        for(String threadName : threadNames) {
+            pools.add(threadName.substring(0, threadName.indexOf("-worker-")));
+        }
+        assertEquals(1, pools.size());
+    }
+
+    @Test
+    public void test_process_grows_pool() {
+        SmooksBatchProcessor batchProcessor = new SmooksBatchProcessor(smooks, 1);
+        try {
+            assertTrue(batchProcessor.process(newSources(20), source -> null, 3).isSuccess());
+            assertEquals(3, batchProcessor.getParallelism());
+            assertTrue(batchProcessor.process(newSources(20), source -> null, 2).isSuccess());
+            assertEquals(3, batchProcessor.getParallelism());
+        } finally {
+            batchProcessor.close();
+        }
+
+        assertEquals(40, visitor.visitCount);
+    }
+
+    @Test
+    public void test_closed_processor() {
+        SmooksBatchProcessor batchProcessor = new SmooksBatchProcessor(smooks, 2);
+
+        batchProcessor.close();
+        try {
+            batchProcessor.process(Collections.singletonList(new StringSource("<a/>")), source -> null);
+            fail("Expected SmooksException");
+        } catch(SmooksException e) {
+            assertTrue(e.getMessage().contains("closed"));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_invalid_parallelism() {
+        new SmooksBatchProcessor(smooks, 0);
+    }
+
+    private List<Source> newSources(int count) {
+        List<Source> sources = new ArrayList<Source>();
+
+        for(int i = 0; i < count; i++) {
+            sources.add(new StringSource("<a><b>" + i + "</b></a>"));
+        }
+        return sources;
+    }
+
+    private static class ContextCapturingVisitor implements SAXVisitBefore {
+
+        private final Set<ExecutionContext> executionContexts = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<ExecutionContext, Boolean>()));
+        private volatile int visitCount;
+
+        public synchronized void visitBefore(SAXElement element, ExecutionContext executionContext) throws SmooksException, IOException {
+            if(Boolean.parseBoolean(element.getAttribute("fail"))) {
+                throw new SmooksException("Failed message.");
+            }
+            executionContexts.add(executionContext);
+            // Attributes must not leak from one message to the next...
+            assertNull(executionContext.getAttribute(ContextCapturingVisitor.class));
+            executionContext.setAttribute(ContextCapturingVisitor.class, "visited");
+            visitCount++;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.cdr;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.smooks.delivery.condition.TestExecutionContextExpressionEvaluator;
+import org.smooks.profile.ProfileSet;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+public class ConfigSnapshotStoreTest {
+
+    private static final String CONFIG = "<?xml version='1.0'?>\n" +
+            "<smooks-resource-list xmlns=\"https://www.smooks.org/xsd/smooks-1.2.xsd\" xmlns:core=\"https://www.smooks.org/xsd/smooks/smooks-core-1.5.xsd\">\n" +
+            "    <params><param name=\"global.x\">gx</param></params>\n" +
+            "    <conditions><condition id=\"c1\" evaluator=\"" + TestExecutionContextExpressionEvaluator.class.getName() + "\">true</condition></conditions>\n" +
+            "    <profiles><profile base-profile=\"profileA\" sub-profiles=\"profile1,profile2\" /></profiles>\n" +
+            "    <core:filterSettings type=\"SAX\" />\n" +
+            "    <resource-config selector=\"a,b\" target-profile=\"profileA\">\n" +
+            "        <resource type=\"ytext\">/org/smooks/cdr/test-resource.txt</resource>\n" +
+            "        <condition idRef=\"c1\" />\n" +
+            "        <param name=\"p1\">v1</param>\n" +
+            "        <param name=\"p1\">v2</param>\n" +
+            "        <param name=\"p2\" type=\"x\"><xml att=\"&amp;\">text</xml></param>\n" +
+            "    </resource-config>\n" +
+            "    <import file=\"imported.xml\"><param name=\"sel\">c</param></import>\n" +
+            "</smooks-resource-list>";
+
+    private static final String IMPORTED = "<?xml version='1.0'?>\n" +
+            "<smooks-resource-list xmlns=\"https://www.smooks.org/xsd/smooks-1.2.xsd\">\n" +
+            "    <resource-config selector=\"@sel@\"><resource>org.smooks.Imported</resource></resource-config>\n" +
+            "</smooks-resource-list>";
+
+    private File directory;
+    private String baseURI;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("smooks-snapshots").toFile();
+        baseURI = directory.toURI().toString();
+        write("imported.xml", IMPORTED);
+    }
+
+    @After
+    public void tearDown() {
+        delete(directory);
+    }
+
+    @Test
+    public void test_snapshot() throws Exception {
+        ConfigSnapshotStore store = new ConfigSnapshotStore();
+        SmooksResourceConfigurationList digested = XMLConfigDigester.digestConfig(configStream(), baseURI, null, store);
+        SmooksResourceConfigurationList loaded = store.load(CONFIG.getBytes(StandardCharsets.UTF_8), baseURI, null);
+
+        assertNotNull(loaded);
+        assertNotSame(digested, loaded);
+        assertListsEqual(digested, loaded);
+
+        // Conditions shared through an idRef are shared on the loaded configs...
+        SmooksResourceConfiguration a = findBySelector(loaded, "a");
+        SmooksResourceConfiguration b = findBySelector(loaded, "b");
+        assertTrue(a.getConditionEvaluator() instanceof TestExecutionContextExpressionEvaluator);
+        assertSame(a.getConditionEvaluator(), b.getConditionEvaluator());
+        assertEquals("true", a.getConditionEvaluator().getExpression());
+
+        assertEquals(2, a.getParameters("p1").size());
+        assertEquals("v2", a.getParameters("p1").get(1).getValue());
+        assertEquals("x", a.getParameter("p2", String.class).getType());
+        assertEquals("&", a.getParameter("p2", String.class).getXml().getElementsByTagName("xml").item(0).getAttributes().getNamedItem("att").getNodeValue());
+        assertEquals("ytext", a.getResourceType());
+        assertNotNull(findBySelector(loaded, "c"));
+
+        // And the snapshot is used by the digester...
+        assertListsEqual(digested, XMLConfigDigester.digestConfig(configStream(), baseURI, null, store));
+    }
+
+    @Test
+    public void test_snapshot_on_disk() throws Exception {
+        File snapshotDirectory = new File(directory, "snapshots");
+        SmooksResourceConfigurationList digested = XMLConfigDigester.digestConfig(configStream(), baseURI, null, new ConfigSnapshotStore(snapshotDirectory));
+
+        assertEquals(1, snapshotDirectory.listFiles().length);
+
+        ConfigSnapshotStore store = new ConfigSnapshotStore(snapshotDirectory);
+        SmooksResourceConfigurationList loaded = store.load(CONFIG.getBytes(StandardCharsets.UTF_8), baseURI, null);
+
+        assertNotNull(loaded);
+        assertListsEqual(digested, loaded);
+        assertNull(store.load(CONFIG.replace("v1", "v3").getBytes(StandardCharsets.UTF_8), baseURI, null));
+        assertNull(store.load(CONFIG.getBytes(StandardCharsets.UTF_8), baseURI + "x/", null));
+    }
+
+    @Test
+    public void test_snapshot_invalidated_by_import_change() throws Exception {
+        ConfigSnapshotStore store = new ConfigSnapshotStore();
+
+        XMLConfigDigester.digestConfig(configStream(), baseURI, null, store);
+        assertNotNull(store.load(CONFIG.getBytes(StandardCharsets.UTF_8), baseURI, null));
+
+        write("imported.xml", IMPORTED.replace("org.smooks.Imported", "org.smooks.Changed"));
+        assertNull(store.load(CONFIG.getBytes(StandardCharsets.UTF_8), baseURI, null));
+
+        SmooksResourceConfigurationList digested = XMLConfigDigester.digestConfig(configStream(), baseURI, null, store);
+        assertEquals("org.smooks.Changed", findBySelector(digested, "c").getResource());
+        assertEquals("org.smooks.Changed", findBySelector(store.load(CONFIG.getBytes(StandardCharsets.UTF_8), baseURI, null), "c").getResource());
+    }
+
+    @Test
+    public void test_trusted_snapshot() throws Exception {
+        ConfigSnapshotStore store = new ConfigSnapshotStore().setTrusted(true);
+
+        XMLConfigDigester.digestConfig(configStream(), baseURI, null, store);
+        write("imported.xml", IMPORTED.replace("org.smooks.Imported", "org.smooks.Changed"));
+
+        // Imports are not checked for changes...
+        assertEquals("org.smooks.Imported", findBySelector(store.load(CONFIG.getBytes(StandardCharsets.UTF_8), baseURI, null), "c").getResource());
+    }
+
+    private void assertListsEqual(SmooksResourceConfigurationList expected, SmooksResourceConfigurationList actual) {
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.size(), actual.size());
+        for(int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).toXML(), actual.get(i).toXML());
+            assertEquals(expected.get(i).getResourceType(), actual.get(i).getResourceType());
+            assertEquals(expected.get(i).getSelectorNamespaceURI(), actual.get(i).getSelectorNamespaceURI());
+            assertEquals(expected.get(i).getExtendedConfigNS(), actual.get(i).getExtendedConfigNS());
+        }
+        assertEquals(expected.getProfiles().size(), actual.getProfiles().size());
+        for(int i = 0; i < expected.getProfiles().size(); i++) {
+            ProfileSet expectedProfileSet = expected.getProfiles().get(i);
+            ProfileSet actualProfileSet = actual.getProfiles().get(i);
+
+            assertEquals(expectedProfileSet.getBaseProfile(), actualProfileSet.getBaseProfile());
+            assertEquals(expectedProfileSet.toString(), actualProfileSet.toString());
+        }
+    }
+
+    private SmooksResourceConfiguration findBySelector(SmooksResourceConfigurationList list, String selector) {
+        for(int i = 0; i < list.size(); i++) {
+            if(selector.equals(list.get(i).getSelector())) {
+                return list.get(i);
+            }
+        }
+        return null;
+    }
+
+    private InputStream configStream() throws IOException {
+        return new ByteArrayInputStream(CONFIG.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void write(String fileName, String content) throws IOException {
+        Files.write(new File(directory, fileName).toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void delete(File file) {
+        File[] children = file.listFiles();
+        if(children != null) {
+            for(File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
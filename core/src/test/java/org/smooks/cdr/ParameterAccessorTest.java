@@ -46,9 +46,15 @@ import org.junit.After;
 import org.junit.Test;
 import org.smooks.Smooks;
 import org.smooks.delivery.ContentDeliveryConfig;
+import org.smooks.delivery.Filter;
+import org.smooks.delivery.GlobalParameterSettings;
+import org.xml.sax.SAXException;
 
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertNull;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.*;
 
 /**
  * @author <a href="mailto:tom.fennelly@jboss.com">tom.fennelly@jboss.com</a>
@@ -70,4 +76,42 @@ public class ParameterAccessorTest {
         System.setProperty("test.parameter", "xxxxxxx");
         assertEquals("xxxxxxx", ParameterAccessor.getParameterValue("test.parameter", String.class, deliveryConfig));
     }
+
+	@Test
+    public void test_settings_refresh() {
+        Smooks smooks = new Smooks();
+        ContentDeliveryConfig deliveryConfig = smooks.createExecutionContext().getDeliveryConfig();
+        GlobalParameterSettings settings = deliveryConfig.getGlobalParameterSettings();
+
+        assertTrue(settings.isCloseSource());
+        assertSame(settings, deliveryConfig.getGlobalParameterSettings());
+        List<SmooksResourceConfiguration> globalParameters = deliveryConfig.getSmooksResourceConfigurations().get(ParameterAccessor.GLOBAL_PARAMETERS);
+
+        ParameterAccessor.setParameter(Filter.CLOSE_SOURCE, "false", smooks);
+        assertFalse(deliveryConfig.getGlobalParameterSettings().isCloseSource());
+        // The shared resource config table is left untouched...
+        assertSame(globalParameters, deliveryConfig.getSmooksResourceConfigurations().get(ParameterAccessor.GLOBAL_PARAMETERS));
+        assertFalse(smooks.createExecutionContext().getDeliveryConfig().getGlobalParameterSettings().isCloseSource());
+
+        // The newest setting wins...
+        ParameterAccessor.setParameter(Filter.CLOSE_SOURCE, "true", smooks);
+        assertTrue(deliveryConfig.getGlobalParameterSettings().isCloseSource());
+        ParameterAccessor.setParameter(Filter.CLOSE_SOURCE, "false", smooks);
+        assertFalse(deliveryConfig.getGlobalParameterSettings().isCloseSource());
+
+        ParameterAccessor.removeParameter(Filter.CLOSE_SOURCE, smooks);
+        assertTrue(deliveryConfig.getGlobalParameterSettings().isCloseSource());
+    }
+
+	@Test
+    public void test_settings_refresh_overrides_config() throws IOException, SAXException {
+        Smooks smooks = new Smooks(new ByteArrayInputStream(("<smooks-resource-list xmlns=\"https://www.smooks.org/xsd/smooks-1.2.xsd\">" +
+                "<params><param name=\"" + Filter.CLOSE_SOURCE + "\">false</param></params>" +
+                "</smooks-resource-list>").getBytes()));
+        ContentDeliveryConfig deliveryConfig = smooks.createExecutionContext().getDeliveryConfig();
+
+        assertFalse(deliveryConfig.getGlobalParameterSettings().isCloseSource());
+        ParameterAccessor.setParameter(Filter.CLOSE_SOURCE, "true", smooks);
+        assertTrue(deliveryConfig.getGlobalParameterSettings().isCloseSource());
+    }
 }
@@ -117,6 +117,20 @@ public class XMLConfigDigesterTest {
         assertResourceConfigOK(list);
     }
 
+	@Test
+    public void test_digest_timings() throws IOException, SAXException, URISyntaxException {
+        SmooksResourceConfigurationList list = XMLConfigDigester.digestConfig(getClass().getResourceAsStream("testconfig3.cdrl"), "/org/smooks/cdr/");
+        List<ConfigDigestTiming> timings = list.getDigestTimings();
+
+        // Imports complete before the configs that import them...
+        assertEquals(2, timings.size());
+        assertTrue(timings.get(0).getConfig(), timings.get(0).getConfig().endsWith("testconfig4.cdrl"));
+        assertEquals(1, timings.get(0).getDepth());
+        assertEquals("/org/smooks/cdr/", timings.get(1).getConfig());
+        assertEquals(0, timings.get(1).getDepth());
+        assertTrue(timings.get(1).getTotalNanos() >= timings.get(0).getTotalNanos() + timings.get(1).getParseNanos() + timings.get(1).getValidateNanos());
+    }
+
     private void assertProfilesOK(Smooks smooks) {
         ExecutionContext execContext;
         execContext = smooks.createExecutionContext("profileA");
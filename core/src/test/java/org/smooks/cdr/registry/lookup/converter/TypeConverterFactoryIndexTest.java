@@ -0,0 +1,168 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.cdr.registry.lookup.converter;
+
+import org.junit.Test;
+import org.smooks.converter.TypeConverter;
+import org.smooks.converter.TypeConverterDescriptor;
+import org.smooks.converter.factory.TypeConverterFactory;
+
+import javax.annotation.Resource;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class TypeConverterFactoryIndexTest {
+
+    @Test
+    public void testLookupGivenExactTypes() {
+        Set<TypeConverterFactory<?, ?>> typeConverterFactories = new HashSet<>();
+        TypeConverterFactory<Number, String> numberToStringFactory = new TestTypeConverterFactory<>(Number.class, String.class);
+        TypeConverterFactory<Integer, String> integerToStringFactory = new TestTypeConverterFactory<>(Integer.class, String.class);
+        typeConverterFactories.add(numberToStringFactory);
+        typeConverterFactories.add(integerToStringFactory);
+
+        TypeConverterFactoryIndex typeConverterFactoryIndex = new TypeConverterFactoryIndex(typeConverterFactories);
+        assertSame(integerToStringFactory, typeConverterFactoryIndex.lookup(Integer.class, String.class));
+        assertSame(numberToStringFactory, typeConverterFactoryIndex.lookup(Number.class, String.class));
+    }
+
+    @Test
+    public void testLookupGivenAssignableSourceType() {
+        Set<TypeConverterFactory<?, ?>> typeConverterFactories = new HashSet<>();
+        TypeConverterFactory<Object, String> objectToStringFactory = new TestTypeConverterFactory<>(Object.class, String.class);
+        TypeConverterFactory<Number, String> numberToStringFactory = new TestTypeConverterFactory<>(Number.class, String.class);
+        typeConverterFactories.add(objectToStringFactory);
+        typeConverterFactories.add(numberToStringFactory);
+
+        TypeConverterFactoryIndex typeConverterFactoryIndex = new TypeConverterFactoryIndex(typeConverterFactories);
+        assertSame(numberToStringFactory, typeConverterFactoryIndex.lookup(Long.class, String.class));
+        assertSame(objectToStringFactory, typeConverterFactoryIndex.lookup(StringBuilder.class, String.class));
+        // The target type must match exactly...
+        assertNull(typeConverterFactoryIndex.lookup(Long.class, CharSequence.class));
+    }
+
+    @Test
+    public void testLookupGivenFactoryAddedAfterMiss() {
+        Set<TypeConverterFactory<?, ?>> typeConverterFactories = new HashSet<>();
+        TypeConverterFactoryIndex typeConverterFactoryIndex = new TypeConverterFactoryIndex(typeConverterFactories);
+
+        assertNull(typeConverterFactoryIndex.lookup(String.class, Integer.class));
+
+        TypeConverterFactory<String, Integer> stringToIntegerFactory = new TestTypeConverterFactory<>(String.class, Integer.class);
+        typeConverterFactories.add(stringToIntegerFactory);
+        assertSame(stringToIntegerFactory, typeConverterFactoryIndex.lookup(String.class, Integer.class));
+    }
+
+    @Test
+    public void testLookupGivenFactoryReplacedInTypeConverterFactorySet() {
+        Set<TypeConverterFactory<?, ?>> typeConverterFactories = new TypeConverterFactorySet(new HashSet<>());
+        TypeConverterFactory<String, Integer> stringToIntegerFactory = new TestTypeConverterFactory<>(String.class, Integer.class);
+        typeConverterFactories.add(stringToIntegerFactory);
+
+        TypeConverterFactoryIndex typeConverterFactoryIndex = new TypeConverterFactoryIndex(typeConverterFactories);
+        assertSame(stringToIntegerFactory, typeConverterFactoryIndex.lookup(String.class, Integer.class));
+
+        // Same size, different factory...
+        TypeConverterFactory<String, Integer> replacementFactory = new TestTypeConverterFactory<>(String.class, Integer.class);
+        typeConverterFactories.remove(stringToIntegerFactory);
+        typeConverterFactories.add(replacementFactory);
+        assertSame(replacementFactory, typeConverterFactoryIndex.lookup(String.class, Integer.class));
+    }
+
+    @Test
+    public void testLookupGivenInvalidatedIndex() {
+        Set<TypeConverterFactory<?, ?>> typeConverterFactories = new HashSet<>();
+        TypeConverterFactory<String, Integer> stringToIntegerFactory = new TestTypeConverterFactory<>(String.class, Integer.class);
+        typeConverterFactories.add(stringToIntegerFactory);
+
+        TypeConverterFactoryIndex typeConverterFactoryIndex = new TypeConverterFactoryIndex(typeConverterFactories);
+        assertSame(stringToIntegerFactory, typeConverterFactoryIndex.lookup(String.class, Integer.class));
+
+        TypeConverterFactory<String, Integer> replacementFactory = new TestTypeConverterFactory<>(String.class, Integer.class);
+        typeConverterFactories.remove(stringToIntegerFactory);
+        typeConverterFactories.add(replacementFactory);
+        typeConverterFactoryIndex.invalidate();
+        assertSame(replacementFactory, typeConverterFactoryIndex.lookup(String.class, Integer.class));
+    }
+
+    @Test
+    public void testLookupGivenName() {
+        Set<TypeConverterFactory<?, ?>> typeConverterFactories = new HashSet<>();
+        NamedTypeConverterFactory namedTypeConverterFactory = new NamedTypeConverterFactory();
+        typeConverterFactories.add(namedTypeConverterFactory);
+
+        TypeConverterFactoryIndex typeConverterFactoryIndex = new TypeConverterFactoryIndex(typeConverterFactories);
+        assertSame(namedTypeConverterFactory, typeConverterFactoryIndex.lookup("Named"));
+        assertSame(namedTypeConverterFactory, typeConverterFactoryIndex.lookup(NamedTypeConverterFactory.class.getName()));
+        assertNull(typeConverterFactoryIndex.lookup("Unknown"));
+    }
+
+    private static class TestTypeConverterFactory<S, T> implements TypeConverterFactory<S, T> {
+
+        private final TypeConverterDescriptor<Class<S>, Class<T>> typeConverterDescriptor;
+
+        private TestTypeConverterFactory(Class<S> sourceType, Class<T> targetType) {
+            typeConverterDescriptor = new TypeConverterDescriptor<>(sourceType, targetType);
+        }
+
+        @Override
+        public TypeConverter<S, T> createTypeConverter() {
+            throw new AssertionError();
+        }
+
+        @Override
+        public TypeConverterDescriptor<Class<S>, Class<T>> getTypeConverterDescriptor() {
+            return typeConverterDescriptor;
+        }
+    }
+
+    @Resource(name = "Named")
+    public static class NamedTypeConverterFactory extends TestTypeConverterFactory<String, String> {
+
+        public NamedTypeConverterFactory() {
+            super(String.class, String.class);
+        }
+    }
+}
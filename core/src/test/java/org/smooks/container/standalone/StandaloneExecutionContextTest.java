@@ -50,6 +50,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.smooks.Smooks;
 import org.smooks.SmooksUtil;
+import org.smooks.container.TypedKey;
 import org.smooks.profile.DefaultProfileSet;
 
 /**
@@ -74,6 +75,75 @@ public class StandaloneExecutionContextTest
         assertTrue( attributes.contains( value ) );
 	}
 	
+	@Test
+	public void getAttributes_typed()
+	{
+        TypedKey<String> key = TypedKey.of( StandaloneExecutionContextTest.class.getName() + "#typedView" );
+        context.put( key, "testValue" );
+
+        Hashtable attributes = context.getAttributes();
+        assertEquals( "testValue", attributes.get( key.getName() ) );
+
+        // put and remove are written through to the context...
+        attributes.put( "untypedKey", "untypedValue" );
+        assertEquals( "untypedValue", context.getAttribute( "untypedKey" ) );
+        attributes.remove( key.getName() );
+        assertNull( context.get( key ) );
+	}
+
+	@Test
+	public void typedAttributes()
+	{
+        TypedKey<String> key = TypedKey.of( StandaloneExecutionContextTest.class.getName() + "#typed" );
+
+        assertNull( context.get( key ) );
+        context.put( key, "testValue" );
+        assertEquals( "testValue", context.get( key ) );
+
+        // Visible through the untyped methods, via the key name...
+        assertEquals( "testValue", context.getAttribute( key.getName() ) );
+        context.setAttribute( key.getName(), "otherValue" );
+        assertEquals( "otherValue", context.get( key ) );
+        context.removeAttribute( key.getName() );
+        assertNull( context.get( key ) );
+	}
+
+	@Test
+	public void typedAttributes_boundBeforeKeyRegistered()
+	{
+        String keyName = StandaloneExecutionContextTest.class.getName() + "#late";
+
+        context.setAttribute( keyName, "testValue" );
+
+        TypedKey<String> key = TypedKey.of( keyName );
+        assertEquals( "testValue", context.get( key ) );
+        context.remove( key );
+        assertNull( context.get( key ) );
+        assertNull( context.getAttribute( keyName ) );
+	}
+
+	@Test
+	public void untypedAttributes_noSlot()
+	{
+        int slotCount = TypedKey.getSlotCount();
+
+        context.setAttribute( StandaloneExecutionContextTest.class.getName() + "#untyped:a", "testValue" );
+        assertEquals( "testValue", context.getAttribute( StandaloneExecutionContextTest.class.getName() + "#untyped:a" ) );
+        assertEquals( slotCount, TypedKey.getSlotCount() );
+	}
+
+	@Test
+	public void reset()
+	{
+        TypedKey<String> key = TypedKey.of( StandaloneExecutionContextTest.class.getName() + "#reset" );
+
+        context.put( key, "testValue" );
+        context.setAttribute( "testKey", "testValue" );
+        context.reset();
+        assertNull( context.get( key ) );
+        assertNull( context.getAttribute( "testKey" ) );
+	}
+
 	@Before
 	public void setup()
 	{
@@ -0,0 +1,219 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.db;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+
+import static org.junit.Assert.*;
+
+public class ConnectionPoolTest {
+
+    private static final String URL = "jdbc:hsqldb:mem:ConnectionPoolTest";
+
+    private ConnectionPool connectionPool;
+
+    @Before
+    public void setUp() throws Exception {
+        DriverManager.registerDriver(new org.hsqldb.jdbcDriver());
+    }
+
+    @After
+    public void tearDown() {
+        if (connectionPool != null) {
+            connectionPool.close();
+        }
+    }
+
+    @Test
+    public void test_reuse() throws SQLException {
+        connectionPool = new ConnectionPool("test", URL, "sa", "", 0, 2, 0, 1000, "SELECT 1 FROM INFORMATION_SCHEMA.SYSTEM_USERS", 0);
+
+        Connection connection = connectionPool.getConnection();
+        String physicalConnection = connection.toString();
+        connection.close();
+        assertTrue(connection.isClosed());
+        try {
+            connection.createStatement();
+            fail("Expected SQLException");
+        } catch (SQLException e) {
+            assertEquals("Connection is closed.", e.getMessage());
+        }
+
+        connection = connectionPool.getConnection();
+        assertEquals(physicalConnection, connection.toString());
+        assertEquals(1, connectionPool.getSize());
+        connection.close();
+        assertEquals(1, connectionPool.getIdleCount());
+    }
+
+    @Test
+    public void test_maxWait() throws SQLException {
+        connectionPool = new ConnectionPool("test", URL, "sa", "", 0, 2, 0, 50, null, 0);
+
+        Connection connection1 = connectionPool.getConnection();
+        Connection connection2 = connectionPool.getConnection();
+        try {
+            connectionPool.getConnection();
+            fail("Expected SQLTimeoutException");
+        } catch (SQLTimeoutException e) {
+            assertEquals("Timed out after 50ms waiting on a connection from datasource 'test'.  All 2 connections ('maxPoolSize') are in use.", e.getMessage());
+        }
+        connection1.close();
+        connectionPool.getConnection().close();
+        connection2.close();
+        assertEquals(2, connectionPool.getSize());
+    }
+
+    @Test
+    public void test_validation() throws SQLException {
+        connectionPool = new ConnectionPool("test", URL, "sa", "", 0, 2, 0, 1000, "SELECT * FROM NO_SUCH_TABLE", 0);
+
+        Connection connection = connectionPool.getConnection();
+        String physicalConnection = connection.toString();
+        connection.close();
+
+        // Fails validation, so a new connection is opened...
+        connection = connectionPool.getConnection();
+        assertNotEquals(physicalConnection, connection.toString());
+        assertEquals(1, connectionPool.getSize());
+        connection.close();
+    }
+
+    @Test
+    public void test_idleTimeout() throws Exception {
+        connectionPool = new ConnectionPool("test", URL, "sa", "", 1, 3, 50, 1000, null, 0);
+
+        Connection connection1 = connectionPool.getConnection();
+        Connection connection2 = connectionPool.getConnection();
+        Connection connection3 = connectionPool.getConnection();
+        connection1.close();
+        connection2.close();
+        connection3.close();
+        assertEquals(3, connectionPool.getSize());
+
+        for (int i = 0; i < 100 && connectionPool.getSize() > 1; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(1, connectionPool.getSize());
+        assertEquals(1, connectionPool.getIdleCount());
+    }
+
+    @Test
+    public void test_statementCache() throws SQLException {
+        connectionPool = new ConnectionPool("test", URL, "sa", "", 0, 1, 0, 1000, null, 2);
+
+        Connection connection = connectionPool.getConnection();
+        PreparedStatement statement = connection.prepareStatement("SELECT 1 FROM INFORMATION_SCHEMA.SYSTEM_USERS");
+        assertSame(connection, statement.getConnection());
+
+        // In use, so not handed out again...
+        PreparedStatement statement2 = connection.prepareStatement("SELECT 1 FROM INFORMATION_SCHEMA.SYSTEM_USERS");
+        assertNotSame(statement, statement2);
+        statement2.close();
+
+        statement.executeQuery().close();
+        statement.close();
+        assertTrue(statement.isClosed());
+        assertSame(statement, connection.prepareStatement("SELECT 1 FROM INFORMATION_SCHEMA.SYSTEM_USERS"));
+        connection.close();
+
+        // Returned to the cache when the connection is closed...
+        connection = connectionPool.getConnection();
+        assertSame(statement, connection.prepareStatement("SELECT 1 FROM INFORMATION_SCHEMA.SYSTEM_USERS"));
+        assertSame(connection, statement.getConnection());
+        connection.close();
+    }
+
+    @Test
+    public void test_statementCache_reset() throws SQLException {
+        connectionPool = new ConnectionPool("test", URL, "sa", "", 0, 1, 0, 1000, null, 2);
+
+        Connection connection = connectionPool.getConnection();
+        PreparedStatement statement = connection.prepareStatement("SELECT 1 FROM INFORMATION_SCHEMA.SYSTEM_USERS");
+        ResultSet resultSet = statement.executeQuery();
+        statement.close();
+        assertFalse(resultSet.next());
+
+        // Modified statements are not returned to the cache...
+        PreparedStatement modifiedStatement = connection.prepareStatement("SELECT 1 FROM INFORMATION_SCHEMA.SYSTEM_USERS");
+        assertSame(statement, modifiedStatement);
+        modifiedStatement.setMaxRows(1);
+        modifiedStatement.close();
+
+        PreparedStatement statement2 = connection.prepareStatement("SELECT 1 FROM INFORMATION_SCHEMA.SYSTEM_USERS");
+        assertNotSame(modifiedStatement, statement2);
+        assertEquals(0, statement2.getMaxRows());
+        statement2.close();
+        assertSame(statement2, connection.prepareStatement("SELECT 1 FROM INFORMATION_SCHEMA.SYSTEM_USERS"));
+        connection.close();
+    }
+
+    @Test
+    public void test_statementCache_evictedWhileBorrowed() throws SQLException {
+        connectionPool = new ConnectionPool("test", URL, "sa", "", 0, 1, 0, 1000, null, 1);
+
+        Connection connection = connectionPool.getConnection();
+        PreparedStatement statement1 = connection.prepareStatement("SELECT 1 FROM INFORMATION_SCHEMA.SYSTEM_USERS");
+        ResultSet resultSet1 = statement1.executeQuery();
+        // Evicts statement1 from the cache while it's still in use...
+        PreparedStatement statement2 = connection.prepareStatement("SELECT 2 FROM INFORMATION_SCHEMA.SYSTEM_USERS");
+        ResultSet resultSet2 = statement2.executeQuery();
+
+        // Neither statement is closed by the borrower...
+        connection.close();
+
+        assertTrue(statement1.isClosed());
+        assertTrue(statement2.isClosed());
+        assertFalse(resultSet1.next());
+        assertFalse(resultSet2.next());
+    }
+}
@@ -0,0 +1,107 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.db;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.smooks.Smooks;
+import org.smooks.payload.StringSource;
+import org.xml.sax.SAXException;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.Assert.assertEquals;
+
+public class DirectDataSourceTest {
+
+    private Connection connection;
+
+    @Before
+    public void setUp() throws Exception {
+        DriverManager.registerDriver(new org.hsqldb.jdbcDriver());
+        connection = DriverManager.getConnection("jdbc:hsqldb:mem:DirectDataSourceTest", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE ORDERS (ID VARCHAR(10))");
+        }
+        DSStatementUser.connections.clear();
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE ORDERS");
+        }
+        connection.close();
+    }
+
+    @Test
+    public void test_pooled() throws IOException, SAXException, SQLException {
+        Smooks smooks = new Smooks(getClass().getResourceAsStream("pooled-direct-ds.xml"));
+
+        try {
+            for (int i = 0; i < 5; i++) {
+                smooks.filterSource(new StringSource("<orders><order id='" + i + "a'/><order id='" + i + "b'/></orders>"));
+            }
+        } finally {
+            smooks.close();
+        }
+
+        // All executions on the one pooled connection...
+        assertEquals(10, DSStatementUser.connections.size());
+        for (String pooledConnection : DSStatementUser.connections) {
+            assertEquals(DSStatementUser.connections.get(0), pooledConnection);
+        }
+
+        // ... and committed...
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM ORDERS")) {
+            resultSet.next();
+            assertEquals(10, resultSet.getInt(1));
+        }
+    }
+}
@@ -47,6 +47,7 @@ import org.junit.Test;
 import org.smooks.FilterSettings;
 import org.smooks.GenericReaderConfigurator;
 import org.smooks.Smooks;
+import org.smooks.SmooksException;
 import org.smooks.container.ExecutionContext;
 import org.smooks.payload.StringSource;
 import org.xml.sax.ContentHandler;
@@ -94,6 +95,26 @@ public class AbstractParserTest {
     	smooks.filterSource(new StringSource("<x/>"));
     	smooks.filterSource(new StringSource("<x/>"));    	
     	assertEquals(3, PooledSAXParser.numSetHandlerCalls);
+    	// The pooled reader must not hold on to the last message's handler...
+    	assertNull(PooledSAXParser.lastParserInstance.getContentHandler());
+
+    	XMLReaderPool readerPool = ((AbstractContentDeliveryConfig) smooks.createExecutionContext().getDeliveryConfig()).getXMLReaderPool();
+    	assertEquals(2, readerPool.getHitCount());
+    	assertEquals(1, readerPool.getMissCount());
+    }
+
+    @Test
+    public void test_readerPool_PooledByDefault() {
+    	Smooks smooks = new Smooks();
+
+    	smooks.setFilterSettings(FilterSettings.newSAXSettings());
+    	smooks.filterSource(new StringSource("<x/>"));
+    	smooks.filterSource(new StringSource("<x/>"));
+
+    	XMLReaderPool readerPool = ((AbstractContentDeliveryConfig) smooks.createExecutionContext().getDeliveryConfig()).getXMLReaderPool();
+    	assertEquals(AbstractContentDeliveryConfig.DEFAULT_READER_POOL_SIZE, readerPool.getCapacity());
+    	assertEquals(1, readerPool.getHitCount());
+    	assertEquals(1, readerPool.getMissCount());
     }
    
     @Test 
@@ -110,6 +131,38 @@ public class AbstractParserTest {
     	assertEquals(3, UnpooledSAXParser.numSetHandlerCalls);
     }
 
+    @Test
+    public void test_readerPool_CustomReaderUnpooledByDefault() {
+    	Smooks smooks = new Smooks();
+
+    	// A custom reader is only pooled by default if it's a ReusableXMLReader...
+    	smooks.setReaderConfig(new GenericReaderConfigurator(UnpooledSAXParser.class));
+    	smooks.setFilterSettings(FilterSettings.newSAXSettings());
+
+    	UnpooledSAXParser.numSetHandlerCalls = 0;
+    	smooks.filterSource(new StringSource("<x/>"));
+    	smooks.filterSource(new StringSource("<x/>"));
+    	assertEquals(2, UnpooledSAXParser.numSetHandlerCalls);
+    }
+
+    @Test
+    public void test_readerPool_FailedParseNotPooled() {
+    	Smooks smooks = new Smooks();
+
+    	smooks.setFilterSettings(FilterSettings.newSAXSettings().setReaderPoolSize(1));
+    	try {
+    		smooks.filterSource(new StringSource("<x>"));
+    		fail("Expected SmooksException");
+    	} catch(SmooksException e) {
+    		// expected
+    	}
+    	smooks.filterSource(new StringSource("<x/>"));
+
+    	XMLReaderPool readerPool = ((AbstractContentDeliveryConfig) smooks.createExecutionContext().getDeliveryConfig()).getXMLReaderPool();
+    	assertEquals(0, readerPool.getHitCount());
+    	assertEquals(2, readerPool.getMissCount());
+    }
+
     private class TestParser extends AbstractParser {
         public TestParser(ExecutionContext execContext) {
             super(execContext);
@@ -123,6 +176,11 @@ public class AbstractParserTest {
     	public static ContentHandler lastHandlerInstance;
     	
 		public void setContentHandler(ContentHandler handler) {
+			if(handler == null) {
+				// Reset on return to the pool...
+				super.setContentHandler(null);
+				return;
+			}
 			if(lastParserInstance == null) {
 				lastParserInstance = this;
 			}
@@ -80,6 +80,29 @@ public class ContentDeliveryConfigBuilderTest {
         assertTrue(config.getVisitAfters().getMappings("b").get(0).getContentHandler() instanceof SAXVisitor01);
     }
 
+	@Test
+    public void test_sax_frozen() throws IOException, SAXException {
+        Smooks smooks = new Smooks(getClass().getResourceAsStream("smooks-config-sax.xml"));
+        ExecutionContext execContext = smooks.createExecutionContext();
+        SAXContentDeliveryConfig config = (SAXContentDeliveryConfig) execContext.getDeliveryConfig();
+
+        assertTrue(config.isFrozen());
+        assertTrue(config.getVisitBefores().isFrozen());
+        assertTrue(config.getOptimizedVisitorConfig().get("b").isFrozen());
+        try {
+            config.getVisitBefores().getMappings("b").clear();
+            fail("Expected UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            // Expected
+        }
+        try {
+            config.getVisitBefores().addMapping("b", config.getVisitBefores().getMappings("b").get(0).getResourceConfig(), new SAXVisitor01());
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+    }
+
 	@Test
     public void test_dom() throws IOException, SAXException {
         Smooks smooks = new Smooks(getClass().getResourceAsStream("smooks-config-dom.xml"));
@@ -42,6 +42,9 @@
  */
 package org.smooks.delivery;
 
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import freemarker.template.TemplateException;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -50,13 +53,19 @@ import static org.junit.Assert.*;
 import org.smooks.Smooks;
 import org.smooks.FilterSettings;
 import org.smooks.container.ExecutionContext;
+import org.smooks.delivery.dom.fragment.FragmentElement;
 import org.smooks.io.StreamUtils;
+import org.smooks.util.FreeMarkerUtils;
 import org.smooks.xml.XmlUtil;
+import org.w3c.dom.DOMException;
+import org.w3c.dom.Element;
 import org.xml.sax.SAXException;
 
 import javax.xml.transform.stream.StreamSource;
 
 import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
 
 /**
  * @author <a href="mailto:tom.fennelly@gmail.com">tom.fennelly@gmail.com</a>
@@ -276,4 +285,42 @@ public class DomModelCreatorTest {
                 XmlUtil.serialize(ModelCatcher.elements.get(1), true)));
     }
 
+    @Test
+    public void test_sax_fragment_model() throws IOException, SAXException, TemplateException {
+        Smooks smooks = new Smooks(getClass().getResourceAsStream("node-model-01.xml"));
+
+        smooks.setFilterSettings(FilterSettings.DEFAULT_SAX);
+
+        ExecutionContext executionContext = smooks.createExecutionContext();
+        smooks.filterSource(executionContext, new StreamSource(getClass().getResourceAsStream("order-message.xml")), null);
+
+        DOMModel nodeModel = DOMModel.getModel(executionContext);
+        Element order = nodeModel.getModels().get("order");
+        Element customer = (Element) order.getElementsByTagName("customer").item(0);
+
+        assertTrue(order instanceof FragmentElement);
+        assertEquals("123123", customer.getAttribute("number"));
+        assertEquals(1, customer.getChildNodes().getLength());
+        assertEquals("Joe > the man", customer.getTextContent());
+        try {
+            customer.setAttribute("number", "1");
+            fail("Expected DOMException");
+        } catch(DOMException e) {
+            assertEquals(DOMException.NO_MODIFICATION_ALLOWED_ERR, e.code);
+        }
+
+        // FreeMarker node model, incl. XPath...
+        Template template = new Template("order", new StringReader("${order.header.customer}/${order['header/customer/@number']}/${.vars['order-item'].price}"), new Configuration(Configuration.VERSION_2_3_30));
+        StringWriter result = new StringWriter();
+        template.process(FreeMarkerUtils.getMergedModel(executionContext), result);
+        assertEquals("Joe > the man/123123/5.20", result.toString());
+
+        // Mutable copy...
+        Element mutableOrder = nodeModel.getMutableModel("order");
+        assertFalse(mutableOrder instanceof FragmentElement);
+        assertSame(mutableOrder, nodeModel.getModels().get("order"));
+        assertTrue(StreamUtils.compareCharStreams(XmlUtil.serialize(order, true), XmlUtil.serialize(mutableOrder, true)));
+        mutableOrder.setAttribute("id", "1");
+        assertEquals("1", mutableOrder.getAttribute("id"));
+    }
 }
@@ -0,0 +1,120 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.delivery;
+
+import org.apache.xerces.parsers.SAXParser;
+import org.junit.Test;
+import org.xml.sax.XMLReader;
+
+import static org.junit.Assert.*;
+
+public class XMLReaderPoolTest {
+
+    @Test
+    public void test_take_offer() {
+        XMLReaderPool pool = new XMLReaderPool(2);
+        XMLReader reader1 = new SAXParser();
+        XMLReader reader2 = new SAXParser();
+
+        assertNull(pool.take());
+        assertTrue(pool.offer(reader1));
+        assertTrue(pool.offer(reader2));
+        assertFalse(pool.offer(new SAXParser()));
+
+        XMLReader taken1 = pool.take();
+        XMLReader taken2 = pool.take();
+        assertNotNull(taken1);
+        assertNotNull(taken2);
+        assertNotSame(taken1, taken2);
+        assertNull(pool.take());
+
+        assertEquals(2, pool.getHitCount());
+        assertEquals(2, pool.getMissCount());
+        assertEquals(1, pool.getDiscardCount());
+    }
+
+    @Test
+    public void test_thread_affinity() {
+        XMLReaderPool pool = new XMLReaderPool(8);
+        XMLReader reader = new SAXParser();
+
+        pool.offer(reader);
+        for(int i = 0; i < 10; i++) {
+            XMLReader taken = pool.take();
+            assertSame(reader, taken);
+            pool.offer(taken);
+        }
+    }
+
+    @Test
+    public void test_disabled() {
+        XMLReaderPool pool = new XMLReaderPool(0);
+
+        assertFalse(pool.offer(new SAXParser()));
+        assertNull(pool.take());
+    }
+
+    @Test
+    public void test_ensureCapacity() {
+        XMLReaderPool pool = new XMLReaderPool(1);
+        XMLReader reader = new SAXParser();
+
+        pool.offer(reader);
+        pool.ensureCapacity(3);
+        assertEquals(3, pool.getCapacity());
+        assertTrue(pool.offer(new SAXParser()));
+        assertTrue(pool.offer(new SAXParser()));
+        assertFalse(pool.offer(new SAXParser()));
+
+        // Can't shrink...
+        pool.ensureCapacity(1);
+        assertEquals(3, pool.getCapacity());
+
+        // The reader pooled before the resize was carried over...
+        boolean found = false;
+        for(int i = 0; i < 3; i++) {
+            found |= (pool.take() == reader);
+        }
+        assertTrue(found);
+    }
+}
@@ -0,0 +1,185 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.delivery.nested;
+
+import org.custommonkey.xmlunit.XMLAssert;
+import org.custommonkey.xmlunit.XMLUnit;
+import org.junit.Test;
+import org.smooks.FilterSettings;
+import org.smooks.Smooks;
+import org.smooks.SmooksException;
+import org.smooks.cdr.SmooksConfigurationException;
+import org.smooks.container.ExecutionContext;
+import org.smooks.javabean.lifecycle.BeanContextLifecycleEvent;
+import org.smooks.javabean.lifecycle.BeanContextLifecycleObserver;
+import org.smooks.javabean.lifecycle.BeanLifecycle;
+import org.smooks.payload.StringResult;
+import org.xml.sax.SAXException;
+
+import javax.xml.transform.stream.StreamSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ParallelNestedExecutionVisitorTest {
+
+    @Test
+    public void test_ordered() throws IOException, SAXException {
+        List<String> products = filter("parallel-config-01.xml", 200);
+
+        assertEquals(expectedProducts(200), products);
+    }
+
+    @Test
+    public void test_unordered() throws IOException, SAXException {
+        List<String> products = filter("parallel-config-02.xml", 200);
+
+        Collections.sort(products);
+        List<String> expectedProducts = expectedProducts(200);
+        Collections.sort(expectedProducts);
+        assertEquals(expectedProducts, products);
+    }
+
+    @Test
+    public void test_fragment_failure() throws IOException, SAXException {
+        Smooks smooks = new Smooks(getClass().getResourceAsStream("parallel-config-01.xml"));
+
+        try {
+            ExecutionContext executionContext = smooks.createExecutionContext();
+            String message = createMessage(20).replace("<product>product-7</product>", "<product>fail</product>");
+
+            try {
+                smooks.filterSource(executionContext, new StreamSource(new StringReader(message)), new StringResult());
+                fail("Expected SmooksException");
+            } catch (SmooksException e) {
+                List<String> messages = new ArrayList<String>();
+                for(Throwable cause = executionContext.getTerminationError(); cause != null; cause = cause.getCause()) {
+                    messages.add(cause.getMessage());
+                }
+                assertTrue(messages.toString(), messages.contains("Nested execution of fragment 7 failed."));
+                assertTrue(messages.toString(), messages.contains("Unknown product 'fail'."));
+            }
+        } finally {
+            smooks.close();
+        }
+    }
+
+    @Test
+    public void test_elementStackNotMaintained() throws IOException, SAXException {
+        Smooks smooks = new Smooks(getClass().getResourceAsStream("parallel-config-01.xml"));
+
+        try {
+            smooks.setFilterSettings(FilterSettings.newSAXSettings().setMaintainElementStack(false));
+
+            ExecutionContext executionContext = smooks.createExecutionContext();
+            try {
+                smooks.filterSource(executionContext, new StreamSource(new StringReader(createMessage(5))), new StringResult());
+                fail("Expected SmooksException");
+            } catch (SmooksException e) {
+                List<Class<?>> causes = new ArrayList<Class<?>>();
+                for(Throwable cause = executionContext.getTerminationError(); cause != null; cause = cause.getCause()) {
+                    causes.add(cause.getClass());
+                }
+                assertTrue(causes.toString(), causes.contains(SmooksConfigurationException.class));
+            }
+        } finally {
+            smooks.close();
+        }
+    }
+
+    private List<String> filter(String config, int orderItemCount) throws IOException, SAXException {
+        Smooks smooks = new Smooks(getClass().getResourceAsStream(config));
+        final List<String> products = new ArrayList<String>();
+
+        try {
+            smooks.getApplicationContext().addBeanContextLifecycleObserver(new BeanContextLifecycleObserver() {
+                public void onBeanLifecycleEvent(BeanContextLifecycleEvent event) {
+                    if(event.getLifecycle() == BeanLifecycle.ADD && event.getBeanId().getName().equals("product")) {
+                        products.add((String) event.getBean());
+                    }
+                }
+            });
+
+            // Filter a few times so as to reuse the nested execution contexts...
+            for(int i = 0; i < 3; i++) {
+                String message = createMessage(orderItemCount);
+                StringResult result = new StringResult();
+
+                products.clear();
+                smooks.filterSource(new StreamSource(new StringReader(message)), result);
+
+                XMLUnit.setIgnoreWhitespace(true);
+                XMLAssert.assertXMLEqual(message, result.toString());
+            }
+        } finally {
+            smooks.close();
+        }
+
+        return products;
+    }
+
+    private String createMessage(int orderItemCount) {
+        StringBuilder message = new StringBuilder("<order><header>header</header><order-items>");
+
+        for(int i = 0; i < orderItemCount; i++) {
+            message.append("<order-item id=\"").append(i).append("\"><product>product-").append(i).append("</product><!-- item --></order-item>");
+        }
+        message.append("</order-items><trailer>trailer</trailer></order>");
+
+        return message.toString();
+    }
+
+    private List<String> expectedProducts(int orderItemCount) {
+        List<String> products = new ArrayList<String>();
+
+        for(int i = 0; i < orderItemCount; i++) {
+            products.add("product-" + i);
+        }
+
+        return products;
+    }
+}
@@ -0,0 +1,133 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.delivery.replay;
+
+import org.junit.Test;
+import org.smooks.delivery.sax.SAXElement;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.QName;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class SAXEventBufferTest {
+
+    @Test
+    public void test_replay_prefixMappings() {
+        SAXEventBuffer eventBuffer = new SAXEventBuffer();
+        AttributesImpl attributes = new AttributesImpl();
+        Map<String, String> namespaces = new LinkedHashMap<String, String>();
+
+        attributes.addAttribute(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, "b", "xmlns:b", "CDATA", "http://b");
+        namespaces.put(XMLConstants.XML_NS_PREFIX, XMLConstants.XML_NS_URI);
+        namespaces.put("a", "http://a");
+        namespaces.put("b", "http://b");
+
+        SAXElement item = new SAXElement(new QName("http://a", "item", "a"), attributes, null);
+        eventBuffer.startElement(item, namespaces);
+        eventBuffer.startElement(new SAXElement(new QName("http://b", "code", "b"), new AttributesImpl(), item));
+        eventBuffer.endElement();
+
+        RecordingHandler handler = new RecordingHandler();
+        eventBuffer.replay(handler);
+
+        assertEquals("[startPrefixMapping(a), startPrefixMapping(b), startElement(a:item, xmlns:b xmlns:a), startElement(b:code), endElement(b:code), endElement(a:item), endPrefixMapping(a), endPrefixMapping(b)]", handler.events.toString());
+    }
+
+    @Test
+    public void test_replay_noPrefixMappings() {
+        SAXEventBuffer eventBuffer = new SAXEventBuffer();
+
+        eventBuffer.startElement(new SAXElement(new QName("item"), new AttributesImpl(), null));
+
+        RecordingHandler handler = new RecordingHandler();
+        eventBuffer.replay(handler);
+
+        assertEquals("[startElement(item), endElement(item)]", handler.events.toString());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void test_prefixMappings_notFirstEvent() {
+        SAXEventBuffer eventBuffer = new SAXEventBuffer();
+
+        eventBuffer.startElement(new SAXElement(new QName("order"), new AttributesImpl(), null));
+        eventBuffer.startElement(new SAXElement(new QName("item"), new AttributesImpl(), null), new LinkedHashMap<String, String>());
+    }
+
+    private static class RecordingHandler extends DefaultHandler {
+
+        private final List<String> events = new ArrayList<String>();
+
+        @Override
+        public void startPrefixMapping(String prefix, String uri) {
+            events.add("startPrefixMapping(" + prefix + ")");
+        }
+
+        @Override
+        public void endPrefixMapping(String prefix) {
+            events.add("endPrefixMapping(" + prefix + ")");
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            StringBuilder event = new StringBuilder("startElement(").append(qName);
+
+            for(int i = 0; i < attributes.getLength(); i++) {
+                event.append(i == 0 ? ", " : " ").append(attributes.getQName(i));
+            }
+            events.add(event.append(")").toString());
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            events.add("endElement(" + qName + ")");
+        }
+    }
+}
@@ -50,7 +50,10 @@ import org.smooks.payload.StringResult;
 import org.smooks.payload.StringSource;
 import org.xml.sax.SAXException;
 
+import javax.xml.transform.stream.StreamResult;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.StringWriter;
 
 /**
  * @author <a href="mailto:tom.fennelly@gmail.com">tom.fennelly@gmail.com</a>
@@ -120,4 +123,52 @@ public class ElementWritingTest {
         assertTrue(SAXVisitBeforeVisitor.visited);
         assertTrue(SAXVisitAfterVisitor.visited);
     }
+
+	@Test
+    public void test_default_writing_not_flushed_per_element() throws IOException, SAXException {
+        Smooks smooks = new Smooks();
+        StringBuilder input = new StringBuilder("<a>");
+        for(int i = 0; i < 100; i++) {
+            input.append("<b>").append(i).append("</b>");
+        }
+        input.append("</a>");
+
+        final int[] flushCount = new int[1];
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushCount[0]++;
+            }
+        };
+
+        smooks.filterSource(smooks.createExecutionContext(), new StringSource(input.toString()), new StreamResult(outputStream));
+
+        assertEquals(input.toString(), outputStream.toString("UTF-8"));
+        // Flushed at the end of the document and when the result is closed, not for every element...
+        assertTrue("Flushed " + flushCount[0] + " times.", flushCount[0] < 5);
+    }
+
+	@Test
+    public void test_supplied_writer_flushed_per_element() throws IOException, SAXException {
+        Smooks smooks = new Smooks();
+        StringBuilder input = new StringBuilder("<a>");
+        for(int i = 0; i < 100; i++) {
+            input.append("<b>").append(i).append("</b>");
+        }
+        input.append("</a>");
+
+        final int[] flushCount = new int[1];
+        StringWriter writer = new StringWriter() {
+            @Override
+            public void flush() {
+                flushCount[0]++;
+            }
+        };
+
+        smooks.filterSource(smooks.createExecutionContext(), new StringSource(input.toString()), new StreamResult(writer));
+
+        assertEquals(input.toString(), writer.toString());
+        // Caller supplied writers are flushed after every element...
+        assertTrue("Flushed " + flushCount[0] + " times.", flushCount[0] >= 101);
+    }
 }
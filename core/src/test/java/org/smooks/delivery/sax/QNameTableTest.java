@@ -0,0 +1,95 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.delivery.sax;
+
+import org.junit.Test;
+
+import javax.xml.namespace.QName;
+
+import static org.junit.Assert.*;
+
+public class QNameTableTest {
+
+    @Test
+    public void test_toQName() {
+        QNameTable qNameTable = new QNameTable();
+
+        QName name = qNameTable.toQName("http://a", "b", "x:b");
+        assertEquals(new QName("http://a", "b", "x"), name);
+        assertEquals("x", name.getPrefix());
+        assertSame(name, qNameTable.toQName("http://a", "b", "x:b"));
+        assertSame(name, qNameTable.toQName(new String("http://a"), new String("b"), new String("x:b")));
+
+        // Same name, different prefix...
+        QName yName = qNameTable.toQName("http://a", "b", "y:b");
+        assertEquals("y", yName.getPrefix());
+        assertNotSame(name, yName);
+
+        assertEquals(new QName("", "c"), qNameTable.toQName("", "c", "c"));
+        assertEquals(new QName("", "d"), qNameTable.toQName("", "", "d"));
+        assertEquals(new QName("e"), qNameTable.toQName(null, "e", null));
+        assertEquals(5, qNameTable.size());
+    }
+
+    @Test
+    public void test_toQName_invalid() {
+        try {
+            new QNameTable().toQName("", "", "");
+            fail("Expected IllegalArgumentException.");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Invalid QName: namespaceURI='', localName='', qName=''.", e.getMessage());
+        }
+    }
+
+    @Test
+    public void test_toQName_bounded() {
+        QNameTable qNameTable = new QNameTable();
+
+        for(int i = 0; i < QNameTable.MAX_SYMBOLS + 10; i++) {
+            assertEquals("e" + i, qNameTable.toQName("", "e" + i, "e" + i).getLocalPart());
+        }
+        assertEquals(QNameTable.MAX_SYMBOLS, qNameTable.size());
+        assertSame(qNameTable.toQName("", "e0", "e0"), qNameTable.toQName("", "e0", "e0"));
+        assertEquals(new QName("", "e" + QNameTable.MAX_SYMBOLS), qNameTable.toQName("", "e" + QNameTable.MAX_SYMBOLS, "e" + QNameTable.MAX_SYMBOLS));
+    }
+}
@@ -0,0 +1,174 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.delivery.sax;
+
+import org.junit.Test;
+import org.smooks.FilterSettings;
+import org.smooks.Smooks;
+import org.smooks.StreamFilterType;
+import org.smooks.container.ExecutionContext;
+import org.smooks.delivery.DOMModel;
+import org.smooks.delivery.DomModelCreator;
+import org.smooks.delivery.sax.annotation.RetainsElement;
+import org.smooks.payload.StringResult;
+import org.smooks.payload.StringSource;
+import org.smooks.xml.XmlUtil;
+import org.w3c.dom.Element;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+public class SAXElementRecyclingTest {
+
+    private static final String INPUT = "<a><b x=\"1\"><c>1</c></b><b x=\"2\"><c>2</c></b><b x=\"3\"><c>3</c></b></a>";
+
+    @Test
+    public void test_output_unchanged() {
+        assertEquals(filter(false, new CapturingVisitor()), filter(true, new CapturingVisitor()));
+    }
+
+    @Test
+    public void test_elements_recycled() {
+        CapturingVisitor visitor = new CapturingVisitor();
+
+        filter(true, visitor);
+        assertEquals(3, visitor.elements.size());
+        assertSame(visitor.elements.get(0), visitor.elements.get(1));
+        assertSame(visitor.elements.get(1), visitor.elements.get(2));
+        assertEquals("[1, 2, 3]", visitor.attributeValues.toString());
+    }
+
+    @Test
+    public void test_elements_not_recycled_by_default() {
+        CapturingVisitor visitor = new CapturingVisitor();
+
+        filter(false, visitor);
+        assertEquals(3, visitor.elements.size());
+        assertNotSame(visitor.elements.get(0), visitor.elements.get(1));
+        assertEquals("[1, 2, 3]", visitor.attributeValues.toString());
+    }
+
+    @Test
+    public void test_recycling_off_for_retaining_visitor() {
+        CapturingVisitor visitor = new RetainingVisitor();
+
+        filter(true, visitor);
+        assertEquals(3, visitor.elements.size());
+        assertNotSame(visitor.elements.get(0), visitor.elements.get(1));
+        assertEquals("1", visitor.elements.get(0).getAttribute("x"));
+        assertEquals("2", visitor.elements.get(1).getAttribute("x"));
+    }
+
+    @Test
+    public void test_dom_model_creator() throws Exception {
+        assertEquals("[<b x=\"1\"><c>1</c></b>, <b x=\"2\"><c>2</c></b>, <b x=\"3\"><c>3</c></b>]", createModels(true, false).toString());
+        assertEquals(createModels(false, false).toString(), createModels(true, false).toString());
+        assertEquals(createModels(false, true).toString(), createModels(true, true).toString());
+    }
+
+    private List<String> createModels(boolean recycleElements, boolean mutableModel) throws Exception {
+        Smooks smooks = new Smooks();
+
+        try {
+            ModelCapturingVisitor visitor = new ModelCapturingVisitor();
+
+            smooks.setFilterSettings(new FilterSettings(StreamFilterType.SAX).setRecycleElements(recycleElements));
+            smooks.addVisitor(new DomModelCreator().setMutableModel(Optional.of(mutableModel)), "b");
+            smooks.addVisitor(visitor, "b");
+            smooks.filterSource(new StringSource(INPUT));
+
+            // The models are only serialized once the filtering is done, so any element
+            // state shared with the recycled SAX elements would show up here...
+            List<String> models = new ArrayList<String>();
+            for(Element model : visitor.models) {
+                models.add(XmlUtil.serialize(model, false));
+            }
+            return models;
+        } finally {
+            smooks.close();
+        }
+    }
+
+    private String filter(boolean recycleElements, CapturingVisitor visitor) {
+        Smooks smooks = new Smooks();
+
+        try {
+            smooks.setFilterSettings(new FilterSettings(StreamFilterType.SAX).setRecycleElements(recycleElements));
+            smooks.addVisitor(visitor, "b");
+
+            StringResult result = new StringResult();
+            smooks.filterSource(new StringSource(INPUT), result);
+
+            return result.getResult();
+        } finally {
+            smooks.close();
+        }
+    }
+
+    private static class CapturingVisitor implements SAXVisitAfter {
+
+        private final List<SAXElement> elements = new ArrayList<SAXElement>();
+        private final List<String> attributeValues = new ArrayList<String>();
+
+        public void visitAfter(SAXElement element, ExecutionContext executionContext) {
+            elements.add(element);
+            attributeValues.add(element.getAttribute("x"));
+        }
+    }
+
+    private static class ModelCapturingVisitor implements SAXVisitAfter {
+
+        private final List<Element> models = new ArrayList<Element>();
+
+        public void visitAfter(SAXElement element, ExecutionContext executionContext) {
+            models.add(DOMModel.getModel(executionContext).getModels().get("b"));
+        }
+    }
+
+    @RetainsElement
+    private static class RetainingVisitor extends CapturingVisitor {
+    }
+}
@@ -46,6 +46,10 @@ import org.junit.Test;
 import org.smooks.SmooksException;
 import org.xml.sax.helpers.AttributesImpl;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+
 import static org.junit.Assert.*;
 
 
@@ -145,4 +149,57 @@ public class SAXElementTest {
         // Check saxElement2 OK...
         assertEquals("XXXXXX<![CDATA[yyyyyyyy]]>", saxElement2.getTextContent());
     }
+
+	@Test
+    public void test_accumulateText_sharesParserBuffer() throws IOException {
+        SAXElement saxElement = new SAXElement("http://x", "a", "x", new AttributesImpl(), null);
+        char[] parserBuffer = "xxText1xx".toCharArray();
+
+        saxElement.accumulateText();
+        saxElement.getText().add(new SAXText(parserBuffer, 2, 5, TextType.TEXT));
+        // The parser is free to reuse its buffer...
+        "xxText2xx".getChars(0, 9, parserBuffer, 0);
+        saxElement.getText().add(new SAXText(parserBuffer, 2, 5, TextType.CDATA));
+
+        SAXText text1 = saxElement.getText().get(0);
+        SAXText text2 = saxElement.getText().get(1);
+        assertEquals("Text1", text1.getText());
+        assertEquals("Text2", text2.getText());
+        assertSame(text1.getCharacters(), text2.getCharacters());
+
+        CharSequence textContent = saxElement.getTextContentAsCharSequence();
+        assertFalse(textContent instanceof String);
+        assertEquals("Text1<![CDATA[Text2]]>", textContent.toString());
+
+        Reader reader = saxElement.getTextContentReader();
+        StringWriter writer = new StringWriter();
+        char[] readBuffer = new char[4];
+        int count;
+        while((count = reader.read(readBuffer)) != -1) {
+            writer.write(readBuffer, 0, count);
+        }
+        assertEquals("Text1<![CDATA[Text2]]>", writer.toString());
+    }
+
+	@Test
+    public void test_accumulateText_afterListModification() {
+        SAXElement saxElement = new SAXElement("http://x", "a", "x", new AttributesImpl(), null);
+
+        saxElement.accumulateText();
+        saxElement.getText().add(new SAXText("Text1", TextType.TEXT));
+        saxElement.getText().add(new SAXText("Text2", TextType.COMMENT));
+        assertEquals("Text1<!--Text2-->", saxElement.getTextContent());
+
+        saxElement.getText().remove(0);
+        assertEquals("<!--Text2-->", saxElement.getTextContentAsCharSequence().toString());
+        saxElement.getText().add(new SAXText("Text3", TextType.TEXT));
+        assertEquals("<!--Text2-->Text3", saxElement.getTextContent());
+
+        // Turning accumulation on again starts from an empty buffer...
+        saxElement.recycle(saxElement.getName(), new AttributesImpl(), null);
+        saxElement.accumulateText();
+        assertEquals("", saxElement.getTextContent());
+        saxElement.getText().add(new SAXText("Text4", TextType.TEXT));
+        assertEquals("Text4", saxElement.getTextContent());
+    }
 }
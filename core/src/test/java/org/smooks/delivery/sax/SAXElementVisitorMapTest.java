@@ -0,0 +1,86 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.delivery.sax;
+
+import org.junit.Test;
+import org.smooks.cdr.SmooksResourceConfiguration;
+import org.smooks.delivery.ContentHandlerConfigMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SAXElementVisitorMapTest {
+
+    @Test
+    public void test_freeze() {
+        SAXElementVisitorMap visitorMap = new SAXElementVisitorMap();
+        List<ContentHandlerConfigMap<SAXVisitAfter>> visitAfters = new ArrayList<ContentHandlerConfigMap<SAXVisitAfter>>();
+
+        visitAfters.add(new ContentHandlerConfigMap<SAXVisitAfter>(new SAXVisitAfterVisitor(), new SmooksResourceConfiguration("a")));
+        visitAfters.add(new ContentHandlerConfigMap<SAXVisitAfter>(new SAXVisitAfterVisitor(), new SmooksResourceConfiguration("a")));
+        visitAfters.add(new ContentHandlerConfigMap<SAXVisitAfter>(new SAXVisitAfterVisitor(), new SmooksResourceConfiguration("a")));
+        visitorMap.setVisitAfters(visitAfters);
+        visitorMap.freeze();
+
+        assertNull(visitorMap.getVisitBeforeArray());
+        assertArrayEquals(visitAfters.toArray(), visitorMap.getVisitAfterArray(false));
+        assertSame(visitAfters.get(2), visitorMap.getVisitAfterArray(true)[0]);
+        assertSame(visitAfters.get(1), visitorMap.getVisitAfterArray(true)[1]);
+        assertSame(visitAfters.get(0), visitorMap.getVisitAfterArray(true)[2]);
+
+        try {
+            visitorMap.getVisitAfters().remove(0);
+            fail("Expected UnsupportedOperationException");
+        } catch (UnsupportedOperationException e) {
+            // Expected
+        }
+        try {
+            visitorMap.setVisitBefores(null);
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+    }
+}
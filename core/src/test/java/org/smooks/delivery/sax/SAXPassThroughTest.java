@@ -0,0 +1,168 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.delivery.sax;
+
+import org.junit.Test;
+import org.smooks.FilterSettings;
+import org.smooks.Smooks;
+import org.smooks.SmooksException;
+import org.smooks.StreamFilterType;
+import org.smooks.container.ExecutionContext;
+import org.smooks.delivery.sax.annotation.StreamResultWriter;
+import org.smooks.delivery.sax.annotation.TextConsumer;
+import org.smooks.payload.StringResult;
+import org.smooks.payload.StringSource;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import static org.junit.Assert.*;
+
+public class SAXPassThroughTest {
+
+    private static final String INPUT = "<?xml version=\"1.0\"?>" +
+            "<order xmlns=\"http://order\" xmlns:x=\"http://x\" id=\"1\">" +
+            "<header><customer number=\"123\">Joe</customer><x:date>2020-01-01</x:date><empty /></header>" +
+            "<!-- the items -->" +
+            "<items>" +
+            "<item a=\"&quot;q&quot;\" b=\"&lt;&amp;&gt;\"><price>8.90</price><text>a &amp; b &lt; c</text><![CDATA[<raw>]]></item>" +
+            "<item><x:price>5.00</x:price></item>" +
+            "</items>" +
+            "<other><price>1.00</price><x:empty x:a=\"1\"/></other>" +
+            "</order>";
+
+    @Test
+    public void test_output_unchanged() {
+        String expected = filter(false, "/order/items/item/price", "#document/order/header/customer");
+        String actual = filter(true, "/order/items/item/price", "#document/order/header/customer");
+
+        assertEquals(expected, actual);
+        assertTrue(actual, actual.contains("<customer number=\"123\">{{Joe}}</customer>"));
+        assertTrue(actual, actual.contains("<item a=\"&quot;q&quot;\" b=\"&lt;&amp;&gt;\">{{8.90}}<text>a &amp; b &lt; c</text><![CDATA[<raw>]]></item>"));
+        assertTrue(actual, actual.contains("<x:date>2020-01-01</x:date><empty /></header><!-- the items -->"));
+        assertTrue(actual, actual.contains("<item>{{5.00}}</item>"));
+        assertTrue(actual, actual.contains("<other><x:empty x:a=\"1\" /></other>"));
+    }
+
+    @Test
+    public void test_output_unchanged_name_hit_in_subtree() {
+        // "text" can match anywhere, so the items subtree is passed through until the text element is reached...
+        String expected = filter(false, "/order/header/customer", "text");
+        String actual = filter(true, "/order/header/customer", "text");
+
+        assertEquals(expected, actual);
+        assertTrue(actual, actual.contains("<price>8.90</price>{{a & b < c}}<![CDATA[<raw>]]></item>"));
+    }
+
+    @Test
+    public void test_output_unchanged_no_visitors() {
+        String expected = filter(false);
+        String actual = filter(true);
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void test_pass_through_applicability() {
+        assertTrue(isPassThroughUntargeted(true, "/order/items/item/price"));
+        assertTrue(isPassThroughUntargeted(true));
+        // Non contextual selectors are checked on each element in a passed through subtree...
+        assertTrue(isPassThroughUntargeted(true, "/order/items/item/price", "price"));
+        assertFalse(isPassThroughUntargeted(false, "/order/items/item/price"));
+        // Selectors that can match anywhere in the document...
+        assertFalse(isPassThroughUntargeted(true, "item/price"));
+        assertFalse(isPassThroughUntargeted(true, "/order/items/item/price", "*"));
+        assertFalse(isPassThroughUntargeted(true, "/order/**/price"));
+    }
+
+    private String filter(boolean passThroughUntargeted, String... selectors) {
+        Smooks smooks = newSmooks(passThroughUntargeted, selectors);
+
+        try {
+            StringResult result = new StringResult();
+            smooks.filterSource(new StringSource(INPUT), result);
+
+            return result.getResult();
+        } finally {
+            smooks.close();
+        }
+    }
+
+    private boolean isPassThroughUntargeted(boolean passThroughUntargeted, String... selectors) {
+        Smooks smooks = newSmooks(passThroughUntargeted, selectors);
+
+        try {
+            return ((SAXContentDeliveryConfig) smooks.createExecutionContext().getDeliveryConfig()).isPassThroughUntargeted();
+        } finally {
+            smooks.close();
+        }
+    }
+
+    private Smooks newSmooks(boolean passThroughUntargeted, String... selectors) {
+        Smooks smooks = new Smooks();
+
+        smooks.setFilterSettings(new FilterSettings(StreamFilterType.SAX).setPassThroughUntargeted(passThroughUntargeted));
+        for(String selector : selectors) {
+            smooks.addVisitor(new TextWrappingVisitor(), selector);
+        }
+
+        return smooks;
+    }
+
+    @TextConsumer
+    @StreamResultWriter
+    private static class TextWrappingVisitor implements SAXVisitAfter {
+
+        public void visitAfter(SAXElement element, ExecutionContext executionContext) throws SmooksException, IOException {
+            Writer writer = element.getWriter(this);
+
+            if(element.getName().getLocalPart().equals("customer")) {
+                SAXElementWriterUtil.writeStartElement(element, writer, true);
+                writer.write("{{" + element.getTextContent() + "}}");
+                SAXElementWriterUtil.writeEndElement(element, writer);
+            } else {
+                writer.write("{{" + element.getTextContent() + "}}");
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Smooks Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.delivery.sax;
+
+import org.junit.Test;
+import org.smooks.Smooks;
+import org.smooks.container.ExecutionContext;
+import org.smooks.payload.StringResult;
+import org.smooks.payload.StringSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SelectorAutomatonTest {
+
+    private static final String INPUT = "<a><b x=\"1\"><c id=\"1\"/></b><b x=\"2\"><c id=\"2\"/><d><c id=\"3\"/></d></b><c id=\"4\"/></a>";
+
+    @Test
+    public void test_relative_selector() {
+        assertEquals("[1, 2]", visit("b/c"));
+        assertEquals("[3]", visit("d/c"));
+        assertEquals("[, , 4]", visit("a/*"));
+        assertEquals("[3]", visit("b/*/c"));
+    }
+
+    @Test
+    public void test_rooted_selector() {
+        assertEquals("[4]", visit("/a/c"));
+        assertEquals("[1, 2]", visit("/a/b/c"));
+        assertEquals("[]", visit("/b/c"));
+        assertEquals("[4]", visit("#document/a/c"));
+    }
+
+    @Test
+    public void test_case_insensitive_context() {
+        assertEquals("[1, 2]", visit("B/c"));
+    }
+
+    @Test
+    public void test_context_predicates() {
+        assertEquals("[2]", visit("a/b[@x = '2']/c"));
+        assertEquals("[2]", visit("b/c[@id = '2']"));
+    }
+
+    @Test
+    public void test_star_star_selector() {
+        assertEquals("[3]", visit("b/**/c"));
+        assertEquals("[1, 2, 3]", visit("a/**/c"));
+    }
+
+    @Test
+    public void test_shared_by_messages() {
+        Smooks smooks = new Smooks();
+        IdCollector collector = new IdCollector();
+
+        try {
+            smooks.addVisitor(collector, "b/c");
+            for(int i = 0; i < 3; i++) {
+                smooks.filterSource(new StringSource(INPUT), new StringResult());
+            }
+        } finally {
+            smooks.close();
+        }
+        assertEquals("[1, 2, 1, 2, 1, 2]", collector.ids.toString());
+    }
+
+    private String visit(String selector) {
+        Smooks smooks = new Smooks();
+        IdCollector collector = new IdCollector();
+
+        try {
+            smooks.addVisitor(collector, selector);
+            smooks.filterSource(new StringSource(INPUT), new StringResult());
+        } finally {
+            smooks.close();
+        }
+
+        return collector.ids.toString();
+    }
+
+    private static class IdCollector implements SAXVisitBefore {
+
+        private final List<String> ids = new ArrayList<String>();
+
+        public void visitBefore(SAXElement element, ExecutionContext executionContext) {
+            ids.add(element.getAttribute("id"));
+        }
+    }
+}
@@ -166,6 +166,26 @@ public class MVELExpressionEvaluatorTest {
 
 	}
 
+	@Test
+	public void test_evaluation_context() {
+		Map<String, Object> map = new HashMap<String, Object>();
+		MVELEvaluationContext evaluationContext = new MVELEvaluationContext(map);
+		MVELExpressionEvaluator isdefEvaluator = new MVELExpressionEvaluator("VARS.isdef('value')");
+
+		map.put("value1", 1);
+		evaluator.setExpression("x = value1 + 1; x");
+		assertEquals(2, evaluator.exec(evaluationContext));
+
+		// Variables created by an evaluation don't leak into the next evaluation...
+		assertFalse((Boolean) new MVELExpressionEvaluator("VARS.isdef('x')").exec(evaluationContext));
+
+		assertFalse((Boolean) isdefEvaluator.exec(evaluationContext));
+		map.put("value", new Object());
+		assertTrue((Boolean) isdefEvaluator.exec(evaluationContext));
+		map.remove("value");
+		assertFalse((Boolean) isdefEvaluator.exec(evaluationContext));
+	}
+
 	@Before
 	public void setUp() throws Exception {
 		evaluator = new MVELExpressionEvaluator();
@@ -48,9 +48,13 @@ import org.smooks.container.ExecutionContext;
 import org.smooks.container.MockExecutionContext;
 import org.smooks.javabean.lifecycle.BeanContextLifecycleEvent;
 import org.smooks.javabean.lifecycle.BeanContextLifecycleObserver;
+import org.smooks.javabean.lifecycle.BeanLifecycle;
 import org.smooks.javabean.repository.BeanId;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.Assert.*;
@@ -214,6 +218,66 @@ public class BeanContextTest {
 		assertNull(BeanContext.getBean("bean4"));
 	}
 
+	@Test
+	public void test_targeted_observers() {
+		BeanId beanId1 = getBeanIdStore().register("bean1");
+		BeanId beanId2 = getBeanIdStore().register("bean2");
+		BeanContext beanContext = getBeanContext();
+		MockRepositoryBeanLifecycleObserver globalObserver = new MockRepositoryBeanLifecycleObserver();
+		MockRepositoryBeanLifecycleObserver bean1AddObserver = new MockRepositoryBeanLifecycleObserver();
+		MockRepositoryBeanLifecycleObserver bean2ChangeObserver = new MockRepositoryBeanLifecycleObserver();
+
+		beanContext.addObserver(globalObserver);
+		beanContext.addObserver(beanId1, BeanLifecycle.ADD, bean1AddObserver);
+		beanContext.addObserver(beanId2, BeanLifecycle.CHANGE, bean2ChangeObserver);
+
+		beanContext.addBean(beanId2, new MyGoodBean(), null);
+		assertTrue(globalObserver.isFired());
+		assertFalse(bean1AddObserver.isFired());
+		assertFalse(bean2ChangeObserver.isFired());
+
+		beanContext.addBean(beanId1, new MyGoodBean(), null);
+		assertTrue(bean1AddObserver.isFired());
+		assertFalse(bean2ChangeObserver.isFired());
+
+		beanContext.changeBean(beanId2, new MyGoodBean(), null);
+		assertTrue(bean2ChangeObserver.isFired());
+
+		bean1AddObserver.reset();
+		beanContext.removeObserver(beanId1, BeanLifecycle.ADD, bean1AddObserver);
+		beanContext.addBean(beanId1, new MyGoodBean(), null);
+		assertFalse(bean1AddObserver.isFired());
+	}
+
+	@Test
+	public void test_nested_events_fired_after_current_event() {
+		final BeanId beanId1 = getBeanIdStore().register("bean1");
+		final BeanId beanId2 = getBeanIdStore().register("bean2");
+		final BeanContext beanContext = getBeanContext();
+		final List<String> events = new ArrayList<String>();
+
+		beanContext.addObserver(beanId1, BeanLifecycle.ADD, new BeanContextLifecycleObserver() {
+			public void onBeanLifecycleEvent(BeanContextLifecycleEvent event) {
+				events.add("bean1-a");
+				// Registered while bean1's ADD is being dispatched, but still gets the nested bean2 ADD...
+				beanContext.addObserver(beanId2, BeanLifecycle.ADD, new BeanContextLifecycleObserver() {
+					public void onBeanLifecycleEvent(BeanContextLifecycleEvent event) {
+						events.add("bean2");
+					}
+				});
+				beanContext.addBean(beanId2, new MyGoodBean(), null);
+			}
+		});
+		beanContext.addObserver(beanId1, BeanLifecycle.ADD, new BeanContextLifecycleObserver() {
+			public void onBeanLifecycleEvent(BeanContextLifecycleEvent event) {
+				events.add("bean1-b");
+			}
+		});
+
+		beanContext.addBean(beanId1, new MyGoodBean(), null);
+		assertEquals(Arrays.asList("bean1-a", "bean1-b", "bean2"), events);
+	}
+
 	@Before
 	public void setUp() throws Exception {
 		executionContext = new MockExecutionContext();
@@ -48,6 +48,7 @@ import java.util.Map.Entry;
 import org.hibernate.Query;
 import org.hibernate.Session;
 import org.smooks.assertion.AssertArgument;
+import org.smooks.scribe.Batchable;
 import org.smooks.scribe.Dao;
 import org.smooks.scribe.Flushable;
 import org.smooks.scribe.Locator;
@@ -55,10 +56,14 @@ import org.smooks.scribe.Queryable;
 
 
 /**
+ * A batch is executed by flushing the Session, so that the statements
+ * are grouped by the JDBC batching of Hibernate (<tt>hibernate.jdbc.batch_size</tt>).
+ * The session isn't cleared, so looked up entities stay managed.
+ *
  * @author <a href="mailto:maurice.zeijen@smies.com">maurice.zeijen@smies.com</a>
  *
  */
-class SessionDaoAdapter implements Dao<Object>, Locator, Queryable, Flushable {
+class SessionDaoAdapter implements Dao<Object>, Locator, Queryable, Flushable, Batchable {
 
 	private final Session session;
 
@@ -78,6 +83,19 @@ class SessionDaoAdapter implements Dao<Object>, Locator, Queryable, Flushable {
 		session.flush();
 	}
 
+	/* (non-Javadoc)
+	 * @see org.smooks.scribe.Batchable#startBatch()
+	 */
+	public void startBatch() {
+	}
+
+	/* (non-Javadoc)
+	 * @see org.smooks.scribe.Batchable#executeBatch()
+	 */
+	public void executeBatch() {
+		session.flush();
+	}
+
 	/* (non-Javadoc)
 	 * @see org.smooks.scribe.DAO#merge(java.lang.Object)
 	 */
@@ -44,11 +44,16 @@ package org.smooks.scribe.adapter.hibernate;
 
 import org.hibernate.Session;
 import org.hibernate.query.Query;
+import org.smooks.scribe.Dao;
+import org.smooks.scribe.Locator;
 import org.smooks.scribe.adapter.hibernate.test.util.BaseTestCase;
+import org.smooks.scribe.register.BatchingDaoRegister;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -56,6 +61,10 @@ import java.util.Map;
 
 import static org.junit.Assert.assertSame;
 import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -117,6 +126,21 @@ public class SessionDaoAdapterTest extends BaseTestCase {
 
     }
 
+    @Test(groups = "unit")
+    public void test_executeBatch() {
+
+        // EXECUTE
+
+        adapter.startBatch();
+        adapter.executeBatch();
+
+        // VERIFY
+
+        verify(session).flush();
+        verify(session, never()).clear();
+
+    }
+
     @Test(groups = "unit")
     public void test_lookupByQuery_map_parameters() {
 
@@ -237,6 +261,65 @@ public class SessionDaoAdapterTest extends BaseTestCase {
 
     }
 
+    @Test(groups = "unit")
+    public void test_lookup_named_query_omitted_parameter() {
+
+        // STUB
+
+        Query query2 = mock(Query.class);
+
+        when(session.getNamedQuery(anyString())).thenReturn(query, query2);
+
+        // EXECUTE
+
+        Map<String, Object> params = new HashMap<String, Object>();
+        params.put("key1", "value1");
+
+        adapter.lookup("name", params);
+        adapter.lookup("name", Collections.<String, Object>emptyMap());
+
+        // VERIFY
+
+        verify(session, times(2)).getNamedQuery(eq("name"));
+
+        verify(query).setParameter(eq("key1"), eq("value1"));
+        verify(query2, never()).setParameter(anyString(), any());
+        verify(query2).list();
+
+    }
+
+    @Test(groups = "unit")
+    @SuppressWarnings("unchecked")
+    public void test_lookup_then_delete_across_batch() {
+
+        // STUB
+
+        Object entity = new Object();
+
+        when(session.getNamedQuery(anyString())).thenReturn(query);
+        when(query.list()).thenReturn(Collections.singletonList(entity));
+
+        // EXECUTE
+
+        BatchingDaoRegister<SessionDaoAdapter> register = new BatchingDaoRegister<SessionDaoAdapter>(new SessionRegister(session), 1);
+
+        Object dao = register.getDefaultDao();
+
+        Object found = ((Collection<?>) ((Locator) dao).lookup("name")).iterator().next();
+
+        ((Dao<Object>) dao).insert(new Object());
+        ((Dao<Object>) dao).delete(found);
+
+        // VERIFY
+
+        InOrder inOrder = inOrder(session);
+        inOrder.verify(session).save(any());
+        inOrder.verify(session).flush();
+        inOrder.verify(session).delete(same(entity));
+        verify(session, never()).clear();
+
+    }
+
 
     /* (non-Javadoc)
      * @see org.smooks.scribe.test.util.BaseTestCase#beforeMethod()
@@ -46,6 +46,7 @@ import java.sql.SQLException;
 import java.util.Collection;
 import java.util.Map;
 
+import org.smooks.scribe.Batchable;
 import org.smooks.scribe.DaoException;
 import org.smooks.scribe.Locator;
 import org.smooks.scribe.MappingDao;
@@ -53,10 +54,15 @@ import org.smooks.scribe.MappingDao;
 import com.ibatis.sqlmap.client.SqlMapClient;
 
 /**
+ * Batches are executed with the native batching of the SqlMapClient
+ * ({@link SqlMapClient#startBatch()} and {@link SqlMapClient#executeBatch()}).
+ * The statement ids are already resolved to prepared mapped statements
+ * by the SqlMapClient itself.
+ *
  * @author <a href="mailto:maurice.zeijen@smies.com">maurice.zeijen@smies.com</a>
  *
  */
-class SqlMapClientDaoAdapter implements MappingDao<Object>, Locator  {
+class SqlMapClientDaoAdapter implements MappingDao<Object>, Locator, Batchable  {
 
 	private final SqlMapClient sqlMapClient;
 
@@ -67,6 +73,28 @@ class SqlMapClientDaoAdapter implements MappingDao<Object>, Locator  {
 		this.sqlMapClient = sqlMapClient;
 	}
 
+	/* (non-Javadoc)
+	 * @see org.smooks.scribe.Batchable#startBatch()
+	 */
+	public void startBatch() {
+		try {
+			sqlMapClient.startBatch();
+		} catch (SQLException e) {
+			throw new DaoException("Exception throw while starting a batch", e);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.smooks.scribe.Batchable#executeBatch()
+	 */
+	public void executeBatch() {
+		try {
+			sqlMapClient.executeBatch();
+		} catch (SQLException e) {
+			throw new DaoException("Exception throw while executing a batch", e);
+		}
+	}
+
 	/* (non-Javadoc)
 	 * @see org.smooks.scribe.NamedDAO#merge(java.lang.String, java.lang.Object)
 	 */
@@ -50,7 +50,10 @@ import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.same;
+import org.mockito.InOrder;
 import org.mockito.Mock;
+import org.smooks.scribe.DaoException;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.stub;
 import static org.mockito.Mockito.verify;
 import org.testng.annotations.BeforeMethod;
@@ -106,6 +109,39 @@ public class SqlMapClientDaoAdapterTest extends BaseTestCase {
     }
 
 
+    @Test(groups = "unit")
+    public void test_batch() throws SQLException {
+
+        // EXECUTE
+
+        Object toPersist = new Object();
+
+        adapter.startBatch();
+        adapter.insert("id", toPersist);
+        adapter.executeBatch();
+
+        // VERIFY
+
+        InOrder inOrder = inOrder(sqlMapClient);
+        inOrder.verify(sqlMapClient).startBatch();
+        inOrder.verify(sqlMapClient).insert(eq("id"), same(toPersist));
+        inOrder.verify(sqlMapClient).executeBatch();
+
+    }
+
+    @Test(groups = "unit", expectedExceptions = DaoException.class)
+    public void test_executeBatch_exception() throws SQLException {
+
+        // STUB
+
+        stub(sqlMapClient.executeBatch()).toThrow(new SQLException());
+
+        // EXECUTE
+
+        adapter.executeBatch();
+
+    }
+
     @Test(groups = "unit")
     public void test_lookup_map_parameters() throws SQLException {
 
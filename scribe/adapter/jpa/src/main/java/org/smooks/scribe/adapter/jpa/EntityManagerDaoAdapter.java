@@ -49,6 +49,7 @@ import javax.persistence.EntityManager;
 import javax.persistence.Query;
 
 import org.smooks.assertion.AssertArgument;
+import org.smooks.scribe.Batchable;
 import org.smooks.scribe.Dao;
 import org.smooks.scribe.Flushable;
 import org.smooks.scribe.Locator;
@@ -61,12 +62,16 @@ import org.smooks.scribe.Queryable;
  * <br>
  * Prefixing a query with a @ makes sure that
  * the query is handled as a named query. The @
- * is off course removed before the named query is called
+ * is off course removed before the named query is called.<br>
+ * <br>
+ * A batch is executed by flushing the EntityManager, so that the JDBC
+ * batching of the persistence provider can group the statements. The
+ * persistence context isn't cleared, so looked up entities stay managed.
  *
  * @author <a href="mailto:maurice.zeijen@smies.com">maurice.zeijen@smies.com</a>
  *
  */
-class EntityManagerDaoAdapter implements Dao<Object>, Locator, Queryable, Flushable {
+class EntityManagerDaoAdapter implements Dao<Object>, Locator, Queryable, Flushable, Batchable {
 
 	private final EntityManager entityManager;
 
@@ -84,6 +89,19 @@ class EntityManagerDaoAdapter implements Dao<Object>, Locator, Queryable, Flusha
 		entityManager.flush();
 	}
 
+	/* (non-Javadoc)
+	 * @see org.smooks.scribe.Batchable#startBatch()
+	 */
+	public void startBatch() {
+	}
+
+	/* (non-Javadoc)
+	 * @see org.smooks.scribe.Batchable#executeBatch()
+	 */
+	public void executeBatch() {
+		entityManager.flush();
+	}
+
 	/* (non-Javadoc)
 	 * @see org.smooks.scribe.DAO#merge(java.lang.Object)
 	 */
@@ -55,7 +55,11 @@ import java.util.Map;
 import javax.persistence.EntityManager;
 import javax.persistence.Query;
 
+import org.smooks.scribe.Dao;
+import org.smooks.scribe.Locator;
 import org.smooks.scribe.adapter.jpa.test.util.BaseTestCase;
+import org.smooks.scribe.register.BatchingDaoRegister;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -116,6 +120,21 @@ public class EntityManagerDaoAdapterTest extends BaseTestCase {
 
 	}
 
+	@Test( groups = "unit" )
+	public void test_executeBatch() {
+
+		// EXECUTE
+
+		adapter.startBatch();
+		adapter.executeBatch();
+
+		// VERIFY
+
+		verify(entityManager).flush();
+		verify(entityManager, never()).clear();
+
+	}
+
 	@Test( groups = "unit" )
 	public void test_lookupByQuery_map_parameters() {
 
@@ -237,6 +256,65 @@ public class EntityManagerDaoAdapterTest extends BaseTestCase {
 	}
 
 
+	@Test( groups = "unit" )
+	public void test_lookup_named_query_omitted_parameter() {
+
+		// STUB
+
+		Query query2 = mock(Query.class);
+
+		when(entityManager.createNamedQuery(anyString())).thenReturn(query, query2);
+
+		// EXECUTE
+
+		Map<String, Object> params = new HashMap<String, Object>();
+		params.put("key1", "value1");
+
+		adapter.lookup("name", params);
+		adapter.lookup("name", Collections.<String, Object>emptyMap());
+
+		// VERIFY
+
+		verify(entityManager, times(2)).createNamedQuery(eq("name"));
+
+		verify(query).setParameter(eq("key1"), eq("value1"));
+		verify(query2, never()).setParameter(anyString(), any());
+		verify(query2).getResultList();
+
+	}
+
+	@Test( groups = "unit" )
+	@SuppressWarnings("unchecked")
+	public void test_lookup_then_delete_across_batch() {
+
+		// STUB
+
+		Object entity = new Object();
+
+		stub(entityManager.createNamedQuery(anyString())).toReturn(query);
+		stub(query.getResultList()).toReturn(Collections.singletonList(entity));
+
+		// EXECUTE
+
+		BatchingDaoRegister<EntityManagerDaoAdapter> register = new BatchingDaoRegister<EntityManagerDaoAdapter>(new EntityManagerRegister(entityManager), 1);
+
+		Object dao = register.getDefaultDao();
+
+		Object found = ((Collection<?>) ((Locator) dao).lookup("name")).iterator().next();
+
+		((Dao<Object>) dao).insert(new Object());
+		((Dao<Object>) dao).delete(found);
+
+		// VERIFY
+
+		InOrder inOrder = inOrder(entityManager);
+		inOrder.verify(entityManager).persist(any());
+		inOrder.verify(entityManager).flush();
+		inOrder.verify(entityManager).remove(same(entity));
+		verify(entityManager, never()).clear();
+
+	}
+
 	/* (non-Javadoc)
 	 * @see org.smooks.scribe.test.util.BaseTestCase#beforeMethod()
 	 */
@@ -0,0 +1,76 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Scribe :: Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.scribe;
+
+/**
+ * The Batchable interface
+ * <p>
+ * Provides methods for grouping multiple insert, update and delete
+ * operations in to a single batch. Implementations should use the native
+ * batching support of the underlying persistence API where it exists.
+ * What 'batching' means depends on the implementation.
+ */
+public interface Batchable {
+
+	/**
+	 * Starts a batch. The operations executed on the DAO after this
+	 * call may be deferred until {@link #executeBatch()} is called.
+	 *
+	 * @throws DaoException if the batch could not be started
+	 */
+	void startBatch();
+
+	/**
+	 * Executes all the operations that where deferred since the last
+	 * {@link #startBatch()} call. Entities that where looked up before
+	 * the batch may still be used by later operations, so implementations
+	 * shouldn't detach them (e.g. by clearing the persistence context).
+	 * <p>
+	 * This method is also called to end the batch if one of its operations
+	 * failed, so that the DAO isn't left in batch mode.
+	 *
+	 * @throws DaoException if the batch could not be executed
+	 */
+	void executeBatch();
+
+}
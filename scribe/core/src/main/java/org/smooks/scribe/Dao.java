@@ -48,6 +48,11 @@ package org.smooks.scribe;
  * <p>
  * Provides the most basic DAO operations to
  * manipulate a data source.
+ * <p>
+ * A DAO may defer the operations, like the DAO's of the
+ * {@link org.smooks.scribe.register.BatchingDaoRegister} do. A deferring
+ * DAO always returns NULL, so callers must not depend on the
+ * returned entity (for instance a merged copy of the entity).
  *
  * @author <a href="mailto:maurice.zeijen@smies.com">maurice.zeijen@smies.com</a>
  */
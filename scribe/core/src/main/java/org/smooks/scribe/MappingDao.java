@@ -50,6 +50,11 @@ package org.smooks.scribe;
  * intefaces adds a extra id parameter to each method. This
  * id determines how the implementation should execute the
  * operation.
+ * <p>
+ * A DAO may defer the operations, like the DAO's of the
+ * {@link org.smooks.scribe.register.BatchingDaoRegister} do. A deferring
+ * DAO always returns NULL, so callers must not depend on the
+ * returned entity.
  *
  * @author <a href="mailto:maurice.zeijen@smies.com">maurice.zeijen@smies.com</a>
  *
@@ -0,0 +1,207 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Scribe :: Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.scribe.register;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.smooks.scribe.Batchable;
+import org.smooks.scribe.Dao;
+import org.smooks.scribe.MappingDao;
+
+/**
+ * The ordered buffer of the insert, update and delete operations of all
+ * the {@link BatchingDao}'s of one {@link BatchingDaoRegister}.
+ * <p>
+ * The operations are executed on the wrapped DAO's in the order they where
+ * buffered, once the buffer reaches the batch size or when it is explicitly executed.
+ * Consecutive operations on the same {@link Batchable} DAO are executed as one batch.
+ * <p>
+ * This class is not thread safe.
+ */
+class BatchBuffer {
+
+	enum OperationType {
+		INSERT, UPDATE, DELETE
+	}
+
+	private static final class Operation {
+
+		private final Object dao;
+
+		private final OperationType type;
+
+		private final boolean mapped;
+
+		private final String id;
+
+		private final Object entity;
+
+		private Operation(Object dao, OperationType type, boolean mapped, String id, Object entity) {
+			this.dao = dao;
+			this.type = type;
+			this.mapped = mapped;
+			this.id = id;
+			this.entity = entity;
+		}
+	}
+
+	private final int batchSize;
+
+	private final List<Operation> operations;
+
+	/**
+	 * @param batchSize the number of operations that are buffered before they are executed
+	 */
+	BatchBuffer(int batchSize) {
+		this.batchSize = batchSize;
+		this.operations = new ArrayList<Operation>(batchSize);
+	}
+
+	/**
+	 * Buffers an operation and executes the buffer if it reached the batch size.
+	 *
+	 * @param dao the DAO to execute the operation on
+	 * @param type the operation type
+	 * @param mapped <code>true</code> if the operation is executed as a {@link MappingDao} operation
+	 * @param id the mapping id, if the operation is mapped
+	 * @param entity the entity
+	 */
+	void add(Object dao, OperationType type, boolean mapped, String id, Object entity) {
+		operations.add(new Operation(dao, type, mapped, id, entity));
+
+		if(operations.size() >= batchSize) {
+			execute();
+		}
+	}
+
+	/**
+	 * Executes the buffered operations on their DAO's. The buffer
+	 * is cleared, even if one of the operations fails. If an operation
+	 * fails then the open batch is still ended, before the failure is thrown.
+	 */
+	@SuppressWarnings("unchecked")
+	void execute() {
+		if(operations.isEmpty()) {
+			return;
+		}
+
+		Object batchDao = null;
+		Batchable openBatch = null;
+		try {
+			for(Operation operation : operations) {
+				if(operation.dao != batchDao) {
+					if(openBatch != null) {
+						final Batchable batchable = openBatch;
+						openBatch = null;
+						batchable.executeBatch();
+					}
+					batchDao = operation.dao;
+					if(batchDao instanceof Batchable) {
+						((Batchable) batchDao).startBatch();
+						openBatch = (Batchable) batchDao;
+					}
+				}
+				if(operation.mapped) {
+					execute((MappingDao<Object>) operation.dao, operation);
+				} else {
+					execute((Dao<Object>) operation.dao, operation);
+				}
+			}
+			if(openBatch != null) {
+				final Batchable batchable = openBatch;
+				openBatch = null;
+				batchable.executeBatch();
+			}
+		} catch (RuntimeException e) {
+			if(openBatch != null) {
+				// Don't leave the DAO in batch mode. The operations before the failing
+				// one are executed, as they would have been without batching.
+				try {
+					openBatch.executeBatch();
+				} catch (RuntimeException batchException) {
+					e.addSuppressed(batchException);
+				}
+			}
+			throw e;
+		} finally {
+			operations.clear();
+		}
+	}
+
+	/**
+	 * @return the number of buffered operations
+	 */
+	int size() {
+		return operations.size();
+	}
+
+	private void execute(Dao<Object> dao, Operation operation) {
+		switch(operation.type) {
+			case INSERT:
+				dao.insert(operation.entity);
+				break;
+			case UPDATE:
+				dao.update(operation.entity);
+				break;
+			case DELETE:
+				dao.delete(operation.entity);
+				break;
+		}
+	}
+
+	private void execute(MappingDao<Object> dao, Operation operation) {
+		switch(operation.type) {
+			case INSERT:
+				dao.insert(operation.id, operation.entity);
+				break;
+			case UPDATE:
+				dao.update(operation.id, operation.entity);
+				break;
+			case DELETE:
+				dao.delete(operation.id, operation.entity);
+				break;
+		}
+	}
+
+}
@@ -0,0 +1,228 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Scribe :: Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.scribe.register;
+
+import java.util.Map;
+
+import org.smooks.scribe.Batchable;
+import org.smooks.scribe.Dao;
+import org.smooks.scribe.Flushable;
+import org.smooks.scribe.Locator;
+import org.smooks.scribe.MappingDao;
+import org.smooks.scribe.Queryable;
+import org.smooks.scribe.register.BatchBuffer.OperationType;
+
+/**
+ * A write-behind wrapper around a {@link Dao} or {@link MappingDao}.
+ * <p>
+ * Insert, update and delete operations are added to a {@link BatchBuffer}, which
+ * is shared by all the batching DAO's of a {@link BatchingDaoRegister}. The buffered
+ * operations are executed on the wrapped DAO's, in the order they where called, once
+ * the buffer reaches the batch size, when the DAO is flushed or before a lookup is
+ * done through any of the batching DAO's that share the buffer. If a wrapped DAO
+ * implements {@link Batchable} then its consecutive operations are executed as one batch.
+ * <p>
+ * Because the operations are deferred the insert, update and delete methods
+ * always return <code>null</code>, as allowed by the {@link Dao} and {@link MappingDao}
+ * contracts. The result of the wrapped DAO (e.g. a merged copy of the entity) is
+ * not available.
+ * <p>
+ * This class is not thread safe.
+ */
+class BatchingDao implements Dao<Object>, MappingDao<Object>, Locator, Queryable, Flushable {
+
+	private final Object dao;
+
+	private final BatchBuffer buffer;
+
+	/**
+	 * @param dao the DAO to wrap
+	 * @param buffer the buffer the operations are added to
+	 */
+	BatchingDao(Object dao, BatchBuffer buffer) {
+		this.dao = dao;
+		this.buffer = buffer;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.smooks.scribe.Dao#insert(java.lang.Object)
+	 */
+	public Object insert(Object entity) {
+		assertDao();
+		buffer.add(dao, OperationType.INSERT, false, null, entity);
+
+		return null;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.smooks.scribe.Dao#update(java.lang.Object)
+	 */
+	public Object update(Object entity) {
+		assertDao();
+		buffer.add(dao, OperationType.UPDATE, false, null, entity);
+
+		return null;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.smooks.scribe.Dao#delete(java.lang.Object)
+	 */
+	public Object delete(Object entity) {
+		assertDao();
+		buffer.add(dao, OperationType.DELETE, false, null, entity);
+
+		return null;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.smooks.scribe.MappingDao#insert(java.lang.String, java.lang.Object)
+	 */
+	public Object insert(String id, Object entity) {
+		assertMappingDao();
+		buffer.add(dao, OperationType.INSERT, true, id, entity);
+
+		return null;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.smooks.scribe.MappingDao#update(java.lang.String, java.lang.Object)
+	 */
+	public Object update(String id, Object entity) {
+		assertMappingDao();
+		buffer.add(dao, OperationType.UPDATE, true, id, entity);
+
+		return null;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.smooks.scribe.MappingDao#delete(java.lang.String, java.lang.Object)
+	 */
+	public Object delete(String id, Object entity) {
+		assertMappingDao();
+		buffer.add(dao, OperationType.DELETE, true, id, entity);
+
+		return null;
+	}
+
+	/**
+	 * Executes the buffered operations and flushes the wrapped DAO
+	 * if it implements the {@link Flushable} interface.
+	 */
+	public void flush() {
+		buffer.execute();
+
+		if(dao instanceof Flushable) {
+			((Flushable) dao).flush();
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.smooks.scribe.Locator#lookup(java.lang.String, java.lang.Object[])
+	 */
+	public Object lookup(String name, Object... parameters) {
+		buffer.execute();
+
+		return getLocator().lookup(name, parameters);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.smooks.scribe.Locator#lookup(java.lang.String, java.util.Map)
+	 */
+	public Object lookup(String name, Map<String, ?> parameters) {
+		buffer.execute();
+
+		return getLocator().lookup(name, parameters);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.smooks.scribe.Queryable#lookupByQuery(java.lang.String, java.lang.Object[])
+	 */
+	public Object lookupByQuery(String query, Object... parameters) {
+		buffer.execute();
+
+		return getQueryable().lookupByQuery(query, parameters);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.smooks.scribe.Queryable#lookupByQuery(java.lang.String, java.util.Map)
+	 */
+	public Object lookupByQuery(String query, Map<String, ?> parameters) {
+		buffer.execute();
+
+		return getQueryable().lookupByQuery(query, parameters);
+	}
+
+	/**
+	 * @return the wrapped DAO
+	 */
+	Object getDao() {
+		return dao;
+	}
+
+	private void assertDao() {
+		if(!(dao instanceof Dao)) {
+			throw new UnsupportedOperationException("The DAO '" + dao.getClass().getName() + "' doesn't implement the '" + Dao.class.getName() + "' interface and there for can't batch the entity.");
+		}
+	}
+
+	private void assertMappingDao() {
+		if(!(dao instanceof MappingDao)) {
+			throw new UnsupportedOperationException("The DAO '" + dao.getClass().getName() + "' doesn't implement the '" + MappingDao.class.getName() + "' interface and there for can't batch the entity.");
+		}
+	}
+
+	private Locator getLocator() {
+		if(!(dao instanceof Locator)) {
+			throw new UnsupportedOperationException("The DAO '" + dao.getClass().getName() + "' doesn't implement the '" + Locator.class.getName() + "' interface and there for can't lookup.");
+		}
+		return (Locator) dao;
+	}
+
+	private Queryable getQueryable() {
+		if(!(dao instanceof Queryable)) {
+			throw new UnsupportedOperationException("The DAO '" + dao.getClass().getName() + "' doesn't implement the '" + Queryable.class.getName() + "' interface and there for can't lookup by query.");
+		}
+		return (Queryable) dao;
+	}
+
+}
@@ -0,0 +1,238 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Scribe :: Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.scribe.register;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang.builder.ToStringBuilder;
+import org.smooks.assertion.AssertArgument;
+import org.smooks.scribe.Batchable;
+import org.smooks.scribe.Dao;
+import org.smooks.scribe.Flushable;
+import org.smooks.scribe.MappingDao;
+
+/**
+ * Decorates a {@link DaoRegister} with write-behind batching.
+ * <p>
+ * Every DAO that implements the {@link Dao} or {@link MappingDao} interface is
+ * wrapped so that its insert, update and delete operations are buffered and
+ * executed in batches of the configured size. All the DAO's of the register share
+ * one buffer, so the operations are executed in the order they where called, also
+ * across DAO's. If a DAO implements the {@link Batchable} interface then its
+ * consecutive operations are executed as one batch with the native batching support
+ * of the underlying persistence API. The buffer is executed before every lookup
+ * through any of the register's DAO's, so lookups always see the earlier operations.
+ * <p>
+ * A DAO retrieved from this register is kept, together with its buffer,
+ * until the register is flushed. Calling {@link #returnDao(Object)} for such a DAO
+ * does nothing. Calling {@link #flush()} executes the remaining buffered operations, flushes the
+ * DAO's and returns them to the decorated register. The register should therefore
+ * be flushed at the end of every execution or fragment. DAO's that don't implement the
+ * {@link Dao} or {@link MappingDao} interface are passed through unchanged.
+ * <p>
+ * Because the operations are deferred the insert, update and delete methods
+ * of the batching DAO's always return <code>null</code>, as allowed by the {@link Dao}
+ * and {@link MappingDao} contracts. Callers that need the result of the wrapped DAO,
+ * for instance the managed copy returned by a JPA merge, shouldn't use batching.
+ * <p>
+ * This class is not thread safe. A new instance should be created for every execution.
+ *
+ * @param <T> the DAO type of the decorated register
+ */
+public class BatchingDaoRegister<T> extends AbstractDaoRegister<Object> implements Flushable {
+
+	private final DaoRegister<T> daoRegister;
+
+	private final int batchSize;
+
+	private final BatchBuffer buffer;
+
+	private BatchingDao defaultDao;
+
+	private final Map<String, BatchingDao> daoMap = new HashMap<String, BatchingDao>();
+
+	/**
+	 * @param daoRegister the register to decorate
+	 * @param batchSize the number of operations that are buffered before they are executed
+	 */
+	public BatchingDaoRegister(DaoRegister<T> daoRegister, int batchSize) {
+		AssertArgument.isNotNull(daoRegister, "daoRegister");
+		if(batchSize < 1) {
+			throw new IllegalArgumentException("The batchSize '" + batchSize + "' must be greater then zero.");
+		}
+
+		this.daoRegister = daoRegister;
+		this.batchSize = batchSize;
+		this.buffer = new BatchBuffer(batchSize);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.smooks.scribe.register.AbstractDaoRegister#getDefaultDao()
+	 */
+	@Override
+	public Object getDefaultDao() {
+		if(defaultDao != null) {
+			return defaultDao;
+		}
+
+		final T dao = daoRegister.getDefaultDao();
+		if(!isBatchable(dao)) {
+			return dao;
+		}
+		defaultDao = new BatchingDao(dao, buffer);
+
+		return defaultDao;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.smooks.scribe.register.AbstractDaoRegister#getDao(java.lang.String)
+	 */
+	@Override
+	public Object getDao(String name) {
+		BatchingDao batchingDao = daoMap.get(name);
+		if(batchingDao != null) {
+			return batchingDao;
+		}
+
+		final T dao = daoRegister.getDao(name);
+		if(!isBatchable(dao)) {
+			return dao;
+		}
+		batchingDao = new BatchingDao(dao, buffer);
+		daoMap.put(name, batchingDao);
+
+		return batchingDao;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.smooks.scribe.register.AbstractDaoRegister#returnDao(java.lang.Object)
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public void returnDao(Object dao) {
+		if(dao instanceof BatchingDao && isOwned((BatchingDao) dao)) {
+			return;
+		}
+		daoRegister.returnDao((T) dao);
+	}
+
+	/**
+	 * Executes the buffered operations, flushes all the DAO's retrieved from this register
+	 * and returns them to the decorated register. If the buffer or one of the DAO's fails
+	 * then the DAO's are still flushed and returned, after which the first failure is thrown.
+	 */
+	@SuppressWarnings("unchecked")
+	public void flush() {
+		final List<BatchingDao> batchingDaos = new ArrayList<BatchingDao>(daoMap.values());
+		if(defaultDao != null) {
+			batchingDaos.add(defaultDao);
+		}
+		defaultDao = null;
+		daoMap.clear();
+
+		RuntimeException failure = null;
+		try {
+			buffer.execute();
+		} catch (RuntimeException e) {
+			failure = e;
+		}
+		for(BatchingDao batchingDao : batchingDaos) {
+			try {
+				batchingDao.flush();
+			} catch (RuntimeException e) {
+				if(failure == null) {
+					failure = e;
+				}
+			} finally {
+				daoRegister.returnDao((T) batchingDao.getDao());
+			}
+		}
+		if(failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * @return the decorated register
+	 */
+	public DaoRegister<T> getDaoRegister() {
+		return daoRegister;
+	}
+
+	/**
+	 * @return the number of operations that are buffered before they are executed
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * @return the number of buffered operations
+	 */
+	int getBufferSize() {
+		return buffer.size();
+	}
+
+	private boolean isBatchable(T dao) {
+		return dao instanceof Dao || dao instanceof MappingDao;
+	}
+
+	private boolean isOwned(BatchingDao batchingDao) {
+		return batchingDao == defaultDao || daoMap.containsValue(batchingDao);
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+				.append("daoRegister", daoRegister)
+				.append("batchSize", batchSize)
+				.toString();
+	}
+
+}
@@ -0,0 +1,312 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Scribe :: Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ * 
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ * 
+ * ======================================================================
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * ======================================================================
+ * 
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.scribe.register;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.smooks.scribe.Batchable;
+import org.smooks.scribe.Dao;
+import org.smooks.scribe.MappingDao;
+import org.smooks.scribe.test.dao.FullInterfaceDao;
+import org.smooks.scribe.test.util.BaseTestCase;
+import org.testng.annotations.Test;
+
+@Test(groups = "unit")
+public class BatchingDaoRegisterTest extends BaseTestCase {
+
+	@Mock
+	private FullInterfaceDao<Object> fullDao;
+
+	@Mock
+	private BatchableDao batchableDao;
+
+	@Mock
+	private DaoRegister<Object> daoRegister;
+
+	public void test_operations_buffered_until_batch_size() {
+		BatchingDaoRegister<Object> register = new BatchingDaoRegister<Object>(new SingleDaoRegister<Object>(fullDao), 3);
+
+		@SuppressWarnings("unchecked")
+		Dao<Object> dao = (Dao<Object>) register.getDefaultDao();
+
+		Object entity1 = new Object();
+		Object entity2 = new Object();
+		Object entity3 = new Object();
+
+		assertNull(dao.insert(entity1));
+		assertNull(dao.update(entity2));
+
+		verifyZeroInteractions(fullDao);
+
+		dao.delete(entity3);
+
+		InOrder inOrder = inOrder(fullDao);
+		inOrder.verify(fullDao).insert(entity1);
+		inOrder.verify(fullDao).update(entity2);
+		inOrder.verify(fullDao).delete(entity3);
+	}
+
+	public void test_mapping_operations_buffered() {
+		BatchingDaoRegister<Object> register = new BatchingDaoRegister<Object>(new SingleDaoRegister<Object>(fullDao), 10);
+
+		@SuppressWarnings("unchecked")
+		MappingDao<Object> dao = (MappingDao<Object>) register.getDefaultDao();
+
+		Object entity1 = new Object();
+		Object entity2 = new Object();
+
+		dao.insert("insertOrder", entity1);
+		dao.delete("deleteOrder", entity2);
+
+		verifyZeroInteractions(fullDao);
+
+		register.flush();
+
+		InOrder inOrder = inOrder(fullDao);
+		inOrder.verify(fullDao).insert("insertOrder", entity1);
+		inOrder.verify(fullDao).delete("deleteOrder", entity2);
+		inOrder.verify(fullDao).flush();
+	}
+
+	public void test_lookup_executes_buffer() {
+		BatchingDaoRegister<Object> register = new BatchingDaoRegister<Object>(new SingleDaoRegister<Object>(fullDao), 10);
+
+		BatchingDao dao = (BatchingDao) register.getDefaultDao();
+
+		Object entity = new Object();
+
+		dao.insert(entity);
+		dao.lookup("name", "value");
+
+		InOrder inOrder = inOrder(fullDao);
+		inOrder.verify(fullDao).insert(entity);
+		inOrder.verify(fullDao).lookup("name", "value");
+		assertEquals(0, register.getBufferSize());
+	}
+
+	public void test_lookup_executes_buffer_of_all_daos() {
+		when(daoRegister.getDefaultDao()).thenReturn(batchableDao);
+		when(daoRegister.getDao("orders")).thenReturn(fullDao);
+
+		BatchingDaoRegister<Object> register = new BatchingDaoRegister<Object>(daoRegister, 10);
+
+		BatchingDao defaultDao = (BatchingDao) register.getDefaultDao();
+		BatchingDao ordersDao = (BatchingDao) register.getDao("orders");
+
+		Object entity1 = new Object();
+		Object entity2 = new Object();
+		Object entity3 = new Object();
+
+		defaultDao.insert(entity1);
+		ordersDao.insert(entity2);
+		defaultDao.update(entity3);
+		ordersDao.lookup("name", "value");
+
+		InOrder inOrder = inOrder(batchableDao, fullDao);
+		inOrder.verify(batchableDao).startBatch();
+		inOrder.verify(batchableDao).insert(entity1);
+		inOrder.verify(batchableDao).executeBatch();
+		inOrder.verify(fullDao).insert(entity2);
+		inOrder.verify(batchableDao).startBatch();
+		inOrder.verify(batchableDao).update(entity3);
+		inOrder.verify(batchableDao).executeBatch();
+		inOrder.verify(fullDao).lookup("name", "value");
+		assertEquals(0, register.getBufferSize());
+	}
+
+	public void test_native_batch() {
+		BatchingDaoRegister<Object> register = new BatchingDaoRegister<Object>(new SingleDaoRegister<Object>(batchableDao), 2);
+
+		@SuppressWarnings("unchecked")
+		Dao<Object> dao = (Dao<Object>) register.getDefaultDao();
+
+		Object entity1 = new Object();
+		Object entity2 = new Object();
+		Object entity3 = new Object();
+
+		dao.insert(entity1);
+		dao.insert(entity2);
+		dao.insert(entity3);
+
+		InOrder inOrder = inOrder(batchableDao);
+		inOrder.verify(batchableDao).startBatch();
+		inOrder.verify(batchableDao).insert(entity1);
+		inOrder.verify(batchableDao).insert(entity2);
+		inOrder.verify(batchableDao).executeBatch();
+		verify(batchableDao, never()).insert(entity3);
+
+		register.flush();
+
+		inOrder.verify(batchableDao).startBatch();
+		inOrder.verify(batchableDao).insert(entity3);
+		inOrder.verify(batchableDao).executeBatch();
+	}
+
+	public void test_failed_operation_ends_batch() {
+		BatchingDaoRegister<Object> register = new BatchingDaoRegister<Object>(new SingleDaoRegister<Object>(batchableDao), 10);
+
+		@SuppressWarnings("unchecked")
+		Dao<Object> dao = (Dao<Object>) register.getDefaultDao();
+
+		Object entity1 = new Object();
+		Object entity2 = new Object();
+		Object entity3 = new Object();
+		RuntimeException exception = new RuntimeException();
+
+		doThrow(exception).when(batchableDao).update(entity2);
+
+		dao.insert(entity1);
+		dao.update(entity2);
+		dao.delete(entity3);
+
+		try {
+			register.flush();
+			fail("The operation failure should be thrown");
+		} catch (RuntimeException e) {
+			assertSame(exception, e);
+		}
+
+		InOrder inOrder = inOrder(batchableDao);
+		inOrder.verify(batchableDao).startBatch();
+		inOrder.verify(batchableDao).insert(entity1);
+		inOrder.verify(batchableDao).update(entity2);
+		inOrder.verify(batchableDao).executeBatch();
+		verify(batchableDao, never()).delete(entity3);
+		assertEquals(0, register.getBufferSize());
+	}
+
+	public void test_dao_kept_until_flush() {
+		when(daoRegister.getDao("orders")).thenReturn(fullDao);
+
+		BatchingDaoRegister<Object> register = new BatchingDaoRegister<Object>(daoRegister, 10);
+
+		Object dao = register.getDao("orders");
+		register.returnDao(dao);
+
+		assertSame(dao, register.getDao("orders"));
+		verify(daoRegister, times(1)).getDao("orders");
+		verify(daoRegister, never()).returnDao(any());
+
+		register.flush();
+
+		verify(daoRegister).returnDao(fullDao);
+		assertNotSame(dao, register.getDao("orders"));
+	}
+
+	public void test_flush_returns_all_daos_on_failure() {
+		Map<String, Object> map = new HashMap<String, Object>();
+		map.put("1", fullDao);
+		map.put("2", batchableDao);
+
+		BatchingDaoRegister<Object> register = new BatchingDaoRegister<Object>(new DaoRegisterMock(map), 10);
+
+		RuntimeException exception = new RuntimeException();
+		Object entity = new Object();
+
+		doThrow(exception).when(fullDao).flush();
+
+		register.getDao("1");
+		((BatchingDao) register.getDao("2")).insert(entity);
+
+		try {
+			register.flush();
+			fail("The flush failure should be thrown");
+		} catch (RuntimeException e) {
+			assertSame(exception, e);
+		}
+
+		verify(batchableDao).insert(entity);
+		verify(batchableDao).flush();
+		assertEquals(2, ((DaoRegisterMock) register.getDaoRegister()).returned);
+	}
+
+	public void test_non_interface_dao_passed_through() {
+		Object annotatedDao = new Object();
+
+		when(daoRegister.getDefaultDao()).thenReturn(annotatedDao);
+
+		BatchingDaoRegister<Object> register = new BatchingDaoRegister<Object>(daoRegister, 10);
+
+		assertSame(annotatedDao, register.getDefaultDao());
+
+		register.returnDao(annotatedDao);
+
+		verify(daoRegister).returnDao(annotatedDao);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void test_illegal_batch_size() {
+		new BatchingDaoRegister<Object>(daoRegister, 0);
+	}
+
+	public interface BatchableDao extends FullInterfaceDao<Object>, Batchable {
+	}
+
+	private static class DaoRegisterMock extends AbstractDaoRegister<Object> {
+
+		private final Map<String, Object> daoMap;
+
+		private int returned;
+
+		private DaoRegisterMock(Map<String, Object> daoMap) {
+			this.daoMap = daoMap;
+		}
+
+		@Override
+		public Object getDao(String name) {
+			return daoMap.get(name);
+		}
+
+		@Override
+		public void returnDao(Object dao) {
+			returned++;
+		}
+	}
+
+}